@@ -0,0 +1,45 @@
+package com.ginga.naviai.ask.controller;
+
+import com.ginga.naviai.ask.service.AskService;
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/ask")
+@RequiredArgsConstructor
+public class AskController {
+
+    /** 質問の最大文字数 */
+    static final int MAX_QUESTION_LENGTH = 500;
+
+    private final AskService askService;
+
+    /**
+     * 記事の内容をもとに質問へ回答する。回答は SSE（sources → token → done）でストリーミングする。
+     */
+    @GetMapping
+    public ResponseEntity<SseEmitter> ask(
+            @RequestParam("q") String q,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (q.isBlank()) {
+            throw new InvalidRequestException("q must not be blank");
+        }
+        if (q.length() > MAX_QUESTION_LENGTH) {
+            throw new InvalidRequestException("q must be at most " + MAX_QUESTION_LENGTH + " characters");
+        }
+        return ResponseEntity.ok(askService.ask(q.strip()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.ginga.naviai.ask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 回答の根拠とした記事（回答中の引用番号 [n] は一覧の n 番目に対応する）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AskSource {
+    private String id;
+    private String title;
+    private double score;
+}
@@ -0,0 +1,22 @@
+package com.ginga.naviai.ask.llm;
+
+import java.util.function.Consumer;
+
+/**
+ * 回答を生成する言語モデルのクライアント。
+ * <p>
+ * 実装は Bean として登録し、{@code ask.llm.provider} で使用するものを 1 つ選ぶ。
+ * 既定はテスト・オフライン環境向けの {@link StubLlmClient}（抜粋をつなげた決定的な回答を返す）で、
+ * OpenAI 互換の Chat Completions API を使う場合は {@link OpenAiCompatibleLlmClient} を使用する。
+ * </p>
+ */
+public interface LlmClient {
+
+    /**
+     * 回答を生成し、生成された文字列を順に onToken へ渡す（生成が終わるまでブロックする）。
+     * onToken が例外を投げた場合（クライアントの切断など）は生成を中断し、その例外をそのまま投げる。
+     *
+     * @throws LlmException 生成に失敗した場合
+     */
+    void stream(LlmRequest request, Consumer<String> onToken);
+}
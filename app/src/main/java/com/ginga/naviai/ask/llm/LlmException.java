@@ -0,0 +1,15 @@
+package com.ginga.naviai.ask.llm;
+
+/**
+ * 言語モデルによる回答の生成に失敗した場合の例外
+ */
+public class LlmException extends RuntimeException {
+
+    public LlmException(String message) {
+        super(message);
+    }
+
+    public LlmException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
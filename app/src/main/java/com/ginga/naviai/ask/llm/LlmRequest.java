@@ -0,0 +1,44 @@
+package com.ginga.naviai.ask.llm;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * 回答の生成依頼（質問と、根拠として渡す記事の抜粋）
+ */
+@Value
+public class LlmRequest {
+
+    /** 言語モデルに与える指示 */
+    public static final String SYSTEM_PROMPT =
+            "あなたは社内ナレッジ共有サービス NaviAI のアシスタントです。"
+            + "与えられた記事の抜粋だけを根拠に、日本語で簡潔に回答してください。"
+            + "根拠とした抜粋の番号を [1] のように文末に示し、抜粋から答えられない場合はその旨を伝えてください。";
+
+    String question;
+    List<Passage> passages;
+
+    /**
+     * 記事の抜粋（number は回答中で引用に使う 1 始まりの番号）
+     */
+    @Value
+    public static class Passage {
+        int number;
+        String title;
+        String text;
+    }
+
+    /**
+     * 抜粋と質問を 1 つのユーザーメッセージにまとめる。
+     */
+    public String userPrompt() {
+        StringBuilder sb = new StringBuilder("# 記事の抜粋\n");
+        for (Passage p : passages) {
+            sb.append('[').append(p.getNumber()).append("] ").append(p.getTitle()).append('\n')
+                    .append(p.getText()).append("\n\n");
+        }
+        sb.append("# 質問\n").append(question);
+        return sb.toString();
+    }
+}
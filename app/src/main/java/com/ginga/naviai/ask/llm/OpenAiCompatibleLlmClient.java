@@ -0,0 +1,146 @@
+package com.ginga.naviai.ask.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * OpenAI 互換の Chat Completions API（{@code POST {base-url}/chat/completions}, stream=true）を使うクライアント。
+ * <p>
+ * 応答は Server-Sent Events の {@code data:} 行として 1 行ずつ読み、{@code choices[0].delta.content} を順に渡す。
+ * {@code data: [DONE]} または応答の終わりで完了とする。
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "ask.llm.provider", havingValue = "openai-compatible")
+public class OpenAiCompatibleLlmClient implements LlmClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAiCompatibleLlmClient.class);
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE = "[DONE]";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI endpoint;
+    private final String apiKey;
+    private final String model;
+    private final Duration timeout;
+
+    public OpenAiCompatibleLlmClient(ObjectMapper objectMapper,
+                                     @Value("${ask.llm.base-url}") String baseUrl,
+                                     @Value("${ask.llm.api-key:}") String apiKey,
+                                     @Value("${ask.llm.model}") String model,
+                                     @Value("${ask.llm.timeout-seconds:60}") long timeoutSeconds) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(baseUrl.replaceAll("/+$", "") + "/chat/completions");
+        this.apiKey = apiKey;
+        this.model = model;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(Math.min(timeoutSeconds, 10)))
+                .build();
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody(request)));
+        if (!apiKey.isBlank()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+
+        HttpResponse<Stream<String>> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofLines());
+        } catch (IOException e) {
+            throw new LlmException("Failed to connect to the LLM API", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmException("LLM API call was interrupted", e);
+        }
+
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() / 100 != 2) {
+                throw new LlmException("LLM API returned an error: status=" + response.statusCode());
+            }
+            Iterator<String> it = lines.iterator();
+            String line;
+            while ((line = nextLine(it)) != null) {
+                if (!line.startsWith(DATA_PREFIX)) {
+                    continue;
+                }
+                String data = line.substring(DATA_PREFIX.length()).trim();
+                if (DONE.equals(data)) {
+                    return;
+                }
+                String content = parseContent(objectMapper, data);
+                if (content != null && !content.isEmpty()) {
+                    // onToken の例外（クライアントの切断など）は包まずにそのまま投げる
+                    onToken.accept(content);
+                }
+            }
+        }
+    }
+
+    /**
+     * 応答の次の行を読む。応答の終わりでは null。読み込みの失敗のみ LlmException とする。
+     */
+    private static String nextLine(Iterator<String> it) {
+        try {
+            return it.hasNext() ? it.next() : null;
+        } catch (UncheckedIOException e) {
+            throw new LlmException("Failed to read the LLM API response", e);
+        }
+    }
+
+    private String requestBody(LlmRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        body.put("stream", true);
+        body.put("messages", List.of(
+                Map.of("role", "system", "content", LlmRequest.SYSTEM_PROMPT),
+                Map.of("role", "user", "content", request.userPrompt())));
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new LlmException("Failed to build the LLM API request", e);
+        }
+    }
+
+    /**
+     * ストリーミング応答の 1 チャンク（data: 行の JSON）から本文の差分を取り出す。本文を含まない場合は null。
+     */
+    static String parseContent(ObjectMapper objectMapper, String data) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(data);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed LLM stream chunk: {}", data);
+            return null;
+        }
+        JsonNode content = root.path("choices").path(0).path("delta").path("content");
+        return content.isTextual() ? content.asText() : null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ginga.naviai.ask.llm;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * 言語モデルを使わないローカルのスタブ（既定。テスト・オフライン環境向け）。
+ * <p>
+ * 上位の抜粋から先頭の文を引用番号付きでつなげた回答を、一定の文字数ずつ区切ってストリーミングする。
+ * 同じ依頼には常に同じ回答を返す。
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "ask.llm.provider", havingValue = "stub", matchIfMissing = true)
+public class StubLlmClient implements LlmClient {
+
+    static final String NO_CONTEXT_ANSWER = "関連する記事が見つからなかったため、回答できません。";
+
+    /** 回答に使う抜粋の数 */
+    private static final int MAX_PASSAGES = 3;
+    /** 抜粋から引用する最大文字数 */
+    private static final int MAX_QUOTE_LENGTH = 120;
+    /** 1 回に渡す文字数 */
+    private static final int TOKEN_LENGTH = 8;
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onToken) {
+        String answer = compose(request);
+        for (int i = 0; i < answer.length(); i += TOKEN_LENGTH) {
+            onToken.accept(answer.substring(i, Math.min(answer.length(), i + TOKEN_LENGTH)));
+        }
+    }
+
+    private static String compose(LlmRequest request) {
+        if (request.getPassages().isEmpty()) {
+            return NO_CONTEXT_ANSWER;
+        }
+        StringBuilder sb = new StringBuilder("記事の抜粋によると、");
+        int used = 0;
+        for (LlmRequest.Passage p : request.getPassages()) {
+            if (used++ == MAX_PASSAGES) {
+                break;
+            }
+            sb.append(firstSentence(p.getText())).append(" [").append(p.getNumber()).append("]");
+        }
+        return sb.toString();
+    }
+
+    private static String firstSentence(String text) {
+        String trimmed = text == null ? "" : text.strip();
+        int end = Math.min(trimmed.length(), MAX_QUOTE_LENGTH);
+        for (int i = 0; i < end; i++) {
+            char c = trimmed.charAt(i);
+            if (c == '。' || c == '\n' || c == '！' || c == '？') {
+                end = i + (c == '\n' ? 0 : 1);
+                break;
+            }
+        }
+        return trimmed.substring(0, end);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ginga.naviai.ask.service;
+
+import com.ginga.naviai.ask.dto.AskSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 生成済みの回答のキャッシュ（LRU）。
+ * <p>
+ * キーは「正規化した質問」と「検索インデックスのバージョン」の組。記事が更新されてインデックスの
+ * バージョンが進むと、以前の回答は参照されなくなり、LRU で追い出される。
+ * </p>
+ */
+@Component
+public class AnswerCache {
+
+    private final Map<String, CachedAnswer> entries;
+
+    public AnswerCache(@Value("${ask.cache.max-entries:1000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnswer> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 回答と根拠の記事
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class CachedAnswer {
+        private final List<AskSource> sources;
+        private final String answer;
+    }
+
+    public synchronized CachedAnswer get(String question, long indexVersion) {
+        return entries.get(key(question, indexVersion));
+    }
+
+    public synchronized void put(String question, long indexVersion, CachedAnswer answer) {
+        entries.put(key(question, indexVersion), answer);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 表記ゆれだけが異なる質問を同じキーにまとめる
+     * （NFKC 正規化・小文字化・空白の圧縮・末尾の疑問符や句点の除去）。
+     */
+    static String normalize(String question) {
+        String s = Normalizer.normalize(question, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .strip();
+        return s.replaceAll("[?？!！。.]+$", "").strip();
+    }
+
+    private static String key(String question, long indexVersion) {
+        return indexVersion + ":" + normalize(question);
+    }
+}
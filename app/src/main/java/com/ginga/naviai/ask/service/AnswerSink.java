@@ -0,0 +1,27 @@
+package com.ginga.naviai.ask.service;
+
+import com.ginga.naviai.ask.dto.AskSource;
+
+import java.util.List;
+
+/**
+ * 回答の出力先（SSE など）。sources → token（0 回以上）→ done の順に呼ばれる。
+ */
+public interface AnswerSink {
+
+    void sources(List<AskSource> sources);
+
+    void token(String text);
+
+    /**
+     * @param cached キャッシュ済みの回答を返した場合は true
+     */
+    void done(boolean cached);
+
+    /**
+     * クライアントが切断した・タイムアウトした場合 true。生成側はこれを確認して打ち切る。
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ginga.naviai.ask.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface AskService {
+
+    /**
+     * 質問への回答を SSE でストリーミングする（生成は別スレッドで行い、すぐに返る）。
+     */
+    SseEmitter ask(String question);
+
+    /**
+     * 記事の抜粋を検索して回答を生成し、sink へ順に書き出す（呼び出し元のスレッドで完了まで実行する）。
+     */
+    void answer(String question, AnswerSink sink);
+}
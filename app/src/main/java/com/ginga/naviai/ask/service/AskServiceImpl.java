@@ -0,0 +1,212 @@
+package com.ginga.naviai.ask.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginga.naviai.ask.dto.AskSource;
+import com.ginga.naviai.ask.llm.LlmClient;
+import com.ginga.naviai.ask.llm.LlmException;
+import com.ginga.naviai.ask.llm.LlmRequest;
+import com.ginga.naviai.knowledge.search.RetrievedChunk;
+import com.ginga.naviai.knowledge.service.KnowledgeVectorSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 記事の本文を根拠に質問へ回答するサービス。
+ * <p>
+ * 質問に近いチャンクをハイブリッド検索（BM25 + ベクトル）で取り出し、抜粋として言語モデルに渡して回答を生成する。
+ * 生成中の回答は SSE で逐次送る。回答は「正規化した質問 + 索引の版数」をキーにキャッシュし、
+ * 記事が更新されて索引の版数が進むまでは同じ質問に LLM を呼ばずに返す。
+ * </p>
+ * <p>
+ * SSE のイベントは sources（根拠の記事一覧）→ token（回答の断片、0 回以上）→ done の順に送る。
+ * 生成に失敗した場合は error を送って終了する。クライアントの切断・タイムアウト時は生成を打ち切り、回答をキャッシュしない。
+ * </p>
+ */
+@Service
+public class AskServiceImpl implements AskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AskServiceImpl.class);
+
+    private final KnowledgeVectorSearchService vectorSearchService;
+    private final LlmClient llmClient;
+    private final AnswerCache answerCache;
+    private final TaskExecutor executor;
+    private final ObjectMapper objectMapper;
+
+    /** 言語モデルに渡す抜粋（チャンク）の数 */
+    @Value("${ask.context-chunks:6}")
+    private int contextChunks = 6;
+
+    @Value("${ask.sse.timeout-millis:120000}")
+    private long timeoutMillis = 120_000;
+
+    public AskServiceImpl(KnowledgeVectorSearchService vectorSearchService,
+                          LlmClient llmClient,
+                          AnswerCache answerCache,
+                          @Qualifier("askExecutor") TaskExecutor executor,
+                          ObjectMapper objectMapper) {
+        this.vectorSearchService = vectorSearchService;
+        this.llmClient = llmClient;
+        this.answerCache = answerCache;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public SseEmitter ask(String question) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        SseAnswerSink sink = new SseAnswerSink(emitter);
+        emitter.onTimeout(() -> {
+            sink.cancel();
+            emitter.complete();
+        });
+        emitter.onError(ex -> sink.cancel());
+        emitter.onCompletion(sink::cancel);
+        try {
+            executor.execute(() -> {
+                try {
+                    answer(question, sink);
+                    emitter.complete();
+                } catch (CancellationException ex) {
+                    logger.debug("Ask stream closed by client: {}", ex.getMessage());
+                } catch (RuntimeException ex) {
+                    logger.warn("Failed to answer question: {}", ex.getMessage());
+                    sink.error("回答の生成に失敗しました");
+                    emitter.complete();
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            logger.warn("Ask executor saturated, rejecting question");
+            sink.error("現在混み合っています。しばらくしてから再度お試しください");
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @Override
+    public void answer(String question, AnswerSink sink) {
+        checkCancelled(sink);
+        // 検索前の版数をキーにする（検索中に索引が更新された場合は、古い版数のキーに入るだけで済む）
+        long version = vectorSearchService.indexVersion();
+        AnswerCache.CachedAnswer cached = answerCache.get(question, version);
+        if (cached != null) {
+            sink.sources(cached.getSources());
+            sink.token(cached.getAnswer());
+            sink.done(true);
+            return;
+        }
+
+        List<RetrievedChunk> chunks = vectorSearchService.retrieve(question, contextChunks);
+        checkCancelled(sink);
+        Map<Long, AskSource> sources = new LinkedHashMap<>();
+        Map<Long, Integer> numbers = new LinkedHashMap<>();
+        List<LlmRequest.Passage> passages = new ArrayList<>(chunks.size());
+        for (RetrievedChunk chunk : chunks) {
+            if (!sources.containsKey(chunk.getKnowledgeId())) {
+                sources.put(chunk.getKnowledgeId(), AskSource.builder()
+                        .id(String.valueOf(chunk.getKnowledgeId()))
+                        .title(chunk.getTitle())
+                        .score(chunk.getScore())
+                        .build());
+                numbers.put(chunk.getKnowledgeId(), numbers.size() + 1);
+            }
+            passages.add(new LlmRequest.Passage(numbers.get(chunk.getKnowledgeId()), chunk.getTitle(), chunk.getText()));
+        }
+        List<AskSource> sourceList = List.copyOf(sources.values());
+        sink.sources(sourceList);
+
+        StringBuilder answer = new StringBuilder();
+        llmClient.stream(new LlmRequest(question, passages), token -> {
+            checkCancelled(sink);
+            answer.append(token);
+            sink.token(token);
+        });
+        sink.done(false);
+        answerCache.put(question, version, new AnswerCache.CachedAnswer(sourceList, answer.toString()));
+    }
+
+    private static void checkCancelled(AnswerSink sink) {
+        if (sink.isCancelled()) {
+            throw new CancellationException("Answer stream cancelled");
+        }
+    }
+
+    /**
+     * SSE へ書き出す AnswerSink。接続の終了（切断・タイムアウト）後や送信に失敗した場合は
+     * CancellationException を投げ、生成を中断させる。
+     */
+    private final class SseAnswerSink implements AnswerSink {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        SseAnswerSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void cancel() {
+            cancelled.set(true);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public void sources(List<AskSource> sources) {
+            send("sources", sources);
+        }
+
+        @Override
+        public void token(String text) {
+            send("token", Map.of("text", text));
+        }
+
+        @Override
+        public void done(boolean cached) {
+            send("done", Map.of("cached", cached));
+        }
+
+        void error(String message) {
+            try {
+                send("error", Map.of("message", message));
+            } catch (CancellationException ex) {
+                logger.debug("Failed to send ask error event: {}", ex.getMessage());
+            }
+        }
+
+        private void send(String name, Object data) {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(data);
+            } catch (JsonProcessingException ex) {
+                throw new LlmException("Failed to serialize ask event", ex);
+            }
+            checkCancelled(this);
+            try {
+                emitter.send(SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                // クライアントの切断、または完了済み（タイムアウトなど）の接続への送信
+                cancel();
+                throw new CancellationException(ex.getMessage());
+            }
+        }
+    }
+}
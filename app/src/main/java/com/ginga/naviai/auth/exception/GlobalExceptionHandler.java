@@ -13,6 +13,8 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.ServletRequestBindingException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.exception.ReviewClaimConflictException;
 import com.ginga.naviai.user.exception.UserNotFoundException;
 
 import java.time.Instant;
@@ -51,6 +53,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ReviewClaimConflictException.class)
+    public ResponseEntity<Object> handleReviewClaimConflict(ReviewClaimConflictException ex) {
+        Map<String,Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<Object> handleInvalidCredentials(InvalidCredentialsException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -96,6 +107,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(KnowledgeNotFoundException.class)
+    public ResponseEntity<Object> handleKnowledgeNotFound(KnowledgeNotFoundException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.NOT_FOUND.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler({ServletRequestBindingException.class, MissingServletRequestParameterException.class})
     public ResponseEntity<Object> handleRequestBinding(ServletRequestBindingException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -105,7 +125,7 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler({MethodArgumentTypeMismatchException.class, DateTimeParseException.class})
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, DateTimeParseException.class, InvalidRequestException.class})
     public ResponseEntity<Object> handleTypeMismatch(Exception ex) {
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", Instant.now().toString());
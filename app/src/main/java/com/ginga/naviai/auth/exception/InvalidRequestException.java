@@ -0,0 +1,18 @@
+package com.ginga.naviai.auth.exception;
+
+/**
+ * クライアントが指定した値（クエリパラメータ・カーソルなど）が不正な場合の例外。400 として応答する。
+ * <p>
+ * 実装上の誤りによる IllegalArgumentException と区別するため、利用者の入力に起因するものだけをこの例外で投げる。
+ * </p>
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ginga.naviai.coalescing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * single-flight 集約の呼び出し統計。
+ * <p>
+ * executed は実際に処理を実行した回数、coalesced は先行呼び出しの結果を共有して実行を省略した回数。
+ * </p>
+ */
+@Component
+public class CoalescingStats {
+
+    private final Map<String, LongAdder> executed = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> coalesced = new ConcurrentHashMap<>();
+
+    public void recordExecuted(String name) {
+        executed.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    public void recordCoalesced(String name) {
+        coalesced.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    public long executedCount(String name) {
+        LongAdder adder = executed.get(name);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long coalescedCount(String name) {
+        LongAdder adder = coalesced.get(name);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 名前ごとの executed / coalesced 件数のスナップショットを返す。
+     */
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        executed.keySet().forEach(name -> result.put(name, counts(name)));
+        coalesced.keySet().forEach(name -> result.putIfAbsent(name, counts(name)));
+        return result;
+    }
+
+    private Map<String, Long> counts(String name) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        m.put("executed", executedCount(name));
+        m.put("coalesced", coalescedCount(name));
+        return m;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ginga.naviai.coalescing;
+
+import com.ginga.naviai.coalescing.annotation.Coalesced;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Coalesced} が付与されたメソッドの同時呼び出しを集約するアスペクト。
+ * <p>
+ * 最初の呼び出し（リーダー）のみが実処理を行い、同じキーで待機中の呼び出しへ結果を配る。
+ * トランザクション境界より外側で集約するため、最優先の順序で適用する。
+ * 先行呼び出しが待機時間の上限を超えても完了しない場合、待機していた呼び出しは待つのをやめて自分で実行する
+ * （先行呼び出しが長引いても、後続の呼び出しが際限なく巻き込まれないようにする）。
+ * </p>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightAspect.class);
+
+    private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final CoalescingStats stats;
+
+    /** 先行呼び出しの完了を待つ時間の上限 */
+    @Value("${coalescing.wait-timeout-millis:10000}")
+    private long waitTimeoutMillis = 10_000;
+
+    public SingleFlightAspect(CoalescingStats stats) {
+        this.stats = stats;
+    }
+
+    @Around("@annotation(com.ginga.naviai.coalescing.annotation.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        // インタフェース経由のプロキシでも実装クラス側のアノテーションを参照する
+        Method specific = AopUtils.getMostSpecificMethod(method, pjp.getTarget().getClass());
+        Coalesced coalesced = AnnotationUtils.findAnnotation(specific, Coalesced.class);
+        if (coalesced == null) {
+            return pjp.proceed();
+        }
+        String name = coalesced.value().isEmpty()
+                ? specific.getDeclaringClass().getSimpleName() + "." + specific.getName()
+                : coalesced.value();
+        CallKey key = new CallKey(specific, Arrays.asList(pjp.getArgs()));
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            stats.recordCoalesced(name);
+            try {
+                return existing.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                throw ex.getCause();
+            } catch (TimeoutException ex) {
+                logger.warn("Coalesced call {} did not complete within {} ms; executing directly", name, waitTimeoutMillis);
+                stats.recordExecuted(name);
+                return pjp.proceed();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw ex;
+            }
+        }
+
+        stats.recordExecuted(name);
+        try {
+            Object result = pjp.proceed();
+            mine.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** 集約キー: 対象メソッドと引数リスト（引数の equals/hashCode で比較） */
+    private static final class CallKey {
+        private final Method method;
+        private final List<Object> args;
+
+        private CallKey(Method method, List<Object> args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CallKey)) return false;
+            CallKey other = (CallKey) o;
+            return method.equals(other.method) && args.equals(other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + args.hashCode();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ginga.naviai.coalescing.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 同一引数での同時呼び出しを1回の実行にまとめる（single-flight）ことを示す。
+ * <p>
+ * 実行中の呼び出しと同じキー（メソッド + 引数）で到着した呼び出しは、
+ * 新たに実行せず先行呼び出しの結果（または例外）を共有する。
+ * 結果はキャッシュしないため、実行完了後の呼び出しは再度実行される。
+ * 戻り値のインスタンスは待機していた呼び出し元間で共有されるため、呼び出し元で変更しないこと。
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalesced {
+
+    /** 統計表示用の名前。未指定時は「クラス名.メソッド名」 */
+    String value() default "";
+}
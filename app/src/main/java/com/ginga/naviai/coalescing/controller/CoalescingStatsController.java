@@ -0,0 +1,30 @@
+package com.ginga.naviai.coalescing.controller;
+
+import com.ginga.naviai.coalescing.CoalescingStats;
+import com.ginga.naviai.security.annotation.RequireRoles;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * single-flight 集約の統計を参照する管理者向けエンドポイント
+ */
+@RestController
+@RequestMapping("/api/v1/admin/coalescing")
+public class CoalescingStatsController {
+
+    private final CoalescingStats stats;
+
+    public CoalescingStatsController(CoalescingStats stats) {
+        this.stats = stats;
+    }
+
+    @GetMapping
+    @RequireRoles("ADMIN")
+    public ResponseEntity<Map<String, Map<String, Long>>> getStats() {
+        return ResponseEntity.ok(stats.snapshot());
+    }
+}
@@ -22,4 +22,36 @@ public class AsyncRetryConfig {
         exec.initialize();
         return exec;
     }
+
+    /**
+     * ダッシュボード SSE の送信用エグゼキュータ。
+     * 接続数ではなく「送信待ちのある購読者数」に応じて動くため、少数のスレッドで足りる。
+     * 送信タスクは購読者ごとに同時に 1 つまでなので、待ち行列の長さは購読者数で抑えられる。
+     * そのためキューは無制限とし（タスクを拒否して購読者を切断しない）、スレッド数は常に上限まで使う。
+     */
+    @Bean("dashboardSseExecutor")
+    public TaskExecutor dashboardSseExecutor() {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(8);
+        exec.setMaxPoolSize(8);
+        exec.setThreadNamePrefix("dashboard-sse-");
+        exec.initialize();
+        return exec;
+    }
+
+    /**
+     * 質問への回答生成（検索 + LLM のストリーミング）用エグゼキュータ。
+     * 1 件の生成が LLM の応答待ちで数秒〜数十秒スレッドを占有するため、同時生成数をここで制限する。
+     * 待ち行列を持たない（直接受け渡し）ため、全スレッドが生成中の場合は待たせずに即座に拒否し、エラーイベントを返す。
+     */
+    @Bean("askExecutor")
+    public TaskExecutor askExecutor() {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(8);
+        exec.setMaxPoolSize(8);
+        exec.setQueueCapacity(0);
+        exec.setThreadNamePrefix("ask-exec-");
+        exec.initialize();
+        return exec;
+    }
 }
@@ -0,0 +1,12 @@
+package com.ginga.naviai.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定期実行ジョブ（集計値の補正など）を有効化する設定クラス
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,14 +2,23 @@ package com.ginga.naviai.dashboard.controller;
 
 import com.ginga.naviai.dashboard.dto.ActivityResponse;
 import com.ginga.naviai.dashboard.dto.DashboardSummaryResponse;
+import com.ginga.naviai.dashboard.dto.PersonalDashboardResponse;
+import com.ginga.naviai.dashboard.service.DashboardEventBroadcaster;
 import com.ginga.naviai.dashboard.service.DashboardService;
+import com.ginga.naviai.dashboard.service.DashboardVersionTracker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 
@@ -19,20 +28,78 @@ import java.time.LocalDate;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardVersionTracker versionTracker;
+    private final DashboardEventBroadcaster eventBroadcaster;
 
+    /**
+     * ダッシュボードのサマリーを返す。
+     * If-None-Match / If-Modified-Since が現在のバージョンと一致する場合は集計を行わず 304 を返す。
+     */
     @GetMapping
-    public ResponseEntity<DashboardSummaryResponse> getSummary() {
+    public ResponseEntity<DashboardSummaryResponse> getSummary(WebRequest request) {
+        String etag = versionTracker.currentETag();
+        if (request.checkNotModified(etag, versionTracker.lastModifiedMillis())) {
+            // 304 とヘッダは checkNotModified が設定済み
+            return null;
+        }
         DashboardSummaryResponse summary = dashboardService.getSummary();
-        return ResponseEntity.ok(summary);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(summary);
     }
 
     @GetMapping("/activity")
     public ResponseEntity<ActivityResponse> getActivity(
             @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
-            @RequestParam(name = "range", required = false) String range
+            @RequestParam(name = "range", required = false) String range,
+            @RequestParam(name = "granularity", required = false) String granularity,
+            WebRequest request
     ) {
-        ActivityResponse resp = dashboardService.getActivity(from, to, range == null ? "week" : range);
-        return ResponseEntity.ok(resp);
+        String etag = versionTracker.currentETag();
+        if (request.checkNotModified(etag, versionTracker.lastModifiedMillis())) {
+            return null;
+        }
+        ActivityResponse resp = dashboardService.getActivity(from, to, range == null ? "week" : range, granularity);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(resp);
+    }
+
+    /**
+     * ログインユーザー自身の個人ダッシュボードを返す。
+     * 期間未指定時は直近 1 年分のヒートマップを返す。
+     */
+    @GetMapping("/me")
+    public ResponseEntity<PersonalDashboardResponse> getMyDashboard(
+            Authentication authentication,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (authentication == null || authentication.getName() == null || authentication.getName().trim().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(authentication.getName());
+        } catch (NumberFormatException ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        LocalDate resolvedTo = to != null ? to : LocalDate.now();
+        LocalDate resolvedFrom = from != null ? from : resolvedTo.minusDays(364);
+        PersonalDashboardResponse resp = dashboardService.getPersonalDashboard(userId, resolvedFrom, resolvedTo);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(resp);
+    }
+
+    /**
+     * ダッシュボードの差分イベントを SSE で購読する。
+     * ポーリングの代わりに使用し、イベント受信時のみ必要なデータを再取得する。
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return eventBroadcaster.subscribe();
     }
 }
@@ -14,6 +14,8 @@ import java.util.List;
 @AllArgsConstructor
 public class ActivityResponse {
     private String range;
+    /** 集計バケットの粒度（day|week|iso_week|month）。items[].date は各バケットの開始日 */
+    private String granularity;
     private LocalDate from;
     private LocalDate to;
     private List<ActivityDayItem> items;
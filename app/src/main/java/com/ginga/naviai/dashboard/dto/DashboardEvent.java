@@ -0,0 +1,26 @@
+package com.ginga.naviai.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * ダッシュボードのライブ更新（SSE）で配信する差分イベント。
+ * <p>
+ * type は post / post_removed / pending / like / comment のいずれか。
+ * クライアントは delta を手元の集計値へ加算するか、必要に応じて再取得する。
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardEvent {
+    private String type;
+    private Long knowledgeId;
+    private long delta;
+    private Instant occurredAt;
+}
@@ -54,6 +54,8 @@ public class DashboardSummaryResponse {
         private String authorDisplayName;
         private java.time.Instant publishedAt;
         private long likeCount;
+        private long viewCount;
+        private List<String> tags;
     }
 
     @Data
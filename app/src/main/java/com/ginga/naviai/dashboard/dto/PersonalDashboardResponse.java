@@ -0,0 +1,36 @@
+package com.ginga.naviai.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 個人ダッシュボード（ログインユーザー自身の集計）を返すDTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonalDashboardResponse {
+    /** 公開中の投稿数 */
+    private long postCount;
+
+    /** 自分の記事が受けたいいね数 */
+    private long likesReceived;
+
+    /** 自分の記事が受けたコメント数 */
+    private long commentsReceived;
+
+    /** レビュー待ち（pending）の自分の記事数 */
+    private long pendingReviews;
+
+    private LocalDate from;
+    private LocalDate to;
+
+    /** 日別アクティビティ（ヒートマップ用。件数 0 の日も含む） */
+    private List<ActivityDayItem> heatmap;
+}
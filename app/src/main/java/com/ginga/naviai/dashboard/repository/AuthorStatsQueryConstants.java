@@ -0,0 +1,77 @@
+package com.ginga.naviai.dashboard.repository;
+
+/**
+ * 著者別カウンタ（author_stats / author_activity_daily）に対するSQL定数クラス。
+ * <p>
+ * 加算は「UPDATE → 0 行なら空行を INSERT（存在しない場合のみ）して再 UPDATE」の順で行う。
+ * PostgreSQL では空行の作成に ON CONFLICT DO NOTHING を使い、同時に初回書き込みが起きても一意制約違反にしない
+ * （違反するとトランザクション全体が中断されるため）。
+ * カウンタは CASE で 0 未満にならないよう下限を設ける。
+ * </p>
+ */
+public final class AuthorStatsQueryConstants {
+
+    private AuthorStatsQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** 著者の累計カウンタを差分加算するSQL */
+    public static final String ADD_STATS =
+            "UPDATE author_stats SET " +
+            "post_count = CASE WHEN post_count + :posts < 0 THEN 0 ELSE post_count + :posts END, " +
+            "likes_received = CASE WHEN likes_received + :likes < 0 THEN 0 ELSE likes_received + :likes END, " +
+            "comments_received = CASE WHEN comments_received + :comments < 0 THEN 0 ELSE comments_received + :comments END, " +
+            "pending_reviews = CASE WHEN pending_reviews + :pending < 0 THEN 0 ELSE pending_reviews + :pending END, " +
+            "updated_at = :now " +
+            "WHERE author_id = :authorId";
+
+    /** 著者の累計カウンタ行を作成するSQL（PostgreSQL 用。既に存在する場合・同時に作成された場合は何もしない） */
+    public static final String PG_INSERT_STATS_IF_ABSENT =
+            "INSERT INTO author_stats (author_id, post_count, likes_received, comments_received, pending_reviews, updated_at) " +
+            "VALUES (:authorId, 0, 0, 0, 0, :now) " +
+            "ON CONFLICT (author_id) DO NOTHING";
+
+    /**
+     * 著者の累計カウンタ行を作成するSQL（PostgreSQL 以外。既に存在する場合は何もしない）。
+     * 同時に作成された場合は一意制約違反となるため、呼び出し側で無視する。
+     */
+    public static final String INSERT_STATS_IF_ABSENT =
+            "INSERT INTO author_stats (author_id, post_count, likes_received, comments_received, pending_reviews, updated_at) " +
+            "SELECT :authorId, 0, 0, 0, 0, :now " +
+            "WHERE NOT EXISTS (SELECT 1 FROM author_stats WHERE author_id = :authorId)";
+
+    /** 日別アクティビティを差分加算するSQL */
+    public static final String ADD_DAILY =
+            "UPDATE author_activity_daily SET " +
+            "posts = CASE WHEN posts + :posts < 0 THEN 0 ELSE posts + :posts END, " +
+            "likes = CASE WHEN likes + :likes < 0 THEN 0 ELSE likes + :likes END, " +
+            "comments = CASE WHEN comments + :comments < 0 THEN 0 ELSE comments + :comments END " +
+            "WHERE author_id = :authorId AND activity_date = :date";
+
+    /** 日別アクティビティ行を作成するSQL（PostgreSQL 用。既に存在する場合・同時に作成された場合は何もしない） */
+    public static final String PG_INSERT_DAILY_IF_ABSENT =
+            "INSERT INTO author_activity_daily (author_id, activity_date, posts, likes, comments) " +
+            "VALUES (:authorId, :date, 0, 0, 0) " +
+            "ON CONFLICT (author_id, activity_date) DO NOTHING";
+
+    /**
+     * 日別アクティビティ行を作成するSQL（PostgreSQL 以外。既に存在する場合は何もしない）。
+     * 同時に作成された場合は一意制約違反となるため、呼び出し側で無視する。
+     */
+    public static final String INSERT_DAILY_IF_ABSENT =
+            "INSERT INTO author_activity_daily (author_id, activity_date, posts, likes, comments) " +
+            "SELECT :authorId, :date, 0, 0, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM author_activity_daily WHERE author_id = :authorId AND activity_date = :date)";
+
+    /** 著者の累計カウンタを取得するSQL */
+    public static final String SELECT_STATS =
+            "SELECT post_count, likes_received, comments_received, pending_reviews " +
+            "FROM author_stats WHERE author_id = :authorId";
+
+    /** 期間内の日別アクティビティを取得するSQL（行のある日のみ） */
+    public static final String SELECT_DAILY =
+            "SELECT activity_date, posts, likes, comments " +
+            "FROM author_activity_daily " +
+            "WHERE author_id = :authorId AND activity_date BETWEEN :from AND :to " +
+            "ORDER BY activity_date";
+}
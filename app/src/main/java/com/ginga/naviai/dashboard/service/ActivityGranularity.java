@@ -0,0 +1,101 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * アクティビティ集計のバケット粒度。
+ * <p>
+ * 各粒度はバケット開始日への丸め（アライメント）と次バケット開始日の算出を提供する。
+ * </p>
+ */
+public enum ActivityGranularity {
+
+    /** 日単位 */
+    DAY {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusDays(1);
+        }
+    },
+
+    /** 週単位（日曜始まり） */
+    WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+    },
+
+    /** ISO 週単位（月曜始まり） */
+    ISO_WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+    },
+
+    /** 月単位（1日始まり） */
+    MONTH {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucketStart) {
+            return bucketStart.plusMonths(1);
+        }
+    };
+
+    /** 指定日が属するバケットの開始日を返す */
+    public abstract LocalDate bucketStart(LocalDate date);
+
+    /** 次のバケットの開始日を返す */
+    public abstract LocalDate next(LocalDate bucketStart);
+
+    /**
+     * 表示レンジと明示指定から粒度を決定する。
+     * <p>
+     * 明示指定がない場合、week / month は日単位、quarter は ISO 週単位、year は月単位で集計する。
+     * それ以外の range は従来どおり日単位とする（range の値自体は検証しない）。
+     * </p>
+     *
+     * @param range       表示レンジ（week|month|quarter|year）
+     * @param granularity 明示指定された粒度（day|week|iso_week|month、null 可）
+     * @throws InvalidRequestException 不正な粒度が指定された場合
+     */
+    public static ActivityGranularity resolve(String range, String granularity) {
+        if (granularity != null && !granularity.isBlank()) {
+            try {
+                return valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestException("granularity must be one of day, week, iso_week, month");
+            }
+        }
+        return switch (range) {
+            case "quarter" -> ISO_WEEK;
+            case "year" -> MONTH;
+            default -> DAY;
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.ginga.naviai.dashboard.repository.AuthorStatsQueryConstants;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeCommentChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 個人ダッシュボード用の著者別カウンタを書き込み時に差分更新するコンポーネント。
+ * <p>
+ * 記事の状態変化は {@link KnowledgeChangedEvent} から、いいねは {@link KnowledgeLikesChangedEvent} から、
+ * コメントは {@link KnowledgeCommentChangedEvent} から反映する。
+ * 書き込みと同一トランザクションで更新するため、イベントは {@code @EventListener} で同期的に受け取る。
+ * 参照側は著者ごとの 1 行と期間内の日別行を読むだけで済み、記事数に依存しない。
+ * </p>
+ */
+@Component
+public class AuthorStatsRecorder {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final String insertStatsSql;
+    private final String insertDailySql;
+
+    @Autowired
+    public AuthorStatsRecorder(NamedParameterJdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemDefaultZone());
+    }
+
+    AuthorStatsRecorder(NamedParameterJdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        boolean postgres = "PostgreSQL".equalsIgnoreCase(product);
+        this.insertStatsSql = postgres
+                ? AuthorStatsQueryConstants.PG_INSERT_STATS_IF_ABSENT
+                : AuthorStatsQueryConstants.INSERT_STATS_IF_ABSENT;
+        this.insertDailySql = postgres
+                ? AuthorStatsQueryConstants.PG_INSERT_DAILY_IF_ABSENT
+                : AuthorStatsQueryConstants.INSERT_DAILY_IF_ABSENT;
+    }
+
+    /**
+     * 記事の変更前後の状態から、公開数・レビュー待ち数・当日の投稿数を差分更新する。
+     * 日別アクティビティは「その日に起きた出来事」の記録のため、削除時にも過去日の値は減らさない。
+     */
+    @EventListener
+    @Transactional
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        if (event.getAuthorId() == null) {
+            return;
+        }
+        KnowledgeState before = event.getBefore();
+        KnowledgeState after = event.getAfter();
+
+        long posts = visible(after) - visible(before);
+        long pending = pending(after) - pending(before);
+        if (posts != 0 || pending != 0) {
+            addStats(event.getAuthorId(), posts, 0, 0, pending);
+        }
+        if (before == null && after != null && !after.isDeleted()) {
+            addDaily(event.getAuthorId(), 1, 0, 0);
+        }
+    }
+
+    /**
+     * 一括取り込みした 1 バッチ分の記事を、著者ごとに集計してから反映する。
+     */
+    @EventListener
+    @Transactional
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        Map<Long, long[]> counts = new HashMap<>();
+        Map<Long, Map<LocalDate, Integer>> daily = new HashMap<>();
+        for (KnowledgeBulkImportedEvent.Item item : event.getItems()) {
+            if (item.getAuthorId() == null) {
+                continue;
+            }
+            long[] c = counts.computeIfAbsent(item.getAuthorId(), id -> new long[2]);
+            c[0] += visible(item.getState());
+            c[1] += pending(item.getState());
+            LocalDate date = LocalDate.ofInstant(item.getCreatedAt(), clock.getZone());
+            daily.computeIfAbsent(item.getAuthorId(), id -> new HashMap<>()).merge(date, 1, Integer::sum);
+        }
+        counts.forEach((authorId, c) -> recordImported(authorId, c[0], c[1], daily.get(authorId)));
+    }
+
+    /**
+     * "like" テーブルへ書き込んだ 1 バッチ分のいいねの増減を、著者ごとに集計してから反映する。
+     */
+    @EventListener
+    @Transactional
+    public void onLikesChanged(KnowledgeLikesChangedEvent event) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (KnowledgeLikesChangedEvent.Item item : event.getItems()) {
+            if (item.getAuthorId() != null) {
+                deltas.merge(item.getAuthorId(), item.getDelta(), Long::sum);
+            }
+        }
+        deltas.forEach(this::recordLikeReceived);
+    }
+
+    /**
+     * 著者の記事が受けたいいね数を増減する。
+     *
+     * @param authorId 記事の著者ID
+     * @param delta    増分（取り消し時は負数）
+     */
+    @Transactional
+    public void recordLikeReceived(Long authorId, long delta) {
+        if (authorId == null || delta == 0) {
+            return;
+        }
+        addStats(authorId, 0, delta, 0, 0);
+        addDaily(authorId, 0, delta, 0);
+    }
+
+    /**
+     * コメントの投稿・削除を記事の著者が受けたコメント数に反映する。
+     */
+    @EventListener
+    @Transactional
+    public void onCommentChanged(KnowledgeCommentChangedEvent event) {
+        recordCommentReceived(event.getAuthorId(), event.getDelta());
+    }
+
+    /**
+     * 著者の記事が受けたコメント数を増減する。
+     *
+     * @param authorId 記事の著者ID
+     * @param delta    増分（削除時は負数）
+     */
+    @Transactional
+    public void recordCommentReceived(Long authorId, long delta) {
+        if (authorId == null || delta == 0) {
+            return;
+        }
+        addStats(authorId, 0, 0, delta, 0);
+        addDaily(authorId, 0, 0, delta);
+    }
+
+    /**
+     * 一括取り込みした記事を著者別カウンタへまとめて反映する。
+     * 日別の投稿数は取り込み日ではなく記事の作成日に計上する。
+     *
+     * @param published  公開中として取り込んだ件数
+     * @param pending    レビュー待ちとして取り込んだ件数
+     * @param postsByDay 作成日 → 取り込んだ件数
+     */
+    @Transactional
+    public void recordImported(Long authorId, long published, long pending, Map<LocalDate, Integer> postsByDay) {
+        if (authorId == null) {
+            return;
+        }
+        if (published != 0 || pending != 0) {
+            addStats(authorId, published, 0, 0, pending);
+        }
+        postsByDay.forEach((date, posts) -> addDaily(authorId, date, posts, 0, 0));
+    }
+
+    private void addStats(Long authorId, long posts, long likes, long comments, long pending) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("authorId", authorId)
+                .addValue("posts", posts)
+                .addValue("likes", likes)
+                .addValue("comments", comments)
+                .addValue("pending", pending)
+                .addValue("now", Timestamp.from(clock.instant()));
+        upsert(AuthorStatsQueryConstants.ADD_STATS, insertStatsSql, params);
+    }
+
+    private void addDaily(Long authorId, long posts, long likes, long comments) {
+        addDaily(authorId, LocalDate.now(clock), posts, likes, comments);
+    }
+
+    private void addDaily(Long authorId, LocalDate date, long posts, long likes, long comments) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("authorId", authorId)
+                .addValue("date", java.sql.Date.valueOf(date))
+                .addValue("posts", posts)
+                .addValue("likes", likes)
+                .addValue("comments", comments);
+        upsert(AuthorStatsQueryConstants.ADD_DAILY, insertDailySql, params);
+    }
+
+    /**
+     * UPDATE で加算し、行がなければ 0 の行を作成してから加算し直す。
+     * 通常は UPDATE 1 文で済み、行の作成は著者（または著者×日）ごとに初回のみ発生する。
+     * 同じ行を他のトランザクションが同時に作成した場合は、作成済みとして加算し直す
+     * （利用者の書き込み自体をロールバックさせない）。
+     */
+    private void upsert(String updateSql, String insertSql, MapSqlParameterSource params) {
+        if (jdbcTemplate.update(updateSql, params) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insertSql, params);
+        } catch (DuplicateKeyException e) {
+            // PostgreSQL 以外での同時作成。行は相手が作成済み
+        }
+        jdbcTemplate.update(updateSql, params);
+    }
+
+    private static int visible(KnowledgeState state) {
+        return state != null && state.isVisible() ? 1 : 0;
+    }
+
+    private static int pending(KnowledgeState state) {
+        return state != null && !state.isDeleted() && "pending".equals(state.getStatus()) ? 1 : 0;
+    }
+}
@@ -0,0 +1,338 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginga.naviai.dashboard.dto.DashboardEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeCommentChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ダッシュボードのライブ更新を SSE で配信するブロードキャスタ。
+ * <p>
+ * 接続はサーブレットの非同期処理で保持するため、接続ごとにスレッドは消費しない。
+ * 送信は購読者ごとの有界キューに積み、共有の小さなスレッドプールが購読者単位で直列に書き出す。
+ * キューが溢れた（クライアントが追いつけない）購読者は切断し、再接続・再取得に委ねる。
+ * </p>
+ * <p>
+ * 1 回の送信タスクで書き出す件数には上限を設け、キューの長い購読者がスレッドを占有しないようにする。
+ * 送信（ブロッキング書き込み）に {@code dashboard.sse.send-timeout-millis} 以上かかった購読者も低速とみなして切断する。
+ * 書き込み中のまま戻らない購読者はハートビートごとに検出して購読を解除し、以降の送信対象から外す
+ * （書き込み自体はコネクタのタイムアウトで打ち切られるまで送信スレッドに残る）。
+ * </p>
+ * <p>
+ * 同時接続数の上限は購読の開始時に枠を原子的に確保して守り、枠は購読の終了時に 1 度だけ返す。
+ * </p>
+ */
+@Component
+public class DashboardEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventBroadcaster.class);
+
+    /** 1 回の送信タスクで書き出す最大件数（残りは改めてタスクを積み、他の購読者に順番を譲る） */
+    private static final int MAX_MESSAGES_PER_DRAIN = 16;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    /** 確保済みの接続枠の数（subscribers への登録前に確保し、登録解除時に返す） */
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+    private final TaskExecutor executor;
+    private final ObjectMapper objectMapper;
+    private Clock clock = Clock.systemUTC();
+
+    @Value("${dashboard.sse.timeout-millis:1800000}")
+    private long timeoutMillis = 1_800_000;
+
+    @Value("${dashboard.sse.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    @Value("${dashboard.sse.max-subscribers:50000}")
+    private int maxSubscribers = 50_000;
+
+    /** 1 件の送信にかけてよい時間。超えた購読者は低速とみなして切断する */
+    @Value("${dashboard.sse.send-timeout-millis:5000}")
+    private long sendTimeoutMillis = 5000;
+
+    public DashboardEventBroadcaster(@Qualifier("dashboardSseExecutor") TaskExecutor executor,
+                                     ObjectMapper objectMapper) {
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 新しい購読を開始する。
+     *
+     * @throws ResponseStatusException 同時接続数の上限に達している場合（503）
+     */
+    public SseEmitter subscribe() {
+        reserveSlot();
+        long id = subscriberIds.incrementAndGet();
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(id, emitter, queueCapacity);
+        subscribers.put(id, subscriber);
+
+        emitter.onCompletion(() -> unregister(id));
+        emitter.onTimeout(() -> {
+            unregister(id);
+            emitter.complete();
+        });
+        emitter.onError(ex -> unregister(id));
+
+        // 接続直後にイベントを送り、レスポンスヘッダを確定させる
+        enqueue(subscriber, new Message("ready", "{}", false));
+        return emitter;
+    }
+
+    /**
+     * 全購読者へイベントを配信する（非ブロッキング）。
+     */
+    public void publish(DashboardEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            logger.error("Failed to serialize dashboard event: {}", ex.getMessage());
+            return;
+        }
+        Message message = new Message(event.getType(), json, false);
+        for (Subscriber subscriber : subscribers.values()) {
+            enqueue(subscriber, message);
+        }
+    }
+
+    /**
+     * 記事の変更をダッシュボード向けの差分イベントに変換して配信する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        KnowledgeChangedEvent.KnowledgeState before = event.getBefore();
+        KnowledgeChangedEvent.KnowledgeState after = event.getAfter();
+
+        boolean wasVisible = before != null && before.isVisible();
+        boolean isVisible = after != null && after.isVisible();
+        if (!wasVisible && isVisible) {
+            publish(event(event, "post", 1));
+        } else if (wasVisible && !isVisible) {
+            publish(event(event, "post_removed", -1));
+        }
+
+        int pendingDelta = pendingFlag(after) - pendingFlag(before);
+        if (pendingDelta != 0) {
+            publish(event(event, "pending", pendingDelta));
+        }
+    }
+
+    /**
+     * コメントの投稿・削除を差分イベントとして配信する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(KnowledgeCommentChangedEvent event) {
+        publish(DashboardEvent.builder()
+                .type("comment")
+                .knowledgeId(event.getKnowledgeId())
+                .delta(event.getDelta())
+                .occurredAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * "like" テーブルへ書き込んだいいねの増減を記事ごとの差分イベントとして配信する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikesChanged(KnowledgeLikesChangedEvent event) {
+        Instant now = Instant.now();
+        for (KnowledgeLikesChangedEvent.Item item : event.getItems()) {
+            publish(DashboardEvent.builder()
+                    .type("like")
+                    .knowledgeId(item.getKnowledgeId())
+                    .delta(item.getDelta())
+                    .occurredAt(now)
+                    .build());
+        }
+    }
+
+    /**
+     * 中継機器によるアイドル切断を防ぐため、定期的にコメント行を送る。
+     */
+    @Scheduled(fixedDelayString = "${dashboard.sse.heartbeat-millis:15000}")
+    public void heartbeat() {
+        Message message = new Message(null, "heartbeat", true);
+        long now = clock.millis();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendStartedMillis;
+            if (started != 0 && now - started > sendTimeoutMillis) {
+                logger.debug("Dropping stalled dashboard subscriber {}", subscriber.id);
+                drop(subscriber);
+                continue;
+            }
+            enqueue(subscriber, message);
+        }
+    }
+
+    /** 現在の購読者数 */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(s -> s.emitter.complete());
+        subscribers.clear();
+        reservedSlots.set(0);
+    }
+
+    /**
+     * 接続枠を 1 つ確保する。確認と確保を原子的に行い、並行する購読で上限を超えないようにする。
+     */
+    private void reserveSlot() {
+        int current;
+        do {
+            current = reservedSlots.get();
+            if (current >= maxSubscribers) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many dashboard subscribers");
+            }
+        } while (!reservedSlots.compareAndSet(current, current + 1));
+    }
+
+    /** 購読を登録解除し、登録されていた場合のみ接続枠を返す */
+    private Subscriber unregister(long id) {
+        Subscriber removed = subscribers.remove(id);
+        if (removed != null) {
+            reservedSlots.decrementAndGet();
+        }
+        return removed;
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (!subscriber.queue.offer(message)) {
+            logger.debug("Dropping slow dashboard subscriber {}", subscriber.id);
+            drop(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException ex) {
+            // キューは無制限のため、拒否されるのはエグゼキュータの停止時のみ。次の配信で再試行する
+            logger.debug("Dashboard SSE executor rejected drain for subscriber {}", subscriber.id);
+            subscriber.draining.set(false);
+        }
+    }
+
+    /** 購読者のキューを書き出す。同一購読者への送信は常に1スレッドのみが行う */
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            int sent = 0;
+            while (sent++ < MAX_MESSAGES_PER_DRAIN && (message = subscriber.queue.poll()) != null) {
+                long started = clock.millis();
+                subscriber.sendStartedMillis = started;
+                subscriber.emitter.send(message.toEvent());
+                subscriber.sendStartedMillis = 0;
+                if (clock.millis() - started > sendTimeoutMillis) {
+                    logger.debug("Dropping slow dashboard subscriber {}", subscriber.id);
+                    drop(subscriber);
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            drop(subscriber);
+            return;
+        } finally {
+            subscriber.sendStartedMillis = 0;
+            subscriber.draining.set(false);
+        }
+        // 書き出し終了と同時に積まれたメッセージを取りこぼさない
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (unregister(subscriber.id) != null) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static DashboardEvent event(KnowledgeChangedEvent source, String type, long delta) {
+        return DashboardEvent.builder()
+                .type(type)
+                .knowledgeId(source.getKnowledgeId())
+                .delta(delta)
+                .occurredAt(Instant.now())
+                .build();
+    }
+
+    private static int pendingFlag(KnowledgeChangedEvent.KnowledgeState state) {
+        return state != null && !state.isDeleted() && "pending".equals(state.getStatus()) ? 1 : 0;
+    }
+
+    private static final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final Queue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** 書き込み中の送信の開始時刻（書き込み中でなければ 0） */
+        private volatile long sendStartedMillis;
+
+        private Subscriber(long id, SseEmitter emitter, int capacity) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /** 送信単位。JSON は配信前に1度だけシリアライズして全購読者で共有する */
+    private static final class Message {
+        private final String name;
+        private final String data;
+        private final boolean comment;
+
+        private Message(String name, String data, boolean comment) {
+            this.name = name;
+            this.data = data;
+            this.comment = comment;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (comment) {
+                return SseEmitter.event().comment(data);
+            }
+            return SseEmitter.event().name(name).data(data);
+        }
+    }
+}
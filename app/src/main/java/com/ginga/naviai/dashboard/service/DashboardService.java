@@ -2,6 +2,7 @@ package com.ginga.naviai.dashboard.service;
 
 import com.ginga.naviai.dashboard.dto.ActivityResponse;
 import com.ginga.naviai.dashboard.dto.DashboardSummaryResponse;
+import com.ginga.naviai.dashboard.dto.PersonalDashboardResponse;
 
 import java.time.LocalDate;
 
@@ -9,4 +10,20 @@ public interface DashboardService {
     DashboardSummaryResponse getSummary();
 
     ActivityResponse getActivity(LocalDate from, LocalDate to, String range);
+
+    /**
+     * 期間内のアクティビティを指定粒度のバケットに集計して返す。
+     *
+     * @param granularity バケット粒度（null の場合は range から決定）
+     */
+    ActivityResponse getActivity(LocalDate from, LocalDate to, String range, String granularity);
+
+    /**
+     * 指定ユーザー自身の集計（個人ダッシュボード）を返す。
+     * 著者別カウンタから読み出すため、記事数に関わらず一定コストで応答する。
+     *
+     * @param from ヒートマップの開始日
+     * @param to   ヒートマップの終了日
+     */
+    PersonalDashboardResponse getPersonalDashboard(Long authorId, LocalDate from, LocalDate to);
 }
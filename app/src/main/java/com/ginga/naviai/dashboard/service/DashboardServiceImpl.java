@@ -1,26 +1,39 @@
 package com.ginga.naviai.dashboard.service;
 
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import com.ginga.naviai.coalescing.annotation.Coalesced;
 import com.ginga.naviai.dashboard.dto.ActivityDayItem;
 import com.ginga.naviai.dashboard.dto.ActivityResponse;
 import com.ginga.naviai.dashboard.dto.DashboardSummaryResponse;
+import com.ginga.naviai.dashboard.dto.PersonalDashboardResponse;
 import com.ginga.naviai.dashboard.repository.ActivityQueryConstants;
-import com.ginga.naviai.knowledge.entity.Knowledge;
+import com.ginga.naviai.dashboard.repository.AuthorStatsQueryConstants;
+import com.ginga.naviai.knowledge.dto.ArticleSummaryView;
 import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.service.KnowledgeTagLoader;
+import com.ginga.naviai.knowledge.service.PendingReviewCounter;
+import com.ginga.naviai.knowledge.service.TagStatsService;
+import com.ginga.naviai.knowledge.service.ViewCountBuffer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +42,17 @@ public class DashboardServiceImpl implements DashboardService {
 
     private final KnowledgeRepository knowledgeRepository;
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TagStatsService tagStatsService;
+    private final KnowledgeTagLoader tagLoader;
+    private final ViewCountBuffer viewCounts;
+    private final PendingReviewCounter pendingReviewCounter;
+
+    /** アクティビティ集計で指定可能な期間の上限日数 */
+    @Value("${dashboard.activity.max-days:731}")
+    private long maxActivityDays = 731;
 
     @Override
+    @Coalesced("dashboard.summary")
     @Transactional(readOnly = true)
     public DashboardSummaryResponse getSummary() {
         long totalPosts = knowledgeRepository.countByDeletedFalse();
@@ -38,37 +60,31 @@ public class DashboardServiceImpl implements DashboardService {
         Instant weekAgo = Instant.now().minus(7, ChronoUnit.DAYS);
         long weeklyPosts = knowledgeRepository.countByCreatedAtAfterAndDeletedFalse(weekAgo);
 
-        long pendingApprovals = knowledgeRepository.countByStatusAndDeletedFalse("pending");
+        // 承認待ち: pending への出入りで増減させるインメモリカウンタから取得する
+        long pendingApprovals = pendingReviewCounter.get();
 
-        List<Object[]> topTagsData = knowledgeRepository.findTopTags(5);
-        List<DashboardSummaryResponse.TagSummary> topTags = topTagsData.stream()
-            .map(row -> new DashboardSummaryResponse.TagSummary((String) row[0], ((Number) row[1]).longValue()))
+        // 人気タグ: 公開中記事のみを数えたインメモリカウンタから取得する
+        List<DashboardSummaryResponse.TagSummary> topTags = tagStatsService.getTopTags(5).stream()
+            .map(t -> new DashboardSummaryResponse.TagSummary(t.getTag(), t.getCount()))
             .collect(Collectors.toList());
 
         // 新着記事 (Top 5)
-        // likeCount: 新着一覧の取得コストを抑えるため likeCount は 0 固定とする。
-        // 詳細は API 仕様書「GET /api/v1/dashboard」の recentArticles 項を参照。
-        List<Knowledge> recentEntities = knowledgeRepository.findRecentArticles(PageRequest.of(0, 5));
-        List<DashboardSummaryResponse.ArticleSummary> recentArticles = recentEntities.stream()
-            .map(k -> DashboardSummaryResponse.ArticleSummary.builder()
-                .id(k.getId())
-                .title(k.getTitle())
-                .authorDisplayName(k.getAuthor() != null ? k.getAuthor().getDisplayName() : "不明")
-                .publishedAt(k.getPublishedAt())
-                .likeCount(0) // 新着一覧ではクエリコスト削減のため 0 固定（仕様）
-                .build())
-            .collect(Collectors.toList());
+        List<ArticleSummaryView> recentViews = knowledgeRepository.findRecentArticles(PageRequest.of(0, 5));
 
         // おすすめ記事 (Top 5 by Likes)
-        List<Object[]> recommendedData = knowledgeRepository.findTopRecommendedArticles(5);
-        List<DashboardSummaryResponse.ArticleSummary> recommendedArticles = recommendedData.stream()
-            .map(row -> DashboardSummaryResponse.ArticleSummary.builder()
-                .id(((Number) row[0]).longValue())
-                .title((String) row[1])
-                .authorDisplayName((String) row[2])
-                .publishedAt(row[3] != null ? ((Timestamp) row[3]).toInstant() : null)
-                .likeCount(((Number) row[4]).longValue())
-                .build())
+        List<ArticleSummaryView> recommendedViews = knowledgeRepository.findTopRecommendedArticles(PageRequest.of(0, 5));
+
+        // 両リストのタグを1クエリでまとめて取得する（行ごとの遅延ロードを避ける）
+        Set<Long> articleIds = new HashSet<>();
+        recentViews.forEach(v -> articleIds.add(v.getId()));
+        recommendedViews.forEach(v -> articleIds.add(v.getId()));
+        Map<Long, List<String>> tags = tagLoader.loadTagNames(articleIds);
+
+        List<DashboardSummaryResponse.ArticleSummary> recentArticles = recentViews.stream()
+            .map(v -> toArticleSummary(v, tags))
+            .collect(Collectors.toList());
+        List<DashboardSummaryResponse.ArticleSummary> recommendedArticles = recommendedViews.stream()
+            .map(v -> toArticleSummary(v, tags))
             .collect(Collectors.toList());
 
         // 週次アクティビティ（直近4週）
@@ -102,44 +118,139 @@ public class DashboardServiceImpl implements DashboardService {
             .build();
     }
 
+    /**
+     * 粒度を range から決定してアクティビティを集計する。
+     * <p>
+     * 内部の呼び出しはプロキシを経由しないため、集約・トランザクションの指定はこちらにも付与する。
+     * </p>
+     */
     @Override
+    @Coalesced("dashboard.activity")
     @Transactional(readOnly = true)
     public ActivityResponse getActivity(LocalDate from, LocalDate to, String range) {
+        return getActivity(from, to, range, null);
+    }
+
+    @Override
+    @Coalesced("dashboard.activity")
+    @Transactional(readOnly = true)
+    public ActivityResponse getActivity(LocalDate from, LocalDate to, String range, String granularity) {
         if (from == null || to == null) {
-            throw new IllegalArgumentException("from and to must be provided");
+            throw new InvalidRequestException("from and to must be provided");
         }
         if (from.isAfter(to)) {
-            throw new IllegalArgumentException("from must be before or equal to to");
+            throw new InvalidRequestException("from must be before or equal to to");
+        }
+        // 1リクエストで無制限に日付ループ・集計が走らないよう期間の上限を設ける
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxActivityDays) {
+            throw new InvalidRequestException("period must be within " + maxActivityDays + " days");
         }
 
+        String resolvedRange = range != null ? range : "week";
+        ActivityGranularity bucket = ActivityGranularity.resolve(resolvedRange, granularity);
+
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("from", java.sql.Date.valueOf(from));
         params.addValue("to", java.sql.Date.valueOf(to));
 
-        Map<LocalDate, Integer> postsMap    = queryDateCountMap(ActivityQueryConstants.POSTS_BY_DAY, params);
-        Map<LocalDate, Integer> commentsMap = queryDateCountMap(ActivityQueryConstants.COMMENTS_BY_DAY, params);
-        Map<LocalDate, Integer> likesMap    = queryDateCountMap(ActivityQueryConstants.LIKES_BY_DAY, params);
+        // 日別集計（件数のある日のみ）を DB 側で行い、粒度に応じたバケットへはアプリ側で畳み込む
+        Map<LocalDate, Integer> postsMap    = rollUp(queryDateCountMap(ActivityQueryConstants.POSTS_BY_DAY, params), bucket);
+        Map<LocalDate, Integer> commentsMap = rollUp(queryDateCountMap(ActivityQueryConstants.COMMENTS_BY_DAY, params), bucket);
+        Map<LocalDate, Integer> likesMap    = rollUp(queryDateCountMap(ActivityQueryConstants.LIKES_BY_DAY, params), bucket);
 
+        // 件数 0 のバケットも補完する（ループ回数はバケット数）
         List<ActivityDayItem> items = new ArrayList<>();
-        LocalDate cur = from;
+        LocalDate cur = bucket.bucketStart(from);
         while (!cur.isAfter(to)) {
+            // 先頭のバケットが from より前から始まる場合も、集計しているのは from 以降のみのため日付は from とする
             items.add(ActivityDayItem.builder()
-                    .date(cur)
+                    .date(cur.isBefore(from) ? from : cur)
                     .posts(postsMap.getOrDefault(cur, 0))
                     .comments(commentsMap.getOrDefault(cur, 0))
                     .likes(likesMap.getOrDefault(cur, 0))
                     .build());
-            cur = cur.plusDays(1);
+            cur = bucket.next(cur);
         }
 
         return ActivityResponse.builder()
-                .range(range != null ? range : "week")
+                .range(resolvedRange)
+                .granularity(bucket.name().toLowerCase(Locale.ROOT))
                 .from(from)
                 .to(to)
                 .items(items)
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PersonalDashboardResponse getPersonalDashboard(Long authorId, LocalDate from, LocalDate to) {
+        if (authorId == null) {
+            throw new InvalidRequestException("authorId must be provided");
+        }
+        if (from == null || to == null) {
+            throw new InvalidRequestException("from and to must be provided");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must be before or equal to to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxActivityDays) {
+            throw new InvalidRequestException("period must be within " + maxActivityDays + " days");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("authorId", authorId)
+                .addValue("from", java.sql.Date.valueOf(from))
+                .addValue("to", java.sql.Date.valueOf(to));
+
+        // 累計値は著者ごとの 1 行のみ（まだ書き込みがない著者は行がなく、すべて 0）
+        PersonalDashboardResponse.PersonalDashboardResponseBuilder builder = PersonalDashboardResponse.builder();
+        jdbcTemplate.query(AuthorStatsQueryConstants.SELECT_STATS, params, rs -> {
+            builder.postCount(rs.getLong("post_count"))
+                    .likesReceived(rs.getLong("likes_received"))
+                    .commentsReceived(rs.getLong("comments_received"))
+                    .pendingReviews(rs.getLong("pending_reviews"));
+        });
+
+        Map<LocalDate, ActivityDayItem> daily = jdbcTemplate.query(AuthorStatsQueryConstants.SELECT_DAILY, params, rs -> {
+            Map<LocalDate, ActivityDayItem> m = new HashMap<>();
+            while (rs.next()) {
+                LocalDate d = rs.getDate("activity_date").toLocalDate();
+                m.put(d, new ActivityDayItem(d, rs.getInt("posts"), rs.getInt("comments"), rs.getInt("likes")));
+            }
+            return m;
+        });
+
+        List<ActivityDayItem> heatmap = new ArrayList<>();
+        for (LocalDate cur = from; !cur.isAfter(to); cur = cur.plusDays(1)) {
+            ActivityDayItem item = daily.get(cur);
+            heatmap.add(item != null ? item : new ActivityDayItem(cur, 0, 0, 0));
+        }
+
+        return builder.from(from).to(to).heatmap(heatmap).build();
+    }
+
+    /** 日別件数をバケット開始日ごとに合算する */
+    private static Map<LocalDate, Integer> rollUp(Map<LocalDate, Integer> daily, ActivityGranularity bucket) {
+        if (bucket == ActivityGranularity.DAY) {
+            return daily;
+        }
+        Map<LocalDate, Integer> m = new HashMap<>();
+        daily.forEach((date, count) -> m.merge(bucket.bucketStart(date), count, Integer::sum));
+        return m;
+    }
+
+    private DashboardSummaryResponse.ArticleSummary toArticleSummary(ArticleSummaryView v, Map<Long, List<String>> tags) {
+        return DashboardSummaryResponse.ArticleSummary.builder()
+            .id(v.getId())
+            .title(v.getTitle())
+            .authorDisplayName(v.getAuthorDisplayName() != null ? v.getAuthorDisplayName() : "不明")
+            .publishedAt(v.getPublishedAt())
+            .likeCount(v.getLikeCount())
+            .viewCount(v.getViewCount() + viewCounts.pending(v.getId()))
+            .tags(tags.getOrDefault(v.getId(), Collections.emptyList()))
+            .build();
+    }
+
     /** 日付→件数のマップを返す共通ヘルパー */
     private Map<LocalDate, Integer> queryDateCountMap(String sql, MapSqlParameterSource params) {
         return jdbcTemplate.query(sql, params, rs -> {
@@ -0,0 +1,93 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeCommentChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ダッシュボード表示データのバージョン管理。
+ * <p>
+ * 記事・コメント・いいねへの書き込みごとにバージョンを進め、ETag / Last-Modified の算出に使用する。
+ * 条件付き GET ではこのバージョンのみで 304 判定を行うため、集計クエリは実行されない。
+ * </p>
+ * <p>
+ * バージョンはノードローカルのため、他ノードでの書き込みは検知できない。
+ * また「直近7日」のように現在時刻に依存する集計値もあるため、
+ * ETag に {@code dashboard.etag.max-age-seconds} 単位の時間窓を含め、鮮度の上限を保証する。
+ * </p>
+ */
+@Component
+public class DashboardVersionTracker {
+
+    /** 再起動をまたいで同じ ETag が再利用されないためのノード識別子 */
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Clock clock;
+
+    private volatile Instant lastModified;
+
+    @Value("${dashboard.etag.max-age-seconds:60}")
+    private long maxAgeSeconds = 60;
+
+    @Autowired
+    public DashboardVersionTracker() {
+        this(Clock.systemUTC());
+    }
+
+    DashboardVersionTracker(Clock clock) {
+        this.clock = clock;
+        this.lastModified = clock.instant();
+    }
+
+    /**
+     * 書き込みがあったことを記録し、バージョンを進める。
+     */
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = clock.instant();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(KnowledgeCommentChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikesChanged(KnowledgeLikesChangedEvent event) {
+        bump();
+    }
+
+    /**
+     * 現在のバージョンと時間窓から ETag（ダブルクォート付き）を返す。
+     */
+    public String currentETag() {
+        long window = clock.instant().getEpochSecond() / Math.max(1, maxAgeSeconds);
+        return "\"" + epoch + "-" + version.get() + "-" + window + "\"";
+    }
+
+    /**
+     * 最終更新日時（エポックミリ秒）を返す。
+     * 時間窓が切り替わった場合はその開始時刻を最終更新日時とみなす。
+     */
+    public long lastModifiedMillis() {
+        long windowMillis = Math.max(1, maxAgeSeconds) * 1000;
+        long windowStart = (clock.millis() / windowMillis) * windowMillis;
+        return Math.max(lastModified.toEpochMilli(), windowStart);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ginga.naviai.export.cli;
+
+import com.ginga.naviai.export.service.DataExportService;
+import com.ginga.naviai.export.service.ExportFormat;
+import com.ginga.naviai.export.service.ExportTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * コマンドラインからエクスポートを実行するランナー。
+ * <p>
+ * {@code export.cli.table} を指定して起動した場合のみ有効となり、出力後にアプリケーションを終了する。
+ * 出力先のファイル名が {@code .gz} で終わる場合は gzip で圧縮する。
+ * </p>
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none \
+ *     --export.cli.table=knowledge --export.cli.format=csv --export.cli.output=/tmp/knowledge.csv.gz
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "export.cli.table")
+public class ExportCommandRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportCommandRunner.class);
+
+    private final DataExportService exportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${export.cli.table}")
+    private String table;
+
+    @Value("${export.cli.format:ndjson}")
+    private String format;
+
+    /** 出力先ファイル（省略時は「テーブル名.形式」をカレントディレクトリに作成） */
+    @Value("${export.cli.output:}")
+    private String output;
+
+    public ExportCommandRunner(DataExportService exportService, ConfigurableApplicationContext context) {
+        this.exportService = exportService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ExportTable exportTable = ExportTable.fromKey(table);
+        ExportFormat exportFormat = ExportFormat.fromExtension(format);
+        Path path = Paths.get(output.isBlank() ? exportTable.getKey() + "." + exportFormat.getExtension() : output);
+        boolean gzip = path.getFileName().toString().endsWith(".gz");
+
+        int exitCode;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            long rows = exportService.export(exportTable, exportFormat, gzip, out);
+            logger.info("Export written to {} ({} rows)", path.toAbsolutePath(), rows);
+            exitCode = 0;
+        } catch (Exception e) {
+            logger.error("Export of {} failed", exportTable.getKey(), e);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
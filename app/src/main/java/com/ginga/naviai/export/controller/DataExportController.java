@@ -0,0 +1,51 @@
+package com.ginga.naviai.export.controller;
+
+import com.ginga.naviai.export.service.DataExportService;
+import com.ginga.naviai.export.service.ExportFormat;
+import com.ginga.naviai.export.service.ExportTable;
+import com.ginga.naviai.security.annotation.RequireRoles;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * テーブル全件をダウンロードする管理者向けエンドポイント
+ */
+@RestController
+@RequestMapping("/api/v1/admin/export")
+public class DataExportController {
+
+    private final DataExportService exportService;
+
+    public DataExportController(DataExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * knowledge / comment / like の全件を NDJSON または CSV で出力する。
+     * 行は DB から読みながらレスポンスへ直接書き込む（レスポンス全体をメモリに保持しない）。
+     * {@code gzip=true} の場合は gzip ファイル（例: knowledge.ndjson.gz）として返す。
+     */
+    @GetMapping("/{table}")
+    @RequireRoles("ADMIN")
+    public void export(@PathVariable String table,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(defaultValue = "false") boolean gzip,
+                       HttpServletResponse response) throws IOException {
+        ExportTable exportTable = ExportTable.fromKey(table);
+        ExportFormat exportFormat = ExportFormat.fromExtension(format);
+
+        String filename = exportTable.getKey() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        exportService.export(exportTable, exportFormat, gzip, response.getOutputStream());
+    }
+}
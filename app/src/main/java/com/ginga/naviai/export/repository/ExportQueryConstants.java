@@ -0,0 +1,30 @@
+package com.ginga.naviai.export.repository;
+
+/**
+ * データエクスポート用SQL定数クラス。
+ * <p>
+ * 全件を主キー順に 1 文で読み出し、結果は JDBC カーソルで少しずつ受け取る（OFFSET によるページングは行わない）。
+ * 列は出力する順に明示し、検索用の生成列などは含めない。
+ * </p>
+ */
+public final class ExportQueryConstants {
+
+    private ExportQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** 記事を全件取得するSQL */
+    public static final String SELECT_ALL_KNOWLEDGE =
+            "SELECT id, author_id, title, body, excerpt, thumbnail, status, is_deleted, " +
+            "created_at, updated_at, published_at, like_count, view_count, comment_count " +
+            "FROM knowledge ORDER BY id";
+
+    /** コメントを全件取得するSQL */
+    public static final String SELECT_ALL_COMMENTS =
+            "SELECT id, knowledge_id, author_id, parent_comment_id, body, is_deleted, created_at " +
+            "FROM comment ORDER BY id";
+
+    /** いいねを全件取得するSQL */
+    public static final String SELECT_ALL_LIKES =
+            "SELECT id, knowledge_id, user_id, created_at FROM \"like\" ORDER BY id";
+}
@@ -0,0 +1,229 @@
+package com.ginga.naviai.export.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * テーブルの全件を NDJSON / CSV で出力するサービス。
+ * <p>
+ * 1 文の SELECT を前方専用（forward-only・読み取り専用）カーソルで実行し、フェッチサイズ分ずつ受け取った行を
+ * その場で出力ストリームへ書き込む。結果をリストや {@code Page} に溜めないため、件数に関わらずヒープ使用量は一定となる。
+ * PostgreSQL のドライバはトランザクション内（autocommit 無効）でのみフェッチサイズ単位のカーソル読み出しを行うため、
+ * 読み取り専用トランザクションの中で実行する。
+ * </p>
+ * <p>
+ * HTTP のエクスポートエンドポイントとコマンドラインからの実行で同じ処理を使用する。
+ * </p>
+ */
+@Service
+public class DataExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /** カーソルで 1 回に受け取る行数 */
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    public DataExportService(NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate.getJdbcTemplate();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * テーブルの全件を出力する。出力ストリームは閉じない（gzip の場合も終端まで書き込んでフラッシュする）。
+     *
+     * @param table  対象テーブル
+     * @param format 出力形式
+     * @param gzip   gzip で圧縮するか
+     * @param out    出力先
+     * @return 出力した行数
+     */
+    public long export(ExportTable table, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        OutputStream target = compressed != null ? compressed : out;
+
+        Long rows;
+        try {
+            rows = transactionTemplate.execute(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(table.getSql(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, (ResultSetExtractor<Long>) rs -> write(rs, format, target)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+        logger.info("Exported {} rows from {} as {}{} in {} ms", rows, table.getKey(), format.getExtension(),
+                gzip ? ".gz" : "", (System.nanoTime() - started) / 1_000_000);
+        return rows != null ? rows : 0;
+    }
+
+    private long write(ResultSet rs, ExportFormat format, OutputStream out) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] names = new String[columns];
+        ColumnKind[] kinds = new ColumnKind[columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = meta.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+            kinds[i] = ColumnKind.of(meta.getColumnType(i + 1));
+        }
+
+        try {
+            return format == ExportFormat.CSV
+                    ? writeCsv(rs, names, kinds, out)
+                    : writeNdjson(rs, names, kinds, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeNdjson(ResultSet rs, String[] names, ColumnKind[] kinds, OutputStream out)
+            throws SQLException, IOException {
+        long count = 0;
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rs.next()) {
+                gen.writeStartObject();
+                for (int i = 0; i < names.length; i++) {
+                    gen.writeFieldName(names[i]);
+                    Object value = read(rs, i + 1, kinds[i]);
+                    if (value == null) {
+                        gen.writeNull();
+                    } else if (value instanceof Long) {
+                        gen.writeNumber((Long) value);
+                    } else if (value instanceof Boolean) {
+                        gen.writeBoolean((Boolean) value);
+                    } else {
+                        gen.writeString((String) value);
+                    }
+                }
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(ResultSet rs, String[] names, ColumnKind[] kinds, OutputStream out)
+            throws SQLException, IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeCsvRecord(writer, names);
+        String[] values = new String[names.length];
+        while (rs.next()) {
+            for (int i = 0; i < names.length; i++) {
+                Object value = read(rs, i + 1, kinds[i]);
+                values[i] = value != null ? value.toString() : null;
+            }
+            writeCsvRecord(writer, values);
+            count++;
+        }
+        // 下位のストリームは呼び出し元が管理するため、閉じずにフラッシュのみ行う
+        writer.flush();
+        return count;
+    }
+
+    /** 1 レコードを書き込む。区切り文字・引用符・改行を含む値は引用符で囲み、引用符は二重にする。null は空欄とする */
+    static void writeCsvRecord(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static Object read(ResultSet rs, int column, ColumnKind kind) throws SQLException {
+        switch (kind) {
+            case TIMESTAMP: {
+                Timestamp ts = rs.getTimestamp(column);
+                return ts != null ? ts.toInstant().toString() : null;
+            }
+            case BOOLEAN: {
+                boolean b = rs.getBoolean(column);
+                return rs.wasNull() ? null : b;
+            }
+            case INTEGER: {
+                long v = rs.getLong(column);
+                return rs.wasNull() ? null : v;
+            }
+            default:
+                return rs.getString(column);
+        }
+    }
+
+    /** 出力時の値の表現（日時は ISO-8601 の UTC、真偽値・整数は JSON のリテラル） */
+    private enum ColumnKind {
+        TIMESTAMP, BOOLEAN, INTEGER, TEXT;
+
+        static ColumnKind of(int sqlType) {
+            switch (sqlType) {
+                case Types.TIMESTAMP:
+                case Types.TIMESTAMP_WITH_TIMEZONE:
+                    return TIMESTAMP;
+                case Types.BOOLEAN:
+                case Types.BIT:
+                    return BOOLEAN;
+                case Types.BIGINT:
+                case Types.INTEGER:
+                case Types.SMALLINT:
+                    return INTEGER;
+                default:
+                    return TEXT;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ginga.naviai.export.service;
+
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * エクスポートの出力形式
+ */
+public enum ExportFormat {
+    /** 1 行 1 レコードの JSON */
+    NDJSON("ndjson", "application/x-ndjson"),
+    /** 先頭行がヘッダの CSV（RFC 4180） */
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 名前（大文字・小文字は区別しない）から形式を返す。
+     *
+     * @throws InvalidRequestException 対象外の名前の場合
+     */
+    public static ExportFormat fromExtension(String extension) {
+        String normalized = extension == null ? "" : extension.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(f -> f.extension.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Unknown export format: " + extension));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ginga.naviai.export.service;
+
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import com.ginga.naviai.export.repository.ExportQueryConstants;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * エクスポート対象のテーブル
+ */
+public enum ExportTable {
+    KNOWLEDGE("knowledge", ExportQueryConstants.SELECT_ALL_KNOWLEDGE),
+    COMMENT("comment", ExportQueryConstants.SELECT_ALL_COMMENTS),
+    LIKE("like", ExportQueryConstants.SELECT_ALL_LIKES);
+
+    private final String key;
+    private final String sql;
+
+    ExportTable(String key, String sql) {
+        this.key = key;
+        this.sql = sql;
+    }
+
+    /** URL・ファイル名に使用する名前 */
+    public String getKey() {
+        return key;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * 名前（大文字・小文字は区別しない）からテーブルを返す。
+     *
+     * @throws InvalidRequestException 対象外の名前の場合
+     */
+    public static ExportTable fromKey(String key) {
+        String normalized = key == null ? "" : key.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(t -> t.key.equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("Unknown export table: " + key));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.ImportReport;
+import com.ginga.naviai.knowledge.service.KnowledgeImportService;
+import com.ginga.naviai.knowledge.service.LikeRedisReconciliationJob;
+import com.ginga.naviai.security.annotation.RequireRoles;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 記事の管理者向けエンドポイント
+ */
+@RestController
+@RequestMapping("/api/v1/admin/knowledge")
+public class KnowledgeAdminController {
+
+    private static final int MAX_BATCH_SIZE = 5000;
+
+    private final KnowledgeImportService importService;
+    private final LikeRedisReconciliationJob likeReconciliationJob;
+
+    public KnowledgeAdminController(KnowledgeImportService importService,
+                                    LikeRedisReconciliationJob likeReconciliationJob) {
+        this.importService = importService;
+        this.likeReconciliationJob = likeReconciliationJob;
+    }
+
+    /**
+     * リクエストボディの NDJSON（1 行 1 記事）を読みながら記事を一括取り込みする。
+     * ボディ全体を読み込んでから処理することはなく、{@code batch_size} 件ごとにコミットする。
+     * 不正な行は取り込まずに結果の {@code errors} に行番号付きで返す。
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    @RequireRoles("ADMIN")
+    public ResponseEntity<?> importKnowledge(
+            @RequestParam(name = "batch_size", required = false) Integer batchSize,
+            InputStream body) throws IOException {
+        if (batchSize != null && (batchSize < 1 || batchSize > MAX_BATCH_SIZE)) {
+            return ResponseEntity.badRequest().body("batch_size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        ImportReport report = importService.importNdjson(body, batchSize);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Redis 上のいいねを DB の内容で修復する（Redis のフェイルオーバー後などに実行する）。
+     * 定期実行と同じ処理を即時に行い、いいね数を修復した記事数を返す。
+     */
+    @PostMapping("/likes/reconcile")
+    @RequireRoles("ADMIN")
+    public ResponseEntity<?> reconcileLikes() {
+        return ResponseEntity.ok(Map.of("repaired", likeReconciliationJob.reconcile()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.CommentRequest;
+import com.ginga.naviai.knowledge.dto.CommentResponse;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.service.CommentService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 記事へのコメント（スレッド形式）のエンドポイント
+ */
+@RestController
+@RequestMapping("/api/v1/knowledge/{id}/comments")
+public class KnowledgeCommentController {
+
+    private static final int MAX_PER_PAGE = 100;
+
+    private final CommentService commentService;
+
+    public KnowledgeCommentController(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    /**
+     * トップレベルのコメントを投稿順に {@code per_page} 件取得し、各コメント配下の返信をツリーで返す。
+     * 続きがある場合は {@code meta.next_cursor} を {@code cursor} に指定して次ページを取得する。
+     */
+    @GetMapping
+    public ResponseEntity<?> getComments(@PathVariable Long id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(name = "per_page", defaultValue = "20") int perPage,
+                                         @AuthenticationPrincipal UserDetails userDetails) {
+        if (perPage < 1 || perPage > MAX_PER_PAGE) {
+            return ResponseEntity.badRequest().body("per_page must be between 1 and " + MAX_PER_PAGE);
+        }
+        CursorPage<CommentResponse> page = commentService.getThread(id,
+                userDetails != null ? userDetails.getUsername() : null, cursor, perPage);
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("per_page", perPage);
+        meta.put("next_cursor", page.getNextCursor());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", page.getContent());
+        response.put("meta", meta);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping
+    public ResponseEntity<?> addComment(@PathVariable Long id,
+                                        @Valid @RequestBody CommentRequest request,
+                                        @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        CommentResponse created = commentService.addComment(id, userDetails.getUsername(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @DeleteMapping("/{commentId}")
+    public ResponseEntity<?> deleteComment(@PathVariable Long id,
+                                           @PathVariable Long commentId,
+                                           @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        commentService.deleteComment(id, commentId, userDetails.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,20 +1,34 @@
 package com.ginga.naviai.knowledge.controller;
 
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.dto.KnowledgeDetailResponse;
+import com.ginga.naviai.knowledge.dto.KnowledgeRequest;
 import com.ginga.naviai.knowledge.dto.KnowledgeResponse;
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.service.KnowledgeSearchService;
 import com.ginga.naviai.knowledge.service.KnowledgeService;
+import com.ginga.naviai.knowledge.service.KnowledgeVectorSearchService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -23,13 +37,36 @@ import java.util.Set;
 public class KnowledgeController {
 
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of("createdAt", "title", "publishedAt");
+    private static final int MAX_RELATED = 20;
+    private static final int MAX_SEMANTIC_RESULTS = 50;
 
     private final KnowledgeService knowledgeService;
+    private final KnowledgeSearchService knowledgeSearchService;
+    private final KnowledgeVectorSearchService knowledgeVectorSearchService;
 
-    public KnowledgeController(KnowledgeService knowledgeService) {
+    public KnowledgeController(KnowledgeService knowledgeService, KnowledgeSearchService knowledgeSearchService,
+                               KnowledgeVectorSearchService knowledgeVectorSearchService) {
         this.knowledgeService = knowledgeService;
+        this.knowledgeSearchService = knowledgeSearchService;
+        this.knowledgeVectorSearchService = knowledgeVectorSearchService;
     }
 
+    /**
+     * 記事一覧を取得する。
+     * <p>
+     * {@code cursor} パラメータを指定した場合（先頭ページは空文字）はキーセットページングとなり、
+     * OFFSET・総件数の COUNT を行わずに {@code meta.next_cursor} で続きを返す。
+     * キーセットページングは作成日時の降順（sort=createdAt）のみ対応する。
+     * </p>
+     * <p>
+     * {@code include_total=false} の場合は {@code meta.total} を返さず、{@code meta.has_next} のみで続きの有無を示す。
+     * </p>
+     * <p>
+     * {@code tags}（カンマ区切り）・{@code exclude_tags} を指定した場合は公開中の記事をタグで絞り込む。
+     * {@code mode=and} はすべてのタグ、{@code mode=or} はいずれかのタグを含む記事が対象で、
+     * {@code exclude_tags} のいずれかを含む記事は除外する。並び順は新しい順（sort=createdAt）のみ対応する。
+     * </p>
+     */
     @GetMapping
     public ResponseEntity<?> getKnowledge(
             @RequestParam(required = false) Boolean mine,
@@ -37,30 +74,50 @@ public class KnowledgeController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(name = "per_page", defaultValue = "20") int perPage,
             @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "include_total", defaultValue = "true") boolean includeTotal,
+            @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "and") String mode,
+            @RequestParam(name = "exclude_tags", required = false) String excludeTags,
             @AuthenticationPrincipal UserDetails userDetails) {
 
         if (!ALLOWED_SORT_FIELDS.contains(sort)) {
             return ResponseEntity.badRequest().body("Invalid sort field. Allowed: " + ALLOWED_SORT_FIELDS);
         }
 
+        if (tags != null || excludeTags != null) {
+            if (mine != null || authorId != null || cursor != null) {
+                return ResponseEntity.badRequest().body("tags cannot be combined with 'mine', 'author_id' or 'cursor'");
+            }
+            return getKnowledgeByTags(tags, mode, excludeTags, page, perPage, sort, userDetails);
+        }
+
+        if (cursor != null) {
+            return getKnowledgeByCursor(mine, authorId, perPage, sort, cursor, userDetails);
+        }
+
         if (page < 1) {
             return ResponseEntity.badRequest().body("page must be >= 1");
         }
 
         Pageable pageable = PageRequest.of(page - 1, perPage, Sort.by(sort).descending());
 
-        Page<KnowledgeResponse> knowledgePage;
+        Slice<KnowledgeResponse> knowledgePage;
 
         if (Boolean.TRUE.equals(mine)) {
             if (userDetails == null) {
                 return ResponseEntity.status(401).body("Unauthorized");
             }
-            knowledgePage = knowledgeService.getMyKnowledgeByUsername(userDetails.getUsername(), pageable);
+            knowledgePage = includeTotal
+                    ? knowledgeService.getMyKnowledgeByUsername(userDetails.getUsername(), pageable)
+                    : knowledgeService.getMyKnowledgeSliceByUsername(userDetails.getUsername(), pageable);
         } else if (authorId != null) {
             if (userDetails == null) {
                 return ResponseEntity.status(401).body("Unauthorized");
             }
-            knowledgePage = knowledgeService.getKnowledgeByAuthorId(authorId, pageable);
+            knowledgePage = includeTotal
+                    ? knowledgeService.getKnowledgeByAuthorId(authorId, pageable)
+                    : knowledgeService.getKnowledgeSliceByAuthorId(authorId, pageable);
         } else {
             return ResponseEntity.badRequest().body("Either 'mine' or 'author_id' must be provided.");
         }
@@ -68,6 +125,164 @@ public class KnowledgeController {
         Map<String, Object> meta = new HashMap<>();
         meta.put("page", knowledgePage.getNumber() + 1);
         meta.put("per_page", knowledgePage.getSize());
+        meta.put("has_next", knowledgePage.hasNext());
+        if (knowledgePage instanceof Page<KnowledgeResponse> withTotal) {
+            meta.put("total", withTotal.getTotalElements());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", knowledgePage.getContent());
+        response.put("meta", meta);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 公開中の記事を全文検索する（関連度順、タイトル・抜粋の一致箇所オフセット付き）。
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(name = "per_page", defaultValue = "20") int perPage,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("q must not be blank");
+        }
+        if (page < 1) {
+            return ResponseEntity.badRequest().body("page must be >= 1");
+        }
+        if (perPage < 1 || perPage > 100) {
+            return ResponseEntity.badRequest().body("per_page must be between 1 and 100");
+        }
+
+        Page<SearchHitResponse> result = knowledgeSearchService.search(q, PageRequest.of(page - 1, perPage));
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("page", page);
+        meta.put("per_page", perPage);
+        meta.put("total", result.getTotalElements());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", result.getContent());
+        response.put("meta", meta);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 公開中の記事をベクトル索引で意味検索する（記事ごとに最も近いチャンクの類似度順、抜粋はそのチャンクから作る）。
+     * 記事の変更はバックグラウンドで索引に反映するため、少し遅れて検索結果に現れる。
+     */
+    @GetMapping("/semantic-search")
+    public ResponseEntity<?> semanticSearch(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("q must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEMANTIC_RESULTS) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_SEMANTIC_RESULTS);
+        }
+        return ResponseEntity.ok(Map.of("data", knowledgeVectorSearchService.search(q, limit)));
+    }
+
+    /**
+     * 記事を作成する。タグは名前で指定し、未登録のタグは作成される。
+     */
+    @PostMapping
+    public ResponseEntity<?> createKnowledge(@Valid @RequestBody KnowledgeRequest request,
+                                             @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        KnowledgeDetailResponse created = knowledgeService.createKnowledge(userDetails.getUsername(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * 記事を更新する（著者本人のみ）。tags を省略した場合はタグを変更しない。
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateKnowledge(@PathVariable Long id,
+                                             @Valid @RequestBody KnowledgeRequest request,
+                                             @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        KnowledgeDetailResponse updated = knowledgeService.updateKnowledge(id, userDetails.getUsername(), request);
+        return ResponseEntity.ok(updated);
+    }
+
+    /**
+     * 記事詳細（本文を含む）を取得する。一覧 API は本文を返さないため、本文表示時はこちらを使用する。
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getKnowledgeDetail(@PathVariable Long id,
+                                                @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        KnowledgeDetailResponse detail = knowledgeService.getKnowledgeDetail(id, userDetails.getUsername());
+        return ResponseEntity.ok(detail);
+    }
+
+    /**
+     * 記事の関連記事（タグの類似度と共起いいねによる）を関連度の高い順に返す。
+     * 関連度はバックグラウンドで更新するため、記事やいいねの変更は少し遅れて反映される。
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedKnowledge(@PathVariable Long id,
+                                                 @RequestParam(defaultValue = "10") int limit,
+                                                 @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        if (limit < 1 || limit > MAX_RELATED) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_RELATED);
+        }
+        return ResponseEntity.ok(Map.of("data", knowledgeService.getRelatedKnowledge(id, limit)));
+    }
+
+    private ResponseEntity<?> getKnowledgeByTags(String tags, String mode, String excludeTags,
+                                                 int page, int perPage, String sort, UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        if (!"and".equals(mode) && !"or".equals(mode)) {
+            return ResponseEntity.badRequest().body("mode must be 'and' or 'or'");
+        }
+        if (!"createdAt".equals(sort)) {
+            return ResponseEntity.badRequest().body("tag filter supports only sort=createdAt");
+        }
+        if (page < 1) {
+            return ResponseEntity.badRequest().body("page must be >= 1");
+        }
+        if (perPage < 1 || perPage > 100) {
+            return ResponseEntity.badRequest().body("per_page must be between 1 and 100");
+        }
+        Set<String> included = splitTags(tags);
+        Set<String> excluded = splitTags(excludeTags);
+        if (included.isEmpty() && excluded.isEmpty()) {
+            return ResponseEntity.badRequest().body("tags must not be blank");
+        }
+
+        Page<KnowledgeResponse> knowledgePage = knowledgeService.getKnowledgeByTags(
+                included, "and".equals(mode), excluded, PageRequest.of(page - 1, perPage));
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("page", page);
+        meta.put("per_page", perPage);
+        meta.put("has_next", knowledgePage.hasNext());
         meta.put("total", knowledgePage.getTotalElements());
 
         Map<String, Object> response = new HashMap<>();
@@ -76,4 +291,52 @@ public class KnowledgeController {
 
         return ResponseEntity.ok(response);
     }
+
+    private static Set<String> splitTags(String tags) {
+        Set<String> result = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags.split(",")) {
+                if (!tag.isBlank()) {
+                    result.add(tag.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    private ResponseEntity<?> getKnowledgeByCursor(Boolean mine, Long authorId, int perPage, String sort,
+                                                   String cursor, UserDetails userDetails) {
+        if (!"createdAt".equals(sort)) {
+            return ResponseEntity.badRequest().body("cursor pagination supports only sort=createdAt");
+        }
+        if (perPage < 1 || perPage > 100) {
+            return ResponseEntity.badRequest().body("per_page must be between 1 and 100");
+        }
+
+        CursorPage<KnowledgeResponse> knowledgePage;
+
+        if (Boolean.TRUE.equals(mine)) {
+            if (userDetails == null) {
+                return ResponseEntity.status(401).body("Unauthorized");
+            }
+            knowledgePage = knowledgeService.getMyKnowledgeByUsername(userDetails.getUsername(), cursor, perPage);
+        } else if (authorId != null) {
+            if (userDetails == null) {
+                return ResponseEntity.status(401).body("Unauthorized");
+            }
+            knowledgePage = knowledgeService.getKnowledgeByAuthorId(authorId, cursor, perPage);
+        } else {
+            return ResponseEntity.badRequest().body("Either 'mine' or 'author_id' must be provided.");
+        }
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("per_page", perPage);
+        meta.put("next_cursor", knowledgePage.getNextCursor());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", knowledgePage.getContent());
+        response.put("meta", meta);
+
+        return ResponseEntity.ok(response);
+    }
 }
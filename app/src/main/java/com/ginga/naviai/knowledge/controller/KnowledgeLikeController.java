@@ -0,0 +1,53 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.service.LikeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 記事へのいいねのエンドポイント。
+ * <p>
+ * PUT でいいね、DELETE で取り消し。どちらも冪等で、操作後の状態（liked / likeCount）を返す。
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/knowledge/{id}/like")
+public class KnowledgeLikeController {
+
+    private final LikeService likeService;
+
+    public KnowledgeLikeController(LikeService likeService) {
+        this.likeService = likeService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getLike(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        return ResponseEntity.ok(likeService.getStatus(id, userDetails.getUsername()));
+    }
+
+    @PutMapping
+    public ResponseEntity<?> like(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        return ResponseEntity.ok(likeService.like(id, userDetails.getUsername()));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> unlike(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        return ResponseEntity.ok(likeService.unlike(id, userDetails.getUsername()));
+    }
+}
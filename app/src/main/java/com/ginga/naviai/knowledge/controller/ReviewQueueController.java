@@ -0,0 +1,112 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.ReviewQueueItem;
+import com.ginga.naviai.knowledge.service.ReviewQueueService;
+import com.ginga.naviai.security.annotation.RequireRoles;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * レビュアー向けのレビューキューのエンドポイント
+ */
+@RestController
+@RequestMapping("/api/v1/review/queue")
+@RequireRoles({"ADMIN", "REVIEWER"})
+public class ReviewQueueController {
+
+    private static final int MAX_CLAIM = 50;
+
+    private final ReviewQueueService reviewQueueService;
+
+    public ReviewQueueController(ReviewQueueService reviewQueueService) {
+        this.reviewQueueService = reviewQueueService;
+    }
+
+    /**
+     * 未担当のレビュー待ち記事を申請順に最大 {@code limit} 件担当し、担当した記事を返す。
+     */
+    @PostMapping("/claim")
+    public ResponseEntity<?> claim(@RequestParam(defaultValue = "10") int limit,
+                                   @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        if (limit < 1 || limit > MAX_CLAIM) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_CLAIM);
+        }
+        List<ReviewQueueItem> claimed = reviewQueueService.claimNext(userDetails.getUsername(), limit);
+        return ResponseEntity.ok(Map.of("data", claimed));
+    }
+
+    /**
+     * 自分が担当中の記事を返す。
+     */
+    @GetMapping("/mine")
+    public ResponseEntity<?> getClaims(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        return ResponseEntity.ok(Map.of("data", reviewQueueService.getClaims(userDetails.getUsername())));
+    }
+
+    @PostMapping("/{id}/renew")
+    public ResponseEntity<?> renew(@PathVariable Long id,
+                                   @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        return ResponseEntity.ok(reviewQueueService.renew(id, userDetails.getUsername()));
+    }
+
+    @DeleteMapping("/{id}/claim")
+    public ResponseEntity<?> release(@PathVariable Long id,
+                                     @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        reviewQueueService.release(id, userDetails.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 担当している記事を承認する。{@code updatedAt} には担当時に返された {@code submittedAt} を渡し、
+     * それ以降に記事が更新されていた場合は 409 とする。
+     */
+    @PostMapping("/{id}/approve")
+    public ResponseEntity<?> approve(@PathVariable Long id,
+                                     @RequestParam("updatedAt") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedAt,
+                                     @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        reviewQueueService.approve(id, userDetails.getUsername(), updatedAt);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 担当している記事を差し戻す。{@code updatedAt} の扱いは承認と同じ。
+     */
+    @PostMapping("/{id}/decline")
+    public ResponseEntity<?> decline(@PathVariable Long id,
+                                     @RequestParam("updatedAt") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedAt,
+                                     @AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        reviewQueueService.decline(id, userDetails.getUsername(), updatedAt);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.TagCloudItem;
+import com.ginga.naviai.knowledge.service.TagStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/tags")
+public class TagController {
+
+    private final TagStatsService tagStatsService;
+
+    public TagController(TagStatsService tagStatsService) {
+        this.tagStatsService = tagStatsService;
+    }
+
+    /**
+     * 公開中記事で使用されている全タグを件数・重み付きで返す。
+     */
+    @GetMapping("/cloud")
+    public ResponseEntity<List<TagCloudItem>> getTagCloud() {
+        return ResponseEntity.ok(tagStatsService.getTagCloud());
+    }
+}
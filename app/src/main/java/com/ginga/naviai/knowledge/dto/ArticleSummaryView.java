@@ -0,0 +1,27 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 記事一覧（新着・おすすめ）表示用の射影。
+ * <p>
+ * JPQL のコンストラクタ式で著者を結合したうえで必要な列のみを取得するため、
+ * TEXT 型の body 読み込みや著者の遅延ロード（N+1）が発生しない。
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArticleSummaryView {
+    private Long id;
+    private String title;
+    private String authorDisplayName;
+    private Instant publishedAt;
+    private long likeCount;
+    /** DB に反映済みの閲覧数 */
+    private long viewCount;
+}
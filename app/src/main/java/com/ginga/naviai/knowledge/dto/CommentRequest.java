@@ -0,0 +1,19 @@
+package com.ginga.naviai.knowledge.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * コメント投稿リクエスト
+ */
+@Data
+public class CommentRequest {
+
+    @NotBlank
+    @Size(max = 10000)
+    private String body;
+
+    /** 返信先のコメントID（トップレベルのコメントの場合は null） */
+    private Long parentId;
+}
@@ -0,0 +1,30 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * コメントと、その配下の返信（投稿順）を返すDTO。
+ * 削除済みのコメントは返信をスレッドに残すため、本文・投稿者を伏せて {@code deleted=true} で返す。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentResponse {
+    private Long id;
+    private Long parentId;
+    private Long authorId;
+    private String authorName;
+    private String body;
+    private boolean deleted;
+    private Instant createdAt;
+    @Builder.Default
+    private List<CommentResponse> replies = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * キーセットページングの結果。総件数は持たず、続きがある場合のみ {@code nextCursor} を返す。
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    /** 次ページ取得用のカーソル（最終ページの場合は null） */
+    private String nextCursor;
+}
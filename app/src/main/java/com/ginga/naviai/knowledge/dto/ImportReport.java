@@ -0,0 +1,37 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 一括取り込みの結果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    /** 読み込んだ行数（空行を除く） */
+    private long processed;
+    private long imported;
+    private long failed;
+    /** コミットしたバッチ数 */
+    private int batches;
+    private long elapsedMillis;
+    /** 失敗した行（上限件数まで） */
+    private List<LineError> errors;
+    /** 上限を超えたため errors に含まれない失敗があるか */
+    private boolean errorsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
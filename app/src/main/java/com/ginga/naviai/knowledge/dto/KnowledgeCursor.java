@@ -0,0 +1,49 @@
+package com.ginga.naviai.knowledge.dto;
+
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 記事一覧のキーセットページング用カーソル。
+ * <p>
+ * 直前ページ末尾の (createdAt, id) を保持し、クライアントには Base64URL で符号化した不透明な文字列として渡す。
+ * 次ページは「この位置より後ろ」を索引上でシークして取得するため、ページの深さに関わらずコストが一定になる。
+ * </p>
+ */
+@Value
+public class KnowledgeCursor {
+
+    private static final String VERSION = "c1";
+
+    Instant createdAt;
+    Long id;
+
+    public String encode() {
+        String raw = VERSION + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * カーソル文字列を復元する。
+     *
+     * @throws InvalidRequestException 不正なカーソルの場合
+     */
+    public static KnowledgeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new KnowledgeCursor(Instant.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException / Base64 の復号失敗も IllegalArgumentException のサブクラス
+            throw new InvalidRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 記事詳細（本文を含む）を返すDTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KnowledgeDetailResponse {
+    private String id;
+    private String title;
+    private String body;
+    private String excerpt;
+    private String date;
+    private String status;
+    private String thumbnail;
+    private String authorDisplayName;
+    private long likeCount;
+    private long viewCount;
+    private long commentCount;
+    private List<String> tags;
+}
@@ -0,0 +1,49 @@
+package com.ginga.naviai.knowledge.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 一括取り込み（NDJSON）の 1 行分の記事
+ */
+@Data
+@NoArgsConstructor
+public class KnowledgeImportRecord {
+
+    /** 著者のユーザー名 */
+    @NotBlank
+    private String author;
+
+    @NotBlank
+    @Size(max = 500)
+    private String title;
+
+    private String body;
+
+    @Size(max = 255)
+    private String excerpt;
+
+    @Size(max = 255)
+    private String thumbnail;
+
+    /** 省略時は published */
+    @Pattern(regexp = "draft|pending|published|declined")
+    private String status;
+
+    @Size(max = 20)
+    private List<@NotBlank @Size(max = 100) String> tags;
+
+    /** 省略時は取り込み日時 */
+    @JsonProperty("created_at")
+    private Instant createdAt;
+
+    @JsonProperty("published_at")
+    private Instant publishedAt;
+}
@@ -0,0 +1,30 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 記事一覧用の射影。
+ * <p>
+ * {@link KnowledgeResponse} の生成に必要な列のみを保持し、本文（TEXT 型の body）は読み込まない。
+ * 本文が必要な場合は詳細取得（{@code GET /api/v1/knowledge/{id}}）を使用すること。
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KnowledgeListView {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private String status;
+    private Instant createdAt;
+    private String thumbnail;
+    /** DB に反映済みの閲覧数 */
+    private long viewCount;
+    /** コメント数 */
+    private long commentCount;
+}
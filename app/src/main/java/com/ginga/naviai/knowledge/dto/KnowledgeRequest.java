@@ -0,0 +1,41 @@
+package com.ginga.naviai.knowledge.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 記事の作成・更新リクエスト
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KnowledgeRequest {
+
+    @NotBlank
+    @Size(max = 500)
+    private String title;
+
+    private String body;
+
+    @Size(max = 255)
+    private String excerpt;
+
+    @Size(max = 255)
+    private String thumbnail;
+
+    /** draft（下書き）または pending（レビュー申請）。省略時は作成: draft / 更新: 変更なし */
+    @Pattern(regexp = "draft|pending", message = "status は draft または pending を指定してください")
+    private String status;
+
+    /** タグ名（前後の空白は除去し、重複は 1 つにまとめる）。省略時は作成: なし / 更新: 変更なし */
+    @Size(max = 20)
+    private List<@NotBlank @Size(max = 100) String> tags;
+}
@@ -1,5 +1,8 @@
 package com.ginga.naviai.knowledge.dto;
 
+import java.util.Collections;
+import java.util.List;
+
 public class KnowledgeResponse {
     private String id;
     private String title;
@@ -7,6 +10,9 @@ public class KnowledgeResponse {
     private String date;
     private String status;
     private String thumbnail;
+    private long viewCount;
+    private long commentCount;
+    private List<String> tags = Collections.emptyList();
 
     public KnowledgeResponse(String id, String title, String excerpt, String date, String status, String thumbnail) {
         this.id = id;
@@ -65,4 +71,28 @@ public class KnowledgeResponse {
     public void setThumbnail(String thumbnail) {
         this.thumbnail = thumbnail;
     }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
 }
@@ -0,0 +1,19 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 記事に対する閲覧ユーザーのいいね状態
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeStatusResponse {
+    private Long knowledgeId;
+    /** 閲覧ユーザーがいいね済みか */
+    private boolean liked;
+    /** 記事のいいね数 */
+    private long likeCount;
+}
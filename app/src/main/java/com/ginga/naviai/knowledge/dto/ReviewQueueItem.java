@@ -0,0 +1,27 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * レビュアーが担当しているレビュー待ち記事
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueItem {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private Long authorId;
+    private String authorName;
+    /** レビュー申請日時（記事の最終更新日時） */
+    private Instant submittedAt;
+    /** 担当期限。期限までに承認・差し戻し・延長しない場合、他のレビュアーが取得できるようになる */
+    private Instant claimExpiresAt;
+}
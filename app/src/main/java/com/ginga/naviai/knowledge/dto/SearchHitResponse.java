@@ -0,0 +1,35 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 全文検索の 1 件分の結果を返すDTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitResponse {
+    private String id;
+    private String title;
+    /** 本文中の一致箇所周辺の抜粋 */
+    private String snippet;
+    private double score;
+    /** title / snippet 内の一致箇所（文字オフセット） */
+    private List<Highlight> highlights;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Highlight {
+        /** "title" または "snippet" */
+        private String field;
+        private int start;
+        private int end;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * タグクラウド表示用の要素。
+ * weight は最多使用タグを 1.0 とした相対値（0.0〜1.0）。
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TagCloudItem {
+    private String tag;
+    private long count;
+    private double weight;
+}
@@ -0,0 +1,16 @@
+package com.ginga.naviai.knowledge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * タグ名と公開中記事での使用件数
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TagUsage {
+    private String tag;
+    private long count;
+}
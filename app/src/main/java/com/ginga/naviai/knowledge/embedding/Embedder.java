@@ -0,0 +1,53 @@
+package com.ginga.naviai.knowledge.embedding;
+
+import java.util.List;
+
+/**
+ * テキストを固定長のベクトルに変換する埋め込みモデル。
+ * <p>
+ * 実装は Bean として登録し、{@code knowledge.vector.embedder} で使用するものを 1 つ選ぶ
+ * （既定はオフラインで動作する {@link HashedTfIdfEmbedder}）。外部の埋め込み API を使う実装もこのインターフェースで差し替えられる。
+ * </p>
+ * <p>
+ * 語の文書頻度などコーパスの統計を使うモデルは {@link #fit(List)} で統計を反映した新しいインスタンスを返し、
+ * その状態を {@link #state()} / {@link #restore(byte[])} でベクトル索引のスナップショットと一緒に保存・復元する。
+ * 同じ状態のインスタンスは同じテキストに対して常に同じベクトルを返すこと。
+ * </p>
+ */
+public interface Embedder {
+
+    /**
+     * モデルの識別子。出力されるベクトルが変わる変更（次元数・アルゴリズム）では異なる値にすること。
+     * スナップショットの識別子と一致しない場合、索引は作り直される。
+     */
+    String modelId();
+
+    /** ベクトルの次元数 */
+    int dimension();
+
+    /**
+     * テキストをベクトルに変換する。語を含まないテキストはゼロベクトルとなる。
+     */
+    float[] embed(String text);
+
+    /**
+     * コーパスの統計を反映したモデルを返す（全件再構築時に呼び出す）。統計を使わないモデルは自身を返す。
+     */
+    default Embedder fit(List<String> corpus) {
+        return this;
+    }
+
+    /** スナップショットに保存するモデルの状態 */
+    default byte[] state() {
+        return new byte[0];
+    }
+
+    /**
+     * {@link #state()} で保存した状態を復元したモデルを返す。
+     *
+     * @throws IllegalArgumentException 状態の形式が不正な場合
+     */
+    default Embedder restore(byte[] state) {
+        return this;
+    }
+}
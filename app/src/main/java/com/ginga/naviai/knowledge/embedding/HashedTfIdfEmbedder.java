@@ -0,0 +1,156 @@
+package com.ginga.naviai.knowledge.embedding;
+
+import com.ginga.naviai.knowledge.search.SearchTokenizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 語のハッシュによる TF-IDF ベクトル（外部サービス・学習済みモデル不要の既定の埋め込み）。
+ * <p>
+ * テキストを {@link SearchTokenizer} で語に分割し、語のハッシュ値で次元を決めて (1 + log tf) × idf を加算する
+ * （ハッシュの 1 ビットで符号を変え、衝突した語同士の値が打ち消し合うようにする）。最後に L2 正規化する。
+ * idf は次元（ハッシュのバケット）単位の文書頻度から {@link #fit(List)} で求める。未学習の場合はすべて 1 とする。
+ * </p>
+ * <p>
+ * 語の意味的な近さは扱えず、共通する語（日本語は文字 bigram）が多いほど類似度が高くなる。
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "knowledge.vector.embedder", havingValue = "hashed-tfidf", matchIfMissing = true)
+public class HashedTfIdfEmbedder implements Embedder {
+
+    private static final String MODEL = "hashed-tfidf-v1";
+
+    private final int dimension;
+    /** 次元ごとの idf（null の場合は未学習） */
+    private final float[] idf;
+
+    @Autowired
+    public HashedTfIdfEmbedder(@Value("${knowledge.vector.dimension:512}") int dimension) {
+        this(dimension, null);
+    }
+
+    private HashedTfIdfEmbedder(int dimension, float[] idf) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension must be >= 1");
+        }
+        this.dimension = dimension;
+        this.idf = idf;
+    }
+
+    @Override
+    public String modelId() {
+        return MODEL + "-" + dimension;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        Map<String, Integer> tf = new HashMap<>();
+        for (SearchTokenizer.Token t : SearchTokenizer.tokenize(text)) {
+            tf.merge(t.getTerm(), 1, Integer::sum);
+        }
+        float[] vector = new float[dimension];
+        for (Map.Entry<String, Integer> e : tf.entrySet()) {
+            long h = hash(e.getKey());
+            int bucket = bucket(h);
+            double weight = (1 + Math.log(e.getValue())) * (idf != null ? idf[bucket] : 1.0);
+            vector[bucket] += (float) ((h & (1L << 32)) == 0 ? weight : -weight);
+        }
+        double norm = 0;
+        for (float x : vector) {
+            norm += x * x;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimension; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * コーパス（索引対象のチャンク）の次元ごとの文書頻度から idf = ln((1 + N) / (1 + df)) + 1 を求めたモデルを返す。
+     */
+    @Override
+    public Embedder fit(List<String> corpus) {
+        int[] df = new int[dimension];
+        BitSet seen = new BitSet(dimension);
+        for (String text : corpus) {
+            seen.clear();
+            for (SearchTokenizer.Token t : SearchTokenizer.tokenize(text)) {
+                seen.set(bucket(hash(t.getTerm())));
+            }
+            for (int b = seen.nextSetBit(0); b >= 0; b = seen.nextSetBit(b + 1)) {
+                df[b]++;
+            }
+        }
+        float[] fitted = new float[dimension];
+        for (int b = 0; b < dimension; b++) {
+            fitted[b] = (float) (Math.log((1.0 + corpus.size()) / (1.0 + df[b])) + 1.0);
+        }
+        return new HashedTfIdfEmbedder(dimension, fitted);
+    }
+
+    @Override
+    public byte[] state() {
+        if (idf == null) {
+            return new byte[0];
+        }
+        ByteBuffer buf = ByteBuffer.allocate(dimension * Float.BYTES);
+        for (float x : idf) {
+            buf.putFloat(x);
+        }
+        return buf.array();
+    }
+
+    @Override
+    public Embedder restore(byte[] state) {
+        if (state.length == 0) {
+            return new HashedTfIdfEmbedder(dimension, null);
+        }
+        if (state.length != dimension * Float.BYTES) {
+            throw new IllegalArgumentException("idf state does not match dimension " + dimension);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(state);
+        float[] restored = new float[dimension];
+        for (int b = 0; b < dimension; b++) {
+            restored[b] = buf.getFloat();
+        }
+        return new HashedTfIdfEmbedder(dimension, restored);
+    }
+
+    private int bucket(long hash) {
+        return (int) Long.remainderUnsigned(hash, dimension);
+    }
+
+    /**
+     * 語の 64 ビットハッシュ（FNV-1a + 攪拌）。JVM・実行ごとに変わらない値とするため String#hashCode は使わない。
+     */
+    private static long hash(String term) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < term.length(); i++) {
+            h ^= term.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
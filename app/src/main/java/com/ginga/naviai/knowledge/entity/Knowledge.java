@@ -54,6 +54,40 @@ public class Knowledge {
     @Column(length = 255)
     private String thumbnail;
 
+    /**
+     * いいね数（"like" テーブルの件数を非正規化したもの）。
+     * いいねの永続化ジョブが SQL で増減させ、ずれは定期ジョブで補正する。
+     * 記事の更新時に読み込み時点の値で上書きしないよう、エンティティからは更新しない。
+     */
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount;
+
+    /**
+     * 閲覧数。閲覧ごとには更新せず、{@code ViewCountBuffer} がメモリ上で集約した増分を SQL で定期的に加算する。
+     * コメント数と同様、記事の更新で加算済みの値を上書きしないよう、エンティティからは更新しない。
+     */
+    @Column(name = "view_count", nullable = false, updatable = false)
+    private long viewCount;
+
+    /**
+     * コメント数（削除済みを除く、返信を含む）。コメントの投稿・削除と同一トランザクションで SQL により増減させる。
+     * 記事の更新時に読み込み時点の値で上書きしないよう、エンティティからは更新しない。
+     */
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount;
+
+    /**
+     * レビューを担当しているユーザーのID。担当の取得・解放はレビューキューが SQL で行い、エンティティからは書き込まない。
+     */
+    @Column(name = "review_claimed_by", insertable = false, updatable = false)
+    private Long reviewClaimedBy;
+
+    /**
+     * レビュー担当の期限。期限を過ぎた担当は他のレビュアーが取得できる。
+     */
+    @Column(name = "review_claim_expires_at", insertable = false, updatable = false)
+    private Instant reviewClaimExpiresAt;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "knowledge_tag",
@@ -0,0 +1,39 @@
+package com.ginga.naviai.knowledge.event;
+
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 記事の一括取り込みで 1 バッチ分の記事を作成したことを通知するアプリケーションイベント。
+ * <p>
+ * 一括取り込みでは記事ごとの {@link KnowledgeChangedEvent} を発行せず、バッチのトランザクション内でこのイベントを 1 回発行する。
+ * 派生データはバッチ単位でまとめて更新すること（DB 上の集計は同一トランザクションで、インメモリの派生データはコミット後に反映する）。
+ * </p>
+ */
+@Value
+public class KnowledgeBulkImportedEvent {
+
+    List<Item> items;
+
+    /**
+     * 取り込んだ記事 1 件
+     */
+    @Value
+    public static class Item {
+        Long knowledgeId;
+        Long authorId;
+        KnowledgeState state;
+        Instant createdAt;
+    }
+
+    /** 各記事を新規作成の {@link KnowledgeChangedEvent} として返す（記事単位の更新処理を再利用する場合に使用する） */
+    public List<KnowledgeChangedEvent> asChangedEvents() {
+        return items.stream()
+                .map(i -> new KnowledgeChangedEvent(i.getKnowledgeId(), i.getAuthorId(), null, i.getState()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ginga.naviai.knowledge.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * 記事の作成・更新・削除を通知するアプリケーションイベント。
+ * <p>
+ * タグ集計などのインメモリ派生データは、このイベントの変更前後の状態差分を元に
+ * インクリメンタルに更新する。新規作成時は {@code before}、物理削除時は {@code after} が null になる。
+ * </p>
+ */
+@Value
+public class KnowledgeChangedEvent {
+
+    Long knowledgeId;
+    Long authorId;
+    KnowledgeState before;
+    KnowledgeState after;
+
+    /**
+     * 派生データの更新に必要な記事状態のスナップショット
+     */
+    @Value
+    public static class KnowledgeState {
+        String status;
+        boolean deleted;
+        Set<String> tags;
+
+        /** 公開中（published かつ論理削除されていない）かどうか */
+        public boolean isVisible() {
+            return "published".equals(status) && !deleted;
+        }
+    }
+}
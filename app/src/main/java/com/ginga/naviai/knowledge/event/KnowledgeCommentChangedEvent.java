@@ -0,0 +1,21 @@
+package com.ginga.naviai.knowledge.event;
+
+import lombok.Value;
+
+/**
+ * 記事へのコメントの投稿・削除を通知するアプリケーションイベント。
+ * <p>
+ * コメントの書き込みと同じトランザクション内で発行する。
+ * DB 上の集計は {@code @EventListener} で同一トランザクションに、インメモリの派生データやクライアントへの通知は
+ * コミット後（{@code @TransactionalEventListener}）に反映すること。
+ * </p>
+ */
+@Value
+public class KnowledgeCommentChangedEvent {
+    Long knowledgeId;
+    /** 記事の著者ID（コメントの投稿者ではない） */
+    Long authorId;
+    Long commentId;
+    /** 投稿時は 1、削除時は -1 */
+    long delta;
+}
@@ -0,0 +1,30 @@
+package com.ginga.naviai.knowledge.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * いいねの追加・取り消しを "like" テーブルへ反映したことを通知するアプリケーションイベント。
+ * <p>
+ * いいねは Redis 上で即時に反映し、DB へはまとめて非同期に書き込むため、
+ * 書き込んだ 1 バッチ分の記事ごとの増減をこのイベントで 1 回通知する。
+ * 書き込みと同じトランザクション内で発行するため、DB 上の集計は {@code @EventListener} で同一トランザクションに、
+ * インメモリの派生データやクライアントへの通知はコミット後に反映すること。
+ * </p>
+ */
+@Value
+public class KnowledgeLikesChangedEvent {
+
+    List<Item> items;
+
+    /**
+     * 記事 1 件分のいいね数の増減
+     */
+    @Value
+    public static class Item {
+        Long knowledgeId;
+        Long authorId;
+        long delta;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ginga.naviai.knowledge.exception;
+
+public class KnowledgeNotFoundException extends RuntimeException {
+    public KnowledgeNotFoundException(String message) {
+        super(message);
+    }
+}
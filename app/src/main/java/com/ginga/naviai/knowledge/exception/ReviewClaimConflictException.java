@@ -0,0 +1,10 @@
+package com.ginga.naviai.knowledge.exception;
+
+/**
+ * レビュー担当を保持していない（未取得・期限切れ・他のレビュアーが取得済み）記事を操作しようとした場合の例外。
+ */
+public class ReviewClaimConflictException extends RuntimeException {
+    public ReviewClaimConflictException(String message) {
+        super(message);
+    }
+}
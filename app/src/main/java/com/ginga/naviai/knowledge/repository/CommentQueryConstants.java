@@ -0,0 +1,69 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * comment テーブルに対する JDBC 直接実行用の SQL 定数クラス。
+ * <p>
+ * スレッドは再帰 CTE の 1 クエリで取得する。起点は記事内のトップレベルコメントを (created_at, id) 順に
+ * キーセットページングした 1 ページ分で、そこから parent_comment_id を辿って配下の返信をすべて読み込む。
+ * PostgreSQL / H2 の双方で動作する構文で記述している。
+ * </p>
+ */
+public final class CommentQueryConstants {
+
+    private CommentQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    private static final String THREAD_COLUMNS = "id, parent_comment_id, author_id, body, is_deleted, created_at";
+
+    private static final String THREAD_HEAD =
+            "WITH RECURSIVE thread (" + THREAD_COLUMNS + ") AS (" +
+            "SELECT " + THREAD_COLUMNS + " FROM (" +
+            "SELECT " + THREAD_COLUMNS + " FROM comment " +
+            "WHERE knowledge_id = :knowledgeId AND parent_comment_id IS NULL ";
+
+    private static final String THREAD_TAIL =
+            "ORDER BY created_at, id LIMIT :limit) top_level " +
+            "UNION ALL " +
+            "SELECT c.id, c.parent_comment_id, c.author_id, c.body, c.is_deleted, c.created_at " +
+            "FROM comment c JOIN thread t ON c.parent_comment_id = t.id) " +
+            "SELECT t.id, t.parent_comment_id, t.author_id, u.display_name AS author_name, t.body, t.is_deleted, t.created_at " +
+            "FROM thread t LEFT JOIN users u ON u.id = t.author_id " +
+            "ORDER BY t.created_at, t.id";
+
+    /** 先頭ページのトップレベルコメントと、その配下の返信をすべて取得するSQL */
+    public static final String SELECT_THREAD_FIRST_PAGE = THREAD_HEAD + THREAD_TAIL;
+
+    /** カーソル (createdAt, id) より後ろのトップレベルコメントと、その配下の返信をすべて取得するSQL */
+    public static final String SELECT_THREAD_PAGE_AFTER = THREAD_HEAD +
+            "AND (created_at > :createdAt OR (created_at = :createdAt AND id > :id)) " + THREAD_TAIL;
+
+    /** コメント対象の記事の著者・公開状態を取得するSQL */
+    public static final String SELECT_ARTICLE_ACCESS =
+            "SELECT author_id, status, is_deleted FROM knowledge WHERE id = :knowledgeId";
+
+    /** 返信先のコメントの記事ID・削除状態を取得するSQL */
+    public static final String SELECT_PARENT =
+            "SELECT knowledge_id, is_deleted FROM comment WHERE id = :id";
+
+    /** 削除対象のコメントの記事ID・投稿者を取得するSQL */
+    public static final String SELECT_COMMENT_OWNER =
+            "SELECT knowledge_id, author_id FROM comment WHERE id = :id";
+
+    /** コメントを登録するSQL */
+    public static final String INSERT_COMMENT =
+            "INSERT INTO comment (knowledge_id, author_id, body, parent_comment_id, is_deleted, created_at) " +
+            "VALUES (:knowledgeId, :authorId, :body, :parentId, FALSE, :createdAt)";
+
+    /**
+     * コメントを論理削除するSQL。返信がスレッドから外れないよう行は残す。
+     * 削除済みの場合は更新件数 0 となり、件数を二重に減らさない。
+     */
+    public static final String SOFT_DELETE_COMMENT =
+            "UPDATE comment SET is_deleted = TRUE WHERE id = :id AND is_deleted = FALSE";
+
+    /** 非正規化カラム comment_count を増減するSQL（0 未満にはしない） */
+    public static final String ADD_COMMENT_COUNT =
+            "UPDATE knowledge SET comment_count = " +
+            "CASE WHEN comment_count + :delta < 0 THEN 0 ELSE comment_count + :delta END WHERE id = :id";
+}
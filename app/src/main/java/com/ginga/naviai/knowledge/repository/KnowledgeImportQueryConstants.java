@@ -0,0 +1,37 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * 記事の一括取り込み用SQL定数クラス。
+ * <p>
+ * 記事は JPA を経由せず JDBC の batch INSERT で書き込む（IDENTITY 採番のエンティティは Hibernate の JDBC バッチが無効になるため）。
+ * PostgreSQL ではバッチ件数分の ID をシーケンスから 1 クエリで先取りして ID 付きで INSERT し、
+ * H2 では ID を省略した INSERT を batch 実行して生成キーを受け取る。
+ * </p>
+ */
+public final class KnowledgeImportQueryConstants {
+
+    private KnowledgeImportQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** ユーザー名からユーザーIDを一括で取得するSQL */
+    public static final String SELECT_USER_IDS_BY_USERNAMES =
+            "SELECT id, username FROM users WHERE username IN (:usernames)";
+
+    /** knowledge.id のシーケンスから指定件数の ID を採番するSQL（PostgreSQL） */
+    public static final String PG_ALLOCATE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('knowledge', 'id')) FROM generate_series(1, :count)";
+
+    /** 採番済みの ID を指定して記事を登録するSQL（PostgreSQL） */
+    public static final String INSERT_KNOWLEDGE_WITH_ID =
+            "INSERT INTO knowledge (id, author_id, title, body, excerpt, thumbnail, status, is_deleted, " +
+            "created_at, updated_at, published_at, like_count, view_count, comment_count) " +
+            "VALUES (:id, :authorId, :title, :body, :excerpt, :thumbnail, :status, FALSE, " +
+            ":createdAt, :updatedAt, :publishedAt, 0, 0, 0)";
+
+    /** ID を DB の自動採番に任せて記事を登録するSQL（生成キー取得のため位置パラメータ） */
+    public static final String INSERT_KNOWLEDGE_GENERATED_ID =
+            "INSERT INTO knowledge (author_id, title, body, excerpt, thumbnail, status, is_deleted, " +
+            "created_at, updated_at, published_at, like_count, view_count, comment_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, FALSE, ?, ?, ?, 0, 0, 0)";
+}
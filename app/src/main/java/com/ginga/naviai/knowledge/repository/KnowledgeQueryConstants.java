@@ -0,0 +1,33 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * knowledge テーブルに対する JDBC 直接実行用の SQL 定数クラス。
+ * <p>
+ * JPA エンティティ化されていない "like" テーブル等を参照する集計・保守系 SQL をここに集約する。
+ * </p>
+ */
+public final class KnowledgeQueryConstants {
+
+    private KnowledgeQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /**
+     * 非正規化カラム like_count を "like" テーブルの実件数に合わせて補正するSQL。
+     * <p>
+     * 実件数と一致しない行のみを更新するため、ドリフトがなければ更新行数は 0 になる。
+     * PostgreSQL / H2 の双方で動作する相関サブクエリで記述している。
+     * </p>
+     */
+    public static final String RECONCILE_LIKE_COUNT =
+            "UPDATE knowledge SET like_count = " +
+            "(SELECT COUNT(*) FROM \"like\" l WHERE l.knowledge_id = knowledge.id) " +
+            "WHERE like_count <> (SELECT COUNT(*) FROM \"like\" l WHERE l.knowledge_id = knowledge.id)";
+
+    /**
+     * 閲覧数に増分を加算するSQL（batch 実行用）。
+     * 現在値を読まずに加算するため、同じ記事への加算が複数ノードから同時に行われても増分は失われない。
+     */
+    public static final String ADD_VIEW_COUNT =
+            "UPDATE knowledge SET view_count = view_count + :delta WHERE id = :id";
+}
@@ -1,15 +1,22 @@
 package com.ginga.naviai.knowledge.repository;
 
+import com.ginga.naviai.knowledge.dto.ArticleSummaryView;
+import com.ginga.naviai.knowledge.dto.KnowledgeListView;
 import com.ginga.naviai.knowledge.entity.Knowledge;
-import org.springframework.data.domain.Page;
+import com.ginga.naviai.knowledge.search.SearchDocument;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface KnowledgeRepository extends JpaRepository<Knowledge, Long> {
@@ -20,26 +27,43 @@ public interface KnowledgeRepository extends JpaRepository<Knowledge, Long> {
 
     long countByStatusAndDeletedFalse(String status);
 
-    @Query(value = "SELECT t.name as tag, COUNT(kt.knowledge_id) as count " +
-                   "FROM tag t " +
-                   "JOIN knowledge_tag kt ON t.id = kt.tag_id " +
-                   "GROUP BY t.name " +
-                   "ORDER BY count DESC " +
-                   "LIMIT :limit", nativeQuery = true)
-    List<Object[]> findTopTags(@Param("limit") int limit);
-
-    @Query("SELECT k FROM Knowledge k WHERE k.status = 'published' AND k.deleted = false ORDER BY k.publishedAt DESC")
-    List<Knowledge> findRecentArticles(Pageable pageable);
-
-    @Query(value = "SELECT k.id, k.title, u.display_name, k.published_at, COUNT(l.id) as like_count " +
-                   "FROM knowledge k " +
-                   "LEFT JOIN users u ON k.author_id = u.id " +
-                   "LEFT JOIN \"like\" l ON k.id = l.knowledge_id " +
-                   "WHERE k.status = 'published' AND k.is_deleted = false " +
-                   "GROUP BY k.id, u.display_name " +
-                   "ORDER BY like_count DESC, k.published_at DESC " +
-                   "LIMIT :limit", nativeQuery = true)
-    List<Object[]> findTopRecommendedArticles(@Param("limit") int limit);
+    /**
+     * 公開中（published かつ未削除）記事とタグ名の組を全件取得する。
+     * <p>
+     * 起動時・定期再同期時のタグ集計カウンタ初期化にのみ使用する。
+     * 記事単位で返すのは、集計中に反映された変更を記事ごとに置き換えて二重計上を防ぐため。
+     * 通常のリクエストでは {@code TagStatsService} のインメモリカウンタを参照すること。
+     * </p>
+     */
+    @Query("SELECT k.id, t.name FROM Knowledge k JOIN k.tags t WHERE k.status = 'published' AND k.deleted = false")
+    List<Object[]> findVisibleTagAssignments();
+
+    /**
+     * 新着の公開記事を一覧表示用の射影で取得する。
+     * <p>
+     * 著者を結合した1クエリで id / タイトル / 著者表示名 / 公開日時 / いいね数のみを取得する。
+     * </p>
+     */
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.ArticleSummaryView(" +
+           "k.id, k.title, u.displayName, k.publishedAt, k.likeCount, k.viewCount) " +
+           "FROM Knowledge k LEFT JOIN k.author u " +
+           "WHERE k.status = 'published' AND k.deleted = false " +
+           "ORDER BY k.publishedAt DESC")
+    List<ArticleSummaryView> findRecentArticles(Pageable pageable);
+
+    /**
+     * いいね数上位の公開記事を一覧表示用の射影で取得する。
+     * <p>
+     * 非正規化カラム like_count を参照するため "like" テーブルとの結合・集計は行わない。
+     * (status, like_count DESC, published_at DESC) インデックスにより上位N件をインデックススキャンで取得する。
+     * </p>
+     */
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.ArticleSummaryView(" +
+           "k.id, k.title, u.displayName, k.publishedAt, k.likeCount, k.viewCount) " +
+           "FROM Knowledge k LEFT JOIN k.author u " +
+           "WHERE k.status = 'published' AND k.deleted = false " +
+           "ORDER BY k.likeCount DESC, k.publishedAt DESC")
+    List<ArticleSummaryView> findTopRecommendedArticles(Pageable pageable);
 
     long countByCreatedAtBetweenAndDeletedFalse(Instant start, Instant end);
 
@@ -53,8 +77,133 @@ public interface KnowledgeRepository extends JpaRepository<Knowledge, Long> {
     @Query("SELECT k.createdAt FROM Knowledge k WHERE k.deleted = false AND k.createdAt >= :start AND k.createdAt < :end")
     List<Instant> findCreatedAtInRange(@Param("start") Instant start, @Param("end") Instant end);
 
-    Page<Knowledge> findByAuthorId(Long authorId, Pageable pageable);
+    /*
+     * 記事一覧用クエリ。いずれも KnowledgeListView への射影で、本文（body）列は SELECT しない。
+     */
 
-    Page<Knowledge> findByAuthorUsername(String username, Pageable pageable);
-}
+    /**
+     * 著者の記事一覧を Slice で取得する。
+     * <p>
+     * Slice は次ページ有無の判定に 1 件多く取得するだけで、総件数の COUNT クエリは発行しない。
+     * 総件数が必要な場合は {@link #countByAuthorId} を {@code AuthorKnowledgeCountCache} 経由で使用すること。
+     * </p>
+     */
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.KnowledgeListView(" +
+           "k.id, k.title, k.excerpt, k.status, k.createdAt, k.thumbnail, k.viewCount, k.commentCount) " +
+           "FROM Knowledge k WHERE k.author.id = :authorId")
+    Slice<KnowledgeListView> findListSliceByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    long countByAuthorId(Long authorId);
+
+    /*
+     * キーセットページング用クエリ。
+     * (author_id, created_at) インデックス上で (createdAt, id) の位置からシークするため OFFSET・COUNT を伴わない。
+     * 取得件数は Pageable のサイズ（次ページ有無の判定用に +1 件）で指定し、ページ番号は常に 0 とすること。
+     */
+
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.KnowledgeListView(" +
+           "k.id, k.title, k.excerpt, k.status, k.createdAt, k.thumbnail, k.viewCount, k.commentCount) " +
+           "FROM Knowledge k WHERE k.author.id = :authorId " +
+           "ORDER BY k.createdAt DESC, k.id DESC")
+    List<KnowledgeListView> findKeysetPageByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.KnowledgeListView(" +
+           "k.id, k.title, k.excerpt, k.status, k.createdAt, k.thumbnail, k.viewCount, k.commentCount) " +
+           "FROM Knowledge k WHERE k.author.id = :authorId " +
+           "AND (k.createdAt < :createdAt OR (k.createdAt = :createdAt AND k.id < :id)) " +
+           "ORDER BY k.createdAt DESC, k.id DESC")
+    List<KnowledgeListView> findKeysetPageByAuthorIdAfter(@Param("authorId") Long authorId,
+                                                          @Param("createdAt") Instant createdAt,
+                                                          @Param("id") Long id,
+                                                          Pageable pageable);
+
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.KnowledgeListView(" +
+           "k.id, k.title, k.excerpt, k.status, k.createdAt, k.thumbnail, k.viewCount, k.commentCount) " +
+           "FROM Knowledge k WHERE k.author.username = :username " +
+           "ORDER BY k.createdAt DESC, k.id DESC")
+    List<KnowledgeListView> findKeysetPageByAuthorUsername(@Param("username") String username, Pageable pageable);
 
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.KnowledgeListView(" +
+           "k.id, k.title, k.excerpt, k.status, k.createdAt, k.thumbnail, k.viewCount, k.commentCount) " +
+           "FROM Knowledge k WHERE k.author.username = :username " +
+           "AND (k.createdAt < :createdAt OR (k.createdAt = :createdAt AND k.id < :id)) " +
+           "ORDER BY k.createdAt DESC, k.id DESC")
+    List<KnowledgeListView> findKeysetPageByAuthorUsernameAfter(@Param("username") String username,
+                                                                @Param("createdAt") Instant createdAt,
+                                                                @Param("id") Long id,
+                                                                Pageable pageable);
+
+    /**
+     * 指定記事に付与されたタグ名を (記事ID, タグ名) の組で取得する。
+     * <p>
+     * 一覧の各行で {@code Knowledge.tags} を遅延ロードすると行ごとに SELECT が発行されるため、
+     * 1ページ分の記事IDをまとめて1クエリで取得し、{@code KnowledgeTagLoader} でメモリ上で振り分ける。
+     * </p>
+     */
+    @Query("SELECT k.id, t.name FROM Knowledge k JOIN k.tags t WHERE k.id IN :ids")
+    List<Object[]> findTagNamesByKnowledgeIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 記事詳細を著者と合わせて1クエリで取得する（本文を含む）。
+     */
+    @Query("SELECT k FROM Knowledge k LEFT JOIN FETCH k.author WHERE k.id = :id")
+    Optional<Knowledge> findDetailById(@Param("id") Long id);
+
+    /**
+     * 更新用に記事を行ロック（SELECT ... FOR UPDATE）付きで取得する。
+     * レビューの承認・差し戻しと著者の更新が、互いに古い状態を上書きしないよう直列化する。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT k FROM Knowledge k WHERE k.id = :id")
+    Optional<Knowledge> findByIdForUpdate(@Param("id") Long id);
+
+    /*
+     * 全文検索索引の作成・更新用クエリ（SearchDocument への射影）。
+     */
+
+    /** 公開中の記事を ID 順に指定件数ずつ取得する（全件再索引用） */
+    @Query("SELECT new com.ginga.naviai.knowledge.search.SearchDocument(" +
+           "k.id, k.title, k.body, k.status, k.deleted, k.updatedAt) " +
+           "FROM Knowledge k WHERE k.status = 'published' AND k.deleted = false AND k.id > :afterId " +
+           "ORDER BY k.id")
+    List<SearchDocument> findVisibleSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** 指定時刻以降に更新された記事を公開状態に関わらず取得する（スナップショット読み込み後の差分反映用） */
+    @Query("SELECT new com.ginga.naviai.knowledge.search.SearchDocument(" +
+           "k.id, k.title, k.body, k.status, k.deleted, k.updatedAt) " +
+           "FROM Knowledge k WHERE k.updatedAt >= :since ORDER BY k.id")
+    List<SearchDocument> findSearchDocumentsUpdatedSince(@Param("since") Instant since);
+
+    @Query("SELECT new com.ginga.naviai.knowledge.search.SearchDocument(" +
+           "k.id, k.title, k.body, k.status, k.deleted, k.updatedAt) " +
+           "FROM Knowledge k WHERE k.id IN :ids")
+    List<SearchDocument> findSearchDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT k.id FROM Knowledge k WHERE k.status = 'published' AND k.deleted = false")
+    List<Long> findVisibleIds();
+
+    /*
+     * タグ絞り込み用ビットマップインデックスの構築・参照用クエリ。
+     */
+
+    /** 全記事の ID・ステータス・削除フラグを取得する（起動時・定期再同期時の全件構築用） */
+    @Query("SELECT k.id, k.status, k.deleted FROM Knowledge k")
+    List<Object[]> findAllIndexStates();
+
+    /** 指定状態の未削除記事の ID を取得する（レビュー待ち件数の起動時・定期再同期用） */
+    @Query("SELECT k.id FROM Knowledge k WHERE k.status = :status AND k.deleted = false")
+    List<Long> findIdsByStatusAndDeletedFalse(@Param("status") String status);
+
+    /** 記事とタグ名の組（knowledge_tag の全行）を取得する（起動時・定期再同期時の全件構築用） */
+    @Query("SELECT k.id, t.name FROM Knowledge k JOIN k.tags t")
+    List<Object[]> findAllTagAssignments();
+
+    /** 指定 ID の公開中記事を一覧用の射影で取得する（並び順は呼び出し側で整えること） */
+    @Query("SELECT new com.ginga.naviai.knowledge.dto.KnowledgeListView(" +
+           "k.id, k.title, k.excerpt, k.status, k.createdAt, k.thumbnail, k.viewCount, k.commentCount) " +
+           "FROM Knowledge k WHERE k.id IN :ids AND k.status = 'published' AND k.deleted = false")
+    List<KnowledgeListView> findVisibleListViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** 指定 ID の記事が公開中（未削除）かを判定する（いいね操作の対象チェック用） */
+    boolean existsByIdAndStatusAndDeletedFalse(Long id, String status);
+}
@@ -0,0 +1,59 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * DB 側全文検索（knowledge.search.mode=database）のSQL断片。
+ * <p>
+ * 検索語の数に応じて一致条件を {@code AND} で連結して組み立てる。
+ * PostgreSQL は生成列 search_text（pg_trgm の GIN インデックス付き）と search_vector（tsvector）を使用し、
+ * H2 には同等の生成列・インデックスがないため、各列を小文字化した LIKE で代替する。
+ * </p>
+ */
+public final class KnowledgeSearchQueryConstants {
+
+    private KnowledgeSearchQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** 検索対象（公開中）の条件。PostgreSQL の部分インデックスの条件と一致させること */
+    public static final String VISIBLE = "k.status = 'published' AND k.is_deleted = false";
+
+    /* ---- PostgreSQL ---- */
+
+    public static final String PG_SELECT =
+            "SELECT k.id, k.title, k.body, " +
+            "ts_rank(k.search_vector, plainto_tsquery('simple', :q)) + similarity(k.title, :q) AS score " +
+            "FROM knowledge k WHERE " + VISIBLE;
+
+    public static final String PG_COUNT = "SELECT COUNT(*) FROM knowledge k WHERE " + VISIBLE;
+
+    /** 検索語 1 つ分の一致条件（{@code %s} はパラメータ名） */
+    public static final String PG_MATCH = " AND k.search_text LIKE :%s ESCAPE '\\'";
+
+    /**
+     * トライグラムを持たない検索語 1 つ分の一致条件（{@code %s} はパラメータ名、値は小文字化した検索語そのもの）。
+     * LIKE のままではインデックス全体を走査してから照合し直すため、インデックスの対象外の式で照合させる。
+     */
+    public static final String PG_SCAN_MATCH = " AND strpos(k.search_text, :%s) > 0";
+
+    /** 日本語の文字からトライグラムが作られるか（LC_CTYPE が日本語を文字と判定するか）を調べる */
+    public static final String PG_CJK_TRIGRAM_PROBE = "SELECT cardinality(show_trgm('日本語'))";
+
+    /* ---- H2 ---- */
+
+    public static final String H2_SELECT =
+            "SELECT k.id, k.title, k.body, " +
+            "CASE WHEN %s THEN 2.0 ELSE 1.0 END AS score " +
+            "FROM knowledge k WHERE " + VISIBLE;
+
+    public static final String H2_COUNT = PG_COUNT;
+
+    /** 検索語 1 つ分の一致条件（{@code %s} はパラメータ名） */
+    public static final String H2_MATCH =
+            " AND (LOWER(k.title) LIKE :%1$s ESCAPE '\\' OR LOWER(COALESCE(k.excerpt, '')) LIKE :%1$s ESCAPE '\\' " +
+            "OR LOWER(COALESCE(k.body, '')) LIKE :%1$s ESCAPE '\\')";
+
+    /** タイトルのみでの一致条件（スコア加点用） */
+    public static final String H2_TITLE_MATCH = "LOWER(k.title) LIKE :%s ESCAPE '\\'";
+
+    public static final String ORDER_AND_PAGE = " ORDER BY score DESC, k.id DESC LIMIT :limit OFFSET :offset";
+}
@@ -0,0 +1,62 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * "like" テーブルへの書き込み・Redis との突き合わせ用SQL定数クラス。
+ * <p>
+ * いいねは Redis 上で即時に反映し、"like" テーブルへは Redis の状態を正としてまとめて書き込む。
+ * 追加・取り消しはどちらも冪等で、同じ組を何度書き込んでも結果は変わらない。
+ * </p>
+ */
+public final class LikeQueryConstants {
+
+    private LikeQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /**
+     * いいねを登録するSQL（PostgreSQL）。
+     * 記事・ユーザーが削除済みの場合と登録済みの場合は何もしない（更新件数 0）。
+     */
+    public static final String PG_INSERT_LIKE =
+            "INSERT INTO \"like\" (knowledge_id, user_id) " +
+            "SELECT CAST(:knowledgeId AS BIGINT), CAST(:userId AS BIGINT) " +
+            "WHERE EXISTS (SELECT 1 FROM knowledge WHERE id = :knowledgeId) " +
+            "AND EXISTS (SELECT 1 FROM users WHERE id = :userId) " +
+            "ON CONFLICT (knowledge_id, user_id) DO NOTHING";
+
+    /**
+     * いいねを登録するSQL（ON CONFLICT を使えない H2 など）。
+     * 登録済みの判定は NOT EXISTS で行う（同じ組の同時登録は一意制約違反としてバッチごと再試行される）。
+     */
+    public static final String INSERT_LIKE_IF_ABSENT =
+            "INSERT INTO \"like\" (knowledge_id, user_id) " +
+            "SELECT CAST(:knowledgeId AS BIGINT), CAST(:userId AS BIGINT) " +
+            "WHERE EXISTS (SELECT 1 FROM knowledge WHERE id = :knowledgeId) " +
+            "AND EXISTS (SELECT 1 FROM users WHERE id = :userId) " +
+            "AND NOT EXISTS (SELECT 1 FROM \"like\" WHERE knowledge_id = :knowledgeId AND user_id = :userId)";
+
+    /** いいねを取り消すSQL（未登録の場合は更新件数 0） */
+    public static final String DELETE_LIKE =
+            "DELETE FROM \"like\" WHERE knowledge_id = :knowledgeId AND user_id = :userId";
+
+    /** 非正規化カラム like_count を増減するSQL（0 未満にはしない） */
+    public static final String ADD_LIKE_COUNT =
+            "UPDATE knowledge SET like_count = " +
+            "CASE WHEN like_count + :delta < 0 THEN 0 ELSE like_count + :delta END WHERE id = :id";
+
+    /** 記事の著者IDを一括で取得するSQL */
+    public static final String SELECT_AUTHOR_IDS_BY_IDS =
+            "SELECT id, author_id FROM knowledge WHERE id IN (:ids)";
+
+    /** 記事にいいねしたユーザーIDを取得するSQL（Redis への読み込み用） */
+    public static final String SELECT_USER_IDS_BY_KNOWLEDGE_ID =
+            "SELECT user_id FROM \"like\" WHERE knowledge_id = :knowledgeId";
+
+    /** 複数記事のいいね（記事ID・ユーザーID）を一括で取得するSQL（Redis の突き合わせ用） */
+    public static final String SELECT_LIKES_BY_KNOWLEDGE_IDS =
+            "SELECT knowledge_id, user_id FROM \"like\" WHERE knowledge_id IN (:ids)";
+
+    /** 記事IDをキーセットページングで昇順に取得するSQL */
+    public static final String SELECT_KNOWLEDGE_IDS_AFTER =
+            "SELECT id FROM knowledge WHERE id > :after ORDER BY id LIMIT :limit";
+}
@@ -0,0 +1,32 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * 関連記事インデックスの構築・更新用SQL定数クラス。
+ */
+public final class RelatedQueryConstants {
+
+    private RelatedQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** 公開中の記事に対するいいね（全件構築用） */
+    public static final String SELECT_VISIBLE_LIKES =
+            "SELECT l.knowledge_id, l.user_id FROM \"like\" l " +
+            "JOIN knowledge k ON k.id = l.knowledge_id " +
+            "WHERE k.status = 'published' AND k.is_deleted = FALSE";
+
+    /** 公開中の記事IDの全件（全件構築用） */
+    public static final String SELECT_VISIBLE_IDS =
+            "SELECT id FROM knowledge WHERE status = 'published' AND is_deleted = FALSE";
+
+    /** 指定した記事のうち公開中のもの（差分更新用） */
+    public static final String SELECT_VISIBLE_IDS_IN =
+            "SELECT id FROM knowledge WHERE id IN (:ids) AND status = 'published' AND is_deleted = FALSE";
+
+    /** 公開中の記事のタグ（全件構築用） */
+    public static final String SELECT_VISIBLE_TAG_ASSIGNMENTS =
+            "SELECT kt.knowledge_id, t.name FROM knowledge_tag kt " +
+            "JOIN tag t ON t.id = kt.tag_id " +
+            "JOIN knowledge k ON k.id = kt.knowledge_id " +
+            "WHERE k.status = 'published' AND k.is_deleted = FALSE";
+}
@@ -0,0 +1,85 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * レビューキュー（pending 記事の担当取得・承認・差し戻し）用の JDBC 直接実行 SQL 定数クラス。
+ * <p>
+ * 担当はリース方式で、review_claimed_by / review_claim_expires_at に担当者と期限を書き込む。
+ * 未担当または期限切れの記事を取得可能とし、承認・差し戻しは「期限内の担当を保持していること」を条件とした
+ * 条件付き UPDATE で行うため、期限切れ後に他のレビュアーが取得した記事を元の担当者が処理することはない。
+ * </p>
+ */
+public final class ReviewQueueQueryConstants {
+
+    private ReviewQueueQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** 取得可能な記事: 未削除の pending で、未担当または担当期限切れ */
+    private static final String CLAIMABLE =
+            "status = 'pending' AND is_deleted = FALSE " +
+            "AND (review_claimed_by IS NULL OR review_claim_expires_at <= :now) ";
+
+    /** 呼び出し元が期限内の担当を保持している pending 記事 */
+    private static final String HELD =
+            "id = :id AND status = 'pending' AND is_deleted = FALSE " +
+            "AND review_claimed_by = :reviewerId AND review_claim_expires_at > :now";
+
+    /**
+     * 申請順に次の記事を最大 :limit 件取得して担当者を書き込む（PostgreSQL）。
+     * 他のトランザクションが取得中の行は SKIP LOCKED で読み飛ばすため、同時に取得したレビュアー同士は待ち合わせず別の記事を得る。
+     */
+    public static final String PG_CLAIM_NEXT =
+            "UPDATE knowledge SET review_claimed_by = :reviewerId, review_claim_expires_at = :expiresAt " +
+            "WHERE id IN (SELECT id FROM knowledge WHERE " + CLAIMABLE +
+            "ORDER BY updated_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id";
+
+    /** 取得候補を申請順に選ぶ（H2 など SKIP LOCKED を使わない場合。取得は {@link #CLAIM_IF_AVAILABLE} で行う） */
+    public static final String SELECT_CLAIM_CANDIDATES =
+            "SELECT id FROM knowledge WHERE " + CLAIMABLE +
+            "ORDER BY updated_at, id LIMIT :limit";
+
+    /** 候補がまだ取得可能な場合のみ担当者を書き込む（compare-and-set。他者が先に取得した場合は 0 件） */
+    public static final String CLAIM_IF_AVAILABLE =
+            "UPDATE knowledge SET review_claimed_by = :reviewerId, review_claim_expires_at = :expiresAt " +
+            "WHERE id = :id AND " + CLAIMABLE;
+
+    /** 取得した記事の表示用情報（申請順） */
+    public static final String SELECT_CLAIMED_ITEMS =
+            "SELECT k.id, k.title, k.excerpt, k.author_id, u.display_name AS author_name, " +
+            "k.updated_at, k.review_claim_expires_at " +
+            "FROM knowledge k LEFT JOIN users u ON u.id = k.author_id " +
+            "WHERE k.id IN (:ids) ORDER BY k.updated_at, k.id";
+
+    /** レビュアーが期限内で担当している記事ID（申請順） */
+    public static final String SELECT_HELD_IDS =
+            "SELECT id FROM knowledge WHERE status = 'pending' AND is_deleted = FALSE " +
+            "AND review_claimed_by = :reviewerId AND review_claim_expires_at > :now " +
+            "ORDER BY updated_at, id";
+
+    /** 担当期限の延長 */
+    public static final String RENEW_CLAIM =
+            "UPDATE knowledge SET review_claim_expires_at = :expiresAt WHERE " + HELD;
+
+    /** 担当の解放（担当者本人のみ。既に解放・失効していても 0 件で終わる） */
+    public static final String RELEASE_CLAIM =
+            "UPDATE knowledge SET review_claimed_by = NULL, review_claim_expires_at = NULL " +
+            "WHERE id = :id AND review_claimed_by = :reviewerId";
+
+    /**
+     * 承認: pending → published（公開日時は初回公開時のみ設定）し、担当を解放する。
+     * レビュアーに提示した時点から記事が更新されていない（updated_at が一致する）場合のみ遷移する。
+     */
+    public static final String APPROVE =
+            "UPDATE knowledge SET status = 'published', published_at = COALESCE(published_at, :now), updated_at = :now, " +
+            "review_claimed_by = NULL, review_claim_expires_at = NULL WHERE " + HELD + " AND updated_at = :reviewedUpdatedAt";
+
+    /** 差し戻し: pending → declined し、担当を解放する（承認と同様、提示した時点から更新されていない場合のみ） */
+    public static final String DECLINE =
+            "UPDATE knowledge SET status = 'declined', updated_at = :now, " +
+            "review_claimed_by = NULL, review_claim_expires_at = NULL WHERE " + HELD + " AND updated_at = :reviewedUpdatedAt";
+
+    /** 承認・差し戻し後のイベント発行用に著者IDを取得する */
+    public static final String SELECT_AUTHOR_ID =
+            "SELECT author_id FROM knowledge WHERE id = :id";
+}
@@ -0,0 +1,43 @@
+package com.ginga.naviai.knowledge.repository;
+
+/**
+ * タグ（tag / knowledge_tag）の一括書き込み用SQL定数クラス。
+ * <p>
+ * タグ名の解決は {@code IN} による 1 クエリ、未登録タグの作成は一括（batch）INSERT で行う。
+ * 作成は同名タグの同時登録と衝突しないよう、PostgreSQL では {@code ON CONFLICT DO NOTHING}、
+ * H2 では存在しない場合のみ INSERT する構文を使用する。
+ * </p>
+ */
+public final class TagQueryConstants {
+
+    private TagQueryConstants() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /** タグ名から ID を一括で取得するSQL */
+    public static final String SELECT_TAG_IDS_BY_NAMES =
+            "SELECT id, name FROM tag WHERE name IN (:names)";
+
+    /** タグを作成するSQL（PostgreSQL。既に存在する場合は何もしない） */
+    public static final String PG_INSERT_TAG_IF_ABSENT =
+            "INSERT INTO tag (name, created_at) VALUES (:name, :now) ON CONFLICT (name) DO NOTHING";
+
+    /** タグを作成するSQL（H2。既に存在する場合は何もしない） */
+    public static final String H2_INSERT_TAG_IF_ABSENT =
+            "INSERT INTO tag (name, created_at) " +
+            "SELECT :name, :now " +
+            "WHERE NOT EXISTS (SELECT 1 FROM tag WHERE name = :name)";
+
+    /** 記事に付与されているタグの ID と名前を取得するSQL */
+    public static final String SELECT_LINKED_TAGS =
+            "SELECT t.id, t.name FROM knowledge_tag kt JOIN tag t ON t.id = kt.tag_id " +
+            "WHERE kt.knowledge_id = :knowledgeId";
+
+    /** 記事とタグの関連を追加するSQL */
+    public static final String INSERT_LINK =
+            "INSERT INTO knowledge_tag (knowledge_id, tag_id) VALUES (:knowledgeId, :tagId)";
+
+    /** 記事とタグの関連を指定タグ分だけ削除するSQL */
+    public static final String DELETE_LINKS =
+            "DELETE FROM knowledge_tag WHERE knowledge_id = :knowledgeId AND tag_id IN (:tagIds)";
+}
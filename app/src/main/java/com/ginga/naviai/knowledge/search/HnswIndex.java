@@ -0,0 +1,500 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * コサイン類似度による近似最近傍探索の索引（プロセス内の HNSW グラフ）。
+ * <p>
+ * HNSW（Hierarchical Navigable Small World）は、ベクトルを頂点とし近いもの同士を辺で結んだグラフを階層状に重ねたもので、
+ * 上の疎な層で目的のベクトルの近くまで移動してから、最下層で近傍を探す。全件と比較せずに O(log N) 程度の比較で近傍が得られる。
+ * 各頂点は層 0 で最大 2M、それより上の層で最大 M 本の辺を持つ。{@code efConstruction} / 検索時の {@code ef} は
+ * 探索中に保持する候補数で、大きいほど再現率が上がり、追加・検索が遅くなる。
+ * </p>
+ * <p>
+ * ベクトルは追加時に L2 正規化し、距離は 1 - 内積とする。キー単位の追加・置換・削除に対応する。
+ * 削除・置換前の頂点はグラフから外すと周囲の到達性が落ちるため、削除済みの印を付けて探索の経路には残し、結果から除く。
+ * 削除済みの頂点が増えると探索が遅くなるため、定期的に作り直すこと（{@link #deletedCount()}）。
+ * 検索（読み取り）と更新は ReadWriteLock で排他する。
+ * </p>
+ */
+public class HnswIndex {
+
+    /** 層の数の上限（乱数で極端に高い層が選ばれた場合の保護） */
+    private static final int MAX_LEVEL = 16;
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(c -> c.distance);
+    private static final Comparator<Candidate> FARTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final long seed;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> nodeByKey = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 検索結果の 1 件（score はコサイン類似度）
+     */
+    @Value
+    public static class Hit {
+        long key;
+        double score;
+    }
+
+    /**
+     * グラフの頂点（neighbors[層] = 隣接する頂点番号）
+     */
+    static final class Node {
+        final long key;
+        final float[] vector;
+        final int[][] neighbors;
+        boolean deleted;
+
+        Node(long key, float[] vector, int[][] neighbors, boolean deleted) {
+            this.key = key;
+            this.vector = vector;
+            this.neighbors = neighbors;
+            this.deleted = deleted;
+        }
+
+        int level() {
+            return neighbors.length - 1;
+        }
+    }
+
+    private static final class Candidate {
+        final int node;
+        final float distance;
+
+        Candidate(int node, float distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * @param m              各層で頂点が持つ辺の数の目安（層 0 はその 2 倍まで）
+     * @param efConstruction 追加時の探索で保持する候補数
+     * @param seed           頂点の層を決める乱数の種（同じ順序で追加すれば同じグラフになる）
+     */
+    public HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        if (dimension < 1 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("dimension must be >= 1, m >= 2 and efConstruction >= 1");
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.seed = seed;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * ベクトルを追加する。既に存在するキーは置き換える。ゼロベクトルは追加せず、既存のキーを削除する。
+     *
+     * @return 追加した場合 true
+     */
+    public boolean add(long key, float[] vector) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (normalized == null) {
+                return false;
+            }
+            insertLocked(key, normalized);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * キーを削除する。
+     *
+     * @return 削除した場合 true
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long key) {
+        lock.readLock().lock();
+        try {
+            return nodeByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 登録されている（削除されていない）キーの一覧 */
+    public Set<Long> keys() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(nodeByKey.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 登録されている（削除されていない）キーの数 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 削除済みの印を付けてグラフに残っている頂点の数 */
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * クエリに近い順に最大 k 件を返す（近似）。
+     *
+     * @param ef 最下層の探索で保持する候補数（k 未満の場合は k とする）
+     */
+    public List<Hit> search(float[] query, int k, int ef) {
+        float[] q = normalize(query);
+        if (q == null || k < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (nodeByKey.isEmpty()) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                ep = greedy(q, ep, level);
+            }
+            List<Candidate> nearest = searchLayer(q, ep, Math.max(ef, k), 0, true);
+            List<Hit> hits = new ArrayList<>(Math.min(k, nearest.size()));
+            for (int i = 0; i < nearest.size() && i < k; i++) {
+                Candidate c = nearest.get(i);
+                hits.add(new Hit(nodes.get(c.node).key, 1 - c.distance));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 全件と比較してクエリに近い順に最大 k 件を返す（厳密解。近似探索の再現率の検証用）。
+     */
+    public List<Hit> exactSearch(float[] query, int k) {
+        float[] q = normalize(query);
+        if (q == null || k < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Candidate> top = new PriorityQueue<>(k + 1, FARTHEST_FIRST);
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i).deleted) {
+                    continue;
+                }
+                float d = distance(q, nodes.get(i).vector);
+                if (top.size() < k || d < top.peek().distance) {
+                    top.add(new Candidate(i, d));
+                    if (top.size() > k) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Candidate> sorted = new ArrayList<>(top);
+            sorted.sort(NEAREST_FIRST);
+            List<Hit> hits = new ArrayList<>(sorted.size());
+            for (Candidate c : sorted) {
+                hits.add(new Hit(nodes.get(c.node).key, 1 - c.distance));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insertLocked(long key, float[] vector) {
+        int level = randomLevel();
+        int id = nodes.size();
+        int[][] neighbors = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            neighbors[l] = new int[0];
+        }
+        nodes.add(new Node(key, vector, neighbors, false));
+        nodeByKey.put(key, id);
+        if (entryPoint < 0) {
+            entryPoint = id;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedy(vector, ep, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> nearest = searchLayer(vector, ep, efConstruction, l, false);
+            int[] selected = selectNeighbors(nearest, m);
+            neighbors[l] = selected;
+            for (int other : selected) {
+                connect(other, id, l);
+            }
+            ep = nearest.get(0).node;
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = id;
+        }
+    }
+
+    private boolean removeLocked(long key) {
+        Integer id = nodeByKey.remove(key);
+        if (id == null) {
+            return false;
+        }
+        nodes.get(id).deleted = true;
+        deletedCount++;
+        return true;
+    }
+
+    /** 指定した層で、隣接する頂点のうちクエリに近いものへ移動できなくなるまで移動する */
+    private int greedy(float[] q, int ep, int level) {
+        int current = ep;
+        float currentDistance = distance(q, nodes.get(current).vector);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int other : nodes.get(current).neighbors[level]) {
+                float d = distance(q, nodes.get(other).vector);
+                if (d < currentDistance) {
+                    current = other;
+                    currentDistance = d;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 指定した層で ep から探索し、クエリに近い順に最大 ef 件の頂点を返す。
+     *
+     * @param excludeDeleted 削除済みの頂点を結果に含めない（経路としては辿る）
+     */
+    private List<Candidate> searchLayer(float[] q, int ep, int ef, int level, boolean excludeDeleted) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FARTHEST_FIRST);
+
+        Candidate start = new Candidate(ep, distance(q, nodes.get(ep).vector));
+        visited.set(ep);
+        candidates.add(start);
+        if (!excludeDeleted || !nodes.get(ep).deleted) {
+            results.add(start);
+        }
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.distance > results.peek().distance) {
+                break;
+            }
+            for (int other : nodes.get(current.node).neighbors[level]) {
+                if (visited.get(other)) {
+                    continue;
+                }
+                visited.set(other);
+                float d = distance(q, nodes.get(other).vector);
+                if (results.size() < ef || d < results.peek().distance) {
+                    Candidate c = new Candidate(other, d);
+                    candidates.add(c);
+                    if (!excludeDeleted || !nodes.get(other).deleted) {
+                        results.add(c);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(NEAREST_FIRST);
+        return sorted;
+    }
+
+    /**
+     * 近い順の候補から最大 count 件の隣接頂点を選ぶ。既に選んだ頂点の方が近い候補は選ばず、
+     * 辺が一方向に偏らないようにする（HNSW 論文の近傍選択ヒューリスティック）。
+     */
+    private int[] selectNeighbors(List<Candidate> nearestFirst, int count) {
+        List<Candidate> selected = new ArrayList<>(count);
+        for (Candidate c : nearestFirst) {
+            if (selected.size() >= count) {
+                break;
+            }
+            boolean keep = true;
+            float[] v = nodes.get(c.node).vector;
+            for (Candidate s : selected) {
+                if (distance(v, nodes.get(s.node).vector) < c.distance) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                selected.add(c);
+            }
+        }
+        int[] ids = new int[selected.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = selected.get(i).node;
+        }
+        return ids;
+    }
+
+    /** 頂点 from から to への辺を追加する。辺の数が上限を超える場合は近傍を選び直す */
+    private void connect(int from, int to, int level) {
+        Node node = nodes.get(from);
+        int[] current = node.neighbors[level];
+        int max = level == 0 ? maxM0 : m;
+        if (current.length < max) {
+            int[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = to;
+            node.neighbors[level] = grown;
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(current.length + 1);
+        for (int other : current) {
+            candidates.add(new Candidate(other, distance(node.vector, nodes.get(other).vector)));
+        }
+        candidates.add(new Candidate(to, distance(node.vector, nodes.get(to).vector)));
+        candidates.sort(NEAREST_FIRST);
+        node.neighbors[level] = selectNeighbors(candidates, max);
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1 - random.nextDouble()) * levelMultiplier;
+        return (int) Math.min(level, MAX_LEVEL);
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("vector dimension " + vector.length + " != " + dimension);
+        }
+        double norm = 0;
+        for (float x : vector) {
+            norm += x * x;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static float distance(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+
+    // ---- スナップショット入出力用（VectorSnapshotCodec から使用） ----
+
+    int m() {
+        return m;
+    }
+
+    int efConstruction() {
+        return efConstruction;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    /**
+     * 読み取りロック下でグラフの内容を走査する。
+     */
+    void read(SnapshotVisitor visitor) throws IOException {
+        lock.readLock().lock();
+        try {
+            visitor.visit(entryPoint, maxLevel, nodes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * グラフの内容を丸ごと置き換える。
+     */
+    void replaceAll(List<Node> newNodes, int newEntryPoint, int newMaxLevel) {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            nodes.addAll(newNodes);
+            nodeByKey.clear();
+            deletedCount = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i).deleted) {
+                    deletedCount++;
+                } else {
+                    nodeByKey.put(nodes.get(i).key, i);
+                }
+            }
+            entryPoint = newEntryPoint;
+            maxLevel = newMaxLevel;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    interface SnapshotVisitor {
+        void visit(int entryPoint, int maxLevel, List<Node> nodes) throws IOException;
+    }
+}
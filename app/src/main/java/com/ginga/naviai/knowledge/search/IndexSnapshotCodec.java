@@ -0,0 +1,198 @@
+package com.ginga.naviai.knowledge.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link InvertedIndex} のディスクスナップショットの書き出し・読み込み。
+ * <p>
+ * 形式（ビッグエンディアン）:
+ * <pre>
+ * magic "NVSI"(4) | version(int) | watermark 秒(long) | watermark ナノ秒(int)
+ * 記事数(int) | 記事ごとに [id(long) | 長さ(int) | タイトル UTF-8 長(int) | タイトル]
+ * 語数(int)   | 語ごとに   [語 UTF-8 長(varint) | 語 | 出現記事数(varint) | (記事ID差分(varint) | 出現回数(varint)) * 出現記事数]
+ * </pre>
+ * ポスティングは記事ID昇順の差分を可変長整数で格納し、サイズを抑えている。
+ * 読み込みはファイルを先頭から順に読んでヒープ上の索引を組み立てる（起動時に DB から全件を再索引する必要をなくすためのもので、
+ * 索引自体は読み込み後もヒープに保持する）。
+ * 書き出しは索引の読み取りロック下で内容を複製し、ロックを外してからファイルに書く。
+ * 一時ファイルに書いてから置き換えるため、途中で停止しても既存のスナップショットは壊れない。
+ * </p>
+ */
+public final class IndexSnapshotCodec {
+
+    private static final int MAGIC = 0x4E565349; // "NVSI"
+    private static final int VERSION = 1;
+
+    private IndexSnapshotCodec() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /**
+     * 索引をファイルに書き出す。
+     *
+     * @param watermark この時刻までの記事更新が索引に反映済みであることを示す目印
+     */
+    public static void write(InvertedIndex index, Instant watermark, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        // ディスクへの書き込み中に記事の更新（書き込みロック）を止めないよう、ロック下では複製のみ行う
+        Map<Long, InvertedIndex.DocInfo> docs = new HashMap<>();
+        Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        index.read((currentDocs, currentPostings) -> {
+            docs.putAll(currentDocs);
+            currentPostings.forEach((term, list) -> postings.put(term, new HashMap<>(list)));
+        });
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            writeBody(out, watermark, docs, postings);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * ファイルから索引を読み込み、index の内容を置き換える。
+     *
+     * @return スナップショットの watermark
+     * @throws IOException 読み込みに失敗した場合・形式が不正な場合
+     */
+    public static Instant read(Path file, InvertedIndex index) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            return readBody(in, index);
+        } catch (EOFException | RuntimeException e) {
+            // 途中で切れたファイル・不正な長さ（NegativeArraySizeException）など
+            throw new IOException("Corrupted search index snapshot: " + file, e);
+        }
+    }
+
+    private static void writeBody(DataOutputStream out, Instant watermark,
+                                  Map<Long, InvertedIndex.DocInfo> docs,
+                                  Map<String, Map<Long, Integer>> postings) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(watermark.getEpochSecond());
+        out.writeInt(watermark.getNano());
+
+        out.writeInt(docs.size());
+        for (Map.Entry<Long, InvertedIndex.DocInfo> e : docs.entrySet()) {
+            byte[] title = e.getValue().getTitle() == null ? new byte[0] : e.getValue().getTitle().getBytes(StandardCharsets.UTF_8);
+            out.writeLong(e.getKey());
+            out.writeInt(e.getValue().getLength());
+            out.writeInt(title.length);
+            out.write(title);
+        }
+
+        out.writeInt(postings.size());
+        for (Map.Entry<String, Map<Long, Integer>> e : postings.entrySet()) {
+            byte[] term = e.getKey().getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, term.length);
+            out.write(term);
+            long[] ids = e.getValue().keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ids);
+            writeVarint(out, ids.length);
+            long prev = 0;
+            for (long id : ids) {
+                writeVarint(out, id - prev);
+                writeVarint(out, e.getValue().get(id));
+                prev = id;
+            }
+        }
+    }
+
+    private static Instant readBody(DataInputStream in, InvertedIndex index) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a search index snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported search index snapshot version: " + version);
+        }
+        Instant watermark = Instant.ofEpochSecond(in.readLong(), in.readInt());
+
+        int docCount = in.readInt();
+        Map<Long, String> titles = new HashMap<>(docCount * 2);
+        Map<Long, Integer> lengths = new HashMap<>(docCount * 2);
+        for (int i = 0; i < docCount; i++) {
+            long id = in.readLong();
+            int length = in.readInt();
+            byte[] title = new byte[in.readInt()];
+            in.readFully(title);
+            titles.put(id, new String(title, StandardCharsets.UTF_8));
+            lengths.put(id, length);
+        }
+
+        int termCount = in.readInt();
+        Map<String, Map<Long, Integer>> postings = new HashMap<>(termCount * 2);
+        Map<Long, List<String>> docTerms = new HashMap<>(docCount * 2);
+        for (int i = 0; i < termCount; i++) {
+            byte[] termBytes = new byte[(int) readVarint(in)];
+            in.readFully(termBytes);
+            String term = new String(termBytes, StandardCharsets.UTF_8);
+            int df = (int) readVarint(in);
+            Map<Long, Integer> list = new HashMap<>(df * 2);
+            long id = 0;
+            for (int j = 0; j < df; j++) {
+                id += readVarint(in);
+                list.put(id, (int) readVarint(in));
+                docTerms.computeIfAbsent(id, k -> new ArrayList<>()).add(term);
+            }
+            postings.put(term, list);
+        }
+
+        Map<Long, InvertedIndex.DocInfo> docs = new HashMap<>(docCount * 2);
+        for (Map.Entry<Long, String> e : titles.entrySet()) {
+            Set<String> terms = new LinkedHashSet<>(docTerms.getOrDefault(e.getKey(), List.of()));
+            docs.put(e.getKey(), new InvertedIndex.DocInfo(e.getValue(), lengths.get(e.getKey()), terms));
+        }
+        index.replaceAll(docs, postings);
+        return watermark;
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 記事の転置インデックス（プロセス内）。
+ * <p>
+ * 語 → (記事ID → 出現回数) のポスティングと、記事ごとの長さ・タイトルを保持し、BM25 でスコアリングする。
+ * タイトル中の語は本文の {@value #TITLE_BOOST} 倍の出現回数として数える。
+ * 記事単位の追加・置換・削除に対応し、検索（読み取り）と更新は ReadWriteLock で排他する。
+ * </p>
+ */
+public class InvertedIndex {
+
+    static final int TITLE_BOOST = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, DocInfo> docs = new HashMap<>();
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 記事ごとの索引情報
+     */
+    @Value
+    public static class DocInfo {
+        String title;
+        int length;
+        /** 削除時にポスティングから取り除く語の一覧 */
+        Set<String> terms;
+    }
+
+    /**
+     * 検索結果の 1 件
+     */
+    @Value
+    public static class ScoredDoc {
+        long id;
+        double score;
+        String title;
+    }
+
+    /**
+     * 検索結果（該当件数と指定範囲のヒット）
+     */
+    @Value
+    public static class Result {
+        int total;
+        List<ScoredDoc> hits;
+    }
+
+    /**
+     * 記事を索引に追加する。既に存在する場合は置き換える。
+     */
+    public void put(long id, String title, String body) {
+        Map<String, Integer> freqs = new HashMap<>();
+        for (SearchTokenizer.Token t : SearchTokenizer.tokenize(title)) {
+            freqs.merge(t.getTerm(), TITLE_BOOST, Integer::sum);
+        }
+        for (SearchTokenizer.Token t : SearchTokenizer.tokenize(body)) {
+            freqs.merge(t.getTerm(), 1, Integer::sum);
+        }
+        int length = freqs.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            freqs.forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(id, tf));
+            docs.put(id, new DocInfo(title, length, new LinkedHashSet<>(freqs.keySet())));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 別途構築した索引の内容で置き換える。
+     */
+    public void replaceWith(InvertedIndex other) {
+        other.read(this::replaceAll);
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 指定ID以外の記事を索引から取り除く（再起動時の整合用）。
+     *
+     * @return 取り除いた件数
+     */
+    public int retainAll(Collection<Long> ids) {
+        Set<Long> keep = Set.copyOf(ids);
+        lock.writeLock().lock();
+        try {
+            List<Long> stale = docs.keySet().stream().filter(id -> !keep.contains(id)).toList();
+            stale.forEach(this::removeLocked);
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return docs.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * クエリに含まれるすべての語を含む記事を BM25 スコア順に返す。
+     * <p>
+     * CJK 1 文字の語は、その文字を含む bigram のいずれかに一致すればよいものとして展開する。
+     * </p>
+     *
+     * @param offset 先頭からの読み飛ばし件数
+     * @param limit  取得件数
+     */
+    public Result search(String query, int offset, int limit) {
+        Set<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty()) {
+            return new Result(0, List.of());
+        }
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            if (n == 0) {
+                return new Result(0, List.of());
+            }
+            double avgdl = (double) totalLength / n;
+
+            Map<Long, Double> scores = null;
+            for (String term : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(term, n, avgdl);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND 検索: すべての語を含む記事のみ残す
+                    Map<Long, Double> merged = new HashMap<>();
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        Double s = termScores.get(e.getKey());
+                        if (s != null) {
+                            merged.put(e.getKey(), e.getValue() + s);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return new Result(0, List.of());
+                }
+            }
+
+            List<ScoredDoc> all = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> all.add(new ScoredDoc(id, score, docs.get(id).getTitle())));
+            all.sort(Comparator.comparingDouble(ScoredDoc::getScore).reversed()
+                    .thenComparing(Comparator.comparingLong(ScoredDoc::getId).reversed()));
+            int from = Math.min(offset, all.size());
+            int to = Math.min(from + limit, all.size());
+            return new Result(all.size(), List.copyOf(all.subList(from, to)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * クエリの語のいずれかを含む記事を、一致した語の BM25 スコアの和の順に最大 limit 件返す
+     * （質問文のように語が多く、すべてを含む記事がほとんどないクエリ向け）。
+     */
+    public List<ScoredDoc> searchAny(String query, int limit) {
+        Set<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            if (n == 0) {
+                return List.of();
+            }
+            double avgdl = (double) totalLength / n;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                scoreTerm(term, n, avgdl).forEach((id, s) -> scores.merge(id, s, Double::sum));
+            }
+            List<ScoredDoc> all = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> all.add(new ScoredDoc(id, score, docs.get(id).getTitle())));
+            all.sort(Comparator.comparingDouble(ScoredDoc::getScore).reversed()
+                    .thenComparing(Comparator.comparingLong(ScoredDoc::getId).reversed()));
+            return List.copyOf(all.subList(0, Math.min(limit, all.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * クエリを索引語の集合に変換する（ハイライト判定にも使用する）。
+     */
+    public static Set<String> queryTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (SearchTokenizer.Token t : SearchTokenizer.tokenize(query)) {
+            terms.add(t.getTerm());
+        }
+        return terms;
+    }
+
+    /**
+     * 1 語分の BM25 スコアを記事ごとに求める。CJK 1 文字は該当文字を含む語の最大スコアを用いる。
+     */
+    private Map<Long, Double> scoreTerm(String term, int n, double avgdl) {
+        Map<Long, Double> result = new HashMap<>();
+        List<Map<Long, Integer>> lists = new ArrayList<>();
+        Map<Long, Integer> exact = postings.get(term);
+        if (exact != null) {
+            lists.add(exact);
+        }
+        if (SearchTokenizer.isSingleCjk(term)) {
+            char c = term.charAt(0);
+            postings.forEach((t, p) -> {
+                if (t.length() == 2 && (t.charAt(0) == c || t.charAt(1) == c)) {
+                    lists.add(p);
+                }
+            });
+        }
+        for (Map<Long, Integer> list : lists) {
+            double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+            for (Map.Entry<Long, Integer> e : list.entrySet()) {
+                int tf = e.getValue();
+                int dl = docs.get(e.getKey()).getLength();
+                double s = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * dl / avgdl));
+                result.merge(e.getKey(), s, Math::max);
+            }
+        }
+        return result;
+    }
+
+    private void removeLocked(long id) {
+        DocInfo old = docs.remove(id);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.getLength();
+        for (String term : old.getTerms()) {
+            Map<Long, Integer> p = postings.get(term);
+            if (p != null) {
+                p.remove(id);
+                if (p.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // ---- スナップショット入出力用（IndexSnapshotCodec から使用） ----
+
+    /**
+     * 読み取りロック下で索引の内容を走査する。
+     */
+    void read(SnapshotVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            visitor.visit(docs, postings);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 索引の内容を丸ごと置き換える。
+     */
+    void replaceAll(Map<Long, DocInfo> newDocs, Map<String, Map<Long, Integer>> newPostings) {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            docs.putAll(newDocs);
+            postings.clear();
+            postings.putAll(newPostings);
+            totalLength = newDocs.values().stream().mapToLong(DocInfo::getLength).sum();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    interface SnapshotVisitor {
+        void visit(Map<Long, DocInfo> docs, Map<String, Map<Long, Integer>> postings);
+    }
+}
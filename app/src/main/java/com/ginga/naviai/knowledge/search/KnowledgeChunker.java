@@ -0,0 +1,114 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 記事本文をベクトル索引用のチャンク（重なりのある文字範囲）に分割する。
+ * <p>
+ * 長い記事を 1 つのベクトルにすると内容が平均化されて個々の話題で見つけにくくなるため、
+ * 本文を最大 {@code chunkSize} 文字の範囲に分け、範囲の境界で文が途切れても前後のチャンクで拾えるよう
+ * 隣り合うチャンクを {@code overlap} 文字重ねる。範囲の終端は、後半にある段落・文の区切りがあればそこまでに縮める。
+ * 分割は本文のみから決まるため、同じ本文からは常に同じチャンクが得られる。
+ * </p>
+ * <p>
+ * ベクトル索引のキーは記事IDとチャンク番号を {@link #key(long, int)} で 1 つの long にまとめたものとする。
+ * </p>
+ */
+public class KnowledgeChunker {
+
+    /** チャンク番号に割り当てるビット数 */
+    private static final int ORDINAL_BITS = 16;
+    /** 1 記事あたりのチャンク数の上限（キーの表現上の上限） */
+    public static final int MAX_CHUNKS = 1 << ORDINAL_BITS;
+
+    private final int chunkSize;
+    private final int overlap;
+    private final int maxChunks;
+
+    /**
+     * 本文中のチャンクの範囲 [start, end)
+     */
+    @Value
+    public static class Chunk {
+        int ordinal;
+        int start;
+        int end;
+    }
+
+    public KnowledgeChunker(int chunkSize, int overlap, int maxChunks) {
+        if (chunkSize < 1 || overlap < 0 || overlap >= chunkSize) {
+            throw new IllegalArgumentException("chunkSize must be >= 1 and 0 <= overlap < chunkSize");
+        }
+        if (maxChunks < 1 || maxChunks > MAX_CHUNKS) {
+            throw new IllegalArgumentException("maxChunks must be between 1 and " + MAX_CHUNKS);
+        }
+        this.chunkSize = chunkSize;
+        this.overlap = overlap;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * 本文をチャンクに分割する。本文が空の場合も（タイトルのみを索引するため）空の範囲のチャンクを 1 つ返す。
+     * チャンク数が上限に達した場合、それ以降の本文は索引しない。
+     */
+    public List<Chunk> split(String body) {
+        List<Chunk> chunks = new ArrayList<>();
+        int length = body != null ? body.length() : 0;
+        if (length <= chunkSize) {
+            chunks.add(new Chunk(0, 0, length));
+            return chunks;
+        }
+        int start = 0;
+        while (chunks.size() < maxChunks) {
+            int end = Math.min(start + chunkSize, length);
+            if (end < length) {
+                end = boundaryBefore(body, start + chunkSize / 2, end);
+            }
+            chunks.add(new Chunk(chunks.size(), start, end));
+            if (end >= length) {
+                break;
+            }
+            start = Math.max(start + 1, end - overlap);
+        }
+        return chunks;
+    }
+
+    /**
+     * 索引に渡すチャンクのテキスト（どの記事の話題かが分かるようタイトルを先頭に付ける）。
+     */
+    public static String text(String title, String body, Chunk chunk) {
+        String part = body != null ? body.substring(chunk.getStart(), chunk.getEnd()) : "";
+        return title == null || title.isEmpty() ? part : title + "\n" + part;
+    }
+
+    /** 記事IDとチャンク番号からベクトル索引のキーを作る */
+    public static long key(long knowledgeId, int ordinal) {
+        return (knowledgeId << ORDINAL_BITS) | ordinal;
+    }
+
+    /** ベクトル索引のキーから記事IDを取り出す */
+    public static long knowledgeIdOf(long key) {
+        return key >>> ORDINAL_BITS;
+    }
+
+    /** ベクトル索引のキーからチャンク番号を取り出す */
+    public static int ordinalOf(long key) {
+        return (int) (key & (MAX_CHUNKS - 1));
+    }
+
+    /**
+     * [from, to) の範囲で最も後ろにある段落・文の区切りの直後の位置を返す。見つからなければ to を返す。
+     */
+    private static int boundaryBefore(String body, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            char c = body.charAt(i);
+            if (c == '\n' || c == '。' || c == '！' || c == '？' || c == '.' || c == '!' || c == '?') {
+                return i + 1;
+            }
+        }
+        return to;
+    }
+}
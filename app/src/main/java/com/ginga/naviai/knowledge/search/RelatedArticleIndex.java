@@ -0,0 +1,312 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 関連記事の類似度インデックス（プロセス内、疎行列の上位 K 件のみを保持する）。
+ * <p>
+ * 記事 A, B の類似度は「タグの Jaccard 係数」と「共起いいね数を両記事のいいね数で正規化した値
+ * （Ochiai 係数: 共通していいねしたユーザー数 / √(A のいいね数 × B のいいね数)）」の重み付き和とする。
+ * 全記事対を比較せず、タグ → 記事・ユーザー → いいねした記事の転置リストを辿って類似度が 0 でない記事のみを求めるため、
+ * 1 記事の計算量は転置リストの長さの和で済む。
+ * </p>
+ * <p>
+ * 記事 A のタグ・いいねが変わると、変わるのは A を含む記事対の類似度だけなので、{@link #refresh(long)} は
+ * A の行を計算し直し、類似度の対称性を使って相手側の上位リストの A の順位だけを更新する
+ * （A の類似度が下がって相手側の上位から外れうる場合のみ、相手側の行を計算し直す）。
+ * </p>
+ * <p>
+ * 記事数の多いタグ・多数の記事にいいねしたユーザーは関連性が薄く計算量も大きいため、転置リストの長さが
+ * {@code maxPostings} を超えるものは候補の列挙と共起いいねの計数に使わない（タグの Jaccard 係数自体は正確に計算する）。
+ * この上限を跨ぐ変化は他の記事対にも影響しうるため、定期的な全件再計算で補正すること。
+ * </p>
+ * <p>
+ * 更新は単一スレッドから行うこと。{@link #related(long, int)} は更新と並行して呼び出せる。
+ * </p>
+ */
+public class RelatedArticleIndex {
+
+    private static final Comparator<Neighbor> BY_SCORE_DESC =
+            Comparator.comparingDouble(Neighbor::getScore).reversed().thenComparingLong(Neighbor::getId);
+
+    private final int topK;
+    private final double tagWeight;
+    private final double likeWeight;
+    private final int maxPostings;
+
+    private final Map<Long, Set<String>> tagsByArticle = new HashMap<>();
+    private final Map<String, Set<Long>> articlesByTag = new HashMap<>();
+    private final Map<Long, Set<Long>> likersByArticle = new HashMap<>();
+    private final Map<Long, Set<Long>> likedByUser = new HashMap<>();
+
+    /** 記事ID → 類似度上位 K 件（不変リスト。読み取り側へはリストごと差し替えて公開する） */
+    private final Map<Long, List<Neighbor>> topByArticle = new ConcurrentHashMap<>();
+    /** 記事ID → その記事を上位リストに含む記事ID（行の差し替え時に維持する逆引き） */
+    private final Map<Long, Set<Long>> listedIn = new HashMap<>();
+
+    /**
+     * 類似度が 0 より大きい関連記事
+     */
+    @Value
+    public static class Neighbor {
+        long id;
+        double score;
+    }
+
+    public RelatedArticleIndex(int topK, double tagWeight, double likeWeight, int maxPostings) {
+        this.topK = topK;
+        this.tagWeight = tagWeight;
+        this.likeWeight = likeWeight;
+        this.maxPostings = maxPostings;
+    }
+
+    /**
+     * 対象記事（公開中の記事）のタグを登録する。既に登録済みの場合はタグを置き換える（いいねは保持する）。
+     */
+    public void putArticle(long id, Collection<String> tags) {
+        Set<String> old = tagsByArticle.put(id, tags != null ? new HashSet<>(tags) : new HashSet<>());
+        if (old != null) {
+            for (String tag : old) {
+                removePosting(articlesByTag, tag, id);
+            }
+        }
+        for (String tag : tagsByArticle.get(id)) {
+            articlesByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * 記事をインデックスから取り除く（非公開化・削除時）。他の記事の上位リストからは {@link #refresh(long)} で取り除く。
+     */
+    public void removeArticle(long id) {
+        Set<Long> likers = likersByArticle.remove(id);
+        if (likers != null) {
+            for (Long userId : likers) {
+                removePosting(likedByUser, userId, id);
+            }
+        }
+        Set<String> tags = tagsByArticle.remove(id);
+        if (tags != null) {
+            for (String tag : tags) {
+                removePosting(articlesByTag, tag, id);
+            }
+        }
+    }
+
+    /**
+     * 記事をいいねしたユーザーを置き換える（未登録の記事は無視する）。
+     */
+    public void setLikers(long id, Collection<Long> userIds) {
+        if (!tagsByArticle.containsKey(id)) {
+            return;
+        }
+        Set<Long> old = likersByArticle.put(id, new HashSet<>(userIds));
+        if (old != null) {
+            for (Long userId : old) {
+                removePosting(likedByUser, userId, id);
+            }
+        }
+        for (Long userId : userIds) {
+            likedByUser.computeIfAbsent(userId, u -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * いいねを 1 件追加する（全件構築時に "like" テーブルを 1 行ずつ読み込むため。未登録の記事は無視する）。
+     */
+    public void addLike(long id, long userId) {
+        if (!tagsByArticle.containsKey(id)) {
+            return;
+        }
+        likersByArticle.computeIfAbsent(id, k -> new HashSet<>()).add(userId);
+        likedByUser.computeIfAbsent(userId, u -> new HashSet<>()).add(id);
+    }
+
+    /**
+     * 全記事の上位リストを計算し直す（全件構築後に呼び出す）。
+     */
+    public void computeAll() {
+        for (Long id : new ArrayList<>(tagsByArticle.keySet())) {
+            setRow(id, topOf(scores(id)));
+        }
+    }
+
+    /**
+     * タグ・いいねを更新した記事の上位リストと、その記事を含む他の記事の上位リストを更新する。
+     */
+    public void refresh(long id) {
+        Map<Long, Double> scores = tagsByArticle.containsKey(id) ? scores(id) : Collections.emptyMap();
+        Set<Long> recompute = new HashSet<>();
+
+        // 相手側の上位リストにある自記事の類似度を差し替える（上がった・新たに入る場合はその場で挿入できる）
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            List<Neighbor> row = topByArticle.getOrDefault(e.getKey(), List.of());
+            Neighbor previous = find(row, id);
+            if (previous != null && e.getValue() < previous.getScore()) {
+                recompute.add(e.getKey());
+            } else {
+                setRow(e.getKey(), merge(row, new Neighbor(id, e.getValue())));
+            }
+        }
+        // 類似度が 0 になった相手側の上位リストからは取り除き、空いた枠を埋めるため行を計算し直す
+        for (Long other : new ArrayList<>(listedIn.getOrDefault(id, Set.of()))) {
+            if (!scores.containsKey(other)) {
+                recompute.add(other);
+            }
+        }
+
+        if (tagsByArticle.containsKey(id)) {
+            setRow(id, topOf(scores));
+        } else {
+            setRow(id, List.of());
+            topByArticle.remove(id);
+        }
+        for (Long other : recompute) {
+            if (tagsByArticle.containsKey(other)) {
+                setRow(other, topOf(scores(other)));
+            }
+        }
+    }
+
+    /**
+     * 類似度の高い順に関連記事を最大 {@code limit} 件返す。
+     */
+    public List<Neighbor> related(long id, int limit) {
+        List<Neighbor> row = topByArticle.getOrDefault(id, List.of());
+        return row.size() <= limit ? row : row.subList(0, limit);
+    }
+
+    /** 登録されている記事数 */
+    public int size() {
+        return tagsByArticle.size();
+    }
+
+    /**
+     * 記事 {@code id} と類似度が 0 より大きい記事の類似度を求める。
+     */
+    Map<Long, Double> scores(long id) {
+        Set<String> tags = tagsByArticle.getOrDefault(id, Set.of());
+        Set<Long> likers = likersByArticle.getOrDefault(id, Set.of());
+
+        Set<Long> tagCandidates = new HashSet<>();
+        for (String tag : tags) {
+            Set<Long> postings = articlesByTag.getOrDefault(tag, Set.of());
+            if (postings.size() <= maxPostings) {
+                tagCandidates.addAll(postings);
+            }
+        }
+        Map<Long, Integer> coLikes = new HashMap<>();
+        for (Long userId : likers) {
+            Set<Long> liked = likedByUser.getOrDefault(userId, Set.of());
+            if (liked.size() <= maxPostings) {
+                for (Long other : liked) {
+                    coLikes.merge(other, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long other : tagCandidates) {
+            if (other != id) {
+                scores.put(other, tagWeight * jaccard(tags, tagsByArticle.getOrDefault(other, Set.of())));
+            }
+        }
+        for (Map.Entry<Long, Integer> e : coLikes.entrySet()) {
+            long other = e.getKey();
+            if (other == id) {
+                continue;
+            }
+            int otherLikes = likersByArticle.getOrDefault(other, Set.of()).size();
+            double ochiai = e.getValue() / Math.sqrt((double) likers.size() * otherLikes);
+            double tagScore = scores.containsKey(other)
+                    ? scores.get(other)
+                    : tagWeight * jaccard(tags, tagsByArticle.getOrDefault(other, Set.of()));
+            scores.put(other, tagScore + likeWeight * ochiai);
+        }
+        scores.values().removeIf(score -> score <= 0);
+        return scores;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String tag : smaller) {
+            if (larger.contains(tag)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private List<Neighbor> topOf(Map<Long, Double> scores) {
+        List<Neighbor> all = new ArrayList<>(scores.size());
+        scores.forEach((other, score) -> all.add(new Neighbor(other, score)));
+        all.sort(BY_SCORE_DESC);
+        return List.copyOf(all.size() > topK ? all.subList(0, topK) : all);
+    }
+
+    /** 上位リストに記事を挿入（または類似度を差し替え）し、K 件に切り詰める */
+    private List<Neighbor> merge(List<Neighbor> row, Neighbor neighbor) {
+        List<Neighbor> merged = new ArrayList<>(row.size() + 1);
+        for (Neighbor n : row) {
+            if (n.getId() != neighbor.getId()) {
+                merged.add(n);
+            }
+        }
+        merged.add(neighbor);
+        merged.sort(BY_SCORE_DESC);
+        return List.copyOf(merged.size() > topK ? merged.subList(0, topK) : merged);
+    }
+
+    private void setRow(long id, List<Neighbor> row) {
+        List<Neighbor> old = topByArticle.put(id, row);
+        if (old != null) {
+            for (Neighbor n : old) {
+                Set<Long> holders = listedIn.get(n.getId());
+                if (holders != null) {
+                    holders.remove(id);
+                    if (holders.isEmpty()) {
+                        listedIn.remove(n.getId());
+                    }
+                }
+            }
+        }
+        for (Neighbor n : row) {
+            listedIn.computeIfAbsent(n.getId(), k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static Neighbor find(List<Neighbor> row, long id) {
+        for (Neighbor n : row) {
+            if (n.getId() == id) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    private static <K> void removePosting(Map<K, Set<Long>> postings, K key, long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+
+/**
+ * ハイブリッド検索で得た記事のチャンク（score は Reciprocal Rank Fusion の統合スコア）
+ */
+@Value
+public class RetrievedChunk {
+    long knowledgeId;
+    int ordinal;
+    String title;
+    /** チャンクの本文（DB の現在の本文から切り出したもの） */
+    String text;
+    double score;
+}
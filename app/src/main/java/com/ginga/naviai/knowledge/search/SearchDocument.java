@@ -0,0 +1,27 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 索引作成用の記事射影（索引に必要な列と公開状態のみ）
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchDocument {
+    private Long id;
+    private String title;
+    private String body;
+    private String status;
+    private boolean deleted;
+    private Instant updatedAt;
+
+    /** 検索対象（published かつ論理削除されていない）かどうか */
+    public boolean isVisible() {
+        return "published".equals(status) && !deleted;
+    }
+}
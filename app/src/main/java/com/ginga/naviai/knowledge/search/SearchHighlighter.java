@@ -0,0 +1,96 @@
+package com.ginga.naviai.knowledge.search;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 検索結果の抜粋・ハイライト位置の作成。
+ * <p>
+ * 検索方式（プロセス内索引 / DB）に関わらず、クエリを {@link SearchTokenizer} で分割した語との一致で判定する。
+ * </p>
+ */
+public final class SearchHighlighter {
+
+    /** 抜粋の一致箇所より前・後に含める文字数 */
+    private static final int SNIPPET_BEFORE = 40;
+    private static final int SNIPPET_AFTER = 80;
+
+    private SearchHighlighter() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /**
+     * 1 件分の検索結果（抜粋・ハイライト付き）を作成する。
+     *
+     * @param terms {@link InvertedIndex#queryTerms} で得たクエリの語
+     */
+    public static SearchHitResponse toHit(long id, String title, String body, double score, Set<String> terms) {
+        String snippet = snippet(body, terms);
+        List<SearchHitResponse.Highlight> highlights = new ArrayList<>();
+        highlights.addAll(highlight("title", title, terms));
+        highlights.addAll(highlight("snippet", snippet, terms));
+        return SearchHitResponse.builder()
+                .id(String.valueOf(id))
+                .title(title)
+                .snippet(snippet)
+                .score(score)
+                .highlights(highlights)
+                .build();
+    }
+
+    /**
+     * 本文中で最初に一致した語の周辺を抜粋する。一致がなければ先頭を返す。
+     */
+    public static String snippet(String body, Set<String> terms) {
+        if (body == null || body.isEmpty()) {
+            return "";
+        }
+        int first = -1;
+        for (SearchTokenizer.Token t : SearchTokenizer.tokenize(body)) {
+            if (matches(t.getTerm(), terms)) {
+                first = t.getStart();
+                break;
+            }
+        }
+        int start = first < 0 ? 0 : Math.max(0, first - SNIPPET_BEFORE);
+        int end = Math.min(body.length(), (first < 0 ? 0 : first) + SNIPPET_AFTER);
+        return body.substring(start, end);
+    }
+
+    /**
+     * テキスト中のクエリ一致箇所を、重なり・隣接を結合した区間として返す。
+     */
+    public static List<SearchHitResponse.Highlight> highlight(String field, String text, Set<String> terms) {
+        List<SearchHitResponse.Highlight> spans = new ArrayList<>();
+        if (text == null) {
+            return spans;
+        }
+        for (SearchTokenizer.Token t : SearchTokenizer.tokenize(text)) {
+            if (!matches(t.getTerm(), terms)) {
+                continue;
+            }
+            SearchHitResponse.Highlight last = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+            if (last != null && t.getStart() <= last.getEnd()) {
+                last.setEnd(Math.max(last.getEnd(), t.getEnd()));
+            } else {
+                spans.add(new SearchHitResponse.Highlight(field, t.getStart(), t.getEnd()));
+            }
+        }
+        return spans;
+    }
+
+    private static boolean matches(String term, Set<String> queryTerms) {
+        if (queryTerms.contains(term)) {
+            return true;
+        }
+        for (String q : queryTerms) {
+            if (SearchTokenizer.isSingleCjk(q) && term.indexOf(q.charAt(0)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全文検索用のトークナイザ。
+ * <p>
+ * 日本語は分かち書きされないため、漢字・ひらがな・カタカナの連続部分は文字 bigram に分割し、
+ * それ以外の英数字の連続部分は単語として扱う。CJK が 1 文字だけ孤立している場合はその 1 文字を unigram とする。
+ * 正規化（全角英数字→半角、大文字→小文字）は 1 文字単位で行い、トークンのオフセットが原文の位置と一致するようにしている。
+ * </p>
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /**
+     * トークン（正規化済みの語と原文上の位置 [start, end)）
+     */
+    @Value
+    public static class Token {
+        String term;
+        int start;
+        int end;
+    }
+
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = normalize(text.charAt(i));
+            if (isCjk(c)) {
+                int start = i;
+                while (i < n && isCjk(normalize(text.charAt(i)))) {
+                    i++;
+                }
+                emitBigrams(text, start, i, tokens);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                StringBuilder sb = new StringBuilder();
+                while (i < n) {
+                    char d = normalize(text.charAt(i));
+                    if (isCjk(d) || !Character.isLetterOrDigit(d)) {
+                        break;
+                    }
+                    sb.append(d);
+                    i++;
+                }
+                tokens.add(new Token(sb.toString(), start, i));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * CJK の bigram 語かどうか（1 文字クエリを bigram に展開する際に使用する）
+     */
+    public static boolean isSingleCjk(String term) {
+        return term.length() == 1 && isCjk(term.charAt(0));
+    }
+
+    private static void emitBigrams(String text, int start, int end, List<Token> tokens) {
+        if (end - start == 1) {
+            tokens.add(new Token(String.valueOf(normalize(text.charAt(start))), start, end));
+            return;
+        }
+        for (int j = start; j + 1 < end; j++) {
+            String bigram = new String(new char[]{normalize(text.charAt(j)), normalize(text.charAt(j + 1))});
+            tokens.add(new Token(bigram, j, j + 2));
+        }
+    }
+
+    /** 全角英数字を半角に、英字を小文字に揃える（長さは変えない） */
+    static char normalize(char c) {
+        if (c >= '！' && c <= '～') {
+            c = (char) (c - 0xFEE0);
+        }
+        return Character.toLowerCase(c);
+    }
+
+    static boolean isCjk(char c) {
+        if (c == 'ー' || c == '々') {
+            // 長音符「ー」・踊り字「々」
+            return true;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+}
@@ -0,0 +1,222 @@
+package com.ginga.naviai.knowledge.search;
+
+import lombok.Value;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * タグ絞り込み用のビットマップインデックス（プロセス内）。
+ * <p>
+ * タグ名 → 記事IDの集合、ステータス → 記事IDの集合、論理削除済み記事IDの集合を
+ * Roaring ビットマップで保持し、複数タグの AND / OR / NOT をビットマップ演算で評価する。
+ * 記事の置き換え・削除ですべてのタグのビットマップを走査しないよう、記事ごとに付与されたタグも保持する。
+ * 記事IDは符号なし 32 ビットの範囲（0 〜 2^32-1）であること。
+ * 絞り込み（読み取り）と更新は ReadWriteLock で排他する。
+ * </p>
+ */
+public class TagBitmapIndex {
+
+    private static final long MAX_ID = 0xFFFF_FFFFL;
+
+    private final Map<String, RoaringBitmap> byTag = new HashMap<>();
+    /** 記事ID → 付与されたタグ（byTag の逆引き） */
+    private final Map<Integer, Set<String>> tagsById = new HashMap<>();
+    private final Map<String, RoaringBitmap> byStatus = new HashMap<>();
+    private final RoaringBitmap deleted = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 絞り込み結果（該当件数と指定範囲の記事ID）
+     */
+    @Value
+    public static class Result {
+        long total;
+        /** 記事IDの降順（新しい記事から） */
+        List<Long> ids;
+    }
+
+    /**
+     * 記事の状態を登録する。既に登録済みの場合は置き換える。
+     */
+    public void put(long id, String status, boolean isDeleted, Collection<String> tags) {
+        int key = toKey(id);
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            byStatus.computeIfAbsent(status, s -> new RoaringBitmap()).add(key);
+            if (isDeleted) {
+                deleted.add(key);
+            }
+            if (tags != null) {
+                for (String tag : tags) {
+                    addTagLocked(key, tag);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 記事をインデックスから取り除く。
+     */
+    public void remove(long id) {
+        int key = toKey(id);
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 記事に付与されたタグの一部のみを追加する（全件構築時に記事行・タグ行を別々に読み込むため）。
+     */
+    public void addTag(long id, String tag) {
+        int key = toKey(id);
+        lock.writeLock().lock();
+        try {
+            addTagLocked(key, tag);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 指定ステータスかつ未削除の記事をタグで絞り込む。
+     *
+     * @param tags        絞り込むタグ（空の場合はタグ条件なし）
+     * @param matchAll    true: すべてのタグを含む（AND）/ false: いずれかのタグを含む（OR）
+     * @param excludeTags いずれかを含む記事を除外するタグ（NOT）
+     * @param status      対象とする記事ステータス
+     * @param offset      記事IDの降順で先頭から読み飛ばす件数
+     * @param limit       返す件数の上限
+     */
+    public Result filter(Collection<String> tags, boolean matchAll, Collection<String> excludeTags,
+                         String status, long offset, int limit) {
+        lock.readLock().lock();
+        RoaringBitmap matched;
+        try {
+            RoaringBitmap base = byStatus.get(status);
+            if (base == null) {
+                return new Result(0, List.of());
+            }
+            matched = RoaringBitmap.andNot(base, deleted);
+            if (tags != null && !tags.isEmpty()) {
+                List<RoaringBitmap> bitmaps = new ArrayList<>(tags.size());
+                for (String tag : tags) {
+                    RoaringBitmap b = byTag.get(tag);
+                    if (b == null) {
+                        if (matchAll) {
+                            return new Result(0, List.of());
+                        }
+                        continue;
+                    }
+                    bitmaps.add(b);
+                }
+                if (bitmaps.isEmpty()) {
+                    return new Result(0, List.of());
+                }
+                RoaringBitmap tagged = matchAll
+                        ? FastAggregation.and(bitmaps.iterator())
+                        : FastAggregation.or(bitmaps.iterator());
+                matched = RoaringBitmap.and(matched, tagged);
+            }
+            if (excludeTags != null && !excludeTags.isEmpty()) {
+                List<RoaringBitmap> excluded = new ArrayList<>(excludeTags.size());
+                for (String tag : excludeTags) {
+                    RoaringBitmap b = byTag.get(tag);
+                    if (b != null) {
+                        excluded.add(b);
+                    }
+                }
+                if (!excluded.isEmpty()) {
+                    matched = RoaringBitmap.andNot(matched, FastAggregation.or(excluded.iterator()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 演算結果は新しいビットマップのため、ページの切り出しはロック外で行う
+        long total = matched.getLongCardinality();
+        List<Long> ids = new ArrayList<>();
+        for (long rank = total - 1 - offset; rank >= 0 && ids.size() < limit; rank--) {
+            ids.add(Integer.toUnsignedLong(matched.select((int) rank)));
+        }
+        return new Result(total, ids);
+    }
+
+    /** 登録済み（ステータスを持つ）記事数 */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap all = FastAggregation.or(byStatus.values().iterator());
+            return all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 各ビットマップをランレングス表現に最適化する（全件構築後に呼び出す）。
+     */
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            byTag.values().forEach(RoaringBitmap::runOptimize);
+            byStatus.values().forEach(RoaringBitmap::runOptimize);
+            deleted.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addTagLocked(int key, String tag) {
+        byTag.computeIfAbsent(tag, t -> new RoaringBitmap()).add(key);
+        tagsById.computeIfAbsent(key, k -> new HashSet<>()).add(tag);
+    }
+
+    private void removeLocked(int key) {
+        removeFrom(byStatus, key);
+        Set<String> tags = tagsById.remove(key);
+        if (tags != null) {
+            for (String tag : tags) {
+                RoaringBitmap b = byTag.get(tag);
+                if (b != null && b.checkedRemove(key) && b.isEmpty()) {
+                    byTag.remove(tag);
+                }
+            }
+        }
+        deleted.remove(key);
+    }
+
+    private static void removeFrom(Map<String, RoaringBitmap> bitmaps, int key) {
+        Iterator<RoaringBitmap> it = bitmaps.values().iterator();
+        while (it.hasNext()) {
+            RoaringBitmap b = it.next();
+            if (b.checkedRemove(key) && b.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static int toKey(long id) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Knowledge id out of bitmap range: " + id);
+        }
+        return (int) id;
+    }
+}
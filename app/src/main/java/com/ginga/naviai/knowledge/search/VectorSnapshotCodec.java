@@ -0,0 +1,177 @@
+package com.ginga.naviai.knowledge.search;
+
+import com.ginga.naviai.knowledge.embedding.Embedder;
+import lombok.Value;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link HnswIndex} と埋め込みモデルの状態のディスクスナップショットの書き出し・読み込み。
+ * <p>
+ * 形式（ビッグエンディアン）:
+ * <pre>
+ * magic "NVVI"(4) | version(int) | watermark 秒(long) | watermark ナノ秒(int)
+ * モデル識別子 UTF-8 長(int) | モデル識別子 | モデル状態長(int) | モデル状態
+ * 次元数(int) | M(int) | efConstruction(int) | 乱数の種(long) | 入口の頂点(int) | 最上層(int)
+ * 頂点数(int) | 頂点ごとに [キー(long) | 削除済み(byte) | 層(int) | ベクトル(float * 次元数) | 層ごとに (辺数(int) | 隣接頂点(int) * 辺数)]
+ * </pre>
+ * グラフの辺も保存するため、起動時にベクトルの計算・グラフの構築をやり直す必要がない。
+ * 読み込みはファイルをメモリマップして行う。書き出しは一時ファイルに書いてから置き換える（{@link IndexSnapshotCodec} と同様）。
+ * </p>
+ */
+public final class VectorSnapshotCodec {
+
+    private static final int MAGIC = 0x4E565649; // "NVVI"
+    private static final int VERSION = 1;
+
+    private VectorSnapshotCodec() {
+        // ユーティリティクラスのため、インスタンス化禁止
+    }
+
+    /**
+     * 読み込んだスナップショット
+     */
+    @Value
+    public static class Snapshot {
+        Instant watermark;
+        /** 保存時の状態を復元した埋め込みモデル */
+        Embedder embedder;
+        HnswIndex index;
+    }
+
+    /**
+     * 索引と、索引のベクトルを計算した埋め込みモデルの状態をファイルに書き出す。
+     *
+     * @param watermark この時刻までの記事更新が索引に反映済みであることを示す目印
+     */
+    public static void write(HnswIndex index, Embedder embedder, Instant watermark, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(watermark.getEpochSecond());
+            out.writeInt(watermark.getNano());
+            byte[] modelId = embedder.modelId().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(modelId.length);
+            out.write(modelId);
+            byte[] state = embedder.state();
+            out.writeInt(state.length);
+            out.write(state);
+            out.writeInt(index.dimension());
+            out.writeInt(index.m());
+            out.writeInt(index.efConstruction());
+            out.writeLong(index.seed());
+            index.read((entryPoint, maxLevel, nodes) -> writeGraph(out, entryPoint, maxLevel, nodes));
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * ファイルから索引を読み込む。
+     *
+     * @param embedder 現在の埋め込みモデル（保存時の状態はこのモデルの {@link Embedder#restore(byte[])} で復元する）
+     * @throws IOException 読み込みに失敗した場合・形式が不正な場合・モデル識別子が一致しない場合
+     */
+    public static Snapshot read(Path file, Embedder embedder) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            try {
+                return readBody(buf, embedder);
+            } catch (RuntimeException e) {
+                // BufferUnderflowException・不正なモデル状態など
+                throw new IOException("Corrupted vector index snapshot: " + file, e);
+            }
+        }
+    }
+
+    private static void writeGraph(DataOutputStream out, int entryPoint, int maxLevel,
+                                   List<HnswIndex.Node> nodes) throws IOException {
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        out.writeInt(nodes.size());
+        for (HnswIndex.Node node : nodes) {
+            out.writeLong(node.key);
+            out.writeByte(node.deleted ? 1 : 0);
+            out.writeInt(node.level());
+            for (float x : node.vector) {
+                out.writeFloat(x);
+            }
+            for (int[] neighbors : node.neighbors) {
+                out.writeInt(neighbors.length);
+                for (int other : neighbors) {
+                    out.writeInt(other);
+                }
+            }
+        }
+    }
+
+    private static Snapshot readBody(ByteBuffer buf, Embedder embedder) throws IOException {
+        if (buf.getInt() != MAGIC) {
+            throw new IOException("Not a vector index snapshot");
+        }
+        int version = buf.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported vector index snapshot version: " + version);
+        }
+        Instant watermark = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+        byte[] modelId = new byte[buf.getInt()];
+        buf.get(modelId);
+        String savedModel = new String(modelId, StandardCharsets.UTF_8);
+        if (!savedModel.equals(embedder.modelId())) {
+            throw new IOException("Vector index snapshot was built with another model: " + savedModel);
+        }
+        byte[] state = new byte[buf.getInt()];
+        buf.get(state);
+        Embedder restored = embedder.restore(state);
+
+        int dimension = buf.getInt();
+        HnswIndex index = new HnswIndex(dimension, buf.getInt(), buf.getInt(), buf.getLong());
+        int entryPoint = buf.getInt();
+        int maxLevel = buf.getInt();
+        int nodeCount = buf.getInt();
+        List<HnswIndex.Node> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            long key = buf.getLong();
+            boolean deleted = buf.get() != 0;
+            int level = buf.getInt();
+            float[] vector = new float[dimension];
+            for (int d = 0; d < dimension; d++) {
+                vector[d] = buf.getFloat();
+            }
+            int[][] neighbors = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                neighbors[l] = new int[buf.getInt()];
+                for (int j = 0; j < neighbors[l].length; j++) {
+                    neighbors[l][j] = buf.getInt();
+                }
+            }
+            nodes.add(new HnswIndex.Node(key, vector, neighbors, deleted));
+        }
+        index.replaceAll(nodes, entryPoint, maxLevel);
+        return new Snapshot(watermark, restored, index);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 著者ごとの記事総件数のキャッシュ。
+ * <p>
+ * 記事一覧の {@code meta.total} のためにリクエストごとに COUNT を発行しないよう、
+ * 初回のみ DB から件数を読み込み、以降は {@link KnowledgeChangedEvent}（作成・削除・状態変更）で無効化する。
+ * 無効化はコミット後に行い、無効化と並行して読み込まれた古い件数は世代番号の比較で破棄する。
+ * </p>
+ * <p>
+ * 無効化はこのプロセス内のイベントでしか行われないため、他ノードでの変更は保持期限（TTL）の経過で反映する。
+ * 保持する著者数には上限を設け、上限に達した場合は期限切れの件数を取り除き、それでも空きがなければキャッシュしない。
+ * 世代番号は著者 ID のハッシュで固定数に振り分けて保持する（同じ枠の別の著者の無効化でも読み込み結果を破棄するが、
+ * 件数を読み直すだけで誤った値は保持しない）。
+ * </p>
+ */
+@Component
+public class AuthorKnowledgeCountCache {
+
+    /** 世代番号の枠数（2 の累乗） */
+    private static final int GENERATION_SLOTS = 1024;
+
+    private final Map<Long, Entry> counts = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    /** 件数を保持する期間 */
+    @Value("${knowledge.author-count.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    /** キャッシュする著者数の上限 */
+    @Value("${knowledge.author-count.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private Clock clock = Clock.systemUTC();
+
+    private static final class Entry {
+        final long count;
+        final long expiresAtMillis;
+
+        Entry(long count, long expiresAtMillis) {
+            this.count = count;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * 著者の記事総件数を返す。キャッシュにない（または期限切れの）場合は loader で読み込んで保持する。
+     */
+    public long getCount(Long authorId, LongSupplier loader) {
+        long now = clock.millis();
+        Entry cached = counts.get(authorId);
+        if (cached != null && cached.expiresAtMillis > now) {
+            return cached.count;
+        }
+        int slot = slot(authorId);
+        long generation = generations.get(slot);
+        long loaded = loader.getAsLong();
+        if (cached == null && counts.size() >= maxEntries) {
+            counts.values().removeIf(e -> e.expiresAtMillis <= now);
+            if (counts.size() >= maxEntries) {
+                return loaded;
+            }
+        }
+        Entry fresh = new Entry(loaded, now + ttlSeconds * 1000);
+        // 読み込み中に無効化された場合は保持しない（invalidate は世代更新 → 削除の順に行う）
+        counts.compute(authorId, (id, current) -> generations.get(slot) == generation ? fresh : current);
+        return loaded;
+    }
+
+    public void invalidate(Long authorId) {
+        generations.incrementAndGet(slot(authorId));
+        counts.remove(authorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        if (event.getAuthorId() != null) {
+            invalidate(event.getAuthorId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        event.getItems().stream()
+                .map(KnowledgeBulkImportedEvent.Item::getAuthorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(this::invalidate);
+    }
+
+    /** キャッシュ済みの著者数 */
+    public int cachedCount() {
+        return counts.size();
+    }
+
+    private static int slot(Long authorId) {
+        return Long.hashCode(authorId) & (GENERATION_SLOTS - 1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.CommentRequest;
+import com.ginga.naviai.knowledge.dto.CommentResponse;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+
+/**
+ * 記事へのコメント（スレッド形式）を提供するサービス。
+ */
+public interface CommentService {
+
+    /**
+     * トップレベルのコメントを投稿順にキーセットページングし、各コメント配下の返信をツリーで返す。
+     *
+     * @param cursor 前ページの nextCursor（先頭ページは null または空文字）
+     * @param limit  1ページのトップレベルコメント数
+     */
+    CursorPage<CommentResponse> getThread(Long knowledgeId, String viewerUsername, String cursor, int limit);
+
+    /**
+     * コメントを投稿する。{@code parentId} を指定した場合は同じ記事のコメントへの返信となる。
+     */
+    CommentResponse addComment(Long knowledgeId, String username, CommentRequest request);
+
+    /**
+     * 自分のコメントを削除する（削除済みの場合は何もしない）。
+     */
+    void deleteComment(Long knowledgeId, Long commentId, String username);
+}
@@ -0,0 +1,228 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.entity.User;
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.CommentRequest;
+import com.ginga.naviai.knowledge.dto.CommentResponse;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.dto.KnowledgeCursor;
+import com.ginga.naviai.knowledge.event.KnowledgeCommentChangedEvent;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.repository.CommentQueryConstants;
+import com.ginga.naviai.user.exception.UserNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * コメントの実装。
+ * <p>
+ * スレッドは再帰 CTE の 1 クエリで「1 ページ分のトップレベルコメント + 配下の返信すべて」を平坦な行として読み込み、
+ * ID → ノードのマップを使って O(n) でツリーに組み立てる（行は投稿順に並べて返すため、返信も投稿順になる）。
+ * 記事のコメント数は knowledge.comment_count を投稿・削除と同一トランザクションで増減させ、一覧では COUNT しない。
+ * </p>
+ */
+@Service
+public class CommentServiceImpl implements CommentService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CommentServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                              UserRepository userRepository,
+                              ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getThread(Long knowledgeId, String viewerUsername, String cursor, int limit) {
+        Long viewerId = viewerUsername != null ? userRepository.findIdByUsername(viewerUsername).orElse(null) : null;
+        requireAccessible(knowledgeId, viewerId);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("knowledgeId", knowledgeId)
+                .addValue("limit", limit + 1);
+        String sql = CommentQueryConstants.SELECT_THREAD_FIRST_PAGE;
+        if (cursor != null && !cursor.isEmpty()) {
+            KnowledgeCursor after = KnowledgeCursor.decode(cursor);
+            params.addValue("createdAt", Timestamp.from(after.getCreatedAt())).addValue("id", after.getId());
+            sql = CommentQueryConstants.SELECT_THREAD_PAGE_AFTER;
+        }
+        List<CommentResponse> rows = jdbcTemplate.query(sql, params, (rs, i) -> {
+            long parentId = rs.getLong("parent_comment_id");
+            boolean parentNull = rs.wasNull();
+            long authorId = rs.getLong("author_id");
+            boolean authorNull = rs.wasNull();
+            boolean deleted = rs.getBoolean("is_deleted");
+            return CommentResponse.builder()
+                    .id(rs.getLong("id"))
+                    .parentId(parentNull ? null : parentId)
+                    .authorId(deleted || authorNull ? null : authorId)
+                    .authorName(deleted ? null : rs.getString("author_name"))
+                    .body(deleted ? null : rs.getString("body"))
+                    .deleted(deleted)
+                    .createdAt(rs.getTimestamp("created_at").toInstant())
+                    .build();
+        });
+
+        List<CommentResponse> topLevel = assemble(rows);
+        String nextCursor = null;
+        if (topLevel.size() > limit) {
+            topLevel = new ArrayList<>(topLevel.subList(0, limit));
+            CommentResponse last = topLevel.get(limit - 1);
+            nextCursor = new KnowledgeCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(topLevel, nextCursor);
+    }
+
+    /**
+     * 平坦な行をツリーに組み立て、トップレベルのコメントを返す（行数に対して O(n)）。
+     * 各ノードの返信リストは行の並び順（投稿順）を保つ。親が行に含まれない返信は無視する。
+     */
+    static List<CommentResponse> assemble(List<CommentResponse> rows) {
+        Map<Long, CommentResponse> byId = new HashMap<>(rows.size() * 2);
+        for (CommentResponse row : rows) {
+            byId.put(row.getId(), row);
+        }
+        List<CommentResponse> topLevel = new ArrayList<>();
+        for (CommentResponse row : rows) {
+            if (row.getParentId() == null) {
+                topLevel.add(row);
+            } else {
+                CommentResponse parent = byId.get(row.getParentId());
+                if (parent != null) {
+                    parent.getReplies().add(row);
+                }
+            }
+        }
+        return topLevel;
+    }
+
+    @Override
+    @Transactional
+    public CommentResponse addComment(Long knowledgeId, String username, CommentRequest request) {
+        Long userId = resolveUserId(username);
+        Long articleAuthorId = requireAccessible(knowledgeId, userId);
+
+        if (request.getParentId() != null) {
+            Map<String, Object> parent = findRow(CommentQueryConstants.SELECT_PARENT, request.getParentId());
+            if (parent == null || !Objects.equals(toLong(parent.get("knowledge_id")), knowledgeId)
+                    || Boolean.TRUE.equals(parent.get("is_deleted"))) {
+                throw new InvalidRequestException("Invalid parent comment: " + request.getParentId());
+            }
+        }
+
+        Instant now = Instant.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(CommentQueryConstants.INSERT_COMMENT, new MapSqlParameterSource()
+                        .addValue("knowledgeId", knowledgeId)
+                        .addValue("authorId", userId)
+                        .addValue("body", request.getBody())
+                        .addValue("parentId", request.getParentId(), Types.BIGINT)
+                        .addValue("createdAt", Timestamp.from(now)),
+                keyHolder, new String[]{"id"});
+        Long commentId = keyHolder.getKey().longValue();
+        adjustCommentCount(knowledgeId, 1);
+        eventPublisher.publishEvent(new KnowledgeCommentChangedEvent(knowledgeId, articleAuthorId, commentId, 1));
+
+        return CommentResponse.builder()
+                .id(commentId)
+                .parentId(request.getParentId())
+                .authorId(userId)
+                .authorName(userRepository.findById(userId).map(User::getDisplayName).orElse(null))
+                .body(request.getBody())
+                .createdAt(now)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void deleteComment(Long knowledgeId, Long commentId, String username) {
+        Long userId = resolveUserId(username);
+        Map<String, Object> comment = findRow(CommentQueryConstants.SELECT_COMMENT_OWNER, commentId);
+        if (comment == null || !Objects.equals(toLong(comment.get("knowledge_id")), knowledgeId)) {
+            throw new KnowledgeNotFoundException("Comment not found: " + commentId);
+        }
+        if (!Objects.equals(toLong(comment.get("author_id")), userId)) {
+            throw new AccessDeniedException("Only the author can delete this comment");
+        }
+
+        int updated = jdbcTemplate.update(CommentQueryConstants.SOFT_DELETE_COMMENT,
+                new MapSqlParameterSource("id", commentId));
+        if (updated == 0) {
+            return;
+        }
+        adjustCommentCount(knowledgeId, -1);
+        Map<String, Object> article = findArticle(knowledgeId);
+        Long articleAuthorId = article != null ? toLong(article.get("author_id")) : null;
+        eventPublisher.publishEvent(new KnowledgeCommentChangedEvent(knowledgeId, articleAuthorId, commentId, -1));
+    }
+
+    private Long resolveUserId(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * 公開中の記事、または閲覧者自身の（削除されていない）記事であることを確認し、記事の著者IDを返す。
+     * それ以外は存在有無を漏らさないよう 404 とする。
+     */
+    private Long requireAccessible(Long knowledgeId, Long viewerId) {
+        Map<String, Object> article = findArticle(knowledgeId);
+        if (article == null || Boolean.TRUE.equals(article.get("is_deleted"))) {
+            throw new KnowledgeNotFoundException("Knowledge not found: " + knowledgeId);
+        }
+        Long authorId = toLong(article.get("author_id"));
+        boolean published = "published".equals(article.get("status"));
+        if (!published && (viewerId == null || !viewerId.equals(authorId))) {
+            throw new KnowledgeNotFoundException("Knowledge not found: " + knowledgeId);
+        }
+        return authorId;
+    }
+
+    private Map<String, Object> findArticle(Long knowledgeId) {
+        try {
+            return jdbcTemplate.queryForMap(CommentQueryConstants.SELECT_ARTICLE_ACCESS,
+                    new MapSqlParameterSource("knowledgeId", knowledgeId));
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> findRow(String sql, Long id) {
+        try {
+            return jdbcTemplate.queryForMap(sql, new MapSqlParameterSource("id", id));
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private void adjustCommentCount(Long knowledgeId, long delta) {
+        jdbcTemplate.update(CommentQueryConstants.ADD_COMMENT_COUNT,
+                new MapSqlParameterSource().addValue("id", knowledgeId).addValue("delta", delta));
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.search.InvertedIndex;
+import com.ginga.naviai.knowledge.search.SearchHighlighter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.ginga.naviai.knowledge.repository.KnowledgeSearchQueryConstants.*;
+
+/**
+ * DB 側で処理する全文検索（{@code knowledge.search.mode=database} の場合に有効）。
+ * <p>
+ * JVM 内に索引を持たず、PostgreSQL では生成列 search_text に対する pg_trgm の GIN インデックスで部分一致を絞り込み、
+ * tsvector（search_vector）の ts_rank とタイトルの類似度で順位付けする。
+ * H2 では同等の生成列・インデックスがないため、各列の小文字化 LIKE で一致判定し、タイトル一致を上位とする。
+ * 空白区切りの検索語はすべて含む記事のみを対象とする。
+ * </p>
+ * <p>
+ * pg_trgm のインデックスで絞り込めるのは、トライグラムを持つ検索語のみである。
+ * データベースの LC_CTYPE が C / POSIX の場合は日本語の文字からトライグラムが作られず、
+ * また 2 文字以下の検索語（日本語の 2 文字語など）は locale によらずトライグラムを持たない。
+ * こうした語を LIKE のまま渡すとインデックス全体を走査したうえで照合し直すことになり、素の LIKE より大幅に遅くなる。
+ * そのため起動時に日本語からトライグラムが作られるかを調べ、トライグラムを持たない検索語は
+ * インデックスを使わない {@code strpos} で照合する（インデックスで絞り込める語が他にあれば、その結果に対して照合される）。
+ * 日本語の検索を主に使う場合は、日本語を文字と判定する LC_CTYPE（ja_JP.UTF-8 / C.UTF-8 など）のデータベースで運用すること。
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "knowledge.search.mode", havingValue = "database")
+public class DatabaseKnowledgeSearchService implements KnowledgeSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseKnowledgeSearchService.class);
+
+    /** 一度に指定できる検索語の上限（条件式の肥大化を防ぐ） */
+    private static final int MAX_TERMS = 8;
+
+    enum Dialect { POSTGRESQL, H2 }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    /** 日本語の文字からトライグラムが作られるか（PostgreSQL のみ意味を持つ） */
+    private final boolean japaneseTrigrams;
+
+    public DatabaseKnowledgeSearchService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.dialect = "PostgreSQL".equalsIgnoreCase(product) ? Dialect.POSTGRESQL : Dialect.H2;
+        this.japaneseTrigrams = dialect != Dialect.POSTGRESQL || probeJapaneseTrigrams();
+        logger.info("Database search mode enabled ({} strategy)", dialect);
+    }
+
+    /**
+     * 日本語の文字からトライグラムが作られるかを調べる。作られない LC_CTYPE の場合は警告する。
+     * 確認できない場合は作られるものとして扱う（従来どおりすべての検索語をインデックスで絞り込む）。
+     */
+    private boolean probeJapaneseTrigrams() {
+        try {
+            Integer trigrams = jdbcTemplate.getJdbcTemplate().queryForObject(PG_CJK_TRIGRAM_PROBE, Integer.class);
+            if (trigrams != null && trigrams == 0) {
+                logger.warn("pg_trgm extracts no trigrams from Japanese text under this database's LC_CTYPE; "
+                        + "Japanese search terms are matched by a sequential scan instead of idx_knowledge_search_text_trgm");
+                return false;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to check pg_trgm support for Japanese text: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SearchHitResponse> search(String query, Pageable pageable) {
+        List<String> terms = splitTerms(query);
+        if (terms.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("q", query.trim())
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        boolean[] indexed = new boolean[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            indexed[i] = dialect != Dialect.POSTGRESQL || hasTrigrams(term, japaneseTrigrams);
+            params.addValue("p" + i, indexed[i] ? "%" + escapeLike(term) + "%" : term);
+        }
+
+        Long total = jdbcTemplate.queryForObject(buildCountSql(dialect, indexed), params, Long.class);
+        if (total == null || total == 0) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        Set<String> highlightTerms = InvertedIndex.queryTerms(query);
+        List<SearchHitResponse> hits = jdbcTemplate.query(buildSearchSql(dialect, indexed), params,
+                (rs, rowNum) -> SearchHighlighter.toHit(
+                        rs.getLong("id"), rs.getString("title"), rs.getString("body"), rs.getDouble("score"), highlightTerms));
+        return new PageImpl<>(hits, pageable, total);
+    }
+
+    /**
+     * 検索SQLを組み立てる。
+     *
+     * @param indexed 検索語ごとに、pg_trgm のインデックスで絞り込めるか（PostgreSQL のみ参照）
+     */
+    static String buildSearchSql(Dialect dialect, boolean[] indexed) {
+        StringBuilder sql = new StringBuilder();
+        if (dialect == Dialect.POSTGRESQL) {
+            sql.append(PG_SELECT);
+            appendPgMatches(sql, indexed);
+        } else {
+            List<String> titleMatches = new ArrayList<>();
+            for (int i = 0; i < indexed.length; i++) {
+                titleMatches.add(String.format(H2_TITLE_MATCH, "p" + i));
+            }
+            sql.append(String.format(H2_SELECT, String.join(" AND ", titleMatches)));
+            appendH2Matches(sql, indexed.length);
+        }
+        return sql.append(ORDER_AND_PAGE).toString();
+    }
+
+    static String buildCountSql(Dialect dialect, boolean[] indexed) {
+        StringBuilder sql = new StringBuilder(dialect == Dialect.POSTGRESQL ? PG_COUNT : H2_COUNT);
+        if (dialect == Dialect.POSTGRESQL) {
+            appendPgMatches(sql, indexed);
+        } else {
+            appendH2Matches(sql, indexed.length);
+        }
+        return sql.toString();
+    }
+
+    private static void appendPgMatches(StringBuilder sql, boolean[] indexed) {
+        for (int i = 0; i < indexed.length; i++) {
+            sql.append(String.format(indexed[i] ? PG_MATCH : PG_SCAN_MATCH, "p" + i));
+        }
+    }
+
+    private static void appendH2Matches(StringBuilder sql, int termCount) {
+        for (int i = 0; i < termCount; i++) {
+            sql.append(String.format(H2_MATCH, "p" + i));
+        }
+    }
+
+    /**
+     * 検索語が pg_trgm のインデックスで絞り込めるトライグラムを持つかを判定する。
+     * 単語を成す文字（日本語からトライグラムが作られない場合は ASCII の英数字のみ）が 3 文字以上連続する語を対象とし、
+     * 判定に迷う語はインデックスを使わない側に倒す（誤ってもインデックスを使わない照合になるだけで結果は変わらない）。
+     */
+    static boolean hasTrigrams(String term, boolean japaneseTrigrams) {
+        int run = 0;
+        for (int i = 0; i < term.length(); ) {
+            int cp = term.codePointAt(i);
+            boolean wordChar = Character.isLetterOrDigit(cp) && (japaneseTrigrams || cp < 0x80);
+            run = wordChar ? run + 1 : 0;
+            if (run >= 3) {
+                return true;
+            }
+            i += Character.charCount(cp);
+        }
+        return false;
+    }
+
+    /** 空白で検索語に分割し、小文字化する（重複は除く） */
+    static List<String> splitTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String t : query.trim().toLowerCase(Locale.ROOT).split("[\\s\\u3000]+")) {
+            if (!t.isEmpty() && !terms.contains(t) && terms.size() < MAX_TERMS) {
+                terms.add(t);
+            }
+        }
+        return terms;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,361 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginga.naviai.knowledge.dto.ImportReport;
+import com.ginga.naviai.knowledge.dto.KnowledgeImportRecord;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.ginga.naviai.knowledge.repository.KnowledgeImportQueryConstants.*;
+import static com.ginga.naviai.knowledge.repository.TagQueryConstants.INSERT_LINK;
+
+/**
+ * 記事の一括取り込みサービス（NDJSON: 1 行 1 記事の JSON）。
+ * <p>
+ * 入力は 1 行ずつ読み進め、検証を通った行をバッチ件数分だけ保持してから書き込むため、
+ * 入力の大きさに関わらず使用メモリはバッチ 1 つ分とエラー報告（上限件数まで）に収まる。
+ * 1 バッチは 1 トランザクションで、著者の解決（IN の 1 クエリ）、ID の採番、記事の batch INSERT、
+ * タグの解決と関連の batch INSERT を行い、派生データ向けに {@link KnowledgeBulkImportedEvent} を 1 回発行する。
+ * 失敗したバッチはその行をすべて失敗として報告し、後続のバッチの取り込みは続ける。
+ * </p>
+ */
+@Service
+public class KnowledgeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnowledgeImportService.class);
+
+    private static final String DEFAULT_STATUS = "published";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KnowledgeTagWriter tagWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final boolean postgres;
+
+    /** 1 トランザクションで書き込む記事数（リクエストで指定がない場合） */
+    @Value("${knowledge.import.batch-size:500}")
+    private int defaultBatchSize = 500;
+
+    /** 結果に含める失敗行の上限 */
+    @Value("${knowledge.import.max-reported-errors:100}")
+    private int maxReportedErrors = 100;
+
+    public KnowledgeImportService(NamedParameterJdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  KnowledgeTagWriter tagWriter,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ObjectMapper objectMapper,
+                                  Validator validator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tagWriter = tagWriter;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /**
+     * NDJSON を読み込んで記事を取り込む。
+     *
+     * @param in        UTF-8 の NDJSON（空行は読み飛ばす）
+     * @param batchSize 1 トランザクションで書き込む記事数（null の場合は設定値）
+     * @return 取り込み結果
+     */
+    public ImportReport importNdjson(InputStream in, Integer batchSize) throws IOException {
+        int size = batchSize != null ? batchSize : defaultBatchSize;
+        if (size < 1) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        Run run = new Run(size);
+        long started = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.processed++;
+            KnowledgeImportRecord record = parse(run, lineNo, line);
+            if (record == null) {
+                continue;
+            }
+            run.pending.add(new Row(lineNo, record));
+            if (run.pending.size() >= size) {
+                flush(run);
+            }
+        }
+        flush(run);
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Knowledge import finished: processed={}, imported={}, failed={}, batches={}, {} ms",
+                run.processed, run.imported, run.failed, run.batches, elapsed);
+        return ImportReport.builder()
+                .processed(run.processed)
+                .imported(run.imported)
+                .failed(run.failed)
+                .batches(run.batches)
+                .elapsedMillis(elapsed)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .build();
+    }
+
+    private KnowledgeImportRecord parse(Run run, long lineNo, String line) {
+        KnowledgeImportRecord record;
+        try {
+            record = objectMapper.readValue(line, KnowledgeImportRecord.class);
+        } catch (JsonProcessingException e) {
+            run.fail(lineNo, "Invalid JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (record == null) {
+            run.fail(lineNo, "Invalid JSON: null");
+            return null;
+        }
+        Set<ConstraintViolation<KnowledgeImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            run.fail(lineNo, violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        return record;
+    }
+
+    private void flush(Run run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<Row> rows = new ArrayList<>(run.pending);
+        run.pending.clear();
+
+        resolveAuthors(run, rows);
+        List<Row> writable = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.authorId == null) {
+                run.fail(row.line, "Unknown author: " + row.record.getAuthor());
+            } else {
+                writable.add(row);
+            }
+        }
+        if (writable.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(writable));
+            run.imported += writable.size();
+            run.batches++;
+            logger.debug("Knowledge import batch {} committed: {} rows (up to line {})",
+                    run.batches, writable.size(), writable.get(writable.size() - 1).line);
+        } catch (RuntimeException e) {
+            logger.warn("Knowledge import batch failed (lines {}-{}): {}",
+                    writable.get(0).line, writable.get(writable.size() - 1).line, e.getMessage());
+            for (Row row : writable) {
+                run.fail(row.line, "Batch failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** 著者のユーザー名を ID に解決する（取り込み中はキャッシュし、未解決分のみ IN の 1 クエリで引く） */
+    private void resolveAuthors(Run run, List<Row> rows) {
+        Set<String> misses = new LinkedHashSet<>();
+        for (Row row : rows) {
+            if (!run.authorIds.containsKey(row.record.getAuthor())) {
+                misses.add(row.record.getAuthor());
+            }
+        }
+        if (!misses.isEmpty()) {
+            misses.forEach(name -> run.authorIds.put(name, null));
+            jdbcTemplate.query(SELECT_USER_IDS_BY_USERNAMES, new MapSqlParameterSource("usernames", misses),
+                    rs -> {
+                        run.authorIds.put(rs.getString("username"), rs.getLong("id"));
+                    });
+        }
+        for (Row row : rows) {
+            row.authorId = run.authorIds.get(row.record.getAuthor());
+        }
+    }
+
+    private void writeBatch(List<Row> rows) {
+        Instant now = Instant.now();
+        for (Row row : rows) {
+            KnowledgeImportRecord r = row.record;
+            row.status = r.getStatus() != null ? r.getStatus() : DEFAULT_STATUS;
+            row.createdAt = r.getCreatedAt() != null ? r.getCreatedAt() : now;
+            row.publishedAt = r.getPublishedAt() != null || !"published".equals(row.status)
+                    ? r.getPublishedAt() : row.createdAt;
+            row.tags = KnowledgeServiceImpl.normalizeTags(r.getTags());
+        }
+
+        if (postgres) {
+            insertWithAllocatedIds(rows);
+        } else {
+            insertWithGeneratedIds(rows);
+        }
+        insertTagLinks(rows);
+
+        List<KnowledgeBulkImportedEvent.Item> items = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            items.add(new KnowledgeBulkImportedEvent.Item(row.id, row.authorId,
+                    new KnowledgeState(row.status, false, Set.copyOf(row.tags)), row.createdAt));
+        }
+        eventPublisher.publishEvent(new KnowledgeBulkImportedEvent(items));
+    }
+
+    /** シーケンスからバッチ件数分の ID を 1 クエリで採番し、ID 付きで batch INSERT する（PostgreSQL） */
+    private void insertWithAllocatedIds(List<Row> rows) {
+        List<Long> ids = jdbcTemplate.queryForList(PG_ALLOCATE_IDS,
+                new MapSqlParameterSource("count", rows.size()), Long.class);
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            row.id = ids.get(i);
+            KnowledgeImportRecord r = row.record;
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("id", row.id)
+                    .addValue("authorId", row.authorId)
+                    .addValue("title", r.getTitle())
+                    .addValue("body", r.getBody())
+                    .addValue("excerpt", r.getExcerpt())
+                    .addValue("thumbnail", r.getThumbnail())
+                    .addValue("status", row.status)
+                    .addValue("createdAt", Timestamp.from(row.createdAt))
+                    .addValue("updatedAt", Timestamp.from(row.createdAt))
+                    .addValue("publishedAt", row.publishedAt != null ? Timestamp.from(row.publishedAt) : null,
+                            Types.TIMESTAMP);
+        }
+        jdbcTemplate.batchUpdate(INSERT_KNOWLEDGE_WITH_ID, batch);
+    }
+
+    /** ID を省略して batch INSERT し、生成キーを行の順に受け取る */
+    private void insertWithGeneratedIds(List<Row> rows) {
+        jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_KNOWLEDGE_GENERATED_ID, new String[]{"ID"})) {
+                for (Row row : rows) {
+                    KnowledgeImportRecord r = row.record;
+                    ps.setLong(1, row.authorId);
+                    ps.setString(2, r.getTitle());
+                    ps.setString(3, r.getBody());
+                    ps.setString(4, r.getExcerpt());
+                    ps.setString(5, r.getThumbnail());
+                    ps.setString(6, row.status);
+                    ps.setTimestamp(7, Timestamp.from(row.createdAt));
+                    ps.setTimestamp(8, Timestamp.from(row.createdAt));
+                    ps.setTimestamp(9, row.publishedAt != null ? Timestamp.from(row.publishedAt) : null);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next()) {
+                        rows.get(i++).id = keys.getLong(1);
+                    }
+                    if (i != rows.size()) {
+                        throw new IllegalStateException("Expected " + rows.size() + " generated keys but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /** バッチ内の全タグ名をまとめて解決し、関連を batch INSERT する */
+    private void insertTagLinks(List<Row> rows) {
+        Set<String> names = new LinkedHashSet<>();
+        rows.forEach(row -> names.addAll(row.tags));
+        if (names.isEmpty()) {
+            return;
+        }
+        Map<String, Long> tagIds = tagWriter.resolveTagIds(names);
+        List<SqlParameterSource> links = new ArrayList<>();
+        for (Row row : rows) {
+            for (String tag : row.tags) {
+                links.add(new MapSqlParameterSource()
+                        .addValue("knowledgeId", row.id)
+                        .addValue("tagId", tagIds.get(tag)));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINK, links.toArray(new SqlParameterSource[0]));
+    }
+
+    /** 1 回の取り込みの進捗 */
+    private class Run {
+        final List<Row> pending;
+        final Map<String, Long> authorIds = new HashMap<>();
+        final List<ImportReport.LineError> errors = new ArrayList<>();
+        long processed;
+        long imported;
+        long failed;
+        int batches;
+
+        Run(int batchSize) {
+            this.pending = new ArrayList<>(batchSize);
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.LineError(line, message));
+            }
+        }
+    }
+
+    /** 取り込み対象の 1 行 */
+    private static class Row {
+        final long line;
+        final KnowledgeImportRecord record;
+        Long authorId;
+        Long id;
+        String status;
+        Instant createdAt;
+        Instant publishedAt;
+        List<String> tags;
+
+        Row(long line, KnowledgeImportRecord record) {
+            this.line = line;
+            this.record = record;
+        }
+    }
+}
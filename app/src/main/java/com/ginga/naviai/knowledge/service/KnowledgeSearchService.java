@@ -0,0 +1,15 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface KnowledgeSearchService {
+
+    /**
+     * 公開中の記事を全文検索し、関連度順に返す。
+     *
+     * @param query 検索語（空白区切りの語はすべて含む記事のみが対象）
+     */
+    Page<SearchHitResponse> search(String query, Pageable pageable);
+}
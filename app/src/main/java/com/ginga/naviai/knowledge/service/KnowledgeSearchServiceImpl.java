@@ -0,0 +1,281 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.IndexSnapshotCodec;
+import com.ginga.naviai.knowledge.search.InvertedIndex;
+import com.ginga.naviai.knowledge.search.SearchDocument;
+import com.ginga.naviai.knowledge.search.SearchHighlighter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * プロセス内の転置インデックスによる全文検索。
+ * <p>
+ * 起動時はディスクのスナップショットから索引を読み込み、スナップショット以降に更新された記事のみを DB から反映する。
+ * スナップショットがない・壊れている場合のみ全件を再索引する。
+ * 稼働中は {@link KnowledgeChangedEvent} を受けて記事単位で索引を更新し、変更があれば定期的にスナップショットを書き出す。
+ * 全件再索引の間に変更された記事は記録しておき、新しい索引へ差し替えた後に DB から読み直して反映する。
+ * </p>
+ * <p>
+ * {@code knowledge.search.mode=index}（既定）の場合に有効。DB 側で検索する場合は {@link DatabaseKnowledgeSearchService} を使用する。
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "knowledge.search.mode", havingValue = "index", matchIfMissing = true)
+public class KnowledgeSearchServiceImpl implements KnowledgeSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnowledgeSearchServiceImpl.class);
+
+    /** 全件再索引時に 1 回で読み込む記事数 */
+    private static final int REBUILD_BATCH_SIZE = 200;
+    /** 差分反映時に watermark から遡る幅（コミット順と updated_at の前後・時計のずれを吸収する） */
+    private static final Duration CATCH_UP_SLACK = Duration.ofMinutes(5);
+
+    private final KnowledgeRepository knowledgeRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final AtomicReference<Instant> watermark = new AtomicReference<>(Instant.EPOCH);
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    /** 変更の記録と索引の差し替えを排他する */
+    private final Object changeLock = new Object();
+    /** 全件再索引中に変更された記事ID。再索引中でなければ null */
+    private Set<Long> changedDuringRebuild;
+
+    /** スナップショットの保存先 */
+    @Value("${knowledge.search.snapshot-path:${java.io.tmpdir}/naviai/knowledge-search.idx}")
+    private String snapshotPath;
+
+    public KnowledgeSearchServiceImpl(KnowledgeRepository knowledgeRepository) {
+        this.knowledgeRepository = knowledgeRepository;
+    }
+
+    /**
+     * 起動時に索引を準備する。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Path path = Paths.get(snapshotPath);
+        if (Files.exists(path)) {
+            try {
+                Instant loaded = IndexSnapshotCodec.read(path, index);
+                watermark.set(loaded);
+                int updated = catchUp(loaded.minus(CATCH_UP_SLACK));
+                int removed = index.retainAll(knowledgeRepository.findVisibleIds());
+                if (updated > 0 || removed > 0) {
+                    dirty.set(true);
+                }
+                logger.info("Loaded search index snapshot ({} docs, {} updated, {} removed)", index.size(), updated, removed);
+                return;
+            } catch (IOException e) {
+                logger.warn("Failed to load search index snapshot, rebuilding: {}", e.getMessage());
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * 公開中の全記事から索引を作り直す。
+     */
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        InvertedIndex fresh = new InvertedIndex();
+        Instant max;
+        try {
+            max = build(fresh);
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        Set<Long> changed;
+        synchronized (changeLock) {
+            // 構築済みの索引に一括で差し替え、構築中も既存の索引で検索できるようにする
+            index.replaceWith(fresh);
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+        }
+        watermark.set(max);
+        dirty.set(true);
+        // 構築中の変更は差し替えで失われたか、読み込んだ時点の DB に含まれていない可能性があるため読み直す
+        if (!changed.isEmpty()) {
+            reload(changed);
+        }
+        logger.info("Rebuilt search index ({} docs, {} changed during rebuild)", index.size(), changed.size());
+    }
+
+    private Instant build(InvertedIndex fresh) {
+        Instant max = Instant.EPOCH;
+        long afterId = 0;
+        while (true) {
+            List<SearchDocument> batch = knowledgeRepository.findVisibleSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (SearchDocument doc : batch) {
+                fresh.put(doc.getId(), doc.getTitle(), doc.getBody());
+                max = later(max, doc.getUpdatedAt());
+            }
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        return max;
+    }
+
+    /**
+     * 指定した記事を DB から読み直して索引に反映する（見つからない記事は索引から除く）。
+     */
+    private void reload(Collection<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (SearchDocument doc : knowledgeRepository.findSearchDocumentsByIdIn(ids)) {
+            missing.remove(doc.getId());
+            apply(doc);
+        }
+        missing.forEach(index::remove);
+    }
+
+    /**
+     * 全件再索引中であれば、変更された記事を記録する。索引への反映より先に記録すること。
+     */
+    private void recordChanged(Collection<Long> ids) {
+        synchronized (changeLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(ids);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        recordChanged(List.of(event.getKnowledgeId()));
+        boolean visibleAfter = event.getAfter() != null && event.getAfter().isVisible();
+        if (!visibleAfter) {
+            index.remove(event.getKnowledgeId());
+            dirty.set(true);
+            return;
+        }
+        knowledgeRepository.findSearchDocumentsByIdIn(List.of(event.getKnowledgeId())).forEach(this::apply);
+    }
+
+    /**
+     * 一括取り込みした記事のうち公開中のものを、1 クエリでまとめて読み込んで索引に追加する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        List<Long> visibleIds = event.getItems().stream()
+                .filter(i -> i.getState().isVisible())
+                .map(KnowledgeBulkImportedEvent.Item::getKnowledgeId)
+                .collect(Collectors.toList());
+        if (!visibleIds.isEmpty()) {
+            recordChanged(visibleIds);
+            knowledgeRepository.findSearchDocumentsByIdIn(visibleIds).forEach(this::apply);
+        }
+    }
+
+    /**
+     * 変更があればスナップショットを書き出す。
+     */
+    @Scheduled(fixedDelayString = "${knowledge.search.snapshot-interval-millis:300000}",
+               initialDelayString = "${knowledge.search.snapshot-interval-millis:300000}")
+    public void persistIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            IndexSnapshotCodec.write(index, watermark.get(), Paths.get(snapshotPath));
+            logger.debug("Wrote search index snapshot to {}", snapshotPath);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Failed to write search index snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistIfDirty();
+    }
+
+    @Override
+    public Page<SearchHitResponse> search(String query, Pageable pageable) {
+        InvertedIndex.Result result = index.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        if (result.getHits().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.getTotal());
+        }
+
+        // 抜粋の作成に必要な本文は表示する件数分だけ取得する
+        Map<Long, SearchDocument> bodies = knowledgeRepository.findSearchDocumentsByIdIn(
+                        result.getHits().stream().map(InvertedIndex.ScoredDoc::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(SearchDocument::getId, Function.identity()));
+
+        Set<String> terms = InvertedIndex.queryTerms(query);
+        List<SearchHitResponse> hits = new ArrayList<>();
+        for (InvertedIndex.ScoredDoc hit : result.getHits()) {
+            SearchDocument doc = bodies.get(hit.getId());
+            String title = doc != null ? doc.getTitle() : hit.getTitle();
+            hits.add(SearchHighlighter.toHit(hit.getId(), title, doc != null ? doc.getBody() : null, hit.getScore(), terms));
+        }
+        return new PageImpl<>(hits, pageable, result.getTotal());
+    }
+
+    /** 索引の現在の件数 */
+    public int indexedCount() {
+        return index.size();
+    }
+
+    private int catchUp(Instant since) {
+        List<SearchDocument> changed = knowledgeRepository.findSearchDocumentsUpdatedSince(since);
+        changed.forEach(this::apply);
+        return changed.size();
+    }
+
+    private void apply(SearchDocument doc) {
+        if (doc.isVisible()) {
+            index.put(doc.getId(), doc.getTitle(), doc.getBody());
+        } else {
+            index.remove(doc.getId());
+        }
+        watermark.accumulateAndGet(doc.getUpdatedAt(), KnowledgeSearchServiceImpl::later);
+        dirty.set(true);
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        if (b == null) {
+            return a;
+        }
+        return a == null || b.isAfter(a) ? b : a;
+    }
+}
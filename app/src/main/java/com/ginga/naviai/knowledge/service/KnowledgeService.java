@@ -1,10 +1,77 @@
 package com.ginga.naviai.knowledge.service;
 
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.dto.KnowledgeDetailResponse;
+import com.ginga.naviai.knowledge.dto.KnowledgeRequest;
 import com.ginga.naviai.knowledge.dto.KnowledgeResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface KnowledgeService {
     Page<KnowledgeResponse> getMyKnowledgeByUsername(String username, Pageable pageable);
     Page<KnowledgeResponse> getKnowledgeByAuthorId(Long authorId, Pageable pageable);
+
+    /** 自分の記事一覧を総件数なし（COUNT クエリなし）で取得する */
+    Slice<KnowledgeResponse> getMyKnowledgeSliceByUsername(String username, Pageable pageable);
+
+    /** 指定著者の記事一覧を総件数なし（COUNT クエリなし）で取得する */
+    Slice<KnowledgeResponse> getKnowledgeSliceByAuthorId(Long authorId, Pageable pageable);
+
+    /**
+     * 自分の記事を作成日時の降順でキーセットページングして取得する。
+     *
+     * @param cursor 前ページの nextCursor（先頭ページは null または空文字）
+     * @param limit  1ページの件数（1〜100）
+     */
+    CursorPage<KnowledgeResponse> getMyKnowledgeByUsername(String username, String cursor, int limit);
+
+    /**
+     * 指定著者の記事を作成日時の降順でキーセットページングして取得する。
+     *
+     * @param cursor 前ページの nextCursor（先頭ページは null または空文字）
+     * @param limit  1ページの件数（1〜100）
+     */
+    CursorPage<KnowledgeResponse> getKnowledgeByAuthorId(Long authorId, String cursor, int limit);
+
+    /**
+     * 公開中の記事をタグで絞り込み、新しい順に取得する。
+     *
+     * @param tags        絞り込むタグ（空の場合はタグ条件なし）
+     * @param matchAll    true: すべてのタグを含む / false: いずれかのタグを含む
+     * @param excludeTags いずれかを含む記事を除外するタグ
+     */
+    Page<KnowledgeResponse> getKnowledgeByTags(Collection<String> tags, boolean matchAll,
+                                               Collection<String> excludeTags, Pageable pageable);
+
+    /**
+     * 公開中の記事の関連記事（タグの類似度と共起いいねによる）を関連度の高い順に最大 {@code limit} 件取得する。
+     * 記事が公開中でない場合は KnowledgeNotFoundException となる。
+     */
+    List<KnowledgeResponse> getRelatedKnowledge(Long id, int limit);
+
+    /**
+     * 記事詳細（本文を含む）を取得する。
+     * 公開中でない記事は著者本人のみ参照でき、それ以外は KnowledgeNotFoundException となる。
+     *
+     * @param viewerUsername 閲覧者のユーザー名
+     */
+    KnowledgeDetailResponse getKnowledgeDetail(Long id, String viewerUsername);
+
+    /**
+     * 記事を作成する。
+     *
+     * @param username 著者のユーザー名
+     */
+    KnowledgeDetailResponse createKnowledge(String username, KnowledgeRequest request);
+
+    /**
+     * 記事を更新する。著者本人以外は AccessDeniedException、存在しない（削除済みを含む）場合は KnowledgeNotFoundException となる。
+     *
+     * @param username 更新者のユーザー名
+     */
+    KnowledgeDetailResponse updateKnowledge(Long id, String username, KnowledgeRequest request);
 }
@@ -1,55 +1,379 @@
 package com.ginga.naviai.knowledge.service;
 
+import com.ginga.naviai.auth.entity.User;
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.dto.KnowledgeCursor;
+import com.ginga.naviai.knowledge.dto.KnowledgeDetailResponse;
+import com.ginga.naviai.knowledge.dto.KnowledgeListView;
+import com.ginga.naviai.knowledge.dto.KnowledgeRequest;
 import com.ginga.naviai.knowledge.dto.KnowledgeResponse;
 import com.ginga.naviai.knowledge.entity.Knowledge;
+import com.ginga.naviai.knowledge.entity.Tag;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.exception.ReviewClaimConflictException;
 import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.RelatedArticleIndex;
+import com.ginga.naviai.knowledge.search.TagBitmapIndex;
+import com.ginga.naviai.user.exception.UserNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class KnowledgeServiceImpl implements KnowledgeService {
 
+    /** キーセットページングの 1 ページの件数の上限 */
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     private final KnowledgeRepository knowledgeRepository;
+    private final UserRepository userRepository;
+    private final AuthorKnowledgeCountCache countCache;
+    private final TagFilterService tagFilterService;
+    private final RelatedKnowledgeService relatedKnowledgeService;
+    private final KnowledgeTagLoader tagLoader;
+    private final KnowledgeTagWriter tagWriter;
+    private final ViewCountBuffer viewCounts;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public KnowledgeServiceImpl(KnowledgeRepository knowledgeRepository) {
+    public KnowledgeServiceImpl(KnowledgeRepository knowledgeRepository,
+                                UserRepository userRepository,
+                                AuthorKnowledgeCountCache countCache,
+                                TagFilterService tagFilterService,
+                                RelatedKnowledgeService relatedKnowledgeService,
+                                KnowledgeTagLoader tagLoader,
+                                KnowledgeTagWriter tagWriter,
+                                ViewCountBuffer viewCounts,
+                                ApplicationEventPublisher eventPublisher) {
         this.knowledgeRepository = knowledgeRepository;
+        this.userRepository = userRepository;
+        this.countCache = countCache;
+        this.tagFilterService = tagFilterService;
+        this.relatedKnowledgeService = relatedKnowledgeService;
+        this.tagLoader = tagLoader;
+        this.tagWriter = tagWriter;
+        this.viewCounts = viewCounts;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Page<KnowledgeResponse> getMyKnowledgeByUsername(String username, Pageable pageable) {
-        Page<Knowledge> knowledgePage = knowledgeRepository.findByAuthorUsername(username, pageable);
-        return knowledgePage.map(this::convertToKnowledgeResponse);
+        Optional<Long> authorId = userRepository.findIdByUsername(username);
+        if (authorId.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return getKnowledgeByAuthorId(authorId.get(), pageable);
     }
 
     @Override
     public Page<KnowledgeResponse> getKnowledgeByAuthorId(Long authorId, Pageable pageable) {
-        Page<Knowledge> knowledgePage = knowledgeRepository.findByAuthorId(authorId, pageable);
-        return knowledgePage.map(this::convertToKnowledgeResponse);
+        // 一覧本体は COUNT を伴わない Slice で取得し、総件数は著者別キャッシュから補う
+        Slice<KnowledgeResponse> slice = getKnowledgeSliceByAuthorId(authorId, pageable);
+        long total = countCache.getCount(authorId, () -> knowledgeRepository.countByAuthorId(authorId));
+        return new PageImpl<>(slice.getContent(), pageable, total);
     }
 
-    private KnowledgeResponse convertToKnowledgeResponse(Knowledge knowledge) {
-        String statusLabel = switch (knowledge.getStatus()) {
-            case "draft" -> "下書き";
-            case "pending" -> "レビュー中";
-            case "published" -> "公開";
-            case "declined" -> "差し戻し";
-            default -> knowledge.getStatus();
-        };
+    @Override
+    public Slice<KnowledgeResponse> getMyKnowledgeSliceByUsername(String username, Pageable pageable) {
+        Optional<Long> authorId = userRepository.findIdByUsername(username);
+        if (authorId.isEmpty()) {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+        return getKnowledgeSliceByAuthorId(authorId.get(), pageable);
+    }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd")
-                .withZone(ZoneId.of("Asia/Tokyo"));
-        String formattedDate = formatter.format(knowledge.getCreatedAt());
+    @Override
+    public Slice<KnowledgeResponse> getKnowledgeSliceByAuthorId(Long authorId, Pageable pageable) {
+        Slice<KnowledgeListView> rows = knowledgeRepository.findListSliceByAuthorId(authorId, pageable);
+        return new SliceImpl<>(toResponses(rows.getContent()), pageable, rows.hasNext());
+    }
+
+    @Override
+    public CursorPage<KnowledgeResponse> getMyKnowledgeByUsername(String username, String cursor, int limit) {
+        Pageable fetch = fetchWithLookahead(limit);
+        List<KnowledgeListView> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = knowledgeRepository.findKeysetPageByAuthorUsername(username, fetch);
+        } else {
+            KnowledgeCursor c = KnowledgeCursor.decode(cursor);
+            rows = knowledgeRepository.findKeysetPageByAuthorUsernameAfter(username, c.getCreatedAt(), c.getId(), fetch);
+        }
+        return toCursorPage(rows, limit);
+    }
+
+    @Override
+    public CursorPage<KnowledgeResponse> getKnowledgeByAuthorId(Long authorId, String cursor, int limit) {
+        Pageable fetch = fetchWithLookahead(limit);
+        List<KnowledgeListView> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = knowledgeRepository.findKeysetPageByAuthorId(authorId, fetch);
+        } else {
+            KnowledgeCursor c = KnowledgeCursor.decode(cursor);
+            rows = knowledgeRepository.findKeysetPageByAuthorIdAfter(authorId, c.getCreatedAt(), c.getId(), fetch);
+        }
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * 次ページ有無を COUNT なしで判定するため、1 件多く取得するページ指定を返す。
+     */
+    private static Pageable fetchWithLookahead(int limit) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_CURSOR_LIMIT);
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+
+    private CursorPage<KnowledgeResponse> toCursorPage(List<KnowledgeListView> rows, int limit) {
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            KnowledgeListView last = rows.get(rows.size() - 1);
+            nextCursor = new KnowledgeCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(toResponses(rows), nextCursor);
+    }
+
+    @Override
+    public Page<KnowledgeResponse> getKnowledgeByTags(Collection<String> tags, boolean matchAll,
+                                                      Collection<String> excludeTags, Pageable pageable) {
+        // 絞り込みと総件数はビットマップインデックスで求め、DB からは該当ページの行のみを取得する
+        TagBitmapIndex.Result result = tagFilterService.filter(tags, matchAll, excludeTags,
+                pageable.getOffset(), pageable.getPageSize());
+        if (result.getIds().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, result.getTotal());
+        }
+
+        Map<Long, KnowledgeListView> rows = knowledgeRepository.findVisibleListViewsByIdIn(result.getIds()).stream()
+                .collect(Collectors.toMap(KnowledgeListView::getId, Function.identity()));
+        // インデックスの並び順（新しい順）を保ち、反映前に非公開となった記事は読み飛ばす
+        List<KnowledgeListView> ordered = result.getIds().stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(toResponses(ordered), pageable, result.getTotal());
+    }
+
+    @Override
+    public List<KnowledgeResponse> getRelatedKnowledge(Long id, int limit) {
+        if (!knowledgeRepository.existsByIdAndStatusAndDeletedFalse(id, "published")) {
+            throw new KnowledgeNotFoundException("Knowledge not found: " + id);
+        }
+        // 関連度順はメモリ上のインデックスで決まっているため、DB からは該当記事の行のみを取得する
+        List<Long> ids = relatedKnowledgeService.related(id, limit).stream()
+                .map(RelatedArticleIndex.Neighbor::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, KnowledgeListView> rows = knowledgeRepository.findVisibleListViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(KnowledgeListView::getId, Function.identity()));
+        List<KnowledgeListView> ordered = ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return toResponses(ordered);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KnowledgeDetailResponse getKnowledgeDetail(Long id, String viewerUsername) {
+        Knowledge knowledge = knowledgeRepository.findDetailById(id)
+                .orElseThrow(() -> new KnowledgeNotFoundException("Knowledge not found: " + id));
+
+        // 公開中でない記事は著者本人のみ参照可能。存在有無を漏らさないよう 404 とする
+        boolean visible = "published".equals(knowledge.getStatus()) && !knowledge.isDeleted();
+        boolean owner = knowledge.getAuthor() != null && viewerUsername != null
+                && viewerUsername.equals(knowledge.getAuthor().getUsername());
+        if (!visible && !(owner && !knowledge.isDeleted())) {
+            throw new KnowledgeNotFoundException("Knowledge not found: " + id);
+        }
+
+        // 著者本人による閲覧は閲覧数に含めない
+        if (visible && !owner) {
+            viewCounts.record(id);
+        }
 
+        List<String> tags = knowledge.getTags().stream()
+                .map(Tag::getName)
+                .sorted()
+                .collect(Collectors.toList());
+
+        return toDetailResponse(knowledge, tags);
+    }
+
+    @Override
+    @Transactional
+    public KnowledgeDetailResponse createKnowledge(String username, KnowledgeRequest request) {
+        User author = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+        List<String> tags = normalizeTags(request.getTags());
+        Instant now = Instant.now();
+
+        Knowledge knowledge = Knowledge.builder()
+                .author(author)
+                .title(request.getTitle())
+                .body(request.getBody())
+                .excerpt(request.getExcerpt())
+                .thumbnail(request.getThumbnail())
+                .status(request.getStatus() != null ? request.getStatus() : "draft")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        knowledgeRepository.save(knowledge);
+        if (!tags.isEmpty()) {
+            tagWriter.replaceTags(knowledge.getId(), tags);
+        }
+
+        eventPublisher.publishEvent(new KnowledgeChangedEvent(knowledge.getId(), author.getId(), null,
+                new KnowledgeState(knowledge.getStatus(), false, Set.copyOf(tags))));
+        return toDetailResponse(knowledge, tags);
+    }
+
+    @Override
+    @Transactional
+    public KnowledgeDetailResponse updateKnowledge(Long id, String username, KnowledgeRequest request) {
+        // 行ロックを取ってから読み、承認・差し戻しと並行しても古い status で上書きしない
+        Knowledge knowledge = knowledgeRepository.findByIdForUpdate(id)
+                .filter(k -> !k.isDeleted())
+                .orElseThrow(() -> new KnowledgeNotFoundException("Knowledge not found: " + id));
+        if (knowledge.getAuthor() == null || !knowledge.getAuthor().getUsername().equals(username)) {
+            throw new AccessDeniedException("Only the author can update knowledge: " + id);
+        }
+        if (underReview(knowledge)) {
+            // レビュアーが確認中の本文を差し替えさせない
+            throw new ReviewClaimConflictException("Knowledge is under review: " + id);
+        }
+
+        String beforeStatus = knowledge.getStatus();
+        knowledge.setTitle(request.getTitle());
+        knowledge.setBody(request.getBody());
+        knowledge.setExcerpt(request.getExcerpt());
+        knowledge.setThumbnail(request.getThumbnail());
+        if (request.getStatus() != null) {
+            knowledge.setStatus(request.getStatus());
+        }
+        knowledge.setUpdatedAt(Instant.now());
+
+        // タグは knowledge_tag を直接差分更新する（エンティティのタグコレクションは読み込まない）
+        Set<String> beforeTags;
+        List<String> tags;
+        if (request.getTags() != null) {
+            tags = normalizeTags(request.getTags());
+            beforeTags = tagWriter.replaceTags(id, tags);
+        } else {
+            tags = tagLoader.loadTagNames(List.of(id)).getOrDefault(id, Collections.emptyList());
+            beforeTags = Set.copyOf(tags);
+        }
+
+        eventPublisher.publishEvent(new KnowledgeChangedEvent(id, knowledge.getAuthor().getId(),
+                new KnowledgeState(beforeStatus, false, beforeTags),
+                new KnowledgeState(knowledge.getStatus(), false, Set.copyOf(tags))));
+        return toDetailResponse(knowledge, tags);
+    }
+
+    private static boolean underReview(Knowledge knowledge) {
+        return "pending".equals(knowledge.getStatus())
+                && knowledge.getReviewClaimedBy() != null
+                && knowledge.getReviewClaimExpiresAt() != null
+                && knowledge.getReviewClaimExpiresAt().isAfter(Instant.now());
+    }
+
+    /** タグ名の前後の空白を除去し、空文字と重複を取り除いて昇順に並べる */
+    static List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return Collections.emptyList();
+        }
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private KnowledgeDetailResponse toDetailResponse(Knowledge knowledge, List<String> tags) {
+        return KnowledgeDetailResponse.builder()
+                .id(knowledge.getId().toString())
+                .title(knowledge.getTitle())
+                .body(knowledge.getBody())
+                .excerpt(knowledge.getExcerpt())
+                .date(formatDate(knowledge.getCreatedAt()))
+                .status(statusLabel(knowledge.getStatus()))
+                .thumbnail(knowledge.getThumbnail())
+                .authorDisplayName(knowledge.getAuthor() != null ? knowledge.getAuthor().getDisplayName() : "不明")
+                .likeCount(knowledge.getLikeCount())
+                .viewCount(knowledge.getViewCount() + viewCounts.pending(knowledge.getId()))
+                .commentCount(knowledge.getCommentCount())
+                .tags(tags)
+                .build();
+    }
+
+    /**
+     * 一覧の行をレスポンスに変換する。タグはページ内の記事分を 1 クエリでまとめて読み込む。
+     */
+    private List<KnowledgeResponse> toResponses(List<KnowledgeListView> rows) {
+        Map<Long, List<String>> tags = tagLoader.loadTagNames(
+                rows.stream().map(KnowledgeListView::getId).collect(Collectors.toList()));
+        List<KnowledgeResponse> result = new ArrayList<>(rows.size());
+        for (KnowledgeListView row : rows) {
+            KnowledgeResponse response = convertToKnowledgeResponse(row);
+            response.setTags(tags.getOrDefault(row.getId(), Collections.emptyList()));
+            response.setViewCount(row.getViewCount() + viewCounts.pending(row.getId()));
+            response.setCommentCount(row.getCommentCount());
+            result.add(response);
+        }
+        return result;
+    }
+
+    private KnowledgeResponse convertToKnowledgeResponse(KnowledgeListView knowledge) {
         return new KnowledgeResponse(
                 knowledge.getId().toString(),
                 knowledge.getTitle(),
                 knowledge.getExcerpt(),
-                formattedDate,
-                statusLabel,
+                formatDate(knowledge.getCreatedAt()),
+                statusLabel(knowledge.getStatus()),
                 knowledge.getThumbnail()
         );
     }
+
+    private static String statusLabel(String status) {
+        return switch (status) {
+            case "draft" -> "下書き";
+            case "pending" -> "レビュー中";
+            case "published" -> "公開";
+            case "declined" -> "差し戻し";
+            default -> status;
+        };
+    }
+
+    private static String formatDate(Instant createdAt) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+                .withZone(ZoneId.of("Asia/Tokyo"));
+        return formatter.format(createdAt);
+    }
 }
@@ -0,0 +1,43 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一覧表示用に複数記事のタグ名をまとめて読み込む。
+ * <p>
+ * ページ内の記事IDを {@code IN (...)} で 1 クエリにまとめて取得し、記事ID → タグ名（昇順）に振り分ける。
+ * ページサイズに関わらず発行する SQL は 1 本（記事IDが空の場合は 0 本）となる。
+ * </p>
+ */
+@Component
+public class KnowledgeTagLoader {
+
+    private final KnowledgeRepository knowledgeRepository;
+
+    public KnowledgeTagLoader(KnowledgeRepository knowledgeRepository) {
+        this.knowledgeRepository = knowledgeRepository;
+    }
+
+    /**
+     * 記事ID → タグ名一覧を返す。タグのない記事はマップに含まれない。
+     */
+    public Map<Long, List<String>> loadTagNames(Collection<Long> knowledgeIds) {
+        if (knowledgeIds == null || knowledgeIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<String>> result = new HashMap<>();
+        for (Object[] row : knowledgeRepository.findTagNamesByKnowledgeIdIn(knowledgeIds)) {
+            result.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>()).add((String) row[1]);
+        }
+        result.values().forEach(Collections::sort);
+        return result;
+    }
+}
@@ -0,0 +1,180 @@
+package com.ginga.naviai.knowledge.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ginga.naviai.knowledge.repository.TagQueryConstants.*;
+
+/**
+ * 記事のタグ付けをまとめて書き込むコンポーネント。
+ * <p>
+ * タグ名 → ID はプロセス内キャッシュを優先し、未解決の名前のみ {@code IN} の 1 クエリで引く。
+ * 未登録のタグは一括 INSERT（衝突時は何もしない）で作成してから再取得する。
+ * knowledge_tag は現在の関連との差分のみを追加・削除し、全削除 → 全挿入は行わない。
+ * </p>
+ * <p>
+ * DB から解決した ID は、トランザクションのロールバックで存在しない ID を保持しないよう、コミット後にキャッシュへ登録する。
+ * タグは削除しない前提のため、キャッシュの無効化は行わない。
+ * </p>
+ */
+@Component
+public class KnowledgeTagWriter {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final Map<String, Long> tagIds = new ConcurrentHashMap<>();
+
+    /** キャッシュするタグ数の上限（超えた分はキャッシュせず毎回 DB で解決する） */
+    @Value("${knowledge.tag-cache.max-entries:10000}")
+    private int maxCacheEntries = 10000;
+
+    public KnowledgeTagWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /**
+     * タグ名を ID に解決する。未登録のタグは作成する。
+     *
+     * @return タグ名 → ID（引数の順序を保つ）
+     */
+    public Map<String, Long> resolveTagIds(Collection<String> names) {
+        Map<String, Long> resolved = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String name : names) {
+            Long id = tagIds.get(name);
+            if (id != null) {
+                resolved.put(name, id);
+            } else {
+                resolved.put(name, null);
+                misses.add(name);
+            }
+        }
+        if (misses.isEmpty()) {
+            return resolved;
+        }
+
+        Map<String, Long> loaded = selectTagIds(misses);
+        List<String> absent = new ArrayList<>();
+        for (String name : misses) {
+            if (!loaded.containsKey(name)) {
+                absent.add(name);
+            }
+        }
+        if (!absent.isEmpty()) {
+            insertTags(absent);
+            loaded.putAll(selectTagIds(absent));
+        }
+
+        resolved.putAll(loaded);
+        cacheAfterCommit(loaded);
+        return resolved;
+    }
+
+    /**
+     * 記事のタグをタグ名の集合で置き換える（差分のみ追加・削除する）。
+     *
+     * @return 置き換え前のタグ名
+     */
+    public Set<String> replaceTags(long knowledgeId, Collection<String> names) {
+        Map<Long, String> current = new HashMap<>();
+        jdbcTemplate.query(SELECT_LINKED_TAGS, new MapSqlParameterSource("knowledgeId", knowledgeId),
+                rs -> {
+                    current.put(rs.getLong("id"), rs.getString("name"));
+                });
+
+        Set<Long> wanted = new HashSet<>();
+        if (!names.isEmpty()) {
+            wanted.addAll(resolveTagIds(names).values());
+        }
+
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        for (Long tagId : wanted) {
+            if (!current.containsKey(tagId)) {
+                inserts.add(new MapSqlParameterSource().addValue("knowledgeId", knowledgeId).addValue("tagId", tagId));
+            }
+        }
+        List<Long> removals = new ArrayList<>();
+        for (Long tagId : current.keySet()) {
+            if (!wanted.contains(tagId)) {
+                removals.add(tagId);
+            }
+        }
+
+        if (!removals.isEmpty()) {
+            jdbcTemplate.update(DELETE_LINKS, new MapSqlParameterSource()
+                    .addValue("knowledgeId", knowledgeId).addValue("tagIds", removals));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINK, inserts.toArray(new SqlParameterSource[0]));
+        }
+        return new HashSet<>(current.values());
+    }
+
+    /** キャッシュ済みのタグ数 */
+    public int cachedCount() {
+        return tagIds.size();
+    }
+
+    private Map<String, Long> selectTagIds(Collection<String> names) {
+        Map<String, Long> result = new HashMap<>();
+        jdbcTemplate.query(SELECT_TAG_IDS_BY_NAMES, new MapSqlParameterSource("names", names),
+                rs -> {
+                    result.put(rs.getString("name"), rs.getLong("id"));
+                });
+        return result;
+    }
+
+    private void insertTags(List<String> names) {
+        Timestamp now = Timestamp.from(Instant.now());
+        SqlParameterSource[] batch = new SqlParameterSource[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            batch[i] = new MapSqlParameterSource().addValue("name", names.get(i)).addValue("now", now);
+        }
+        jdbcTemplate.batchUpdate(postgres ? PG_INSERT_TAG_IF_ABSENT : H2_INSERT_TAG_IF_ABSENT, batch);
+    }
+
+    private void cacheAfterCommit(Map<String, Long> loaded) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(loaded);
+                }
+            });
+        } else {
+            cache(loaded);
+        }
+    }
+
+    private void cache(Map<String, Long> loaded) {
+        loaded.forEach((name, id) -> {
+            if (tagIds.size() < maxCacheEntries) {
+                tagIds.putIfAbsent(name, id);
+            }
+        });
+    }
+}
@@ -0,0 +1,460 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.embedding.Embedder;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.HnswIndex;
+import com.ginga.naviai.knowledge.search.IndexSnapshotCodec;
+import com.ginga.naviai.knowledge.search.InvertedIndex;
+import com.ginga.naviai.knowledge.search.KnowledgeChunker;
+import com.ginga.naviai.knowledge.search.RetrievedChunk;
+import com.ginga.naviai.knowledge.search.SearchDocument;
+import com.ginga.naviai.knowledge.search.SearchHighlighter;
+import com.ginga.naviai.knowledge.search.VectorSnapshotCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 記事のチャンク単位のベクトル索引による意味検索（近似最近傍探索）と、質問応答向けのハイブリッド検索。
+ * <p>
+ * 公開中の記事本文を {@link KnowledgeChunker} でチャンクに分け、{@link Embedder} でベクトル化して {@link HnswIndex} に登録する。
+ * 同じチャンクをチャンク単位の {@link InvertedIndex}（BM25）にも登録し、両方の索引を同じ更新で書き換える。
+ * 意味検索はクエリのベクトルに近いチャンクを求め、記事ごとに最も近いチャンクの類似度で並べる。
+ * ハイブリッド検索（{@link #retrieve(String, int)}）は BM25 とベクトルの順位を Reciprocal Rank Fusion で統合する。
+ * </p>
+ * <p>
+ * 起動時はディスクのスナップショット（グラフと埋め込みモデルの状態）を読み込み、スナップショット以降に更新された記事のみを反映する。
+ * スナップショットがない・壊れている・埋め込みモデルが変わった場合は全件から作り直す。
+ * 稼働中は {@link KnowledgeChangedEvent} で変更された記事を記録しておき、バックグラウンドの差分更新で
+ * その記事の現在の本文を DB から読み直してチャンクを置き換える（外部の埋め込み API を使う場合もリクエストを待たせない）。
+ * 定期的な全件再構築で、埋め込みモデルの統計（idf など）の更新とグラフに残った削除済み頂点の除去を行う。
+ * </p>
+ */
+@Service
+public class KnowledgeVectorSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnowledgeVectorSearchService.class);
+
+    /** 全件再構築・差分更新で 1 回に読み込む記事数 */
+    private static final int BATCH_SIZE = 200;
+    /** 差分反映時に watermark から遡る幅（コミット順と updated_at の前後・時計のずれを吸収する） */
+    private static final Duration CATCH_UP_SLACK = Duration.ofMinutes(5);
+    /** グラフの乱数の種（同じデータからは同じグラフを作る） */
+    private static final long GRAPH_SEED = 42L;
+
+    private final KnowledgeRepository knowledgeRepository;
+    private final Embedder baseEmbedder;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Instant> watermark = new AtomicReference<>(Instant.EPOCH);
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    /** 索引の内容が変わるたびに増える版数（回答キャッシュのキーに使用する） */
+    private final AtomicLong version = new AtomicLong();
+
+    /** 索引と、索引のベクトルを計算した埋め込みモデル（全件再構築時に組で差し替える） */
+    private volatile Model model;
+
+    /** スナップショットの保存先 */
+    @Value("${knowledge.vector.snapshot-path:${java.io.tmpdir}/naviai/knowledge-vector.idx}")
+    private String snapshotPath;
+
+    /** チャンク単位の BM25 索引のスナップショットの保存先 */
+    @Value("${knowledge.vector.text-snapshot-path:${java.io.tmpdir}/naviai/knowledge-chunk-text.idx}")
+    private String textSnapshotPath;
+
+    /** チャンクの最大文字数 */
+    @Value("${knowledge.vector.chunk-size:400}")
+    private int chunkSize = 400;
+
+    /** 隣り合うチャンクの重なりの文字数 */
+    @Value("${knowledge.vector.chunk-overlap:80}")
+    private int chunkOverlap = 80;
+
+    /** 1 記事あたりのチャンク数の上限 */
+    @Value("${knowledge.vector.max-chunks-per-article:64}")
+    private int maxChunks = 64;
+
+    /** HNSW の各層で頂点が持つ辺の数 */
+    @Value("${knowledge.vector.hnsw.m:16}")
+    private int m = 16;
+
+    /** HNSW の追加時に保持する候補数 */
+    @Value("${knowledge.vector.hnsw.ef-construction:200}")
+    private int efConstruction = 200;
+
+    /** HNSW の検索時に保持する候補数（再現率と速度の調整） */
+    @Value("${knowledge.vector.hnsw.ef-search:64}")
+    private int efSearch = 64;
+
+    /** ハイブリッド検索で BM25・ベクトルのそれぞれから取得する候補数 */
+    @Value("${knowledge.vector.hybrid.candidates:50}")
+    private int hybridCandidates = 50;
+
+    /** Reciprocal Rank Fusion の定数 k（順位 r の候補に 1 / (k + r) を加算する） */
+    @Value("${knowledge.vector.hybrid.rrf-k:60}")
+    private int rrfK = 60;
+
+    private static final class Model {
+        final Embedder embedder;
+        final HnswIndex index;
+        final InvertedIndex text;
+
+        Model(Embedder embedder, HnswIndex index, InvertedIndex text) {
+            this.embedder = embedder;
+            this.index = index;
+            this.text = text;
+        }
+    }
+
+    public KnowledgeVectorSearchService(KnowledgeRepository knowledgeRepository, Embedder embedder) {
+        this.knowledgeRepository = knowledgeRepository;
+        this.baseEmbedder = embedder;
+    }
+
+    /**
+     * 起動時に索引を準備する。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Path path = Paths.get(snapshotPath);
+        Path textPath = Paths.get(textSnapshotPath);
+        if (Files.exists(path) && Files.exists(textPath)) {
+            try {
+                VectorSnapshotCodec.Snapshot snapshot = VectorSnapshotCodec.read(path, baseEmbedder);
+                InvertedIndex text = new InvertedIndex();
+                Instant textWatermark = IndexSnapshotCodec.read(textPath, text);
+                Instant loaded = textWatermark.isBefore(snapshot.getWatermark()) ? textWatermark : snapshot.getWatermark();
+                model = new Model(snapshot.getEmbedder(), snapshot.getIndex(), text);
+                version.incrementAndGet();
+                watermark.set(loaded);
+                catchUp(loaded.minus(CATCH_UP_SLACK));
+                logger.info("Loaded vector index snapshot ({} chunks, {} articles to refresh)",
+                        snapshot.getIndex().size(), pending.size());
+                refresh();
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to load vector index snapshot, rebuilding: {}", e.getMessage());
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * 公開中の全記事から埋め込みモデルの統計と索引を作り直す（削除済み頂点の除去を兼ねる）。
+     */
+    @Scheduled(cron = "${knowledge.vector.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuild() {
+        try {
+            long start = System.currentTimeMillis();
+            List<Long> keys = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            InvertedIndex text = new InvertedIndex();
+            KnowledgeChunker chunker = chunker();
+            Instant max = Instant.EPOCH;
+            long afterId = 0;
+            while (true) {
+                List<SearchDocument> batch = knowledgeRepository.findVisibleSearchDocumentsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+                for (SearchDocument doc : batch) {
+                    for (KnowledgeChunker.Chunk chunk : chunker.split(doc.getBody())) {
+                        long key = KnowledgeChunker.key(doc.getId(), chunk.getOrdinal());
+                        keys.add(key);
+                        texts.add(KnowledgeChunker.text(doc.getTitle(), doc.getBody(), chunk));
+                        text.put(key, doc.getTitle(), passage(doc, chunk));
+                    }
+                    max = later(max, doc.getUpdatedAt());
+                }
+                if (batch.size() < BATCH_SIZE) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+
+            Embedder fitted = baseEmbedder.fit(texts);
+            HnswIndex fresh = new HnswIndex(fitted.dimension(), m, efConstruction, GRAPH_SEED);
+            for (int i = 0; i < keys.size(); i++) {
+                fresh.add(keys.get(i), fitted.embed(texts.get(i)));
+            }
+            // 構築済みの索引に一括で差し替え、構築中も既存の索引で検索できるようにする
+            model = new Model(fitted, fresh, text);
+            version.incrementAndGet();
+            watermark.set(max);
+            dirty.set(true);
+            logger.info("Rebuilt vector index ({} chunks) in {} ms", fresh.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // 起動を妨げないよう現在の索引（未構築の場合は空の結果）のまま続行し、次回の再構築で再試行する
+            logger.warn("Failed to rebuild vector index; keeping the current one: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 記録しておいた記事のチャンクを現在の本文で置き換える。失敗した記事は次回に再試行する。
+     *
+     * @return 更新した記事数
+     */
+    @Scheduled(fixedDelayString = "${knowledge.vector.refresh-interval-millis:10000}")
+    public synchronized int refresh() {
+        Model current = model;
+        if (current == null || pending.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+
+        int refreshed = 0;
+        try {
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+                refreshBatch(current, batch);
+                refreshed += batch.size();
+            }
+        } catch (RuntimeException e) {
+            pending.addAll(ids.subList(refreshed, ids.size()));
+            logger.warn("Failed to refresh vector index for {} articles; will retry: {}",
+                    ids.size() - refreshed, e.getMessage());
+        }
+        return refreshed;
+    }
+
+    private void refreshBatch(Model current, List<Long> ids) {
+        Map<Long, SearchDocument> docs = knowledgeRepository.findSearchDocumentsByIdIn(ids).stream()
+                .collect(Collectors.toMap(SearchDocument::getId, Function.identity()));
+        KnowledgeChunker chunker = chunker();
+        for (Long id : ids) {
+            SearchDocument doc = docs.get(id);
+            int count = 0;
+            if (doc != null && doc.isVisible()) {
+                List<KnowledgeChunker.Chunk> chunks = chunker.split(doc.getBody());
+                for (KnowledgeChunker.Chunk chunk : chunks) {
+                    long key = KnowledgeChunker.key(id, chunk.getOrdinal());
+                    current.index.add(key, current.embedder.embed(KnowledgeChunker.text(doc.getTitle(), doc.getBody(), chunk)));
+                    current.text.put(key, doc.getTitle(), passage(doc, chunk));
+                }
+                count = chunks.size();
+                watermark.accumulateAndGet(doc.getUpdatedAt(), KnowledgeVectorSearchService::later);
+            }
+            // 本文が短くなった・非公開になった記事の残りのチャンクを取り除く
+            for (int ordinal = count; ordinal < maxChunks; ordinal++) {
+                current.index.remove(KnowledgeChunker.key(id, ordinal));
+                current.text.remove(KnowledgeChunker.key(id, ordinal));
+            }
+        }
+        version.incrementAndGet();
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        boolean visibleBefore = event.getBefore() != null && event.getBefore().isVisible();
+        boolean visibleAfter = event.getAfter() != null && event.getAfter().isVisible();
+        if (visibleBefore || visibleAfter) {
+            pending.add(event.getKnowledgeId());
+        }
+    }
+
+    /**
+     * 一括取り込みした公開記事を差分更新の対象に加える。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        event.asChangedEvents().forEach(this::onKnowledgeChanged);
+    }
+
+    /**
+     * 変更があればスナップショットを書き出す。
+     * <p>
+     * 再構築・差分更新と排他し、書き出す索引の内容と watermark が同じ時点のものになるようにする
+     * （watermark だけが先に進んだスナップショットを読み込むと、その間の更新を取りこぼす）。
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${knowledge.vector.snapshot-interval-millis:300000}",
+               initialDelayString = "${knowledge.vector.snapshot-interval-millis:300000}")
+    public synchronized void persistIfDirty() {
+        Model current = model;
+        if (current == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            Instant mark = watermark.get();
+            VectorSnapshotCodec.write(current.index, current.embedder, mark, Paths.get(snapshotPath));
+            IndexSnapshotCodec.write(current.text, mark, Paths.get(textSnapshotPath));
+            logger.debug("Wrote vector index snapshot to {}", snapshotPath);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Failed to write vector index snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistIfDirty();
+    }
+
+    /**
+     * クエリに近いチャンクを近い順に最大 k 件返す（キーは {@link KnowledgeChunker#key(long, int)}。索引の構築前は空）。
+     */
+    public List<HnswIndex.Hit> nearestChunks(String query, int k) {
+        Model current = model;
+        if (current == null) {
+            return List.of();
+        }
+        return current.index.search(current.embedder.embed(query), k, Math.max(efSearch, k));
+    }
+
+    /**
+     * クエリに意味の近い記事を類似度の高い順に最大 limit 件返す。抜粋は最も近いチャンクから作る。
+     */
+    public List<SearchHitResponse> search(String query, int limit) {
+        // 1 記事に近いチャンクが複数あるため、記事数より多めにチャンクを取得して記事ごとにまとめる
+        Map<Long, HnswIndex.Hit> best = new LinkedHashMap<>();
+        for (HnswIndex.Hit hit : nearestChunks(query, limit * 4)) {
+            best.putIfAbsent(KnowledgeChunker.knowledgeIdOf(hit.getKey()), hit);
+            if (best.size() == limit) {
+                break;
+            }
+        }
+        if (best.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, SearchDocument> docs = knowledgeRepository.findSearchDocumentsByIdIn(best.keySet()).stream()
+                .filter(SearchDocument::isVisible)
+                .collect(Collectors.toMap(SearchDocument::getId, Function.identity()));
+        Set<String> terms = InvertedIndex.queryTerms(query);
+        KnowledgeChunker chunker = chunker();
+        List<SearchHitResponse> hits = new ArrayList<>();
+        for (Map.Entry<Long, HnswIndex.Hit> e : best.entrySet()) {
+            SearchDocument doc = docs.get(e.getKey());
+            if (doc == null) {
+                // 索引への反映前に非公開・削除された記事
+                continue;
+            }
+            String passage = passage(doc, chunker, KnowledgeChunker.ordinalOf(e.getValue().getKey()));
+            hits.add(SearchHighlighter.toHit(doc.getId(), doc.getTitle(), passage, e.getValue().getScore(), terms));
+        }
+        return hits;
+    }
+
+    /**
+     * 質問に関連するチャンクを BM25 とベクトルの両方で検索し、Reciprocal Rank Fusion で統合した上位 k 件を返す
+     * （語が一致するチャンクと、語は違っても内容の近いチャンクの両方を拾う）。本文は DB の現在の内容から切り出す。
+     */
+    public List<RetrievedChunk> retrieve(String query, int k) {
+        Model current = model;
+        if (current == null || k < 1) {
+            return List.of();
+        }
+        int candidates = Math.max(hybridCandidates, k);
+        Map<Long, Double> fused = new HashMap<>();
+        List<InvertedIndex.ScoredDoc> lexical = current.text.searchAny(query, candidates);
+        for (int rank = 0; rank < lexical.size(); rank++) {
+            fused.merge(lexical.get(rank).getId(), 1.0 / (rrfK + rank + 1), Double::sum);
+        }
+        List<HnswIndex.Hit> semantic = current.index.search(current.embedder.embed(query), candidates,
+                Math.max(efSearch, candidates));
+        for (int rank = 0; rank < semantic.size(); rank++) {
+            fused.merge(semantic.get(rank).getKey(), 1.0 / (rrfK + rank + 1), Double::sum);
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(fused.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        if (ranked.size() > k) {
+            ranked = ranked.subList(0, k);
+        }
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> ids = new HashSet<>();
+        ranked.forEach(e -> ids.add(KnowledgeChunker.knowledgeIdOf(e.getKey())));
+        Map<Long, SearchDocument> docs = knowledgeRepository.findSearchDocumentsByIdIn(ids).stream()
+                .filter(SearchDocument::isVisible)
+                .collect(Collectors.toMap(SearchDocument::getId, Function.identity()));
+        KnowledgeChunker chunker = chunker();
+        List<RetrievedChunk> chunks = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> e : ranked) {
+            long knowledgeId = KnowledgeChunker.knowledgeIdOf(e.getKey());
+            int ordinal = KnowledgeChunker.ordinalOf(e.getKey());
+            SearchDocument doc = docs.get(knowledgeId);
+            if (doc != null) {
+                chunks.add(new RetrievedChunk(knowledgeId, ordinal, doc.getTitle(), passage(doc, chunker, ordinal), e.getValue()));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 索引の版数。全件再構築・差分更新で索引の内容が変わるたびに増える。
+     */
+    public long indexVersion() {
+        return version.get();
+    }
+
+    /** 索引に登録されているチャンク数 */
+    public int indexedChunkCount() {
+        Model current = model;
+        return current != null ? current.index.size() : 0;
+    }
+
+    private void catchUp(Instant since) {
+        for (SearchDocument doc : knowledgeRepository.findSearchDocumentsUpdatedSince(since)) {
+            pending.add(doc.getId());
+        }
+        // スナップショット以降に非公開・削除された記事
+        Set<Long> visible = new HashSet<>(knowledgeRepository.findVisibleIds());
+        for (long key : model.index.keys()) {
+            long id = KnowledgeChunker.knowledgeIdOf(key);
+            if (!visible.contains(id)) {
+                pending.add(id);
+            }
+        }
+    }
+
+    private static String passage(SearchDocument doc, KnowledgeChunker.Chunk chunk) {
+        return doc.getBody() != null ? doc.getBody().substring(chunk.getStart(), chunk.getEnd()) : "";
+    }
+
+    /** 現在の本文から指定したチャンクを切り出す（索引への反映前に本文が短くなった場合は本文全体） */
+    private static String passage(SearchDocument doc, KnowledgeChunker chunker, int ordinal) {
+        List<KnowledgeChunker.Chunk> chunks = chunker.split(doc.getBody());
+        return ordinal < chunks.size() ? passage(doc, chunks.get(ordinal)) : doc.getBody();
+    }
+
+    private KnowledgeChunker chunker() {
+        return new KnowledgeChunker(chunkSize, chunkOverlap, maxChunks);
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        if (b == null) {
+            return a;
+        }
+        return a == null || b.isAfter(a) ? b : a;
+    }
+}
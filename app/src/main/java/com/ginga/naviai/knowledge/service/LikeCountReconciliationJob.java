@@ -0,0 +1,47 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.repository.KnowledgeQueryConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * knowledge.like_count のドリフトを補正する定期ジョブ。
+ * <p>
+ * like_count はいいねの追加・削除時に差分更新しているが、
+ * 直接の DB 操作や障害時の部分失敗でずれる可能性があるため、
+ * "like" テーブルの実件数を正として定期的に再計算する。
+ * </p>
+ */
+@Component
+public class LikeCountReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCountReconciliationJob.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LikeCountReconciliationJob(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * like_count を実件数に合わせて補正する。
+     *
+     * @return 補正した記事件数
+     */
+    @Scheduled(cron = "${knowledge.like-count.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        int fixed = jdbcTemplate.update(KnowledgeQueryConstants.RECONCILE_LIKE_COUNT, new MapSqlParameterSource());
+        if (fixed > 0) {
+            logger.warn("Reconciled like_count drift on {} knowledge rows", fixed);
+        } else {
+            logger.debug("No like_count drift detected");
+        }
+        return fixed;
+    }
+}
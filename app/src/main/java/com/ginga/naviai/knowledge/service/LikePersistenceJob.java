@@ -0,0 +1,190 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import com.ginga.naviai.knowledge.repository.LikeQueryConstants;
+import com.ginga.naviai.knowledge.service.LikeRedisStore.LikePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Redis 上で確定したいいねを "like" テーブルへまとめて書き込む定期ジョブ（write-behind）。
+ * <p>
+ * 未反映の組を Redis から最大 {@code knowledge.like.persist-batch-size} 件ずつ取り出し、
+ * 各組の<strong>現在の</strong>いいね状態を Redis から読み直して、いいね済みなら INSERT、取り消し済みなら DELETE を
+ * 1 トランザクションの batch 実行で書き込む。操作の履歴ではなく最新の状態を書き込むため、
+ * 追加と取り消しが間隔内に何度繰り返されても、取り出し順が前後しても DB は Redis の状態に収束する。
+ * </p>
+ * <p>
+ * 実際に行が増減した件数から記事ごとの差分を求めて like_count を更新し、同じトランザクション内で
+ * {@link KnowledgeLikesChangedEvent} を発行する（著者別の集計・ダッシュボードへの通知はこのイベントで行う）。
+ * 差分はバッチの更新件数から求めるため、PostgreSQL ドライバの {@code reWriteBatchedInserts} は有効にしないこと。
+ * 取り出した組はコミットまで Redis の処理中セットに残し、コミット後に削除する。
+ * 書き込みに失敗した組は未反映セットへ戻して次回に再試行し、停止などで処理中のまま残った組は起動時に戻す。
+ * </p>
+ */
+@Component
+public class LikePersistenceJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikePersistenceJob.class);
+
+    private final LikeRedisStore store;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String insertSql;
+
+    /** 1 トランザクションで書き込む組の最大数 */
+    @Value("${knowledge.like.persist-batch-size:500}")
+    private int batchSize = 500;
+
+    public LikePersistenceJob(LikeRedisStore store,
+                              NamedParameterJdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.insertSql = "PostgreSQL".equalsIgnoreCase(product)
+                ? LikeQueryConstants.PG_INSERT_LIKE
+                : LikeQueryConstants.INSERT_LIKE_IF_ABSENT;
+    }
+
+    /**
+     * 前回の起動時に処理中のまま残った（書き込み前に停止した）組を未反映セットへ戻す。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueAbandoned() {
+        try {
+            long requeued = store.requeueAbandoned();
+            if (requeued > 0) {
+                logger.info("Requeued {} like changes left in processing by a previous run", requeued);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to requeue abandoned like changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 未反映の組を書き込む。Redis・DB に接続できない場合はログを出力して次回に持ち越す。
+     *
+     * @return 書き込んだ組の数
+     */
+    @Scheduled(fixedDelayString = "${knowledge.like.persist-interval-millis:1000}")
+    public int persist() {
+        try {
+            return drain();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to persist likes; will retry: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 未反映セットが空になるまで書き込む（取り出した件数がバッチサイズ未満になった時点で終了する）。
+     *
+     * @return 書き込んだ組の数
+     * @throws RuntimeException 書き込みに失敗した場合（失敗したバッチの組は未反映セットへ戻してある）
+     */
+    public synchronized int drain() {
+        int total = 0;
+        while (true) {
+            List<LikePair> pairs = store.claimDirty(batchSize);
+            if (pairs.isEmpty()) {
+                break;
+            }
+            try {
+                write(pairs);
+            } catch (RuntimeException e) {
+                store.requeueDirty(pairs);
+                throw e;
+            }
+            store.ackDirty(pairs);
+            total += pairs.size();
+            if (pairs.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.debug("Persisted {} like changes", total);
+        }
+        return total;
+    }
+
+    private void write(List<LikePair> popped) {
+        // 記事ID・ユーザーIDの昇順に書き込み、複数ノードの同時書き込みでもロック順序を揃える
+        List<LikePair> pairs = new ArrayList<>(popped);
+        pairs.sort(Comparator.comparingLong(LikePair::getKnowledgeId).thenComparingLong(LikePair::getUserId));
+        List<Boolean> liked = store.memberships(pairs);
+        List<LikePair> inserts = new ArrayList<>();
+        List<LikePair> deletes = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            (liked.get(i) ? inserts : deletes).add(pairs.get(i));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Long> deltas = new TreeMap<>();
+            accumulate(deltas, inserts, jdbcTemplate.batchUpdate(insertSql, params(inserts)), 1);
+            accumulate(deltas, deletes, jdbcTemplate.batchUpdate(LikeQueryConstants.DELETE_LIKE, params(deletes)), -1);
+            deltas.values().removeIf(delta -> delta == 0);
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            List<SqlParameterSource> counts = new ArrayList<>(deltas.size());
+            deltas.forEach((id, delta) -> counts.add(new MapSqlParameterSource().addValue("id", id).addValue("delta", delta)));
+            jdbcTemplate.batchUpdate(LikeQueryConstants.ADD_LIKE_COUNT, counts.toArray(new SqlParameterSource[0]));
+
+            Map<Long, Long> authors = new HashMap<>();
+            jdbcTemplate.query(LikeQueryConstants.SELECT_AUTHOR_IDS_BY_IDS,
+                    new MapSqlParameterSource("ids", deltas.keySet()),
+                    rs -> {
+                        long authorId = rs.getLong("author_id");
+                        authors.put(rs.getLong("id"), rs.wasNull() ? null : authorId);
+                    });
+            List<KnowledgeLikesChangedEvent.Item> items = new ArrayList<>(deltas.size());
+            deltas.forEach((id, delta) -> items.add(new KnowledgeLikesChangedEvent.Item(id, authors.get(id), delta)));
+            eventPublisher.publishEvent(new KnowledgeLikesChangedEvent(items));
+        });
+    }
+
+    private static SqlParameterSource[] params(List<LikePair> pairs) {
+        SqlParameterSource[] batch = new SqlParameterSource[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("knowledgeId", pairs.get(i).getKnowledgeId())
+                    .addValue("userId", pairs.get(i).getUserId());
+        }
+        return batch;
+    }
+
+    /** 実際に行が増減した組のみを差分に加える（INSERT の重複・DELETE の未登録は 0 件） */
+    private static void accumulate(Map<Long, Long> deltas, List<LikePair> pairs, int[] updated, int sign) {
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                deltas.merge(pairs.get(i).getKnowledgeId(), (long) sign, Long::sum);
+            }
+        }
+    }
+}
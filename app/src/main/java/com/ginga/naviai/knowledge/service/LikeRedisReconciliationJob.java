@@ -0,0 +1,111 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.repository.LikeQueryConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis 上のいいねを "like" テーブルの内容で修復する定期ジョブ。
+ * <p>
+ * Redis のフェイルオーバー（非同期レプリケーションでの書き込み消失）やキーの欠落で、
+ * Redis と DB の内容がずれた場合に DB を正として置き換える。記事IDのキーセットページングで一定件数ずつ、
+ * <ol>
+ *   <li>各記事のバージョンを取得し、</li>
+ *   <li>未反映の変更をすべて DB へ書き込んでから（書き込めない場合はこの回を中止する）、</li>
+ *   <li>まだ DB へ未反映の変更（未反映セット・各ノードの処理中セットにある組）を持つ記事を除き、</li>
+ *   <li>いいねを 1 クエリで読み込み、バージョンが変わっていない記事のみを置き換える。</li>
+ * </ol>
+ * 組は DB へのコミット後に処理中セットから削除されるため、どちらのセットにもない変更は読み込み時点で DB に見えている。
+ * 未反映の変更を持つ記事・読み込み中にいいねされた記事は置き換えずに次回へ持ち越すため、
+ * 他ノードが書き込み中の変更を含め、DB 未反映のいいねを古い内容で消すことはない。
+ * </p>
+ */
+@Component
+public class LikeRedisReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeRedisReconciliationJob.class);
+
+    private final LikeRedisStore store;
+    private final LikePersistenceJob persistenceJob;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /** 1 回に突き合わせる記事数 */
+    @Value("${knowledge.like.redis-reconcile-page-size:500}")
+    private int pageSize = 500;
+
+    public LikeRedisReconciliationJob(LikeRedisStore store,
+                                      LikePersistenceJob persistenceJob,
+                                      NamedParameterJdbcTemplate jdbcTemplate) {
+        this.store = store;
+        this.persistenceJob = persistenceJob;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 全記事のいいねを突き合わせ、ずれていた記事を修復する。
+     *
+     * @return いいね数を修復した記事数
+     */
+    @Scheduled(cron = "${knowledge.like.redis-reconcile-cron:0 15 * * * *}")
+    public synchronized int reconcile() {
+        int repaired = 0;
+        int skipped = 0;
+        long after = 0;
+        try {
+            while (true) {
+                List<Long> ids = jdbcTemplate.queryForList(LikeQueryConstants.SELECT_KNOWLEDGE_IDS_AFTER,
+                        new MapSqlParameterSource().addValue("after", after).addValue("limit", pageSize), Long.class);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<String> versions = store.versions(ids);
+                persistenceJob.drain();
+                // DB を読む前に取得する（取得後にコミットされた変更は DB の読み込みに含まれる）
+                Set<Long> pending = store.pendingKnowledgeIds();
+
+                Map<Long, List<Long>> likers = new HashMap<>();
+                jdbcTemplate.query(LikeQueryConstants.SELECT_LIKES_BY_KNOWLEDGE_IDS, new MapSqlParameterSource("ids", ids),
+                        rs -> {
+                            likers.computeIfAbsent(rs.getLong("knowledge_id"), id -> new ArrayList<>()).add(rs.getLong("user_id"));
+                        });
+                for (int i = 0; i < ids.size(); i++) {
+                    if (pending.contains(ids.get(i))) {
+                        skipped++;
+                        continue;
+                    }
+                    long result = store.rebuild(ids.get(i), versions.get(i), likers.getOrDefault(ids.get(i), List.of()));
+                    if (result > 0) {
+                        repaired++;
+                    } else if (result < 0) {
+                        skipped++;
+                    }
+                }
+                after = ids.get(ids.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Like reconciliation aborted after knowledge id {}: {}", after, e.getMessage());
+            return repaired;
+        }
+
+        if (repaired > 0) {
+            logger.warn("Repaired Redis like counts on {} knowledge articles", repaired);
+        } else {
+            logger.debug("No Redis like drift detected");
+        }
+        if (skipped > 0) {
+            logger.debug("Skipped {} articles with likes not yet persisted", skipped);
+        }
+        return repaired;
+    }
+}
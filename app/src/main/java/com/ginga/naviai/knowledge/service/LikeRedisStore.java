@@ -0,0 +1,354 @@
+package com.ginga.naviai.knowledge.service;
+
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * いいねの状態を保持する Redis へのアクセスを集約するコンポーネント。
+ * <p>
+ * 記事ごとに次のキーを持つ。{@code like:count:{id}} が存在する記事を「読み込み済み」とし、
+ * 存在しない記事は DB から読み込んでから操作する。
+ * <ul>
+ *   <li>{@code like:users:{id}} … いいねしたユーザーIDの SET</li>
+ *   <li>{@code like:count:{id}} … いいね数</li>
+ *   <li>{@code like:ver:{id}} … 変更のたびに加算するバージョン（突き合わせ時の競合検出用）</li>
+ * </ul>
+ * DB へ未反映の変更は {@code like:dirty} に「記事ID:ユーザーID」の組として登録し、
+ * {@link LikePersistenceJob} が書き込む。取り出した組は DB のコミットまでノードごとの処理中セット
+ * {@code like:processing:{nodeId}} に移しておき、コミット後に削除する。ノードが書き込み前に停止しても組は失われず、
+ * 再起動時に未反映セットへ戻す。処理中セットのキーは {@code like:processing-keys} に登録する。
+ * 複数キーの更新は Lua スクリプトで原子的に行う（キーが同じスロットに載らないため Redis Cluster には対応しない）。
+ * </p>
+ */
+@Component
+public class LikeRedisStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeRedisStore.class);
+
+    private static final String USERS_PREFIX = "like:users:";
+    private static final String COUNT_PREFIX = "like:count:";
+    private static final String VERSION_PREFIX = "like:ver:";
+    static final String DIRTY_KEY = "like:dirty";
+    private static final String PROCESSING_PREFIX = "like:processing:";
+    static final String PROCESSING_KEYS_KEY = "like:processing-keys";
+
+    /**
+     * いいねの追加・取り消し。未読み込みの場合は {-1, 0}、それ以外は {変化の有無(1/0), 操作後のいいね数} を返す。
+     */
+    private static final RedisScript<List> APPLY_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 0 then return {-1, 0} end\n" +
+            "local changed\n" +
+            "if ARGV[3] == '1' then changed = redis.call('SADD', KEYS[1], ARGV[1])\n" +
+            "else changed = redis.call('SREM', KEYS[1], ARGV[1]) end\n" +
+            "if changed == 0 then return {0, tonumber(redis.call('GET', KEYS[2]))} end\n" +
+            "local count\n" +
+            "if ARGV[3] == '1' then count = redis.call('INCR', KEYS[2]) else count = redis.call('DECR', KEYS[2]) end\n" +
+            "redis.call('INCR', KEYS[3])\n" +
+            "redis.call('SADD', KEYS[4], ARGV[2])\n" +
+            "return {1, count}",
+            List.class);
+
+    /**
+     * DB から読み込んだいいねを設定する。読み込み済みの場合は何もせず 0 を返す（後から来た古い読み込みで上書きしない）。
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 1 then return 0 end\n" +
+            "redis.call('DEL', KEYS[1])\n" +
+            "for i = 1, #ARGV, 1000 do\n" +
+            "  redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))\n" +
+            "end\n" +
+            "redis.call('SET', KEYS[2], #ARGV)\n" +
+            "return 1",
+            Long.class);
+
+    /**
+     * DB の内容でいいねを置き換える。バージョンが ARGV[1] から変わっていれば -1、
+     * 置き換えてもいいね数が変わらなければ 0、変わった場合は 1 を返す。
+     * DB にいいねがなく未読み込みの記事にはキーを作らない。
+     */
+    private static final RedisScript<Long> REBUILD_SCRIPT = new DefaultRedisScript<>(
+            "local ver = redis.call('GET', KEYS[3]) or ''\n" +
+            "if ver ~= ARGV[1] then return -1 end\n" +
+            "local n = #ARGV - 1\n" +
+            "local old = redis.call('GET', KEYS[2])\n" +
+            "if old == false and n == 0 then return 0 end\n" +
+            "redis.call('DEL', KEYS[1])\n" +
+            "for i = 2, #ARGV, 1000 do\n" +
+            "  redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))\n" +
+            "end\n" +
+            "redis.call('SET', KEYS[2], n)\n" +
+            "if old == tostring(n) then return 0 end\n" +
+            "return 1",
+            Long.class);
+
+    /**
+     * 未反映の組を最大 ARGV[1] 件、未反映セットから処理中セットへ移して返す。
+     */
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local members = redis.call('SPOP', KEYS[1], ARGV[1])\n" +
+            "if #members == 0 then return members end\n" +
+            "for i = 1, #members, 1000 do\n" +
+            "  redis.call('SADD', KEYS[2], unpack(members, i, math.min(i + 999, #members)))\n" +
+            "end\n" +
+            "redis.call('SADD', KEYS[3], KEYS[2])\n" +
+            "return members",
+            List.class);
+
+    /**
+     * 処理中セットの組（ARGV。空の場合は全件）を未反映セットへ戻す。戻した件数を返す。
+     */
+    private static final RedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>(
+            "local members = ARGV\n" +
+            "if #members == 0 then members = redis.call('SMEMBERS', KEYS[2]) end\n" +
+            "for i = 1, #members, 1000 do\n" +
+            "  local chunk = {unpack(members, i, math.min(i + 999, #members))}\n" +
+            "  redis.call('SADD', KEYS[1], unpack(chunk))\n" +
+            "  redis.call('SREM', KEYS[2], unpack(chunk))\n" +
+            "end\n" +
+            "return #members",
+            Long.class);
+
+    /**
+     * 未反映セットとすべての処理中セットの和集合を返す。
+     */
+    private static final RedisScript<List> PENDING_SCRIPT = new DefaultRedisScript<>(
+            "local keys = redis.call('SMEMBERS', KEYS[2])\n" +
+            "table.insert(keys, 1, KEYS[1])\n" +
+            "return redis.call('SUNION', unpack(keys))",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String processingKey;
+
+    public LikeRedisStore(StringRedisTemplate redisTemplate,
+                          @org.springframework.beans.factory.annotation.Value("${knowledge.like.node-id:}") String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.processingKey = PROCESSING_PREFIX + (nodeId == null || nodeId.isBlank() ? hostName() : nodeId);
+    }
+
+    /**
+     * いいねを追加または取り消す（冪等）。
+     *
+     * @return 操作後の状態。記事が未読み込みの場合は null
+     */
+    public LikeState apply(long knowledgeId, long userId, boolean like) {
+        List<?> result = redisTemplate.execute(APPLY_SCRIPT,
+                List.of(usersKey(knowledgeId), countKey(knowledgeId), versionKey(knowledgeId), DIRTY_KEY),
+                Long.toString(userId), new LikePair(knowledgeId, userId).toMember(), like ? "1" : "0");
+        if (result == null || ((Number) result.get(0)).longValue() < 0) {
+            return null;
+        }
+        return new LikeState(like, ((Number) result.get(1)).longValue());
+    }
+
+    /**
+     * ユーザーのいいね状態と記事のいいね数を取得する。
+     *
+     * @return 記事が未読み込みの場合は null
+     */
+    public LikeState read(long knowledgeId, long userId) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            c.get(countKey(knowledgeId));
+            c.sIsMember(usersKey(knowledgeId), Long.toString(userId));
+            return null;
+        });
+        if (results.get(0) == null) {
+            return null;
+        }
+        return new LikeState(Boolean.TRUE.equals(results.get(1)), Long.parseLong((String) results.get(0)));
+    }
+
+    /**
+     * DB から読み込んだいいねを設定する（読み込み済みの場合は何もしない）。
+     */
+    public void load(long knowledgeId, Collection<Long> userIds) {
+        redisTemplate.execute(LOAD_SCRIPT, List.of(usersKey(knowledgeId), countKey(knowledgeId)), toArgs(null, userIds));
+    }
+
+    /**
+     * DB へ未反映の組を最大 {@code max} 件、このノードの処理中セットへ移して返す
+     * （他のノードからは取り出せなくなるが、{@link #ackDirty} するまで Redis からは消えない）。
+     */
+    public List<LikePair> claimDirty(int max) {
+        List<?> members = redisTemplate.execute(CLAIM_SCRIPT, List.of(DIRTY_KEY, processingKey, PROCESSING_KEYS_KEY),
+                Integer.toString(max));
+        List<LikePair> pairs = new ArrayList<>(members != null ? members.size() : 0);
+        if (members != null) {
+            for (Object member : members) {
+                LikePair pair = LikePair.parse((String) member);
+                if (pair != null) {
+                    pairs.add(pair);
+                } else {
+                    logger.warn("Ignoring malformed like dirty entry: {}", member);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * DB へのコミットが済んだ組を処理中セットから削除する。
+     */
+    public void ackDirty(Collection<LikePair> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForSet().remove(processingKey, pairs.stream().map(LikePair::toMember).toArray());
+    }
+
+    /**
+     * DB への書き込みに失敗した組を処理中セットから未反映セットへ戻す。
+     */
+    public void requeueDirty(Collection<LikePair> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        redisTemplate.execute(REQUEUE_SCRIPT, List.of(DIRTY_KEY, processingKey),
+                pairs.stream().map(LikePair::toMember).toArray());
+    }
+
+    /**
+     * 前回の起動時に処理中のまま残った組をすべて未反映セットへ戻す。
+     *
+     * @return 戻した組の数
+     */
+    public long requeueAbandoned() {
+        Long requeued = redisTemplate.execute(REQUEUE_SCRIPT, List.of(DIRTY_KEY, processingKey));
+        return requeued != null ? requeued : 0;
+    }
+
+    /**
+     * DB へ未反映（未反映セットまたはいずれかのノードの処理中セットにある）の変更を持つ記事IDを返す。
+     */
+    public Set<Long> pendingKnowledgeIds() {
+        List<?> members = redisTemplate.execute(PENDING_SCRIPT, List.of(DIRTY_KEY, PROCESSING_KEYS_KEY));
+        Set<Long> ids = new HashSet<>();
+        if (members != null) {
+            for (Object member : members) {
+                LikePair pair = LikePair.parse((String) member);
+                if (pair != null) {
+                    ids.add(pair.getKnowledgeId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 各組が現在いいね済みかを 1 往復で取得する（結果は引数と同じ順序）。
+     */
+    public List<Boolean> memberships(List<LikePair> pairs) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            for (LikePair pair : pairs) {
+                c.sIsMember(usersKey(pair.getKnowledgeId()), Long.toString(pair.getUserId()));
+            }
+            return null;
+        });
+        List<Boolean> liked = new ArrayList<>(results.size());
+        for (Object result : results) {
+            liked.add(Boolean.TRUE.equals(result));
+        }
+        return liked;
+    }
+
+    /**
+     * 各記事の現在のバージョンを取得する（一度も変更されていない記事は null）。
+     */
+    public List<String> versions(List<Long> knowledgeIds) {
+        List<String> keys = new ArrayList<>(knowledgeIds.size());
+        knowledgeIds.forEach(id -> keys.add(versionKey(id)));
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    /**
+     * バージョンが {@code expectedVersion} のままであれば、記事のいいねを DB の内容で置き換える。
+     *
+     * @return 置き換えていいね数が変わった場合 1、変わらなかった場合 0、バージョンが変わっていたため見送った場合 -1
+     */
+    public long rebuild(long knowledgeId, String expectedVersion, Collection<Long> userIds) {
+        Long result = redisTemplate.execute(REBUILD_SCRIPT,
+                List.of(usersKey(knowledgeId), countKey(knowledgeId), versionKey(knowledgeId)),
+                toArgs(expectedVersion != null ? expectedVersion : "", userIds));
+        return result != null ? result : -1;
+    }
+
+    private static Object[] toArgs(String first, Collection<Long> userIds) {
+        List<String> args = new ArrayList<>(userIds.size() + 1);
+        if (first != null) {
+            args.add(first);
+        }
+        userIds.forEach(id -> args.add(Long.toString(id)));
+        return args.toArray();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("knowledge.like.node-id must be set when the host name cannot be resolved", e);
+        }
+    }
+
+    private static String usersKey(long knowledgeId) {
+        return USERS_PREFIX + knowledgeId;
+    }
+
+    private static String countKey(long knowledgeId) {
+        return COUNT_PREFIX + knowledgeId;
+    }
+
+    private static String versionKey(long knowledgeId) {
+        return VERSION_PREFIX + knowledgeId;
+    }
+
+    /**
+     * 記事に対するユーザーのいいね状態といいね数
+     */
+    @Value
+    public static class LikeState {
+        boolean liked;
+        long count;
+    }
+
+    /**
+     * DB へ未反映の（記事ID, ユーザーID）の組
+     */
+    @Value
+    public static class LikePair {
+        long knowledgeId;
+        long userId;
+
+        String toMember() {
+            return knowledgeId + ":" + userId;
+        }
+
+        static LikePair parse(String member) {
+            int sep = member != null ? member.indexOf(':') : -1;
+            if (sep <= 0) {
+                return null;
+            }
+            try {
+                return new LikePair(Long.parseLong(member.substring(0, sep)), Long.parseLong(member.substring(sep + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.LikeStatusResponse;
+
+/**
+ * 記事へのいいね操作を提供するサービス。
+ * <p>
+ * 追加・取り消しはどちらも冪等で、結果は Redis 上で即時に確定する（DB への反映は非同期）。
+ * </p>
+ */
+public interface LikeService {
+
+    /**
+     * 記事にいいねする（いいね済みの場合は何もしない）。
+     *
+     * @return 操作後のいいね状態
+     */
+    LikeStatusResponse like(Long knowledgeId, String username);
+
+    /**
+     * 記事のいいねを取り消す（いいねしていない場合は何もしない）。
+     *
+     * @return 操作後のいいね状態
+     */
+    LikeStatusResponse unlike(Long knowledgeId, String username);
+
+    /**
+     * 記事に対する自分のいいね状態といいね数を取得する。
+     */
+    LikeStatusResponse getStatus(Long knowledgeId, String username);
+}
@@ -0,0 +1,105 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.LikeStatusResponse;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.repository.LikeQueryConstants;
+import com.ginga.naviai.knowledge.service.LikeRedisStore.LikeState;
+import com.ginga.naviai.user.exception.UserNotFoundException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * いいね操作の実装。
+ * <p>
+ * 操作は Redis の SET と件数に対して Lua スクリプトで原子的に適用し、DB には書き込まない。
+ * 変更した組は Redis 上の未反映セットに登録され、{@link LikePersistenceJob} がまとめて "like" テーブルへ書き込む。
+ * 記事のいいねが Redis に読み込まれていない場合（初回アクセス・Redis の再起動後）は、
+ * DB から読み込んでから操作をやり直す。
+ * </p>
+ */
+@Service
+public class LikeServiceImpl implements LikeService {
+
+    private final KnowledgeRepository knowledgeRepository;
+    private final UserRepository userRepository;
+    private final LikeRedisStore store;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LikeServiceImpl(KnowledgeRepository knowledgeRepository,
+                           UserRepository userRepository,
+                           LikeRedisStore store,
+                           NamedParameterJdbcTemplate jdbcTemplate) {
+        this.knowledgeRepository = knowledgeRepository;
+        this.userRepository = userRepository;
+        this.store = store;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LikeStatusResponse like(Long knowledgeId, String username) {
+        return apply(knowledgeId, username, true);
+    }
+
+    @Override
+    public LikeStatusResponse unlike(Long knowledgeId, String username) {
+        return apply(knowledgeId, username, false);
+    }
+
+    @Override
+    public LikeStatusResponse getStatus(Long knowledgeId, String username) {
+        long userId = resolveUserId(username);
+        requireVisible(knowledgeId);
+        LikeState state = store.read(knowledgeId, userId);
+        if (state == null) {
+            loadFromDatabase(knowledgeId);
+            state = store.read(knowledgeId, userId);
+        }
+        return toResponse(knowledgeId, state);
+    }
+
+    private LikeStatusResponse apply(Long knowledgeId, String username, boolean like) {
+        long userId = resolveUserId(username);
+        requireVisible(knowledgeId);
+        LikeState state = store.apply(knowledgeId, userId, like);
+        if (state == null) {
+            loadFromDatabase(knowledgeId);
+            state = store.apply(knowledgeId, userId, like);
+        }
+        return toResponse(knowledgeId, state);
+    }
+
+    private long resolveUserId(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+    }
+
+    /** 公開中でない記事へのいいね操作は、存在有無を漏らさないよう 404 とする */
+    private void requireVisible(Long knowledgeId) {
+        if (!knowledgeRepository.existsByIdAndStatusAndDeletedFalse(knowledgeId, "published")) {
+            throw new KnowledgeNotFoundException("Knowledge not found: " + knowledgeId);
+        }
+    }
+
+    /**
+     * 記事のいいねを DB から Redis へ読み込む。
+     * 同時に複数のリクエストが読み込んだ場合は最初の 1 件のみが反映され、その後の変更を古い内容で上書きすることはない。
+     */
+    private void loadFromDatabase(long knowledgeId) {
+        List<Long> userIds = jdbcTemplate.queryForList(LikeQueryConstants.SELECT_USER_IDS_BY_KNOWLEDGE_ID,
+                new MapSqlParameterSource("knowledgeId", knowledgeId), Long.class);
+        store.load(knowledgeId, userIds);
+    }
+
+    private static LikeStatusResponse toResponse(Long knowledgeId, LikeState state) {
+        if (state == null) {
+            // 読み込み直後に Redis から消えた場合（フェイルオーバー等）。再試行を促す
+            throw new IllegalStateException("Like state is temporarily unavailable for knowledge " + knowledgeId);
+        }
+        return new LikeStatusResponse(knowledgeId, state.isLiked(), state.getCount());
+    }
+}
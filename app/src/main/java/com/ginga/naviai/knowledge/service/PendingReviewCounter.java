@@ -0,0 +1,110 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * レビュー待ち（pending かつ未削除）記事数のインメモリカウンタ。
+ * <p>
+ * 起動時に DB から初期化し、以降は {@link KnowledgeChangedEvent} の変更前後で pending に出入りした分だけ増減させる。
+ * ダッシュボードの表示のたびに COUNT しないためのもので、他ノードでの遷移や取りこぼしによるずれは定期再同期で補正する。
+ * 再同期では pending の記事 ID を読み込み、読み込み中に反映された変更は記事ごとに最新の状態を記録しておき、
+ * 読み込み結果での pending の有無を最新の状態で置き換えてから差し替える（読み込みが変更を含んでいても二重に数えない）。
+ * </p>
+ */
+@Component
+public class PendingReviewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingReviewCounter.class);
+
+    private final KnowledgeRepository knowledgeRepository;
+    private final AtomicLong count = new AtomicLong();
+
+    /** 変更の反映とカウンタの置き換えを排他する */
+    private final Object changeLock = new Object();
+    /** 再同期中に反映した変更（記事ID → 変更後の状態、null は削除）。再同期中でなければ null */
+    private Map<Long, KnowledgeChangedEvent.KnowledgeState> changedDuringRebuild;
+
+    public PendingReviewCounter(KnowledgeRepository knowledgeRepository) {
+        this.knowledgeRepository = knowledgeRepository;
+    }
+
+    /**
+     * DB の件数でカウンタを置き換える（起動時・定期再同期）。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${knowledge.review.pending-resync-cron:0 */10 * * * *}")
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            changedDuringRebuild = new HashMap<>();
+        }
+        Set<Long> pendingIds;
+        try {
+            pendingIds = new HashSet<>(knowledgeRepository.findIdsByStatusAndDeletedFalse("pending"));
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        long fresh;
+        synchronized (changeLock) {
+            fresh = pendingIds.size();
+            for (Map.Entry<Long, KnowledgeChangedEvent.KnowledgeState> e : changedDuringRebuild.entrySet()) {
+                fresh += (isPending(e.getValue()) ? 1 : 0) - (pendingIds.contains(e.getKey()) ? 1 : 0);
+            }
+            changedDuringRebuild = null;
+            count.set(fresh);
+        }
+        logger.debug("Pending review count rebuilt: {}", fresh);
+    }
+
+    /**
+     * 記事の変更に応じてカウンタを増減する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        int delta = (isPending(event.getAfter()) ? 1 : 0) - (isPending(event.getBefore()) ? 1 : 0);
+        synchronized (changeLock) {
+            if (delta != 0) {
+                count.addAndGet(delta);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(event.getKnowledgeId(), event.getAfter());
+            }
+        }
+    }
+
+    /**
+     * 一括取り込みした記事をカウンタに反映する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        event.asChangedEvents().forEach(this::onKnowledgeChanged);
+    }
+
+    /**
+     * レビュー待ち記事数を返す（再同期前の一時的なずれで負にはしない）。
+     */
+    public long get() {
+        return Math.max(0, count.get());
+    }
+
+    private static boolean isPending(KnowledgeChangedEvent.KnowledgeState state) {
+        return state != null && "pending".equals(state.getStatus()) && !state.isDeleted();
+    }
+}
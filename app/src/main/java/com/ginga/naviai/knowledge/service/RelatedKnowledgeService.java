@@ -0,0 +1,199 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import com.ginga.naviai.knowledge.repository.LikeQueryConstants;
+import com.ginga.naviai.knowledge.repository.RelatedQueryConstants;
+import com.ginga.naviai.knowledge.search.RelatedArticleIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 関連記事（タグの類似度 + 共起いいね）を求めるサービス。
+ * <p>
+ * 公開中の記事について {@link RelatedArticleIndex} に記事ごとの類似度上位 K 件を保持し、リクエスト時は参照するだけとする。
+ * 起動時・定期的に DB から全件構築し、その間はタグ・公開状態・いいねが変わった記事を
+ * {@link KnowledgeChangedEvent} / {@link KnowledgeLikesChangedEvent} で記録しておき、
+ * バックグラウンドの差分更新でその記事の現在の状態を DB から読み直して類似度を更新する。
+ * </p>
+ */
+@Service
+public class RelatedKnowledgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedKnowledgeService.class);
+
+    /** 差分更新で 1 クエリにまとめる記事数 */
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final KnowledgeTagLoader tagLoader;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile RelatedArticleIndex index;
+
+    /** 記事ごとに保持する関連記事の件数 */
+    @Value("${knowledge.related.top-k:20}")
+    private int topK = 20;
+
+    /** タグの Jaccard 係数の重み */
+    @Value("${knowledge.related.tag-weight:0.5}")
+    private double tagWeight = 0.5;
+
+    /** 共起いいね（Ochiai 係数）の重み */
+    @Value("${knowledge.related.like-weight:0.5}")
+    private double likeWeight = 0.5;
+
+    /** 候補の列挙に使うタグ・ユーザーの転置リスト長の上限 */
+    @Value("${knowledge.related.max-postings:1000}")
+    private int maxPostings = 1000;
+
+    public RelatedKnowledgeService(NamedParameterJdbcTemplate jdbcTemplate, KnowledgeTagLoader tagLoader) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tagLoader = tagLoader;
+    }
+
+    /**
+     * DB の内容でインデックスを作り直す（起動時・定期再計算）。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${knowledge.related.rebuild-cron:0 30 * * * *}")
+    public synchronized void rebuild() {
+        try {
+            index = build();
+        } catch (RuntimeException e) {
+            // 起動を妨げないよう現在のインデックス（未構築の場合は空の結果）のまま続行し、次回の再計算で再試行する
+            logger.warn("Failed to rebuild related article index; keeping the current one: {}", e.getMessage());
+        }
+    }
+
+    private RelatedArticleIndex build() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<String>> tags = new HashMap<>();
+        jdbcTemplate.query(RelatedQueryConstants.SELECT_VISIBLE_TAG_ASSIGNMENTS, rs -> {
+            tags.computeIfAbsent(rs.getLong("knowledge_id"), id -> new ArrayList<>()).add(rs.getString("name"));
+        });
+
+        RelatedArticleIndex fresh = new RelatedArticleIndex(topK, tagWeight, likeWeight, maxPostings);
+        for (Long id : jdbcTemplate.getJdbcTemplate().queryForList(RelatedQueryConstants.SELECT_VISIBLE_IDS, Long.class)) {
+            fresh.putArticle(id, tags.getOrDefault(id, List.of()));
+        }
+        jdbcTemplate.query(RelatedQueryConstants.SELECT_VISIBLE_LIKES, rs -> {
+            fresh.addLike(rs.getLong("knowledge_id"), rs.getLong("user_id"));
+        });
+        fresh.computeAll();
+        logger.debug("Related article index rebuilt: {} articles in {} ms", fresh.size(), System.currentTimeMillis() - start);
+        return fresh;
+    }
+
+    /**
+     * 記録しておいた記事の類似度を更新する。失敗した記事は次回に再試行する。
+     *
+     * @return 更新した記事数
+     */
+    @Scheduled(fixedDelayString = "${knowledge.related.refresh-interval-millis:30000}")
+    public synchronized int refresh() {
+        RelatedArticleIndex current = index;
+        if (current == null || dirty.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+
+        int refreshed = 0;
+        try {
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+                refreshChunk(current, chunk);
+                refreshed += chunk.size();
+            }
+        } catch (RuntimeException e) {
+            dirty.addAll(ids.subList(refreshed, ids.size()));
+            logger.warn("Failed to refresh related articles for {} articles; will retry: {}",
+                    ids.size() - refreshed, e.getMessage());
+        }
+        return refreshed;
+    }
+
+    private void refreshChunk(RelatedArticleIndex current, List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        Set<Long> visible = new HashSet<>(jdbcTemplate.queryForList(RelatedQueryConstants.SELECT_VISIBLE_IDS_IN, params, Long.class));
+        Map<Long, List<String>> tags = tagLoader.loadTagNames(visible);
+        Map<Long, List<Long>> likers = new HashMap<>();
+        jdbcTemplate.query(LikeQueryConstants.SELECT_LIKES_BY_KNOWLEDGE_IDS, params, rs -> {
+            likers.computeIfAbsent(rs.getLong("knowledge_id"), id -> new ArrayList<>()).add(rs.getLong("user_id"));
+        });
+
+        // 読み込みがすべて終わってからインデックスを書き換える（途中で失敗してもインデックスは一貫した状態を保つ）
+        for (Long id : ids) {
+            if (visible.contains(id)) {
+                current.putArticle(id, tags.getOrDefault(id, List.of()));
+                current.setLikers(id, likers.getOrDefault(id, List.of()));
+            } else {
+                current.removeArticle(id);
+            }
+        }
+        for (Long id : ids) {
+            current.refresh(id);
+        }
+    }
+
+    /**
+     * 公開状態・タグが変わった記事を差分更新の対象に加える。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        if (!Objects.equals(relevant(event.getBefore()), relevant(event.getAfter()))) {
+            dirty.add(event.getKnowledgeId());
+        }
+    }
+
+    /**
+     * 一括取り込みした公開記事を差分更新の対象に加える。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        event.asChangedEvents().forEach(this::onKnowledgeChanged);
+    }
+
+    /**
+     * いいねが増減した記事を差分更新の対象に加える。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikesChanged(KnowledgeLikesChangedEvent event) {
+        event.getItems().forEach(item -> dirty.add(item.getKnowledgeId()));
+    }
+
+    /**
+     * 記事の関連記事を類似度の高い順に最大 {@code limit} 件返す（インデックスの構築前は空）。
+     */
+    public List<RelatedArticleIndex.Neighbor> related(long knowledgeId, int limit) {
+        RelatedArticleIndex current = index;
+        return current != null ? current.related(knowledgeId, limit) : List.of();
+    }
+
+    /** 類似度に影響する状態（公開中であればタグ集合、それ以外は null） */
+    private static Set<String> relevant(KnowledgeChangedEvent.KnowledgeState state) {
+        if (state == null || !state.isVisible()) {
+            return null;
+        }
+        return state.getTags() != null ? state.getTags() : Set.of();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.ReviewQueueItem;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * レビュー待ち（pending）記事をレビュアー間で分担して処理するためのキュー。
+ * <p>
+ * レビュアーは次の記事を期限付きで取得（担当）し、期限内に承認または差し戻す。
+ * 同じ記事を複数のレビュアーが同時に担当することはなく、期限切れの担当は他のレビュアーが取得できる。
+ * </p>
+ */
+public interface ReviewQueueService {
+
+    /**
+     * 未担当（または担当期限切れ）の記事を申請順に最大 {@code limit} 件取得して担当する。
+     * 他のレビュアーが同時に取得した場合でも、同じ記事を返すことはない。
+     *
+     * @return 今回担当した記事（取得できる記事がなければ空）
+     */
+    List<ReviewQueueItem> claimNext(String username, int limit);
+
+    /**
+     * 自分が期限内で担当している記事を申請順に返す。
+     */
+    List<ReviewQueueItem> getClaims(String username);
+
+    /**
+     * 担当期限を延長する。
+     *
+     * @throws com.ginga.naviai.knowledge.exception.ReviewClaimConflictException 期限内の担当を保持していない場合
+     */
+    ReviewQueueItem renew(Long knowledgeId, String username);
+
+    /**
+     * 担当を解放し、他のレビュアーが取得できるようにする（担当していない場合は何もしない）。
+     */
+    void release(Long knowledgeId, String username);
+
+    /**
+     * 担当している記事を承認して公開する。
+     *
+     * @param reviewedUpdatedAt レビュアーに提示した記事の更新日時（{@link ReviewQueueItem#getSubmittedAt()}）
+     * @throws com.ginga.naviai.knowledge.exception.ReviewClaimConflictException 期限内の担当を保持していない場合、
+     *                                                                          または提示した時点から記事が更新されている場合
+     */
+    void approve(Long knowledgeId, String username, Instant reviewedUpdatedAt);
+
+    /**
+     * 担当している記事を差し戻す。
+     *
+     * @param reviewedUpdatedAt レビュアーに提示した記事の更新日時（{@link ReviewQueueItem#getSubmittedAt()}）
+     * @throws com.ginga.naviai.knowledge.exception.ReviewClaimConflictException 期限内の担当を保持していない場合、
+     *                                                                          または提示した時点から記事が更新されている場合
+     */
+    void decline(Long knowledgeId, String username, Instant reviewedUpdatedAt);
+}
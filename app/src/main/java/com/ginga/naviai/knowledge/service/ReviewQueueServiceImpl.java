@@ -0,0 +1,215 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.ReviewQueueItem;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.exception.ReviewClaimConflictException;
+import com.ginga.naviai.knowledge.repository.ReviewQueueQueryConstants;
+import com.ginga.naviai.user.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * レビューキューの実装。
+ * <p>
+ * PostgreSQL では「候補の選択 + 担当者の書き込み」を {@code FOR UPDATE SKIP LOCKED} 付きの 1 文で行い、
+ * 同時に取得したレビュアーはロック待ちせずに別の記事を得る。SKIP LOCKED を使わない DB（H2 など）では、
+ * 候補を選んでから「まだ取得可能な場合のみ書き込む」条件付き UPDATE（compare-and-set）を batch 実行し、
+ * 更新できた記事だけを担当とする（競合した分は今回の取得件数が減るだけで、同じ記事を二重に担当することはない）。
+ * </p>
+ * <p>
+ * 承認・差し戻しは期限内の担当と、レビュアーに提示した時点の更新日時を条件とした条件付き UPDATE で状態を遷移させ、
+ * 担当を同時に解放する（提示後に著者が本文を変更していれば遷移しない）。担当期間中は著者による編集も拒否される。
+ * 遷移後は {@link KnowledgeChangedEvent} を発行し、タグ集計・検索インデックス・承認待ち件数などの派生データを更新する。
+ * </p>
+ */
+@Service
+public class ReviewQueueServiceImpl implements ReviewQueueService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final KnowledgeTagLoader tagLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean skipLocked;
+
+    /** 担当期限（秒） */
+    @Value("${knowledge.review.lease-seconds:900}")
+    private long leaseSeconds = 900;
+
+    public ReviewQueueServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                  UserRepository userRepository,
+                                  KnowledgeTagLoader tagLoader,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.tagLoader = tagLoader;
+        this.eventPublisher = eventPublisher;
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.skipLocked = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    @Override
+    @Transactional
+    public List<ReviewQueueItem> claimNext(String username, int limit) {
+        Long reviewerId = resolveUserId(username);
+        Instant now = Instant.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("reviewerId", reviewerId)
+                .addValue("now", Timestamp.from(now))
+                .addValue("expiresAt", Timestamp.from(now.plusSeconds(leaseSeconds)))
+                .addValue("limit", limit);
+
+        List<Long> claimed;
+        if (skipLocked) {
+            claimed = jdbcTemplate.queryForList(ReviewQueueQueryConstants.PG_CLAIM_NEXT, params, Long.class);
+        } else {
+            claimed = claimByCompareAndSet(params);
+        }
+        return loadItems(claimed);
+    }
+
+    private List<Long> claimByCompareAndSet(MapSqlParameterSource params) {
+        List<Long> candidates = jdbcTemplate.queryForList(ReviewQueueQueryConstants.SELECT_CLAIM_CANDIDATES, params, Long.class);
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        SqlParameterSource[] batch = new SqlParameterSource[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            batch[i] = new MapSqlParameterSource(params.getValues()).addValue("id", candidates.get(i));
+        }
+        int[] updated = jdbcTemplate.batchUpdate(ReviewQueueQueryConstants.CLAIM_IF_AVAILABLE, batch);
+        List<Long> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                claimed.add(candidates.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewQueueItem> getClaims(String username) {
+        Long reviewerId = resolveUserId(username);
+        List<Long> ids = jdbcTemplate.queryForList(ReviewQueueQueryConstants.SELECT_HELD_IDS,
+                new MapSqlParameterSource()
+                        .addValue("reviewerId", reviewerId)
+                        .addValue("now", Timestamp.from(Instant.now())),
+                Long.class);
+        return loadItems(ids);
+    }
+
+    @Override
+    @Transactional
+    public ReviewQueueItem renew(Long knowledgeId, String username) {
+        Instant now = Instant.now();
+        MapSqlParameterSource params = heldParams(knowledgeId, resolveUserId(username), now)
+                .addValue("expiresAt", Timestamp.from(now.plusSeconds(leaseSeconds)));
+        if (jdbcTemplate.update(ReviewQueueQueryConstants.RENEW_CLAIM, params) == 0) {
+            throw claimNotHeld(knowledgeId);
+        }
+        return loadItems(List.of(knowledgeId)).get(0);
+    }
+
+    @Override
+    @Transactional
+    public void release(Long knowledgeId, String username) {
+        jdbcTemplate.update(ReviewQueueQueryConstants.RELEASE_CLAIM, new MapSqlParameterSource()
+                .addValue("id", knowledgeId)
+                .addValue("reviewerId", resolveUserId(username)));
+    }
+
+    @Override
+    @Transactional
+    public void approve(Long knowledgeId, String username, Instant reviewedUpdatedAt) {
+        transition(knowledgeId, username, reviewedUpdatedAt, ReviewQueueQueryConstants.APPROVE, "published");
+    }
+
+    @Override
+    @Transactional
+    public void decline(Long knowledgeId, String username, Instant reviewedUpdatedAt) {
+        transition(knowledgeId, username, reviewedUpdatedAt, ReviewQueueQueryConstants.DECLINE, "declined");
+    }
+
+    private void transition(Long knowledgeId, String username, Instant reviewedUpdatedAt, String sql, String newStatus) {
+        MapSqlParameterSource params = heldParams(knowledgeId, resolveUserId(username), Instant.now())
+                .addValue("reviewedUpdatedAt", Timestamp.from(reviewedUpdatedAt));
+        if (jdbcTemplate.update(sql, params) == 0) {
+            throw claimNotHeld(knowledgeId);
+        }
+        Long authorId = findAuthorId(knowledgeId);
+        Set<String> tags = Set.copyOf(tagLoader.loadTagNames(List.of(knowledgeId))
+                .getOrDefault(knowledgeId, Collections.emptyList()));
+        eventPublisher.publishEvent(new KnowledgeChangedEvent(knowledgeId, authorId,
+                new KnowledgeState("pending", false, tags),
+                new KnowledgeState(newStatus, false, tags)));
+    }
+
+    private static MapSqlParameterSource heldParams(Long knowledgeId, Long reviewerId, Instant now) {
+        return new MapSqlParameterSource()
+                .addValue("id", knowledgeId)
+                .addValue("reviewerId", reviewerId)
+                .addValue("now", Timestamp.from(now));
+    }
+
+    /**
+     * 条件付き UPDATE が 0 件だった場合の例外。記事自体が存在しない場合は 404 とする。
+     */
+    private RuntimeException claimNotHeld(Long knowledgeId) {
+        try {
+            jdbcTemplate.queryForObject(ReviewQueueQueryConstants.SELECT_AUTHOR_ID,
+                    new MapSqlParameterSource("id", knowledgeId), Long.class);
+        } catch (EmptyResultDataAccessException e) {
+            return new KnowledgeNotFoundException("Knowledge not found: " + knowledgeId);
+        }
+        return new ReviewClaimConflictException("Review claim not held, expired, or article changed since review: " + knowledgeId);
+    }
+
+    private Long findAuthorId(Long knowledgeId) {
+        return jdbcTemplate.queryForObject(ReviewQueueQueryConstants.SELECT_AUTHOR_ID,
+                new MapSqlParameterSource("id", knowledgeId), Long.class);
+    }
+
+    private List<ReviewQueueItem> loadItems(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(ReviewQueueQueryConstants.SELECT_CLAIMED_ITEMS, new MapSqlParameterSource("ids", ids),
+                (rs, i) -> {
+                    long authorId = rs.getLong("author_id");
+                    boolean authorNull = rs.wasNull();
+                    Timestamp expiresAt = rs.getTimestamp("review_claim_expires_at");
+                    return ReviewQueueItem.builder()
+                            .id(rs.getLong("id"))
+                            .title(rs.getString("title"))
+                            .excerpt(rs.getString("excerpt"))
+                            .authorId(authorNull ? null : authorId)
+                            .authorName(rs.getString("author_name"))
+                            .submittedAt(rs.getTimestamp("updated_at").toInstant())
+                            .claimExpiresAt(expiresAt != null ? expiresAt.toInstant() : null)
+                            .build();
+                });
+    }
+
+    private Long resolveUserId(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+    }
+}
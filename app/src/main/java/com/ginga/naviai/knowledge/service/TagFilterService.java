@@ -0,0 +1,122 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.TagBitmapIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * タグによる記事絞り込みサービス。
+ * <p>
+ * knowledge_tag を GROUP BY / HAVING で集計する代わりに、{@link TagBitmapIndex} のビットマップ演算で
+ * 複数タグの AND / OR / NOT を評価し、公開中（published かつ未削除）の記事IDを新しい順に返す。
+ * 起動時に DB から全件構築し、以降は {@link KnowledgeChangedEvent} の変更後の状態で記事単位に置き換える。
+ * 他ノードでの更新や取りこぼしによるずれは定期再同期で補正する。
+ * 再同期で読み込んだ内容は読み込み中に反映された変更を含まない場合があるため、その間の変更は記録しておき、
+ * 新しいインデックスへ適用してから差し替える。
+ * </p>
+ */
+@Service
+public class TagFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagFilterService.class);
+
+    private static final String VISIBLE_STATUS = "published";
+
+    private final KnowledgeRepository knowledgeRepository;
+
+    private volatile TagBitmapIndex index = new TagBitmapIndex();
+
+    /** 変更の反映とインデックスの差し替えを排他する */
+    private final Object changeLock = new Object();
+    /** 再構築中に反映した変更（記事ID → 変更後の状態、null は削除）。再構築中でなければ null */
+    private Map<Long, KnowledgeChangedEvent.KnowledgeState> changedDuringRebuild;
+
+    public TagFilterService(KnowledgeRepository knowledgeRepository) {
+        this.knowledgeRepository = knowledgeRepository;
+    }
+
+    /**
+     * DB の内容でインデックスを作り直す（起動時・定期再同期）。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${knowledge.tag-filter.resync-cron:0 */10 * * * *}")
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            changedDuringRebuild = new HashMap<>();
+        }
+        TagBitmapIndex fresh = new TagBitmapIndex();
+        try {
+            for (Object[] row : knowledgeRepository.findAllIndexStates()) {
+                fresh.put(((Number) row[0]).longValue(), (String) row[1], (Boolean) row[2], null);
+            }
+            for (Object[] row : knowledgeRepository.findAllTagAssignments()) {
+                fresh.addTag(((Number) row[0]).longValue(), (String) row[1]);
+            }
+            fresh.optimize();
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (changeLock) {
+            changedDuringRebuild.forEach((id, after) -> apply(fresh, id, after));
+            changedDuringRebuild = null;
+            index = fresh;
+        }
+        logger.debug("Tag filter index rebuilt: {} articles", fresh.size());
+    }
+
+    /**
+     * 記事の変更をインデックスに反映する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        synchronized (changeLock) {
+            apply(index, event.getKnowledgeId(), event.getAfter());
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(event.getKnowledgeId(), event.getAfter());
+            }
+        }
+    }
+
+    private static void apply(TagBitmapIndex target, long knowledgeId, KnowledgeChangedEvent.KnowledgeState after) {
+        if (after == null) {
+            target.remove(knowledgeId);
+        } else {
+            target.put(knowledgeId, after.getStatus(), after.isDeleted(), after.getTags());
+        }
+    }
+
+    /**
+     * 一括取り込みした記事をインデックスに反映する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        event.asChangedEvents().forEach(this::onKnowledgeChanged);
+    }
+
+    /**
+     * 公開中の記事をタグで絞り込み、記事IDの降順（新しい順）で指定範囲を返す。
+     *
+     * @param tags        絞り込むタグ（空の場合はタグ条件なし）
+     * @param matchAll    true: すべてのタグを含む / false: いずれかのタグを含む
+     * @param excludeTags いずれかを含む記事を除外するタグ
+     */
+    public TagBitmapIndex.Result filter(Collection<String> tags, boolean matchAll, Collection<String> excludeTags,
+                                        long offset, int limit) {
+        return index.filter(tags, matchAll, excludeTags, VISIBLE_STATUS, offset, limit);
+    }
+}
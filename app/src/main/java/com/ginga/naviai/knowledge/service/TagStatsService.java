@@ -0,0 +1,180 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.TagCloudItem;
+import com.ginga.naviai.knowledge.dto.TagUsage;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * タグ使用件数のインメモリ集計サービス。
+ * <p>
+ * 公開中（published かつ未削除）の記事に付与されたタグのみを数える。
+ * 起動時に DB から初期化し、以降は {@link KnowledgeChangedEvent} の変更前後差分で増減させる。
+ * 他ノードでの更新や取りこぼしによるずれは定期再同期で補正する。
+ * 再同期の読み込み結果には読み込み中に反映された変更が含まれる場合も含まれない場合もあるため、
+ * その間の変更は記事ごとに最新の状態を記録しておき、読み込み時点のその記事のタグを最新の状態で置き換えてから差し替える。
+ * </p>
+ */
+@Service
+public class TagStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagStatsService.class);
+
+    /** タグの並び順: 件数降順 → タグ名昇順 */
+    private static final Comparator<Map.Entry<String, Long>> BY_COUNT_DESC =
+            Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final KnowledgeRepository knowledgeRepository;
+
+    private volatile ConcurrentHashMap<String, Long> counters = new ConcurrentHashMap<>();
+
+    /** 変更の反映とカウンタの差し替えを排他する */
+    private final Object changeLock = new Object();
+    /** 再同期中に反映した変更（記事ID → 変更後の状態、null は削除）。再同期中でなければ null */
+    private Map<Long, KnowledgeChangedEvent.KnowledgeState> changedDuringRebuild;
+
+    public TagStatsService(KnowledgeRepository knowledgeRepository) {
+        this.knowledgeRepository = knowledgeRepository;
+    }
+
+    /**
+     * DB の集計結果でカウンタを作り直す（起動時・定期再同期）。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${knowledge.tag-stats.resync-cron:0 */10 * * * *}")
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            changedDuringRebuild = new HashMap<>();
+        }
+        Map<Long, Set<String>> tagsByArticle = new HashMap<>();
+        try {
+            for (Object[] row : knowledgeRepository.findVisibleTagAssignments()) {
+                tagsByArticle.computeIfAbsent(((Number) row[0]).longValue(), id -> new HashSet<>()).add((String) row[1]);
+            }
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        ConcurrentHashMap<String, Long> fresh = new ConcurrentHashMap<>();
+        for (Set<String> tags : tagsByArticle.values()) {
+            for (String tag : tags) {
+                fresh.merge(tag, 1L, Long::sum);
+            }
+        }
+        synchronized (changeLock) {
+            // 読み込み結果に変更が含まれていたかどうかによらず、読み込み時点のタグを最新の状態で置き換える
+            changedDuringRebuild.forEach((id, after) ->
+                    apply(fresh, tagsByArticle.getOrDefault(id, Collections.emptySet()), visibleTags(after)));
+            changedDuringRebuild = null;
+            counters = fresh;
+        }
+        logger.debug("Tag stats rebuilt: {} tags", fresh.size());
+    }
+
+    /**
+     * 記事の変更に応じてカウンタを増減する。
+     * 変更前後で「公開中記事に付与されているタグ集合」の差分のみを反映する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeChanged(KnowledgeChangedEvent event) {
+        synchronized (changeLock) {
+            apply(counters, visibleTags(event.getBefore()), visibleTags(event.getAfter()));
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(event.getKnowledgeId(), event.getAfter());
+            }
+        }
+    }
+
+    private static void apply(Map<String, Long> target, Set<String> before, Set<String> after) {
+        for (String tag : before) {
+            if (!after.contains(tag)) {
+                target.computeIfPresent(tag, (k, v) -> v > 1 ? v - 1 : null);
+            }
+        }
+        for (String tag : after) {
+            if (!before.contains(tag)) {
+                target.merge(tag, 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * 一括取り込みした記事をカウンタに反映する。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkImported(KnowledgeBulkImportedEvent event) {
+        event.asChangedEvents().forEach(this::onKnowledgeChanged);
+    }
+
+    /**
+     * 使用件数上位のタグを返す。
+     * サイズ limit の最小ヒープで走査するため O(タグ数 × log limit) で済む。
+     */
+    public List<TagUsage> getTopTags(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(limit + 1, BY_COUNT_DESC.reversed());
+        for (Map.Entry<String, Long> e : counters.entrySet()) {
+            heap.offer(Map.entry(e.getKey(), e.getValue()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(heap);
+        top.sort(BY_COUNT_DESC);
+
+        List<TagUsage> result = new ArrayList<>(top.size());
+        for (Map.Entry<String, Long> e : top) {
+            result.add(new TagUsage(e.getKey(), e.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 全タグの使用件数と相対重みを返す（タグクラウド用）。
+     */
+    public List<TagCloudItem> getTagCloud() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counters.size());
+        for (Map.Entry<String, Long> e : counters.entrySet()) {
+            entries.add(Map.entry(e.getKey(), e.getValue()));
+        }
+        entries.sort(BY_COUNT_DESC);
+
+        long max = entries.isEmpty() ? 0 : entries.get(0).getValue();
+        List<TagCloudItem> result = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> e : entries) {
+            result.add(new TagCloudItem(e.getKey(), e.getValue(), (double) e.getValue() / max));
+        }
+        return result;
+    }
+
+    private static Set<String> visibleTags(KnowledgeChangedEvent.KnowledgeState state) {
+        if (state == null || !state.isVisible() || state.getTags() == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(state.getTags());
+    }
+}
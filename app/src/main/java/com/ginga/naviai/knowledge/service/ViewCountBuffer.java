@@ -0,0 +1,121 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.repository.KnowledgeQueryConstants;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 記事の閲覧数をメモリ上で集約し、定期的に DB へまとめて書き込むコンポーネント（write-behind）。
+ * <p>
+ * 閲覧ごとに knowledge を UPDATE すると人気記事の行ロックで閲覧処理が直列化されるため、
+ * 閲覧時は記事ごとの {@link LongAdder}（スレッド間で競合しにくいストライプ化カウンタ）を加算するだけとし、
+ * 一定間隔で増分を 1 トランザクションの batch UPDATE（加算）で反映する。
+ * 書き込みに失敗した増分はカウンタに戻して次回に再試行し、正常終了時は最後にもう一度書き込む。
+ * </p>
+ * <p>
+ * 未反映の増分はこのノードのメモリ上にのみ存在するため、プロセスが異常終了した場合は最大で書き込み間隔分の閲覧数が失われる。
+ * 参照時は DB の値に {@link #pending(long)} を足して返すが、他ノードの未反映分は含まれない。
+ * </p>
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public ViewCountBuffer(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 記事の閲覧を 1 件記録する（DB にはアクセスしない）。
+     */
+    public void record(long knowledgeId) {
+        LongAdder adder = counters.get(knowledgeId);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(knowledgeId, id -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    /**
+     * DB へ未反映の閲覧数を返す。
+     */
+    public long pending(long knowledgeId) {
+        LongAdder adder = counters.get(knowledgeId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * 未反映の増分を DB に書き込む。
+     * <p>
+     * 各カウンタは {@link LongAdder#sumThenReset()} で取り出すため、取り出し中の加算は今回か次回のいずれかに反映される。
+     * 記事IDの昇順で更新し、複数ノードの同時書き込みでもロック順序を揃える。
+     * 前回から閲覧のない記事のカウンタは取り除く（取り除く瞬間の加算は失われうるが、閲覧数は概数として扱う）。
+     * </p>
+     *
+     * @return 更新した記事数
+     */
+    @Scheduled(fixedDelayString = "${knowledge.view-count.flush-interval-millis:5000}")
+    public synchronized int flush() {
+        Map<Long, Long> deltas = new TreeMap<>();
+        Iterator<Map.Entry<Long, LongAdder>> it = counters.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, LongAdder> entry = it.next();
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            } else {
+                it.remove();
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        List<SqlParameterSource> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> batch.add(new MapSqlParameterSource().addValue("id", id).addValue("delta", delta)));
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(KnowledgeQueryConstants.ADD_VIEW_COUNT, batch.toArray(new SqlParameterSource[0])));
+        } catch (RuntimeException e) {
+            // ロールバックされた増分は次回の書き込みで再試行する
+            deltas.forEach((id, delta) -> counters.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+            logger.warn("Failed to flush view counts for {} articles; will retry: {}", deltas.size(), e.getMessage());
+            return 0;
+        }
+        logger.debug("Flushed view counts for {} articles", deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * 正常終了時に未反映の増分を書き込む。
+     */
+    @PreDestroy
+    public void shutdown() {
+        int flushed = flush();
+        if (flushed > 0) {
+            logger.info("Flushed pending view counts for {} articles on shutdown", flushed);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- レビュー待ち記事の担当者と担当期限（リース）。期限切れの担当は他のレビュアーが取得できる
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS review_claimed_by BIGINT REFERENCES users(id);
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS review_claim_expires_at TIMESTAMPTZ;
+
+-- レビューキュー: 未削除の pending 記事を申請順 (updated_at, id) に走査する
+CREATE INDEX IF NOT EXISTS idx_knowledge_review_queue
+    ON knowledge (updated_at, id)
+    WHERE status = 'pending' AND is_deleted = false;
@@ -0,0 +1,11 @@
+-- おすすめ記事ランキング用に、いいね数を knowledge へ非正規化して保持する
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+
+-- 既存データの初期値を "like" テーブルから算出する
+UPDATE knowledge k
+   SET like_count = (SELECT COUNT(*) FROM "like" l WHERE l.knowledge_id = k.id);
+
+-- 公開中記事の「いいね数順 → 公開日時順」上位N件をインデックススキャンで取得するためのインデックス
+CREATE INDEX IF NOT EXISTS idx_knowledge_status_like_published
+    ON knowledge (status, like_count DESC, published_at DESC)
+    WHERE is_deleted = false;
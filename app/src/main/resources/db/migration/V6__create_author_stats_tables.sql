@@ -0,0 +1,49 @@
+-- 個人ダッシュボード用の著者別カウンタ。記事・いいね・コメントの書き込み時に差分更新し、
+-- 参照時は著者 1 行 + 期間内の日別行の読み出しのみで済むようにする
+CREATE TABLE IF NOT EXISTS author_stats (
+   author_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+   post_count BIGINT NOT NULL DEFAULT 0,
+   likes_received BIGINT NOT NULL DEFAULT 0,
+   comments_received BIGINT NOT NULL DEFAULT 0,
+   pending_reviews BIGINT NOT NULL DEFAULT 0,
+   updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- 著者別・日別のアクティビティ（ヒートマップ用）
+CREATE TABLE IF NOT EXISTS author_activity_daily (
+   author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+   activity_date DATE NOT NULL,
+   posts INT NOT NULL DEFAULT 0,
+   likes INT NOT NULL DEFAULT 0,
+   comments INT NOT NULL DEFAULT 0,
+   PRIMARY KEY (author_id, activity_date)
+);
+
+-- 既存データからの初期値
+INSERT INTO author_stats (author_id, post_count, likes_received, comments_received, pending_reviews)
+SELECT k.author_id,
+       COUNT(*) FILTER (WHERE k.status = 'published' AND k.is_deleted = false),
+       COALESCE(SUM(k.like_count), 0),
+       (SELECT COUNT(*) FROM comment c JOIN knowledge k2 ON k2.id = c.knowledge_id
+         WHERE k2.author_id = k.author_id AND c.is_deleted = false),
+       COUNT(*) FILTER (WHERE k.status = 'pending' AND k.is_deleted = false)
+  FROM knowledge k
+ WHERE k.author_id IS NOT NULL
+ GROUP BY k.author_id
+ON CONFLICT (author_id) DO NOTHING;
+
+INSERT INTO author_activity_daily (author_id, activity_date, posts, likes, comments)
+SELECT author_id, dt, SUM(posts), SUM(likes), SUM(comments)
+  FROM (
+        SELECT k.author_id, CAST(k.created_at AS DATE) AS dt, 1 AS posts, 0 AS likes, 0 AS comments
+          FROM knowledge k WHERE k.author_id IS NOT NULL AND k.is_deleted = false
+        UNION ALL
+        SELECT k.author_id, CAST(l.created_at AS DATE), 0, 1, 0
+          FROM "like" l JOIN knowledge k ON k.id = l.knowledge_id WHERE k.author_id IS NOT NULL
+        UNION ALL
+        SELECT k.author_id, CAST(c.created_at AS DATE), 0, 0, 1
+          FROM comment c JOIN knowledge k ON k.id = c.knowledge_id
+         WHERE k.author_id IS NOT NULL AND c.is_deleted = false
+       ) a
+ GROUP BY author_id, dt
+ON CONFLICT (author_id, activity_date) DO NOTHING;
@@ -0,0 +1,30 @@
+-- DB 側全文検索（knowledge.search.mode=database）用の生成列とインデックス
+-- 日本語は空白で分かち書きされないため、一致判定は pg_trgm による部分一致（LIKE '%語%'）で行い、
+-- tsvector は英単語を含む記事の順位付けに使用する
+--
+-- 制約: pg_trgm は LC_CTYPE で英数字と判定される文字からのみトライグラムを作る。
+--   * LC_CTYPE が C / POSIX のデータベースでは日本語の文字からトライグラムが作られない
+--     （日本語の検索を使う場合は ja_JP.UTF-8 / C.UTF-8 など日本語を文字と判定する LC_CTYPE でデータベースを作成すること）
+--   * LIKE '%語%' の検索語が 2 文字以下の場合は locale によらずトライグラムが作られない（日本語の 2 文字語の多くが該当）
+--   トライグラムを持たない検索語を LIKE で渡すとインデックス全体の走査になり、素の LIKE より遅くなるため、
+--   DatabaseKnowledgeSearchService はそうした語をインデックスを使わない strpos で照合する（全件照合になる点は変わらない）
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (lower(coalesce(title, '') || ' ' || coalesce(excerpt, '') || ' ' || coalesce(body, ''))) STORED;
+
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(excerpt, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(body, '')), 'C')
+    ) STORED;
+
+-- 検索対象（公開中）の行のみを索引する部分インデックス
+CREATE INDEX IF NOT EXISTS idx_knowledge_search_text_trgm
+    ON knowledge USING GIN (search_text gin_trgm_ops)
+    WHERE status = 'published' AND is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_knowledge_search_vector
+    ON knowledge USING GIN (search_vector)
+    WHERE status = 'published' AND is_deleted = false;
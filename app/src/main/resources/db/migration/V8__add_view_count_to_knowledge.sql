@@ -0,0 +1,2 @@
+-- 記事の閲覧数。閲覧ごとには更新せず、アプリケーションのメモリ上で集約した増分を定期的にまとめて加算する
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS view_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- 記事のコメント数（削除済みを除く、返信を含む）。コメントの投稿・削除と同一トランザクションで増減させる
+ALTER TABLE knowledge ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+
+-- 既存データの初期値を comment テーブルから算出する
+UPDATE knowledge k
+   SET comment_count = (SELECT COUNT(*) FROM comment c WHERE c.knowledge_id = k.id AND c.is_deleted = false);
+
+-- スレッド取得用: 記事内のトップレベルコメントを (created_at, id) 順にシークし、返信は親IDから辿る
+CREATE INDEX IF NOT EXISTS idx_comment_knowledge_top_level
+    ON comment (knowledge_id, created_at, id)
+    WHERE parent_comment_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_comment_parent ON comment (parent_comment_id);
@@ -0,0 +1,69 @@
+package com.ginga.naviai.ask.controller;
+
+import com.ginga.naviai.ask.service.AskService;
+import com.ginga.naviai.auth.service.TokenBlacklistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AskController.class)
+class AskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AskService askService;
+
+    @MockBean
+    private TokenBlacklistService tokenBlacklistService;
+
+    /**
+     * 【正常系】質問を受け付けると SSE の非同期応答が開始されることを確認する。
+     */
+    @Test
+    @WithMockUser
+    void ask_ShouldStartEventStream() throws Exception {
+        when(askService.ask("インデックスの種類は？")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/ask").param("q", " インデックスの種類は？ "))
+                .andExpect(request().asyncStarted());
+
+        verify(askService).ask("インデックスの種類は？");
+    }
+
+    /**
+     * 【異常系】空の質問・長すぎる質問は 400 となり、回答の生成を行わないことを確認する。
+     */
+    @Test
+    @WithMockUser
+    void ask_ShouldRejectBlankOrTooLongQuestion() throws Exception {
+        mockMvc.perform(get("/api/v1/ask").param("q", "  "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/ask").param("q", "あ".repeat(AskController.MAX_QUESTION_LENGTH + 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(askService, never()).ask(anyString());
+    }
+
+    /**
+     * 【異常系】未認証の場合は 401 となることを確認する。
+     */
+    @Test
+    void ask_ShouldReturn401_WhenUnauthenticated() throws Exception {
+        mockMvc.perform(get("/api/v1/ask").param("q", "質問"))
+                .andExpect(status().isUnauthorized());
+    }
+}
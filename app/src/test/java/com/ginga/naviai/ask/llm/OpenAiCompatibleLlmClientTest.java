@@ -0,0 +1,112 @@
+package com.ginga.naviai.ask.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpenAiCompatibleLlmClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final AtomicReference<String> authorization = new AtomicReference<>();
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile String responseBody = "";
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] bytes = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * 【正常系】ストリーミング応答の delta.content を順に渡し、[DONE] で終了することを確認する。
+     */
+    @Test
+    void stream_ShouldEmitDeltaContents_UntilDone() throws IOException {
+        responseBody = """
+                data: {"choices":[{"delta":{"role":"assistant"}}]}
+
+                data: {"choices":[{"delta":{"content":"B-tree "}}]}
+
+                : keep-alive
+                data: {"choices":[{"delta":{"content":"です [1]"}}]}
+
+                data: [DONE]
+
+                data: {"choices":[{"delta":{"content":"ignored"}}]}
+                """;
+        List<String> tokens = new ArrayList<>();
+
+        newClient().stream(new LlmRequest("インデックスは？",
+                List.of(new LlmRequest.Passage(1, "PostgreSQL", "B-tree が基本です。"))), tokens::add);
+
+        assertThat(tokens).containsExactly("B-tree ", "です [1]");
+        assertThat(authorization.get()).isEqualTo("Bearer secret");
+        var body = objectMapper.readTree(requestBody.get());
+        assertThat(body.get("model").asText()).isEqualTo("test-model");
+        assertThat(body.get("stream").asBoolean()).isTrue();
+        assertThat(body.get("messages").get(1).get("content").asText())
+                .contains("[1] PostgreSQL").contains("# 質問\nインデックスは？");
+    }
+
+    /**
+     * 【異常系】onToken が投げた例外（クライアントの切断など）は LlmException に包まずそのまま投げることを確認する。
+     */
+    @Test
+    void stream_ShouldPropagateOnTokenException_Unwrapped() {
+        responseBody = "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}\n\n";
+        UncheckedIOException disconnected = new UncheckedIOException(new IOException("Broken pipe"));
+
+        assertThatThrownBy(() -> newClient().stream(new LlmRequest("q", List.of()), t -> {
+            throw disconnected;
+        })).isSameAs(disconnected);
+    }
+
+    /**
+     * 【異常系】API がエラーを返した場合は LlmException となることを確認する。
+     */
+    @Test
+    void stream_ShouldThrow_WhenApiReturnsError() {
+        status = 500;
+        responseBody = "{\"error\":\"boom\"}";
+
+        assertThatThrownBy(() -> newClient().stream(new LlmRequest("q", List.of()), t -> { }))
+                .isInstanceOf(LlmException.class)
+                .hasMessageContaining("500");
+    }
+
+    private OpenAiCompatibleLlmClient newClient() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/";
+        return new OpenAiCompatibleLlmClient(objectMapper, baseUrl, "secret", "test-model", 5);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ginga.naviai.ask.service;
+
+import com.ginga.naviai.ask.dto.AskSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerCacheTest {
+
+    /**
+     * 【正常系】表記ゆれ（全角・大文字・空白・末尾の疑問符）だけが異なる質問は同じキーになることを確認する。
+     */
+    @Test
+    void normalize_ShouldFoldWidthCaseWhitespaceAndTrailingPunctuation() {
+        assertThat(AnswerCache.normalize("  Ｓｐｒｉｎｇ   Boot の使い方は？ "))
+                .isEqualTo(AnswerCache.normalize("spring boot の使い方は"))
+                .isEqualTo("spring boot の使い方は");
+    }
+
+    /**
+     * 【正常系】索引の版数が変わると以前の回答は返らず、上限を超えると最も古く参照された回答から追い出されることを確認する。
+     */
+    @Test
+    void get_ShouldMissOnNewIndexVersion_AndEvictLeastRecentlyUsed() {
+        AnswerCache cache = new AnswerCache(2);
+        AnswerCache.CachedAnswer answer = new AnswerCache.CachedAnswer(
+                List.of(new AskSource("1", "title", 0.5)), "answer");
+
+        cache.put("質問A", 1L, answer);
+        assertThat(cache.get("質問A？", 1L)).isSameAs(answer);
+        assertThat(cache.get("質問A", 2L)).isNull();
+
+        cache.put("質問B", 1L, answer);
+        cache.get("質問A", 1L);
+        cache.put("質問C", 1L, answer);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("質問A", 1L)).isNotNull();
+        assertThat(cache.get("質問B", 1L)).isNull();
+    }
+}
@@ -0,0 +1,150 @@
+package com.ginga.naviai.ask.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginga.naviai.ask.dto.AskSource;
+import com.ginga.naviai.ask.llm.LlmClient;
+import com.ginga.naviai.ask.llm.StubLlmClient;
+import com.ginga.naviai.knowledge.search.RetrievedChunk;
+import com.ginga.naviai.knowledge.service.KnowledgeVectorSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AskServiceImplTest {
+
+    private KnowledgeVectorSearchService vectorSearchService;
+    private LlmClient llmClient;
+    private AskServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        vectorSearchService = mock(KnowledgeVectorSearchService.class);
+        llmClient = spy(new StubLlmClient());
+        service = new AskServiceImpl(vectorSearchService, llmClient, new AnswerCache(100),
+                new SyncTaskExecutor(), new ObjectMapper());
+        when(vectorSearchService.indexVersion()).thenReturn(1L);
+        when(vectorSearchService.retrieve(anyString(), anyInt())).thenReturn(List.of(
+                new RetrievedChunk(3L, 0, "PostgreSQL", "インデックスは B-tree が基本です。GIN も使えます。", 0.03),
+                new RetrievedChunk(5L, 2, "性能チューニング", "実行計画を確認しましょう。", 0.02),
+                new RetrievedChunk(3L, 1, "PostgreSQL", "部分インデックスも有効です。", 0.01)));
+    }
+
+    /**
+     * 【正常系】根拠の記事が記事単位で重複なく返り、回答が引用番号付きでストリーミングされることを確認する。
+     */
+    @Test
+    void answer_ShouldStreamCitedAnswer_WithDistinctSources() {
+        RecordingSink sink = new RecordingSink();
+
+        service.answer("インデックスの種類は？", sink);
+
+        assertThat(sink.sources).extracting(AskSource::getId).containsExactly("3", "5");
+        assertThat(sink.tokens.size()).isGreaterThan(1);
+        assertThat(sink.answer()).startsWith("記事の抜粋によると、")
+                .contains("インデックスは B-tree が基本です。 [1]")
+                .contains("実行計画を確認しましょう。 [2]")
+                .contains("部分インデックスも有効です。 [1]");
+        assertThat(sink.cached).isFalse();
+    }
+
+    /**
+     * 【正常系】同じ質問（表記ゆれを含む）は索引の版数が変わるまでキャッシュから返り、版数が変わると再生成されることを確認する。
+     */
+    @Test
+    void answer_ShouldUseCacheUntilIndexVersionChanges() {
+        RecordingSink first = new RecordingSink();
+        service.answer("インデックスの種類は？", first);
+
+        RecordingSink second = new RecordingSink();
+        service.answer("インデックスの種類は", second);
+
+        assertThat(second.cached).isTrue();
+        assertThat(second.answer()).isEqualTo(first.answer());
+        assertThat(second.sources).isEqualTo(first.sources);
+        verify(vectorSearchService, times(1)).retrieve(anyString(), anyInt());
+
+        when(vectorSearchService.indexVersion()).thenReturn(2L);
+        RecordingSink third = new RecordingSink();
+        service.answer("インデックスの種類は？", third);
+
+        assertThat(third.cached).isFalse();
+        verify(vectorSearchService, times(2)).retrieve(anyString(), anyInt());
+    }
+
+    /**
+     * 【正常系】関連するチャンクがない場合は根拠なしで、回答できない旨を返すことを確認する。
+     */
+    @Test
+    void answer_ShouldReplyWithoutSources_WhenNothingRetrieved() {
+        when(vectorSearchService.retrieve(anyString(), anyInt())).thenReturn(List.of());
+        RecordingSink sink = new RecordingSink();
+
+        service.answer("存在しない話題", sink);
+
+        assertThat(sink.sources).isEmpty();
+        assertThat(sink.answer()).contains("回答できません");
+    }
+
+    /**
+     * 【正常系】生成中にクライアントが切断・タイムアウトした場合は生成を打ち切り、途中までの回答をキャッシュしないことを確認する。
+     */
+    @Test
+    void answer_ShouldStopGenerating_WhenSinkCancelled() {
+        RecordingSink cancelled = new RecordingSink();
+        cancelled.cancelAfterTokens = 1;
+
+        assertThatThrownBy(() -> service.answer("インデックスの種類は？", cancelled))
+                .isInstanceOf(CancellationException.class);
+
+        assertThat(cancelled.tokens).hasSize(1);
+        assertThat(cancelled.cached).isNull();
+        RecordingSink next = new RecordingSink();
+        service.answer("インデックスの種類は？", next);
+        assertThat(next.cached).isFalse();
+    }
+
+    private static final class RecordingSink implements AnswerSink {
+        private List<AskSource> sources;
+        private final List<String> tokens = new ArrayList<>();
+        private Boolean cached;
+        private int cancelAfterTokens = Integer.MAX_VALUE;
+
+        @Override
+        public boolean isCancelled() {
+            return tokens.size() >= cancelAfterTokens;
+        }
+
+        @Override
+        public void sources(List<AskSource> sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public void token(String text) {
+            tokens.add(text);
+        }
+
+        @Override
+        public void done(boolean cached) {
+            this.cached = cached;
+        }
+
+        String answer() {
+            return String.join("", tokens);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ginga.naviai.coalescing;
+
+import com.ginga.naviai.coalescing.annotation.Coalesced;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightAspectTest {
+
+    static class SlowService {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Coalesced("slow")
+        public String load(String key) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "value-" + key;
+        }
+
+        @Coalesced("failing")
+        public String fail(String key) {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom " + key);
+        }
+    }
+
+    private SlowService proxy(SlowService target, CoalescingStats stats) {
+        return proxy(target, new SingleFlightAspect(stats));
+    }
+
+    private SlowService proxy(SlowService target, SingleFlightAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /**
+     * 【正常系】同一キーの同時呼び出しが1回の実行に集約され、全員が同じ結果を受け取ることを確認する。
+     */
+    @Test
+    void concurrentCalls_WithSameKey_ShouldExecuteOnce() throws Exception {
+        SlowService target = new SlowService();
+        CoalescingStats stats = new CoalescingStats();
+        SlowService service = proxy(target, stats);
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> service.load("a")));
+            }
+            // 全員がリーダーの完了待ちに入るまで待つ
+            long deadline = System.currentTimeMillis() + 5000;
+            while (stats.coalescedCount("slow") < callers - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            target.release.countDown();
+
+            for (Future<String> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("value-a");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(target.calls.get()).isEqualTo(1);
+        assertThat(stats.executedCount("slow")).isEqualTo(1);
+        assertThat(stats.coalescedCount("slow")).isEqualTo(callers - 1);
+    }
+
+    /**
+     * 【正常系】実行完了後の呼び出しは結果をキャッシュせず再実行されることを確認する。
+     */
+    @Test
+    void sequentialCalls_ShouldNotBeCached() throws Exception {
+        SlowService target = new SlowService();
+        target.release.countDown();
+        CoalescingStats stats = new CoalescingStats();
+        SlowService service = proxy(target, stats);
+
+        service.load("a");
+        service.load("a");
+        service.load("b");
+
+        assertThat(target.calls.get()).isEqualTo(3);
+        assertThat(stats.snapshot().get("slow")).containsEntry("executed", 3L).containsEntry("coalesced", 0L);
+    }
+
+    /**
+     * 【異常系】実処理の例外は呼び出し元へそのまま伝播することを確認する。
+     */
+    @Test
+    void exception_ShouldPropagateToCaller() {
+        SlowService service = proxy(new SlowService(), new CoalescingStats());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> service.fail("x"));
+        assertThat(ex.getMessage()).isEqualTo("boom x");
+    }
+
+    /**
+     * 【正常系】先行呼び出しが待機時間の上限を超えた場合、待機していた呼び出しは自分で実行することを確認する。
+     */
+    @Test
+    void waiter_ShouldExecuteDirectly_WhenLeaderTimesOut() throws Exception {
+        SlowService target = new SlowService();
+        CoalescingStats stats = new CoalescingStats();
+        SingleFlightAspect aspect = new SingleFlightAspect(stats);
+        ReflectionTestUtils.setField(aspect, "waitTimeoutMillis", 100L);
+        SlowService service = proxy(target, aspect);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> service.load("a"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (target.calls.get() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Future<String> waiter = pool.submit(() -> service.load("a"));
+            // リーダーが完了していなくても、待機側が上限後に自分で実行を始める
+            while (target.calls.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(target.calls.get()).isEqualTo(2);
+            assertThat(leader.isDone()).isFalse();
+
+            target.release.countDown();
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("value-a");
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value-a");
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(stats.executedCount("slow")).isEqualTo(2);
+    }
+}
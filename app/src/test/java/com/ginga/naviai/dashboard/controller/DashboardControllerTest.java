@@ -1,15 +1,21 @@
 package com.ginga.naviai.dashboard.controller;
 
 import com.ginga.naviai.dashboard.dto.DashboardSummaryResponse;
+import com.ginga.naviai.dashboard.dto.PersonalDashboardResponse;
+import com.ginga.naviai.dashboard.service.DashboardEventBroadcaster;
 import com.ginga.naviai.dashboard.service.DashboardService;
+import com.ginga.naviai.dashboard.service.DashboardVersionTracker;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import com.ginga.naviai.auth.exception.InvalidRequestException;
 import com.ginga.naviai.auth.service.TokenBlacklistService;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Collections;
 import com.ginga.naviai.dashboard.dto.ActivityResponse;
@@ -17,6 +23,8 @@ import com.ginga.naviai.dashboard.dto.ActivityDayItem;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -35,6 +43,18 @@ class DashboardControllerTest {
     @MockBean
     private TokenBlacklistService tokenBlacklistService;
 
+    @MockBean
+    private DashboardVersionTracker versionTracker;
+
+    @MockBean
+    private DashboardEventBroadcaster eventBroadcaster;
+
+    @BeforeEach
+    void setup() {
+        when(versionTracker.currentETag()).thenReturn("\"v1\"");
+        when(versionTracker.lastModifiedMillis()).thenReturn(1_700_000_000_000L);
+    }
+
     /**
      * 【正常系】ログイン済みユーザーがダッシュボード情報を取得できることを確認する。
      * - ステータスコード 200 (OK)
@@ -82,7 +102,7 @@ class DashboardControllerTest {
             ))
             .build();
 
-        when(dashboardService.getActivity(any(LocalDate.class), any(LocalDate.class), anyString())).thenReturn(activity);
+        when(dashboardService.getActivity(any(LocalDate.class), any(LocalDate.class), anyString(), any())).thenReturn(activity);
 
         mockMvc.perform(get("/api/v1/dashboard/activity?from=2026-02-08&to=2026-02-10&range=week")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -139,4 +159,146 @@ class DashboardControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isBadRequest());
     }
+
+    /**
+     * 【正常系】granularity 指定がサービスへ引き渡され、バケット集計結果が返却されることを確認する。
+     */
+    @Test
+    @WithMockUser
+    void getActivity_ShouldPassGranularity() throws Exception {
+        ActivityResponse activity = ActivityResponse.builder()
+            .range("year")
+            .granularity("month")
+            .from(LocalDate.of(2025,1,1))
+            .to(LocalDate.of(2025,12,31))
+            .items(List.of(new ActivityDayItem(LocalDate.of(2025,1,1), 30,10,50)))
+            .build();
+
+        when(dashboardService.getActivity(LocalDate.of(2025,1,1), LocalDate.of(2025,12,31), "year", "month")).thenReturn(activity);
+
+        mockMvc.perform(get("/api/v1/dashboard/activity?from=2025-01-01&to=2025-12-31&range=year&granularity=month")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.granularity").value("month"))
+            .andExpect(jsonPath("$.items[0].posts").value(30));
+    }
+
+    /**
+     * 【異常系】サービスが不正なパラメータ（期間上限超過など）を検出した場合は 400 を返すこと。
+     */
+    @Test
+    @WithMockUser
+    void getActivity_ShouldReturnBadRequest_WhenServiceRejectsParams() throws Exception {
+        when(dashboardService.getActivity(any(LocalDate.class), any(LocalDate.class), anyString(), any()))
+            .thenThrow(new InvalidRequestException("period must be within 731 days"));
+
+        mockMvc.perform(get("/api/v1/dashboard/activity?from=2000-01-01&to=2026-02-10&range=year")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * 【異常系】入力の検証以外で発生した IllegalArgumentException は 400 ではなく 500 として扱うこと。
+     */
+    @Test
+    @WithMockUser
+    void getActivity_ShouldReturnServerError_WhenInternalIllegalArgument() throws Exception {
+        when(dashboardService.getActivity(any(LocalDate.class), any(LocalDate.class), anyString(), any()))
+            .thenThrow(new IllegalArgumentException("dimension must be >= 1"));
+
+        mockMvc.perform(get("/api/v1/dashboard/activity?from=2026-01-01&to=2026-02-10&range=month")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isInternalServerError());
+    }
+
+    /**
+     * 【正常系】初回取得時は ETag が付与されること。
+     */
+    @Test
+    @WithMockUser
+    void getSummary_ShouldReturnETag() throws Exception {
+        when(dashboardService.getSummary()).thenReturn(DashboardSummaryResponse.builder().build());
+
+        mockMvc.perform(get("/api/v1/dashboard"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"v1\""));
+    }
+
+    /**
+     * 【正常系】If-None-Match が現在の ETag と一致する場合、集計を行わずに 304 を返すこと。
+     */
+    @Test
+    @WithMockUser
+    void getSummary_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/v1/dashboard").header("If-None-Match", "\"v1\""))
+            .andExpect(status().isNotModified());
+
+        verify(dashboardService, never()).getSummary();
+    }
+
+    /**
+     * 【正常系】ETag が一致しない場合は通常どおり 200 を返すこと。
+     */
+    @Test
+    @WithMockUser
+    void getSummary_ShouldReturnOk_WhenETagIsStale() throws Exception {
+        when(dashboardService.getSummary()).thenReturn(DashboardSummaryResponse.builder().totalPosts(1).build());
+
+        mockMvc.perform(get("/api/v1/dashboard").header("If-None-Match", "\"v0\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalPosts").value(1));
+    }
+
+    /**
+     * 【正常系】アクティビティも ETag 一致時は 304 を返し、集計を行わないこと。
+     */
+    @Test
+    @WithMockUser
+    void getActivity_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/api/v1/dashboard/activity?from=2026-02-08&to=2026-02-10&range=week")
+                .header("If-None-Match", "\"v1\""))
+            .andExpect(status().isNotModified());
+
+        verify(dashboardService, never()).getActivity(any(), any(), any(), any());
+    }
+
+    /**
+     * 【正常系】SSE 購読エンドポイントが非同期レスポンスとして開始されること。
+     */
+    @Test
+    @WithMockUser
+    void stream_ShouldStartAsyncEventStream() throws Exception {
+        when(eventBroadcaster.subscribe()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted());
+    }
+
+    /**
+     * 【正常系】個人ダッシュボードはログインユーザーのIDで集計され、期間未指定時は直近 365 日となること。
+     */
+    @Test
+    @WithMockUser(username = "42")
+    void getMyDashboard_ShouldUsePrincipalId() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(dashboardService.getPersonalDashboard(42L, today.minusDays(364), today))
+            .thenReturn(PersonalDashboardResponse.builder().postCount(3).likesReceived(10).heatmap(List.of()).build());
+
+        mockMvc.perform(get("/api/v1/dashboard/me"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.postCount").value(3))
+            .andExpect(jsonPath("$.likesReceived").value(10));
+    }
+
+    /**
+     * 【異常系】プリンシパルがユーザーIDでない場合は 401 を返すこと。
+     */
+    @Test
+    @WithMockUser(username = "not-a-number")
+    void getMyDashboard_ShouldReturnUnauthorized_WhenPrincipalIsNotUserId() throws Exception {
+        mockMvc.perform(get("/api/v1/dashboard/me"))
+            .andExpect(status().isUnauthorized());
+
+        verify(dashboardService, never()).getPersonalDashboard(any(), any(), any());
+    }
 }
@@ -0,0 +1,187 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.ginga.naviai.dashboard.dto.PersonalDashboardResponse;
+import com.ginga.naviai.dashboard.repository.AuthorStatsQueryConstants;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.service.KnowledgeTagLoader;
+import com.ginga.naviai.knowledge.service.PendingReviewCounter;
+import com.ginga.naviai.knowledge.service.TagStatsService;
+import com.ginga.naviai.knowledge.service.ViewCountBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorStatsRecorderTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private AuthorStatsRecorder recorder;
+    private DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant().plusSeconds(3600), ZoneId.systemDefault());
+        recorder = new AuthorStatsRecorder(jdbcTemplate, clock);
+        dashboardService = new DashboardServiceImpl(Mockito.mock(KnowledgeRepository.class), jdbcTemplate, Mockito.mock(TagStatsService.class), Mockito.mock(KnowledgeTagLoader.class), Mockito.mock(ViewCountBuffer.class), Mockito.mock(PendingReviewCounter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】作成 → レビュー申請 → 公開 の遷移で、公開数・レビュー待ち数・当日の投稿数が差分更新されることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldTrackPublishedAndPendingTransitions() {
+        recorder.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, null, state("draft", false)));
+        recorder.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, state("draft", false), state("pending", false)));
+
+        PersonalDashboardResponse pending = dashboardService.getPersonalDashboard(7L, TODAY, TODAY);
+        assertThat(pending.getPostCount()).isZero();
+        assertThat(pending.getPendingReviews()).isEqualTo(1);
+        assertThat(pending.getHeatmap().get(0).getPosts()).isEqualTo(1);
+
+        recorder.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, state("pending", false), state("published", false)));
+
+        PersonalDashboardResponse published = dashboardService.getPersonalDashboard(7L, TODAY, TODAY);
+        assertThat(published.getPostCount()).isEqualTo(1);
+        assertThat(published.getPendingReviews()).isZero();
+        // 状態遷移では当日の投稿数は増えない
+        assertThat(published.getHeatmap().get(0).getPosts()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】公開中の記事が削除されると公開数が減り、下限 0 で止まることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldDecrementOnDelete_AndFloorAtZero() {
+        recorder.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, null, state("published", false)));
+        recorder.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, state("published", false), state("published", true)));
+        recorder.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, state("published", false), null));
+
+        assertThat(dashboardService.getPersonalDashboard(7L, TODAY, TODAY).getPostCount()).isZero();
+    }
+
+    /**
+     * 【正常系】いいね・コメントの受信数が著者ごとに集計され、ヒートマップは件数 0 の日も含むことを確認する。
+     */
+    @Test
+    void recordReceived_ShouldAccumulatePerAuthor() {
+        recorder.recordLikeReceived(7L, 1);
+        recorder.recordLikeReceived(7L, 1);
+        recorder.recordLikeReceived(7L, -1);
+        recorder.recordCommentReceived(7L, 1);
+        recorder.recordLikeReceived(8L, 1);
+
+        PersonalDashboardResponse resp = dashboardService.getPersonalDashboard(7L, TODAY.minusDays(2), TODAY);
+
+        assertThat(resp.getLikesReceived()).isEqualTo(1);
+        assertThat(resp.getCommentsReceived()).isEqualTo(1);
+        assertThat(resp.getHeatmap()).hasSize(3);
+        assertThat(resp.getHeatmap().get(0).getLikes()).isZero();
+        assertThat(resp.getHeatmap().get(2).getDate()).isEqualTo(TODAY);
+        assertThat(resp.getHeatmap().get(2).getLikes()).isEqualTo(1);
+        assertThat(resp.getHeatmap().get(2).getComments()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】一括取り込みは著者ごとに集計して反映し、日別の投稿数は記事の作成日に計上されることを確認する。
+     */
+    @Test
+    void onBulkImported_ShouldAggregatePerAuthor_ByCreatedDate() {
+        Instant yesterday = TODAY.minusDays(1).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant();
+        Instant today = TODAY.atTime(9, 0).atZone(ZoneId.systemDefault()).toInstant();
+        recorder.onBulkImported(new KnowledgeBulkImportedEvent(List.of(
+                new KnowledgeBulkImportedEvent.Item(1L, 7L, state("published", false), yesterday),
+                new KnowledgeBulkImportedEvent.Item(2L, 7L, state("published", false), yesterday),
+                new KnowledgeBulkImportedEvent.Item(3L, 7L, state("pending", false), today),
+                new KnowledgeBulkImportedEvent.Item(4L, 8L, state("draft", false), today))));
+
+        PersonalDashboardResponse resp = dashboardService.getPersonalDashboard(7L, TODAY.minusDays(1), TODAY);
+
+        assertThat(resp.getPostCount()).isEqualTo(2);
+        assertThat(resp.getPendingReviews()).isEqualTo(1);
+        assertThat(resp.getHeatmap().get(0).getPosts()).isEqualTo(2);
+        assertThat(resp.getHeatmap().get(1).getPosts()).isEqualTo(1);
+        assertThat(dashboardService.getPersonalDashboard(8L, TODAY, TODAY).getHeatmap().get(0).getPosts()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】いいねの書き込みバッチは著者ごとに合算して反映されることを確認する。
+     */
+    @Test
+    void onLikesChanged_ShouldAggregatePerAuthor() {
+        recorder.onLikesChanged(new KnowledgeLikesChangedEvent(List.of(
+                new KnowledgeLikesChangedEvent.Item(1L, 7L, 3),
+                new KnowledgeLikesChangedEvent.Item(2L, 7L, -1),
+                new KnowledgeLikesChangedEvent.Item(3L, null, 5))));
+
+        PersonalDashboardResponse resp = dashboardService.getPersonalDashboard(7L, TODAY, TODAY);
+
+        assertThat(resp.getLikesReceived()).isEqualTo(2);
+        assertThat(resp.getHeatmap().get(0).getLikes()).isEqualTo(2);
+    }
+
+    /**
+     * 【正常系】行の作成が他のトランザクションと競合して一意制約違反になっても、加算が反映され例外にならないことを確認する。
+     */
+    @Test
+    void recordLikeReceived_ShouldAdd_WhenRowCreatedConcurrently() {
+        NamedParameterJdbcTemplate racing = Mockito.spy(jdbcTemplate);
+        Mockito.doAnswer(inv -> {
+            // 他のトランザクションが先に行を作成した状態を再現する
+            jdbcTemplate.getJdbcTemplate().update(
+                    "INSERT INTO author_stats (author_id, updated_at) VALUES (7, CURRENT_TIMESTAMP)");
+            throw new DuplicateKeyException("author_stats_pkey");
+        }).when(racing).update(Mockito.eq(AuthorStatsQueryConstants.INSERT_STATS_IF_ABSENT), Mockito.any(SqlParameterSource.class));
+        AuthorStatsRecorder racingRecorder = new AuthorStatsRecorder(racing,
+                Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+        racingRecorder.recordLikeReceived(7L, 2);
+
+        assertThat(dashboardService.getPersonalDashboard(7L, TODAY, TODAY).getLikesReceived()).isEqualTo(2);
+    }
+
+    /**
+     * 【正常系】まだ書き込みのない著者はすべて 0 で返ることを確認する。
+     */
+    @Test
+    void getPersonalDashboard_ShouldReturnZeros_ForNewAuthor() {
+        PersonalDashboardResponse resp = dashboardService.getPersonalDashboard(99L, TODAY, TODAY);
+
+        assertThat(resp.getPostCount()).isZero();
+        assertThat(resp.getLikesReceived()).isZero();
+        assertThat(resp.getHeatmap()).hasSize(1);
+    }
+
+    private static KnowledgeState state(String status, boolean deleted) {
+        return new KnowledgeState(status, deleted, Set.of());
+    }
+}
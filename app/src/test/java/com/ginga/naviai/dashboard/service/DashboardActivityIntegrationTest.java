@@ -2,6 +2,10 @@ package com.ginga.naviai.dashboard.service;
 
 import com.ginga.naviai.dashboard.dto.ActivityResponse;
 import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.service.KnowledgeTagLoader;
+import com.ginga.naviai.knowledge.service.PendingReviewCounter;
+import com.ginga.naviai.knowledge.service.TagStatsService;
+import com.ginga.naviai.knowledge.service.ViewCountBuffer;
 import com.ginga.naviai.dashboard.service.DashboardServiceImpl;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,7 +34,7 @@ public class DashboardActivityIntegrationTest {
         db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).build();
         jdbcTemplate = new NamedParameterJdbcTemplate(db);
         KnowledgeRepository kr = Mockito.mock(KnowledgeRepository.class);
-        dashboardService = new DashboardServiceImpl(kr, jdbcTemplate);
+        dashboardService = new DashboardServiceImpl(kr, jdbcTemplate, Mockito.mock(TagStatsService.class), Mockito.mock(KnowledgeTagLoader.class), Mockito.mock(ViewCountBuffer.class), Mockito.mock(PendingReviewCounter.class));
     }
 
     @AfterEach
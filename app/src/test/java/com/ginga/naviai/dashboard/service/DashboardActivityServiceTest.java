@@ -127,4 +127,105 @@ class DashboardActivityServiceTest {
 
         assertThrows(RuntimeException.class, () -> dashboardService.getActivity(from, to, "week"));
     }
+
+    /**
+     * 【正常系】range=year の場合、日別集計が月単位のバケットへ畳み込まれることを確認する。
+     */
+    @Test
+    void getActivity_ShouldAggregateMonthly_WhenRangeIsYear() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+
+        Map<LocalDate, Integer> posts = new LinkedHashMap<>();
+        posts.put(LocalDate.of(2025, 1, 5), 2);
+        posts.put(LocalDate.of(2025, 1, 20), 3);
+        posts.put(LocalDate.of(2025, 12, 31), 1);
+
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(org.springframework.jdbc.core.ResultSetExtractor.class)))
+            .thenAnswer(invocation -> {
+                String sql = invocation.getArgument(0);
+                if (sql.contains("FROM knowledge")) return posts;
+                return new LinkedHashMap<LocalDate, Integer>();
+            });
+
+        ActivityResponse resp = dashboardService.getActivity(from, to, "year");
+
+        assertThat(resp.getGranularity()).isEqualTo("month");
+        assertThat(resp.getItems()).hasSize(12);
+        assertThat(resp.getItems().get(0).getDate()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(resp.getItems().get(0).getPosts()).isEqualTo(5);
+        assertThat(resp.getItems().get(1).getPosts()).isEqualTo(0);
+        assertThat(resp.getItems().get(11).getDate()).isEqualTo(LocalDate.of(2025, 12, 1));
+        assertThat(resp.getItems().get(11).getPosts()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】range=quarter の場合、ISO 週（月曜始まり）のバケットに集計されることを確認する。
+     */
+    @Test
+    void getActivity_ShouldAlignToIsoWeek_WhenRangeIsQuarter() {
+        // 2026-02-04 は水曜日 → 最初のバケットは 2026-02-02（月曜）週だが、集計対象は 2/4 以降のため日付は 2/4
+        LocalDate from = LocalDate.of(2026, 2, 4);
+        LocalDate to = LocalDate.of(2026, 2, 16);
+
+        Map<LocalDate, Integer> likes = new LinkedHashMap<>();
+        likes.put(LocalDate.of(2026, 2, 8), 4);   // 日曜 → 2/2 週
+        likes.put(LocalDate.of(2026, 2, 9), 1);   // 月曜 → 2/9 週
+
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(org.springframework.jdbc.core.ResultSetExtractor.class)))
+            .thenAnswer(invocation -> {
+                String sql = invocation.getArgument(0);
+                if (sql.contains("FROM \"like\"")) return likes;
+                return new LinkedHashMap<LocalDate, Integer>();
+            });
+
+        ActivityResponse resp = dashboardService.getActivity(from, to, "quarter");
+
+        assertThat(resp.getGranularity()).isEqualTo("iso_week");
+        assertThat(resp.getItems()).extracting(i -> i.getDate())
+            .containsExactly(LocalDate.of(2026, 2, 4), LocalDate.of(2026, 2, 9), LocalDate.of(2026, 2, 16));
+        assertThat(resp.getItems().get(0).getLikes()).isEqualTo(4);
+        assertThat(resp.getItems().get(1).getLikes()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】granularity=week の明示指定で日曜始まりの週に揃えられることを確認する。
+     */
+    @Test
+    void getActivity_ShouldAlignToSunday_WhenGranularityIsWeek() {
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(org.springframework.jdbc.core.ResultSetExtractor.class)))
+            .thenReturn(new LinkedHashMap<LocalDate, Integer>());
+
+        // 2026-02-04 は水曜日 → 最初のバケットは 2026-02-01（日曜）週（日付は from に揃える）
+        ActivityResponse resp = dashboardService.getActivity(LocalDate.of(2026, 2, 4), LocalDate.of(2026, 2, 10), "month", "week");
+
+        assertThat(resp.getGranularity()).isEqualTo("week");
+        assertThat(resp.getItems()).extracting(i -> i.getDate())
+            .containsExactly(LocalDate.of(2026, 2, 4), LocalDate.of(2026, 2, 8));
+    }
+
+    /**
+     * 【正常系】未知の range は従来どおり日単位で集計されることを確認する。
+     */
+    @Test
+    void getActivity_ShouldFallBackToDay_WhenRangeIsUnknown() {
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(org.springframework.jdbc.core.ResultSetExtractor.class)))
+            .thenReturn(new LinkedHashMap<LocalDate, Integer>());
+
+        ActivityResponse resp = dashboardService.getActivity(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), "decade");
+
+        assertThat(resp.getGranularity()).isEqualTo("day");
+        assertThat(resp.getItems()).hasSize(2);
+    }
+
+    /**
+     * 【異常系】期間の上限を超える場合・不正な granularity の場合は IllegalArgumentException となること。
+     */
+    @Test
+    void getActivity_ShouldThrow_WhenPeriodTooLongOrInvalidOptions() {
+        assertThrows(IllegalArgumentException.class,
+            () -> dashboardService.getActivity(LocalDate.of(2000, 1, 1), LocalDate.of(2026, 1, 1), "year"));
+        assertThrows(IllegalArgumentException.class,
+            () -> dashboardService.getActivity(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), "week", "hour"));
+    }
 }
@@ -0,0 +1,196 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ginga.naviai.dashboard.dto.DashboardEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardEventBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * 【正常系】購読・配信が行え、購読者数が管理されることを確認する。
+     */
+    @Test
+    void subscribeAndPublish_ShouldKeepSubscriber() {
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(new SyncTaskExecutor(), objectMapper);
+
+        SseEmitter emitter = broadcaster.subscribe();
+        broadcaster.publish(DashboardEvent.builder().type("like").knowledgeId(1L).delta(1).occurredAt(Instant.now()).build());
+        broadcaster.heartbeat();
+
+        assertThat(emitter).isNotNull();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    /**
+     * 【背圧】送信が追いつかずキューが溢れた購読者は切断されることを確認する。
+     */
+    @Test
+    void publish_ShouldDropSubscriber_WhenQueueOverflows() {
+        // 送信タスクを実行しないエグゼキュータ（クライアントが詰まっている状態を再現）
+        List<Runnable> stalled = new ArrayList<>();
+        TaskExecutor stalledExecutor = stalled::add;
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(stalledExecutor, objectMapper);
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 3);
+
+        broadcaster.subscribe(); // ready イベントで1件消費
+        for (int i = 0; i < 3; i++) {
+            broadcaster.publish(DashboardEvent.builder().type("like").knowledgeId((long) i).delta(1).build());
+        }
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+        // 購読者ごとの送信タスクは同時に1つまで
+        assertThat(stalled).hasSize(1);
+    }
+
+    /**
+     * 【背圧】1 件の送信に送信タイムアウト以上かかった購読者は低速とみなして切断されることを確認する。
+     */
+    @Test
+    void drain_ShouldDropSubscriber_WhenSendIsSlow() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000L, 1_000L + 5_001L);
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(new SyncTaskExecutor(), objectMapper);
+        ReflectionTestUtils.setField(broadcaster, "clock", clock);
+
+        broadcaster.subscribe();
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    /**
+     * 【正常系】キューの長い購読者も 1 回の送信タスクでは一定件数までしか書き出さず、残りは改めてタスクを積むことを確認する。
+     */
+    @Test
+    void drain_ShouldYieldAfterBatch_AndRescheduleRemainder() {
+        List<Runnable> tasks = new ArrayList<>();
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(tasks::add, objectMapper);
+
+        broadcaster.subscribe();
+        for (int i = 0; i < 20; i++) {
+            broadcaster.publish(DashboardEvent.builder().type("like").knowledgeId((long) i).delta(1).build());
+        }
+        assertThat(tasks).hasSize(1);
+
+        tasks.remove(0).run();
+
+        assertThat(tasks).hasSize(1);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    /**
+     * 【異常系】同時接続数の上限を超える購読は 503 で拒否されることを確認する。
+     */
+    @Test
+    void subscribe_ShouldReject_WhenLimitReached() {
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(new SyncTaskExecutor(), objectMapper);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 1);
+
+        broadcaster.subscribe();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, broadcaster::subscribe);
+        assertThat(ex.getStatusCode().value()).isEqualTo(503);
+    }
+
+    /**
+     * 【異常系】並行して購読しても同時接続数の上限を超えないことを確認する。
+     */
+    @Test
+    void subscribe_ShouldNotExceedLimit_WhenCalledConcurrently() throws Exception {
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(task -> { }, objectMapper);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 5);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        broadcaster.subscribe();
+                        accepted.incrementAndGet();
+                    } catch (ResponseStatusException ex) {
+                        // 上限超過
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(accepted.get()).isEqualTo(5);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(5);
+    }
+
+    /**
+     * 【正常系】切断された購読者の接続枠は返却され、新しい購読を受け付けることを確認する。
+     */
+    @Test
+    void subscribe_ShouldReuseSlot_AfterSubscriberDropped() {
+        List<Runnable> stalled = new ArrayList<>();
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(stalled::add, objectMapper);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 1);
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 1);
+
+        broadcaster.subscribe();
+        broadcaster.publish(DashboardEvent.builder().type("like").knowledgeId(1L).delta(1).build());
+        assertThat(broadcaster.subscriberCount()).isZero();
+
+        assertThat(broadcaster.subscribe()).isNotNull();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】記事の公開・承認待ちの変化が差分イベントに変換されることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldTranslateToDeltaEvents() {
+        List<DashboardEvent> published = new ArrayList<>();
+        DashboardEventBroadcaster broadcaster = new DashboardEventBroadcaster(new SyncTaskExecutor(), objectMapper) {
+            @Override
+            public void publish(DashboardEvent event) {
+                published.add(event);
+            }
+        };
+
+        KnowledgeState pending = new KnowledgeState("pending", false, Set.of());
+        KnowledgeState visible = new KnowledgeState("published", false, Set.of());
+        broadcaster.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 1L, pending, visible));
+
+        assertThat(published).extracting(DashboardEvent::getType).containsExactly("post", "pending");
+        assertThat(published.get(1).getDelta()).isEqualTo(-1);
+    }
+}
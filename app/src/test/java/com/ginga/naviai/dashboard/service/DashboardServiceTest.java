@@ -1,8 +1,13 @@
 package com.ginga.naviai.dashboard.service;
 
 import com.ginga.naviai.dashboard.dto.DashboardSummaryResponse;
-import com.ginga.naviai.knowledge.entity.Knowledge;
+import com.ginga.naviai.knowledge.dto.ArticleSummaryView;
+import com.ginga.naviai.knowledge.dto.TagUsage;
 import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.service.KnowledgeTagLoader;
+import com.ginga.naviai.knowledge.service.PendingReviewCounter;
+import com.ginga.naviai.knowledge.service.TagStatsService;
+import com.ginga.naviai.knowledge.service.ViewCountBuffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -11,8 +16,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 
 import java.time.Instant;
-import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,6 +34,18 @@ class DashboardServiceTest {
     @Mock
     private KnowledgeRepository knowledgeRepository;
 
+    @Mock
+    private TagStatsService tagStatsService;
+
+    @Mock
+    private KnowledgeTagLoader tagLoader;
+
+    @Mock
+    private ViewCountBuffer viewCounts;
+
+    @Mock
+    private PendingReviewCounter pendingReviewCounter;
+
     @InjectMocks
     private DashboardServiceImpl dashboardService;
 
@@ -44,20 +59,20 @@ class DashboardServiceTest {
         // Arrange: モック動作の設定
         when(knowledgeRepository.countByDeletedFalse()).thenReturn(100L);
         when(knowledgeRepository.countByCreatedAtAfterAndDeletedFalse(any(Instant.class))).thenReturn(10L);
-        when(knowledgeRepository.countByStatusAndDeletedFalse("pending")).thenReturn(5L);
+        when(pendingReviewCounter.get()).thenReturn(5L);
 
-        List<Object[]> topTags = new ArrayList<>();
-        topTags.add(new Object[]{"AI", 50L});
-        when(knowledgeRepository.findTopTags(5)).thenReturn(topTags);
+        when(tagStatsService.getTopTags(5)).thenReturn(List.of(new TagUsage("AI", 50L)));
 
         // 新着記事のモック（1件）
-        Knowledge recent = Knowledge.builder().id(1L).title("新着記事").publishedAt(Instant.now()).build();
+        ArticleSummaryView recent = new ArticleSummaryView(1L, "新着記事", "著者名", Instant.now(), 3L, 0L);
         when(knowledgeRepository.findRecentArticles(PageRequest.of(0, 5))).thenReturn(List.of(recent));
 
         // おすすめ記事のモック（1件）
-        List<Object[]> recommended = new ArrayList<>();
-        recommended.add(new Object[]{2L, "おすすめ記事", "著者名", Timestamp.from(Instant.now()), 15L});
-        when(knowledgeRepository.findTopRecommendedArticles(5)).thenReturn(recommended);
+        ArticleSummaryView recommended = new ArticleSummaryView(2L, "おすすめ記事", "著者名", Instant.now(), 15L, 0L);
+        when(knowledgeRepository.findTopRecommendedArticles(PageRequest.of(0, 5))).thenReturn(List.of(recommended));
+
+        // 両リストのタグは1回の呼び出しでまとめて取得する
+        when(tagLoader.loadTagNames(java.util.Set.of(1L, 2L))).thenReturn(java.util.Map.of(2L, List.of("AI", "Java")));
 
         // 週次アクティビティ: findCreatedAtInRange で1クエリ取得
         when(knowledgeRepository.findCreatedAtInRange(any(Instant.class), any(Instant.class)))
@@ -71,10 +86,15 @@ class DashboardServiceTest {
         assertThat(result.getWeeklyPosts()).isEqualTo(10L);
         assertThat(result.getPendingApprovals()).isEqualTo(5L);
         assertThat(result.getTopTags()).hasSize(1);
+        assertThat(result.getTopTags().get(0).getTag()).isEqualTo("AI");
         assertThat(result.getRecentArticles()).hasSize(1);
         assertThat(result.getRecentArticles().get(0).getTitle()).isEqualTo("新着記事");
+        // 新着記事も射影から実際のいいね数を返す
+        assertThat(result.getRecentArticles().get(0).getLikeCount()).isEqualTo(3L);
         assertThat(result.getRecommendedArticles()).hasSize(1);
         assertThat(result.getRecommendedArticles().get(0).getLikeCount()).isEqualTo(15L);
+        assertThat(result.getRecommendedArticles().get(0).getTags()).containsExactly("AI", "Java");
+        assertThat(result.getRecentArticles().get(0).getTags()).isEmpty();
     }
 
     /**
@@ -85,10 +105,10 @@ class DashboardServiceTest {
         // Arrange
         when(knowledgeRepository.countByDeletedFalse()).thenReturn(0L);
         when(knowledgeRepository.countByCreatedAtAfterAndDeletedFalse(any(Instant.class))).thenReturn(0L);
-        when(knowledgeRepository.countByStatusAndDeletedFalse("pending")).thenReturn(0L);
-        when(knowledgeRepository.findTopTags(5)).thenReturn(Collections.emptyList());
+        when(pendingReviewCounter.get()).thenReturn(0L);
+        when(tagStatsService.getTopTags(5)).thenReturn(Collections.emptyList());
         when(knowledgeRepository.findRecentArticles(any())).thenReturn(Collections.emptyList());
-        when(knowledgeRepository.findTopRecommendedArticles(5)).thenReturn(Collections.emptyList());
+        when(knowledgeRepository.findTopRecommendedArticles(any())).thenReturn(Collections.emptyList());
         when(knowledgeRepository.findCreatedAtInRange(any(Instant.class), any(Instant.class)))
                 .thenReturn(Collections.emptyList());
 
@@ -108,16 +128,16 @@ class DashboardServiceTest {
      */
     @Test
     void getSummary_ShouldHandleNullAuthorGracefully() {
-        // Arrange: 著者が未設定のKnowledge
-        Knowledge recent = Knowledge.builder().id(1L).title("著者なし記事").author(null).publishedAt(Instant.now()).build();
+        // Arrange: 著者が未設定の記事（LEFT JOIN のため表示名が null）
+        ArticleSummaryView recent = new ArticleSummaryView(1L, "著者なし記事", null, Instant.now(), 0L, 0L);
 
         when(knowledgeRepository.findRecentArticles(any())).thenReturn(List.of(recent));
         // 他のモックは空で設定
         when(knowledgeRepository.countByDeletedFalse()).thenReturn(1L);
         when(knowledgeRepository.countByCreatedAtAfterAndDeletedFalse(any())).thenReturn(0L);
-        when(knowledgeRepository.countByStatusAndDeletedFalse(any())).thenReturn(0L);
-        when(knowledgeRepository.findTopTags(anyInt())).thenReturn(Collections.emptyList());
-        when(knowledgeRepository.findTopRecommendedArticles(anyInt())).thenReturn(Collections.emptyList());
+        when(pendingReviewCounter.get()).thenReturn(0L);
+        when(tagStatsService.getTopTags(anyInt())).thenReturn(Collections.emptyList());
+        when(knowledgeRepository.findTopRecommendedArticles(any())).thenReturn(Collections.emptyList());
         when(knowledgeRepository.findCreatedAtInRange(any(Instant.class), any(Instant.class)))
                 .thenReturn(Collections.emptyList());
 
@@ -137,10 +157,10 @@ class DashboardServiceTest {
         // Arrange
         when(knowledgeRepository.countByDeletedFalse()).thenReturn(50L);
         when(knowledgeRepository.countByCreatedAtAfterAndDeletedFalse(any(Instant.class))).thenReturn(5L);
-        when(knowledgeRepository.countByStatusAndDeletedFalse(any())).thenReturn(0L);
-        when(knowledgeRepository.findTopTags(5)).thenReturn(Collections.emptyList());
+        when(pendingReviewCounter.get()).thenReturn(0L);
+        when(tagStatsService.getTopTags(5)).thenReturn(Collections.emptyList());
         when(knowledgeRepository.findRecentArticles(any())).thenReturn(Collections.emptyList());
-        when(knowledgeRepository.findTopRecommendedArticles(5)).thenReturn(Collections.emptyList());
+        when(knowledgeRepository.findTopRecommendedArticles(any())).thenReturn(Collections.emptyList());
 
         // 3週前と2週前に各1件ずつ作成されたと想定
         Instant threeWeeksAgo = Instant.now().minusSeconds(3L * 7 * 24 * 60 * 60 - 100);
@@ -0,0 +1,71 @@
+package com.ginga.naviai.dashboard.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardVersionTrackerTest {
+
+    /** 60 秒の時間窓の途中の時刻 */
+    private static final Instant NOW = Instant.parse("2026-02-10T00:00:30Z");
+
+    private final Clock clock = mock(Clock.class);
+    private final DashboardVersionTracker tracker = newTracker(NOW);
+
+    /**
+     * 【正常系】書き込みがない間は同じ ETag を返し、記事変更イベントで ETag が変わることを確認する。
+     */
+    @Test
+    void currentETag_ShouldChangeOnlyAfterWrite() {
+        String first = tracker.currentETag();
+        assertThat(tracker.currentETag()).isEqualTo(first);
+
+        tracker.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 1L, null, null));
+
+        assertThat(tracker.currentETag()).isNotEqualTo(first);
+        assertThat(tracker.currentETag()).startsWith("\"").endsWith("\"");
+    }
+
+    /**
+     * 【正常系】書き込みがなくても、時間窓が切り替わると ETag が変わることを確認する。
+     */
+    @Test
+    void currentETag_ShouldChange_WhenWindowRolls() {
+        String first = tracker.currentETag();
+
+        stubNow(NOW.plusSeconds(29));
+        assertThat(tracker.currentETag()).isEqualTo(first);
+
+        stubNow(NOW.plusSeconds(30));
+        assertThat(tracker.currentETag()).isNotEqualTo(first);
+    }
+
+    /**
+     * 【正常系】書き込みにより Last-Modified が書き込み時刻へ進むことを確認する。
+     */
+    @Test
+    void lastModifiedMillis_ShouldAdvanceOnBump() {
+        assertThat(tracker.lastModifiedMillis()).isEqualTo(NOW.toEpochMilli());
+
+        stubNow(NOW.plusSeconds(10));
+        tracker.bump();
+
+        assertThat(tracker.lastModifiedMillis()).isEqualTo(NOW.plusSeconds(10).toEpochMilli());
+    }
+
+    private DashboardVersionTracker newTracker(Instant now) {
+        stubNow(now);
+        return new DashboardVersionTracker(clock);
+    }
+
+    private void stubNow(Instant now) {
+        when(clock.instant()).thenReturn(now);
+        when(clock.millis()).thenReturn(now.toEpochMilli());
+    }
+}
@@ -0,0 +1,132 @@
+package com.ginga.naviai.export.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginga.naviai.export.service.DataExportService;
+import com.ginga.naviai.export.service.ExportFormat;
+import com.ginga.naviai.export.service.ExportTable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * エクスポートのヒープ使用量のベンチマーク（500 万件の "like" を NDJSON / CSV + gzip で出力）。
+ * <p>
+ * PostgreSQL が必要なため通常のテスト実行では無効。専用スキーマ export_bench に 500 万件を投入し、
+ * 出力中のヒープ使用量を定期的に計測して、出力前からの増加量の最大値と所要時間を標準出力に出力する。
+ * 終了時にスキーマごと削除する。
+ * {@code mvn test -Dbenchmark=true -Dbenchmark.pg.url=jdbc:postgresql://localhost:5432/naviai
+ * -Dbenchmark.pg.user=... -Dbenchmark.pg.password=... -Dtest=DataExportBenchmarkTest}
+ * で実行する。
+ * </p>
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIfSystemProperty(named = "benchmark.pg.url", matches = ".+")
+class DataExportBenchmarkTest {
+
+    private static final int ROWS = 5_000_000;
+    private static final String SCHEMA = "export_bench";
+    /** 件数に比例して増えていないことの判定に使うヒープ増加量の上限 */
+    private static final long MAX_HEAP_GROWTH = 128L * 1024 * 1024;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private DataExportService service;
+
+    @BeforeAll
+    void seed() {
+        dataSource = new SingleConnectionDataSource(System.getProperty("benchmark.pg.url"),
+                System.getProperty("benchmark.pg.user", "postgres"), System.getProperty("benchmark.pg.password", ""), true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        jdbc.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbc.execute("CREATE TABLE \"like\" (id BIGINT PRIMARY KEY, knowledge_id BIGINT NOT NULL, user_id BIGINT NOT NULL, "
+                + "created_at TIMESTAMPTZ NOT NULL)");
+        jdbc.execute("INSERT INTO \"like\" (id, knowledge_id, user_id, created_at) "
+                + "SELECT g, g % 100000, g % 5000, now() - (g || ' seconds')::interval "
+                + "FROM generate_series(1, " + ROWS + ") AS g");
+        jdbc.execute("ANALYZE \"like\"");
+        service = new DataExportService(new NamedParameterJdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), new ObjectMapper());
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (jdbc != null) {
+            jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        run(ExportFormat.NDJSON, false);
+    }
+
+    @Test
+    void exportCsvGzip() throws Exception {
+        run(ExportFormat.CSV, true);
+    }
+
+    private void run(ExportFormat format, boolean gzip) throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong peak = new AtomicLong();
+        CountingOutputStream out = new CountingOutputStream();
+
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long started = System.nanoTime();
+        long rows = service.export(ExportTable.LIKE, format, gzip, out);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        sampler.interrupt();
+        sampler.join();
+
+        long growth = peak.get() - baseline;
+        System.out.printf("export %s%s: %,d rows, %,d bytes, %,d ms, peak heap growth %,d KB%n",
+                format.getExtension(), gzip ? ".gz" : "", rows, out.count, elapsedMs, growth / 1024);
+        assertThat(rows).isEqualTo(ROWS);
+        assertThat(growth).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    /** 書き込まれたバイト数だけを数えて捨てる出力先 */
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ginga.naviai.export.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private DataExportService service;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO knowledge (author_id, title, body, status, is_deleted, created_at, updated_at, like_count) "
+                + "VALUES (7, 'Spring入門', '本文', 'published', FALSE, TIMESTAMP '2026-01-05 10:00:00', TIMESTAMP '2026-01-05 10:00:00', 3), "
+                + "(NULL, 'draft', NULL, 'draft', TRUE, TIMESTAMP '2026-01-06 10:00:00', TIMESTAMP '2026-01-06 10:00:00', 0)");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO comment (knowledge_id, author_id, body, created_at) "
+                + "VALUES (1, 7, 'a, \"quoted\"' || CHAR(10) || 'next line', TIMESTAMP WITH TIME ZONE '2026-01-07 10:00:00+00')");
+
+        service = new DataExportService(jdbcTemplate, new DataSourceTransactionManager(db), objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】NDJSON は 1 行 1 レコードで、数値・真偽値・null は JSON のリテラル、日時は ISO-8601 で出力されることを確認する。
+     */
+    @Test
+    void export_Ndjson_ShouldWriteOneTypedObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(ExportTable.KNOWLEDGE, ExportFormat.NDJSON, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").isNumber()).isTrue();
+        assertThat(first.get("title").asText()).isEqualTo("Spring入門");
+        assertThat(first.get("is_deleted").isBoolean()).isTrue();
+        assertThat(first.get("like_count").asLong()).isEqualTo(3);
+        assertThat(first.get("view_count").asLong()).isZero();
+        assertThat(first.get("published_at").isNull()).isTrue();
+        assertThat(first.get("created_at").asText()).endsWith("Z");
+        assertThat(objectMapper.readTree(lines[1]).get("author_id").isNull()).isTrue();
+    }
+
+    /**
+     * 【正常系】CSV は先頭行がヘッダで、区切り文字・引用符・改行を含む値が引用符で囲まれることを確認する。
+     */
+    @Test
+    void export_Csv_ShouldQuoteSpecialCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(ExportTable.COMMENT, ExportFormat.CSV, false, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,knowledge_id,author_id,parent_comment_id,body,is_deleted,created_at\r\n"
+                        + "1,1,7,,\"a, \"\"quoted\"\"\nnext line\",false,2026-01-07T10:00:00Z\r\n");
+    }
+
+    /**
+     * 【正常系】0 件でも CSV のヘッダは出力され、gzip 指定時は展開すると同じ内容になることを確認する。
+     */
+    @Test
+    void export_Gzip_ShouldWriteCompressedStream_EvenWhenEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(ExportTable.LIKE, ExportFormat.CSV, true, out);
+
+        assertThat(rows).isZero();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,knowledge_id,user_id,created_at\r\n");
+        }
+    }
+
+    /**
+     * 【異常系】対象外のテーブル名・形式は IllegalArgumentException となることを確認する。
+     */
+    @Test
+    void fromKey_ShouldRejectUnknownNames() {
+        assertThat(ExportTable.fromKey("LIKE")).isEqualTo(ExportTable.LIKE);
+        assertThatThrownBy(() -> ExportTable.fromKey("users")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExportFormat.fromExtension("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ginga.naviai.knowledge.benchmark;
+
+import com.ginga.naviai.knowledge.service.DatabaseKnowledgeSearchService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DB 側全文検索のベンチマーク（pg_trgm の GIN インデックス付き生成列 vs 素の {@code LIKE '%q%'}）。
+ * <p>
+ * PostgreSQL が必要なため通常のテスト実行では無効。専用スキーマ knowledge_search_bench に 100 万件を投入して比較し、
+ * 終了時にスキーマごと削除する。
+ * {@code mvn test -Dbenchmark=true -Dbenchmark.pg.url=jdbc:postgresql://localhost:5432/naviai
+ * -Dbenchmark.pg.user=... -Dbenchmark.pg.password=... -Dtest=DatabaseSearchBenchmarkTest}
+ * で実行し、標準出力に各方式の所要時間（中央値）を出力する。
+ * </p>
+ * <p>
+ * 日本語の文字からトライグラムが作られるかはデータベースの LC_CTYPE に依存し（C / POSIX では作られない）、
+ * 2 文字以下の語からは常に作られないため、英数字を含む語・日本語のみの語・2 文字の語をそれぞれ計測する。
+ * </p>
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIfSystemProperty(named = "benchmark.pg.url", matches = ".+")
+class DatabaseSearchBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int ROUNDS = 20;
+    private static final String SCHEMA = "knowledge_search_bench";
+    private static final String QUERY = "キーワード777";
+    /** QUERY と同じ記事にのみ一致する検索語（英数字を含む語 / 日本語のみの語 / 2 文字の語） */
+    private static final List<String> QUERIES = List.of(QUERY, "キーワード", "ワー");
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeAll
+    void seed() {
+        dataSource = new SingleConnectionDataSource(System.getProperty("benchmark.pg.url"),
+                System.getProperty("benchmark.pg.user", "postgres"), System.getProperty("benchmark.pg.password", ""), true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        jdbc.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbc.execute("CREATE TABLE knowledge (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, excerpt VARCHAR(1000), "
+                + "body TEXT, status VARCHAR(32) NOT NULL, is_deleted BOOLEAN NOT NULL DEFAULT FALSE)");
+        // 1 万件に 1 件だけ QUERY を含む本文にし、選択性の高い検索を再現する（QUERY を含む記事は公開中、下書きは 10 件に 1 件）
+        jdbc.execute("INSERT INTO knowledge (id, title, excerpt, body, status, is_deleted) "
+                + "SELECT g, 'ナレッジ記事 ' || g, '概要 ' || (g % 1000), "
+                + "repeat('社内ナレッジの本文です。', 20) || CASE WHEN g % 10000 = 0 THEN ' " + QUERY + "' ELSE ' その他' || (g % 997) END, "
+                + "CASE WHEN g % 10 = 5 THEN 'draft' ELSE 'published' END, false "
+                + "FROM generate_series(1, " + ROWS + ") AS g");
+        // 本番と同じ生成列・部分インデックス（V7 マイグレーション）
+        jdbc.execute("ALTER TABLE knowledge ADD COLUMN search_text TEXT GENERATED ALWAYS AS "
+                + "(lower(coalesce(title, '') || ' ' || coalesce(excerpt, '') || ' ' || coalesce(body, ''))) STORED");
+        jdbc.execute("ALTER TABLE knowledge ADD COLUMN search_vector tsvector GENERATED ALWAYS AS ("
+                + "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || "
+                + "setweight(to_tsvector('simple', coalesce(excerpt, '')), 'B') || "
+                + "setweight(to_tsvector('simple', coalesce(body, '')), 'C')) STORED");
+        jdbc.execute("CREATE INDEX ON knowledge USING GIN (search_text gin_trgm_ops) WHERE status = 'published' AND is_deleted = false");
+        jdbc.execute("CREATE INDEX ON knowledge USING GIN (search_vector) WHERE status = 'published' AND is_deleted = false");
+        jdbc.execute("ANALYZE knowledge");
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (jdbc != null) {
+            jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void compareIndexedSearchAndPlainLike() {
+        DatabaseKnowledgeSearchService service = new DatabaseKnowledgeSearchService(new NamedParameterJdbcTemplate(dataSource));
+        String plainLike = "SELECT k.id, k.title, k.body FROM knowledge k "
+                + "WHERE k.status = 'published' AND k.is_deleted = false "
+                + "AND (k.title LIKE ? OR k.excerpt LIKE ? OR k.body LIKE ?) ORDER BY k.id DESC LIMIT 20";
+        System.out.printf("rows=%d lc_ctype=%s%n", ROWS, jdbc.queryForObject("SHOW lc_ctype", String.class));
+
+        for (String query : QUERIES) {
+            String pattern = "%" + query + "%";
+            long indexedMedian = median(() -> service.search(query, PageRequest.of(0, 20)).getTotalElements());
+            long plainMedian = median(() -> (long) jdbc.queryForList(plainLike, pattern, pattern, pattern).size());
+
+            long hits = service.search(query, PageRequest.of(0, 20)).getTotalElements();
+            System.out.printf("q=%s hits=%d%n", query, hits);
+            System.out.printf("  pg_trgm GIN (search + count): median %.2f ms%n", indexedMedian / 1_000_000.0);
+            System.out.printf("  plain LIKE '%%q%%'          : median %.2f ms%n", plainMedian / 1_000_000.0);
+            assertThat(hits).isEqualTo(ROWS / 10000);
+        }
+    }
+
+    private static long median(Supplier<Long> task) {
+        task.get(); // ウォームアップ
+        long[] times = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.get();
+            times[i] = System.nanoTime() - start;
+        }
+        java.util.Arrays.sort(times);
+        return times[ROUNDS / 2];
+    }
+}
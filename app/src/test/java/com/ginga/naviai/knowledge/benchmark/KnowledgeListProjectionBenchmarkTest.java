@@ -0,0 +1,112 @@
+package com.ginga.naviai.knowledge.benchmark;
+
+import com.ginga.naviai.auth.entity.User;
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.KnowledgeListView;
+import com.ginga.naviai.knowledge.entity.Knowledge;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 記事一覧の読み出し量ベンチマーク（エンティティ全列取得 vs 一覧用射影）。
+ * <p>
+ * 通常のテスト実行では無効。{@code mvn test -Dbenchmark=true -Dtest=KnowledgeListProjectionBenchmarkTest}
+ * で実行し、標準出力に 1 ページあたりの読み出しバイト数（文字列列の UTF-8 長の合計）と所要時間を出力する。
+ * </p>
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class KnowledgeListProjectionBenchmarkTest {
+
+    private static final int ARTICLES = 500;
+    private static final int BODY_BYTES = 64 * 1024;
+    private static final int PAGE_SIZE = 20;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private KnowledgeRepository knowledgeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void compareEntityAndProjectionListing() {
+        User author = new User();
+        author.setUsername("bench");
+        author.setEmail("bench@example.com");
+        author.setPasswordHash("x");
+        userRepository.save(author);
+
+        String body = "あ".repeat(BODY_BYTES / 3);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < ARTICLES; i++) {
+            knowledgeRepository.save(Knowledge.builder()
+                    .author(author)
+                    .title("記事タイトル " + i)
+                    .body(body)
+                    .excerpt("概要 " + i)
+                    .status("published")
+                    .createdAt(base.plusSeconds(i))
+                    .updatedAt(base)
+                    .build());
+        }
+        entityManager.flush();
+
+        PageRequest page = PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt").descending());
+
+        long entityBytes = 0;
+        long entityStart = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            entityManager.clear();
+            List<Knowledge> rows = entityManager
+                    .createQuery("SELECT k FROM Knowledge k WHERE k.author.id = :id ORDER BY k.createdAt DESC", Knowledge.class)
+                    .setParameter("id", author.getId())
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            entityBytes = rows.stream()
+                    .mapToLong(k -> bytes(k.getTitle()) + bytes(k.getBody()) + bytes(k.getExcerpt())
+                            + bytes(k.getStatus()) + bytes(k.getThumbnail()))
+                    .sum();
+        }
+        long entityNanos = System.nanoTime() - entityStart;
+
+        long projectionBytes = 0;
+        long projectionStart = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            entityManager.clear();
+            List<KnowledgeListView> rows = knowledgeRepository.findListSliceByAuthorId(author.getId(), page).getContent();
+            projectionBytes = rows.stream()
+                    .mapToLong(v -> bytes(v.getTitle()) + bytes(v.getExcerpt())
+                            + bytes(v.getStatus()) + bytes(v.getThumbnail()))
+                    .sum();
+        }
+        long projectionNanos = System.nanoTime() - projectionStart;
+
+        System.out.printf("[benchmark] list page of %d: entity %,d bytes / %.2f ms, projection %,d bytes / %.2f ms (%.1fx fewer bytes)%n",
+                PAGE_SIZE,
+                entityBytes, entityNanos / 1e6 / ROUNDS,
+                projectionBytes, projectionNanos / 1e6 / ROUNDS,
+                (double) entityBytes / projectionBytes);
+
+        assertThat(projectionBytes).isLessThan(entityBytes / 100);
+    }
+
+    private static long bytes(String s) {
+        return s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
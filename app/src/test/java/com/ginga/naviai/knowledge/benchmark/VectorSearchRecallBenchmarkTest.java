@@ -0,0 +1,132 @@
+package com.ginga.naviai.knowledge.benchmark;
+
+import com.ginga.naviai.knowledge.embedding.Embedder;
+import com.ginga.naviai.knowledge.embedding.HashedTfIdfEmbedder;
+import com.ginga.naviai.knowledge.search.HnswIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ベクトル索引（{@link HnswIndex}）の再現率と検索レイテンシのベンチマーク。
+ * <p>
+ * 話題ごとの語彙に偏った合成文書を {@link HashedTfIdfEmbedder} でベクトル化して索引に登録し、
+ * 全件比較によるコサイン類似度の厳密な上位 10 件を正解として、検索時の候補数 ef ごとに
+ * 再現率（recall@10）と 1 クエリあたりの平均・p99 レイテンシを全件比較と並べて出力する。
+ * </p>
+ * <p>
+ * 通常のテスト実行では無効。{@code mvn test -Dbenchmark=true -Dtest=VectorSearchRecallBenchmarkTest}
+ * で実行する（文書数は {@code -Dbenchmark.vectors=20000} で変更できる）。
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VectorSearchRecallBenchmarkTest {
+
+    private static final int DIMENSION = 512;
+    private static final int TOPICS = 100;
+    private static final int TOPIC_WORDS = 40;
+    private static final int GLOBAL_WORDS = 5_000;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+    private static final int[] EF_VALUES = {10, 20, 40, 80, 160, 320};
+
+    @Test
+    void recallVersusLatency() {
+        int vectors = Integer.getInteger("benchmark.vectors", 10_000);
+        Random random = new Random(42);
+        List<String> corpus = new ArrayList<>(vectors);
+        for (int i = 0; i < vectors; i++) {
+            corpus.add(document(random, 60));
+        }
+        Embedder embedder = new HashedTfIdfEmbedder(DIMENSION).fit(corpus);
+
+        long buildStart = System.nanoTime();
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 200, 1L);
+        for (int i = 0; i < vectors; i++) {
+            index.add(i, embedder.embed(corpus.get(i)));
+        }
+        System.out.printf("HNSW build: %d vectors (dim %d) in %d ms%n",
+                vectors, DIMENSION, (System.nanoTime() - buildStart) / 1_000_000);
+
+        List<float[]> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(embedder.embed(document(random, 8)));
+        }
+
+        // 全件比較（正解）
+        List<Set<Long>> truth = new ArrayList<>(QUERIES);
+        long[] exactNanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            List<HnswIndex.Hit> hits = index.exactSearch(queries.get(i), K);
+            exactNanos[i] = System.nanoTime() - start;
+            Set<Long> keys = new HashSet<>();
+            hits.forEach(h -> keys.add(h.getKey()));
+            truth.add(keys);
+        }
+        System.out.printf("%-12s recall@%d=%.3f  mean=%7.1f us  p99=%7.1f us%n",
+                "brute-force", K, 1.0, mean(exactNanos) / 1_000, percentile(exactNanos, 0.99) / 1_000);
+
+        double bestRecall = 0;
+        for (int ef : EF_VALUES) {
+            // JIT のウォームアップ
+            for (float[] q : queries) {
+                index.search(q, K, ef);
+            }
+            long[] nanos = new long[QUERIES];
+            int found = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                long start = System.nanoTime();
+                List<HnswIndex.Hit> hits = index.search(queries.get(i), K, ef);
+                nanos[i] = System.nanoTime() - start;
+                for (HnswIndex.Hit hit : hits) {
+                    if (truth.get(i).contains(hit.getKey())) {
+                        found++;
+                    }
+                }
+            }
+            double recall = (double) found / (QUERIES * K);
+            bestRecall = Math.max(bestRecall, recall);
+            System.out.printf("%-12s recall@%d=%.3f  mean=%7.1f us  p99=%7.1f us  speedup x%.1f%n",
+                    "hnsw ef=" + ef, K, recall, mean(nanos) / 1_000, percentile(nanos, 0.99) / 1_000,
+                    mean(exactNanos) / mean(nanos));
+        }
+        assertThat(bestRecall).isGreaterThan(0.9);
+    }
+
+    /**
+     * 1 つの話題の語彙を中心に、全体の語彙（Zipf 分布）を混ぜた文書を作る。
+     */
+    private static String document(Random random, int words) {
+        int topic = random.nextInt(TOPICS);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (random.nextDouble() < 0.6) {
+                sb.append("t").append(topic).append("w").append(random.nextInt(TOPIC_WORDS));
+            } else {
+                int rank = (int) Math.min(GLOBAL_WORDS - 1, Math.floor(Math.pow(GLOBAL_WORDS, random.nextDouble())));
+                sb.append("g").append(rank);
+            }
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static double mean(long[] values) {
+        return Arrays.stream(values).average().orElse(0);
+    }
+
+    private static double percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,117 @@
+package com.ginga.naviai.knowledge.benchmark;
+
+import com.ginga.naviai.knowledge.service.ViewCountBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 人気記事 1 件に閲覧が集中した場合の閲覧数記録のベンチマーク。
+ * <p>
+ * 複数スレッドから同じ記事の閲覧を記録し、次の方式のスループットを比較する。
+ * <ul>
+ *   <li>閲覧ごとに {@code UPDATE knowledge SET view_count = view_count + 1}（同一行の行ロックで直列化される）</li>
+ *   <li>単一の {@link AtomicLong}（メモリ上だが 1 つの CAS に競合が集中する）</li>
+ *   <li>{@link ViewCountBuffer}（LongAdder に加算し、100 ms ごとに batch UPDATE で反映）</li>
+ * </ul>
+ * 通常のテスト実行では無効。{@code mvn test -Dbenchmark=true -Dtest=ViewCountContentionBenchmarkTest}
+ * で実行し、標準出力に各方式の閲覧数/秒を出力する。
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ViewCountContentionBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int DB_VIEWS_PER_THREAD = 2_000;
+    private static final int MEMORY_VIEWS_PER_THREAD = 2_000_000;
+
+    private EmbeddedDatabase db;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbc = new JdbcTemplate(db);
+        jdbc.execute("INSERT INTO knowledge (id) VALUES (1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void compareStrategies() throws Exception {
+        double direct = measure("UPDATE per view", DB_VIEWS_PER_THREAD,
+                () -> jdbc.update("UPDATE knowledge SET view_count = view_count + 1 WHERE id = 1"));
+        assertThat(viewCount()).isEqualTo((long) THREADS * DB_VIEWS_PER_THREAD);
+
+        AtomicLong atomic = new AtomicLong();
+        double cas = measure("AtomicLong", MEMORY_VIEWS_PER_THREAD, atomic::incrementAndGet);
+
+        jdbc.update("UPDATE knowledge SET view_count = 0");
+        ViewCountBuffer buffer = new ViewCountBuffer(new NamedParameterJdbcTemplate(db), new DataSourceTransactionManager(db));
+        Thread flusher = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                buffer.flush();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        flusher.start();
+        double buffered = measure("ViewCountBuffer", MEMORY_VIEWS_PER_THREAD, () -> buffer.record(1L));
+        flusher.interrupt();
+        flusher.join();
+        buffer.shutdown();
+        assertThat(viewCount()).isEqualTo((long) THREADS * MEMORY_VIEWS_PER_THREAD);
+
+        System.out.printf("speedup vs UPDATE per view: AtomicLong x%.0f, ViewCountBuffer x%.0f%n",
+                cas / direct, buffered / direct);
+    }
+
+    /** 全スレッドが同時に開始し、全件記録し終えるまでの閲覧数/秒を返す */
+    private static double measure(String label, int viewsPerThread, Runnable recordView) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < viewsPerThread; i++) {
+                    recordView.run();
+                }
+                return null;
+            });
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        double perSecond = THREADS * (double) viewsPerThread / seconds;
+        System.out.printf("%-16s %,15.0f views/s (%d threads, %.2f s)%n", label, perSecond, THREADS, seconds);
+        return perSecond;
+    }
+
+    private long viewCount() {
+        return jdbc.queryForObject("SELECT view_count FROM knowledge WHERE id = 1", Long.class);
+    }
+}
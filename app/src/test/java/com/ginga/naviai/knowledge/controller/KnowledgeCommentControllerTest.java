@@ -0,0 +1,109 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.CommentRequest;
+import com.ginga.naviai.knowledge.dto.CommentResponse;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.service.CommentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(KnowledgeCommentController.class)
+class KnowledgeCommentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CommentService commentService;
+
+    @MockBean
+    private com.ginga.naviai.auth.service.TokenBlacklistService tokenBlacklistService;
+
+    private final User alice = new User("alice", "password", Collections.emptyList());
+
+    /**
+     * 【正常系】スレッドを data（ツリー）と meta.next_cursor で返すことを確認する。
+     */
+    @Test
+    void getComments_ShouldReturnTreeWithCursor() throws Exception {
+        CommentResponse reply = CommentResponse.builder().id(2L).parentId(1L).body("reply").build();
+        CommentResponse top = CommentResponse.builder().id(1L).body("top").replies(List.of(reply)).build();
+        when(commentService.getThread(eq(10L), eq("alice"), isNull(), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(top), "next"));
+
+        mockMvc.perform(get("/api/v1/knowledge/10/comments").with(user(alice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].body").value("top"))
+                .andExpect(jsonPath("$.data[0].replies[0].body").value("reply"))
+                .andExpect(jsonPath("$.meta.next_cursor").value("next"));
+    }
+
+    /**
+     * 【異常系】per_page が範囲外の場合は 400 を返すことを確認する。
+     */
+    @Test
+    void getComments_ShouldRejectInvalidPerPage() throws Exception {
+        mockMvc.perform(get("/api/v1/knowledge/10/comments?per_page=0").with(user(alice)))
+                .andExpect(status().isBadRequest());
+        verify(commentService, never()).getThread(any(), any(), any(), anyInt());
+    }
+
+    /**
+     * 【正常系】コメントを投稿すると 201 で作成したコメントを返すことを確認する。
+     */
+    @Test
+    void addComment_ShouldReturnCreated() throws Exception {
+        when(commentService.addComment(eq(10L), eq("alice"), any(CommentRequest.class)))
+                .thenReturn(CommentResponse.builder().id(5L).body("hello").build());
+
+        mockMvc.perform(post("/api/v1/knowledge/10/comments").with(user(alice)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"body\":\"hello\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(5));
+    }
+
+    /**
+     * 【異常系】本文が空のコメントは 400 を返すことを確認する。
+     */
+    @Test
+    void addComment_ShouldRejectBlankBody() throws Exception {
+        mockMvc.perform(post("/api/v1/knowledge/10/comments").with(user(alice)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"body\":\" \"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * 【正常系】コメントを削除すると 204 を返すことを確認する。
+     */
+    @Test
+    void deleteComment_ShouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/v1/knowledge/10/comments/5").with(user(alice)).with(csrf()))
+                .andExpect(status().isNoContent());
+        verify(commentService).deleteComment(10L, 5L, "alice");
+    }
+}
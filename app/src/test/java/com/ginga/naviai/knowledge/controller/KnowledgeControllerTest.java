@@ -1,8 +1,15 @@
 package com.ginga.naviai.knowledge.controller;
 
 import org.springframework.security.core.userdetails.User;
+import com.ginga.naviai.auth.exception.InvalidRequestException;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.dto.KnowledgeDetailResponse;
 import com.ginga.naviai.knowledge.dto.KnowledgeResponse;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.service.KnowledgeSearchService;
 import com.ginga.naviai.knowledge.service.KnowledgeService;
+import com.ginga.naviai.knowledge.service.KnowledgeVectorSearchService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -10,18 +17,29 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
 import java.util.Arrays;
+import java.util.List;
 import org.mockito.Mockito;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +52,12 @@ public class KnowledgeControllerTest {
     @MockBean
     private KnowledgeService knowledgeService;
 
+    @MockBean
+    private KnowledgeSearchService knowledgeSearchService;
+
+    @MockBean
+    private KnowledgeVectorSearchService knowledgeVectorSearchService;
+
     @MockBean
     private com.ginga.naviai.auth.service.TokenBlacklistService tokenBlacklistService;
 
@@ -105,4 +129,231 @@ public class KnowledgeControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser
+    public void testGetKnowledgeByAuthorId_cursorFirstPage() throws Exception {
+        KnowledgeResponse item = Mockito.mock(KnowledgeResponse.class);
+        when(knowledgeService.getKnowledgeByAuthorId(1L, "", 20))
+                .thenReturn(new CursorPage<>(Collections.singletonList(item), "next-token"));
+
+        mockMvc.perform(get("/api/v1/knowledge?author_id=1&cursor="))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isArray())
+                .andExpect(jsonPath("$.meta.next_cursor").value("next-token"))
+                .andExpect(jsonPath("$.meta.total").doesNotExist());
+
+        // カーソルモードではオフセットページング（COUNT を伴う）を使用しない
+        verify(knowledgeService, never()).getKnowledgeByAuthorId(eq(1L), any(PageRequest.class));
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetMyKnowledge_cursorLastPage() throws Exception {
+        when(knowledgeService.getMyKnowledgeByUsername("user", "abc", 10))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge?mine=true&cursor=abc&per_page=10").with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meta.next_cursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetKnowledge_cursorWithUnsupportedSort() throws Exception {
+        mockMvc.perform(get("/api/v1/knowledge?author_id=1&cursor=&sort=title"))
+                .andExpect(status().isBadRequest());
+
+        verify(knowledgeService, never()).getKnowledgeByAuthorId(any(), anyString(), anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetKnowledge_cursorWithOutOfRangePerPage() throws Exception {
+        mockMvc.perform(get("/api/v1/knowledge?author_id=1&cursor=&per_page=101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/knowledge?author_id=1&cursor=&per_page=2147483647"))
+                .andExpect(status().isBadRequest());
+
+        verify(knowledgeService, never()).getKnowledgeByAuthorId(any(), anyString(), anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetKnowledge_invalidCursor() throws Exception {
+        when(knowledgeService.getKnowledgeByAuthorId(eq(1L), eq("broken"), anyInt()))
+                .thenThrow(new InvalidRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/knowledge?author_id=1&cursor=broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetKnowledgeDetail() throws Exception {
+        KnowledgeDetailResponse detail = KnowledgeDetailResponse.builder()
+                .id("5").title("タイトル").body("本文").tags(Collections.singletonList("AI")).build();
+        when(knowledgeService.getKnowledgeDetail(5L, "user")).thenReturn(detail);
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/5").with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body").value("本文"))
+                .andExpect(jsonPath("$.tags[0]").value("AI"));
+    }
+
+    @Test
+    public void testGetKnowledgeDetail_notFound() throws Exception {
+        when(knowledgeService.getKnowledgeDetail(6L, "user")).thenThrow(new KnowledgeNotFoundException("Knowledge not found: 6"));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/6").with(user(userDetails)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    public void testGetKnowledgeByAuthorId_withoutTotal() throws Exception {
+        when(knowledgeService.getKnowledgeSliceByAuthorId(eq(1L), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 20), true));
+
+        mockMvc.perform(get("/api/v1/knowledge?author_id=1&include_total=false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meta.has_next").value(true))
+                .andExpect(jsonPath("$.meta.total").doesNotExist());
+
+        verify(knowledgeService, never()).getKnowledgeByAuthorId(eq(1L), any(PageRequest.class));
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        SearchHitResponse hit = SearchHitResponse.builder()
+                .id("3").title("機械学習入門").snippet("機械学習の基礎").score(1.5)
+                .highlights(Collections.singletonList(new SearchHitResponse.Highlight("title", 0, 4)))
+                .build();
+        when(knowledgeSearchService.search(eq("機械学習"), eq(PageRequest.of(0, 20))))
+                .thenReturn(new PageImpl<>(Collections.singletonList(hit), PageRequest.of(0, 20), 1));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/search").param("q", "機械学習").with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value("3"))
+                .andExpect(jsonPath("$.data[0].highlights[0].end").value(4))
+                .andExpect(jsonPath("$.meta.total").value(1));
+    }
+
+    @Test
+    public void testSearch_blankQuery() throws Exception {
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/search").param("q", " ").with(user(userDetails)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetKnowledgeByTags() throws Exception {
+        KnowledgeResponse item = Mockito.mock(KnowledgeResponse.class);
+        when(knowledgeService.getKnowledgeByTags(eq(new java.util.LinkedHashSet<>(Arrays.asList("AI", "Java"))), eq(false),
+                eq(java.util.Set.of("draft")), eq(PageRequest.of(0, 20))))
+                .thenReturn(new PageImpl<>(Collections.singletonList(item), PageRequest.of(0, 20), 1));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge").param("tags", "AI, Java").param("mode", "or")
+                        .param("exclude_tags", "draft").with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isArray())
+                .andExpect(jsonPath("$.meta.total").value(1));
+    }
+
+    @Test
+    public void testGetKnowledgeByTags_invalidMode() throws Exception {
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge").param("tags", "AI").param("mode", "xor").with(user(userDetails)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/knowledge").param("tags", "AI").param("author_id", "1").with(user(userDetails)))
+                .andExpect(status().isBadRequest());
+
+        verify(knowledgeService, never()).getKnowledgeByTags(any(), Mockito.anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void testCreateKnowledge() throws Exception {
+        when(knowledgeService.createKnowledge(eq("user"), any()))
+                .thenReturn(KnowledgeDetailResponse.builder().id("10").title("新しい記事").tags(Arrays.asList("AI")).build());
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(post("/api/v1/knowledge").with(user(userDetails)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"新しい記事\",\"body\":\"本文\",\"tags\":[\"AI\"]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("10"))
+                .andExpect(jsonPath("$.tags[0]").value("AI"));
+    }
+
+    @Test
+    public void testCreateKnowledge_validationError() throws Exception {
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(post("/api/v1/knowledge").with(user(userDetails)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\" \",\"status\":\"published\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(knowledgeService, never()).createKnowledge(any(), any());
+    }
+
+    @Test
+    public void testUpdateKnowledge_notAuthor() throws Exception {
+        when(knowledgeService.updateKnowledge(eq(5L), eq("user"), any()))
+                .thenThrow(new AccessDeniedException("Only the author can update knowledge: 5"));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(put("/api/v1/knowledge/5").with(user(userDetails)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"改題\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testGetRelatedKnowledge() throws Exception {
+        KnowledgeResponse related = new KnowledgeResponse("7", "関連記事", null, "2026/02/01", "公開中", null);
+        when(knowledgeService.getRelatedKnowledge(5L, 3)).thenReturn(List.of(related));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/5/related").param("limit", "3").with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value("7"));
+    }
+
+    @Test
+    public void testGetRelatedKnowledge_invalidLimit() throws Exception {
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/5/related").param("limit", "0").with(user(userDetails)))
+                .andExpect(status().isBadRequest());
+
+        verify(knowledgeService, never()).getRelatedKnowledge(any(), anyInt());
+    }
+
+    @Test
+    public void testSemanticSearch() throws Exception {
+        SearchHitResponse hit = SearchHitResponse.builder()
+                .id("3").title("機械学習入門").snippet("機械学習の基礎").score(0.82)
+                .highlights(Collections.emptyList())
+                .build();
+        when(knowledgeVectorSearchService.search("機械学習とは", 5)).thenReturn(List.of(hit));
+
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/semantic-search").param("q", "機械学習とは").param("limit", "5")
+                        .with(user(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value("3"))
+                .andExpect(jsonPath("$.data[0].score").value(0.82));
+    }
+
+    @Test
+    public void testSemanticSearch_invalidLimit() throws Exception {
+        User userDetails = new User("user", "password", Collections.emptyList());
+        mockMvc.perform(get("/api/v1/knowledge/semantic-search").param("q", "機械学習").param("limit", "51")
+                        .with(user(userDetails)))
+                .andExpect(status().isBadRequest());
+
+        verify(knowledgeVectorSearchService, never()).search(anyString(), anyInt());
+    }
 }
@@ -0,0 +1,87 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.LikeStatusResponse;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.service.LikeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(KnowledgeLikeController.class)
+class KnowledgeLikeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LikeService likeService;
+
+    @MockBean
+    private com.ginga.naviai.auth.service.TokenBlacklistService tokenBlacklistService;
+
+    private final User alice = new User("alice", "password", Collections.emptyList());
+
+    /**
+     * 【正常系】PUT でいいねし、操作後のいいね状態といいね数を返すことを確認する。
+     */
+    @Test
+    void like_ShouldReturnStatus() throws Exception {
+        when(likeService.like(10L, "alice")).thenReturn(new LikeStatusResponse(10L, true, 3));
+
+        mockMvc.perform(put("/api/v1/knowledge/10/like").with(user(alice)).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.liked").value(true))
+                .andExpect(jsonPath("$.likeCount").value(3));
+    }
+
+    /**
+     * 【正常系】DELETE でいいねを取り消すことを確認する。
+     */
+    @Test
+    void unlike_ShouldReturnStatus() throws Exception {
+        when(likeService.unlike(10L, "alice")).thenReturn(new LikeStatusResponse(10L, false, 2));
+
+        mockMvc.perform(delete("/api/v1/knowledge/10/like").with(user(alice)).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.liked").value(false))
+                .andExpect(jsonPath("$.likeCount").value(2));
+    }
+
+    /**
+     * 【異常系】公開中でない記事へのいいねは 404 を返すことを確認する。
+     */
+    @Test
+    void like_ShouldReturnNotFound_WhenArticleNotVisible() throws Exception {
+        when(likeService.like(10L, "alice")).thenThrow(new KnowledgeNotFoundException("Knowledge not found: 10"));
+
+        mockMvc.perform(put("/api/v1/knowledge/10/like").with(user(alice)).with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * 【異常系】未認証の場合は 401 を返し、サービスを呼び出さないことを確認する。
+     */
+    @Test
+    void like_ShouldReturnUnauthorized_WhenNotAuthenticated() throws Exception {
+        mockMvc.perform(put("/api/v1/knowledge/10/like").with(csrf()))
+                .andExpect(status().isUnauthorized());
+        verify(likeService, never()).like(any(), anyString());
+    }
+}
@@ -0,0 +1,91 @@
+package com.ginga.naviai.knowledge.controller;
+
+import com.ginga.naviai.knowledge.dto.ReviewQueueItem;
+import com.ginga.naviai.knowledge.exception.ReviewClaimConflictException;
+import com.ginga.naviai.knowledge.service.ReviewQueueService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReviewQueueController.class)
+class ReviewQueueControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewQueueService reviewQueueService;
+
+    @MockBean
+    private com.ginga.naviai.auth.service.TokenBlacklistService tokenBlacklistService;
+
+    private final User reviewer = new User("rev1", "password", List.of(new SimpleGrantedAuthority("ROLE_REVIEWER")));
+
+    /**
+     * 【正常系】次の記事を担当し、担当した記事を data として返すことを確認する。
+     */
+    @Test
+    void claim_ShouldReturnClaimedItems() throws Exception {
+        when(reviewQueueService.claimNext("rev1", 2)).thenReturn(List.of(
+                ReviewQueueItem.builder().id(10L).title("p1").build(),
+                ReviewQueueItem.builder().id(11L).title("p2").build()));
+
+        mockMvc.perform(post("/api/v1/review/queue/claim").param("limit", "2").with(user(reviewer)).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(10));
+    }
+
+    /**
+     * 【異常系】limit が範囲外の場合は 400 を返し、サービスを呼び出さないことを確認する。
+     */
+    @Test
+    void claim_ShouldRejectOutOfRangeLimit() throws Exception {
+        mockMvc.perform(post("/api/v1/review/queue/claim").param("limit", "0").with(user(reviewer)).with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(reviewQueueService, never()).claimNext(anyString(), anyInt());
+    }
+
+    /**
+     * 【異常系】担当を保持していない記事の承認は 409 を返すことを確認する。
+     */
+    @Test
+    void approve_ShouldReturnConflict_WhenClaimNotHeld() throws Exception {
+        doThrow(new ReviewClaimConflictException("Review claim not held or expired: 10"))
+                .when(reviewQueueService).approve(10L, "rev1", Instant.parse("2026-01-01T00:00:00Z"));
+
+        mockMvc.perform(post("/api/v1/review/queue/10/approve").param("updatedAt", "2026-01-01T00:00:00Z").with(user(reviewer)).with(csrf()))
+                .andExpect(status().isConflict());
+    }
+
+    /**
+     * 【正常系】差し戻しは 204 を返すことを確認する。
+     */
+    @Test
+    void decline_ShouldReturnNoContent() throws Exception {
+        mockMvc.perform(post("/api/v1/review/queue/10/decline").param("updatedAt", "2026-01-01T00:00:00Z").with(user(reviewer)).with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(reviewQueueService).decline(10L, "rev1", Instant.parse("2026-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.ginga.naviai.knowledge.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KnowledgeCursorTest {
+
+    /**
+     * 【正常系】符号化したカーソルを復元すると同じ位置（作成日時・ID）になることを確認する。
+     */
+    @Test
+    void encodeDecode_ShouldRoundTrip() {
+        KnowledgeCursor cursor = new KnowledgeCursor(Instant.parse("2026-02-10T12:34:56.789012Z"), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(KnowledgeCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    /**
+     * 【異常系】不正なカーソル文字列は IllegalArgumentException となることを確認する。
+     */
+    @Test
+    void decode_ShouldRejectMalformedToken() {
+        assertThatThrownBy(() -> KnowledgeCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KnowledgeCursor.decode(new KnowledgeCursor(Instant.EPOCH, 1L).encode().substring(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ginga.naviai.knowledge.embedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HashedTfIdfEmbedderTest {
+
+    /**
+     * 【正常系】同じテキストは常に同じ正規化済みベクトルとなり、語を多く共有するテキストほど類似度が高いことを確認する。
+     */
+    @Test
+    void embed_ShouldBeDeterministic_AndReflectSharedTerms() {
+        HashedTfIdfEmbedder embedder = new HashedTfIdfEmbedder(256);
+
+        float[] query = embedder.embed("機械学習の基礎");
+        assertThat(query).isEqualTo(new HashedTfIdfEmbedder(256).embed("機械学習の基礎"));
+        assertThat(dot(query, query)).isCloseTo(1.0, within(1e-5));
+
+        double related = dot(query, embedder.embed("機械学習入門：基礎から応用まで"));
+        double unrelated = dot(query, embedder.embed("Spring Boot で REST API を作る"));
+        assertThat(related).isGreaterThan(unrelated);
+        assertThat(embedder.embed("、。！")).containsOnly(0f);
+    }
+
+    /**
+     * 【正常系】学習後はコーパスのほぼ全文書に出現する語の重みが下がり、状態の保存・復元で同じベクトルになることを確認する。
+     */
+    @Test
+    void fit_ShouldDownweightCommonTerms_AndStateRoundTrips() {
+        List<String> corpus = List.of("共通 java", "共通 spring", "共通 postgres", "共通 redis");
+        HashedTfIdfEmbedder embedder = new HashedTfIdfEmbedder(256);
+        Embedder fitted = embedder.fit(corpus);
+
+        // 「共通」のみを共有する文書同士の類似度は、学習後の方が低い
+        double before = dot(embedder.embed("共通 java"), embedder.embed("共通 spring"));
+        double after = dot(fitted.embed("共通 java"), fitted.embed("共通 spring"));
+        assertThat(after).isLessThan(before);
+
+        Embedder restored = embedder.restore(fitted.state());
+        assertThat(restored.embed("共通 java")).isEqualTo(fitted.embed("共通 java"));
+        assertThat(restored.modelId()).isEqualTo("hashed-tfidf-v1-256");
+        assertThatThrownBy(() -> embedder.restore(new byte[3])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswIndexTest {
+
+    /**
+     * 【正常系】近似探索の上位 10 件が、全件比較による厳密解とほぼ一致する（再現率 0.95 以上）ことを確認する。
+     */
+    @Test
+    void search_ShouldMatchExactSearch_WithHighRecall() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(32, 16, 100, 1L);
+        for (long key = 0; key < 2_000; key++) {
+            index.add(key, randomVector(random, 32));
+        }
+
+        int found = 0;
+        int total = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random, 32);
+            Set<Long> expected = keys(index.exactSearch(query, 10));
+            for (HnswIndex.Hit hit : index.search(query, 10, 64)) {
+                if (expected.contains(hit.getKey())) {
+                    found++;
+                }
+            }
+            total += expected.size();
+        }
+        assertThat((double) found / total).isGreaterThanOrEqualTo(0.95);
+    }
+
+    /**
+     * 【正常系】同じキーの追加はベクトルを置き換え、削除したキー・置換前のベクトルは結果に現れないことを確認する。
+     */
+    @Test
+    void addAndRemove_ShouldReplaceAndExcludeKeys() {
+        HnswIndex index = new HnswIndex(3, 4, 20, 1L);
+        index.add(1L, new float[]{1, 0, 0});
+        index.add(2L, new float[]{0, 1, 0});
+        index.add(3L, new float[]{0, 0, 1});
+
+        List<HnswIndex.Hit> hits = index.search(new float[]{2, 0, 0}, 1, 10);
+        assertThat(hits).extracting(HnswIndex.Hit::getKey).containsExactly(1L);
+        assertThat(hits.get(0).getScore()).isCloseTo(1.0, within(1e-6));
+
+        // キー 1 を y 軸方向に置き換え、キー 2 を削除する
+        index.add(1L, new float[]{0, 1, 0.1f});
+        index.remove(2L);
+
+        assertThat(index.search(new float[]{0, 1, 0}, 3, 10)).extracting(HnswIndex.Hit::getKey).containsExactly(1L, 3L);
+        assertThat(index.search(new float[]{1, 0, 0}, 3, 10)).extracting(HnswIndex.Hit::getKey).doesNotContain(2L);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.deletedCount()).isEqualTo(2);
+
+        // ゼロベクトルは登録されない
+        assertThat(index.add(4L, new float[]{0, 0, 0})).isFalse();
+        assertThat(index.contains(4L)).isFalse();
+    }
+
+    static float[] randomVector(Random random, int dimension) {
+        float[] v = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return v;
+    }
+
+    private static Set<Long> keys(List<HnswIndex.Hit> hits) {
+        Set<Long> keys = new HashSet<>();
+        hits.forEach(h -> keys.add(h.getKey()));
+        return keys;
+    }
+}
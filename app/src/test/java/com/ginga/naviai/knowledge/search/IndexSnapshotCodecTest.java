@@ -0,0 +1,79 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexSnapshotCodecTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 【正常系】書き出したスナップショットを読み込むと、同じ検索結果・watermark が得られることを確認する。
+     */
+    @Test
+    void writeAndRead_ShouldRoundTrip() throws IOException {
+        InvertedIndex original = new InvertedIndex();
+        original.put(10L, "機械学習入門", "機械学習の基礎");
+        original.put(200_000L, "Spring Boot", "機械学習 API");
+        Instant watermark = Instant.parse("2026-02-10T12:00:00.123456Z");
+        Path file = dir.resolve("index.idx");
+
+        IndexSnapshotCodec.write(original, watermark, file);
+
+        InvertedIndex restored = new InvertedIndex();
+        Instant loaded = IndexSnapshotCodec.read(file, restored);
+
+        assertThat(loaded).isEqualTo(watermark);
+        assertThat(restored.size()).isEqualTo(2);
+        InvertedIndex.Result expected = original.search("機械学習", 0, 10);
+        InvertedIndex.Result actual = restored.search("機械学習", 0, 10);
+        assertThat(actual.getHits()).isEqualTo(expected.getHits());
+
+        // 読み込んだ索引も記事単位の削除ができること
+        restored.remove(10L);
+        assertThat(restored.search("機械学習", 0, 10).getTotal()).isEqualTo(1);
+    }
+
+    /**
+     * 【異常系】スナップショット形式でないファイルは IOException となることを確認する。
+     */
+    @Test
+    void read_ShouldRejectForeignFile() throws IOException {
+        Path file = dir.resolve("broken.idx");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> IndexSnapshotCodec.read(file, new InvertedIndex()))
+                .isInstanceOf(IOException.class);
+    }
+
+    /**
+     * 【異常系】途中で切れたスナップショットは IOException となり、読み込み先の索引は変更されないことを確認する。
+     */
+    @Test
+    void read_ShouldRejectTruncatedFile() throws IOException {
+        InvertedIndex original = new InvertedIndex();
+        original.put(10L, "機械学習入門", "機械学習の基礎");
+        Path file = dir.resolve("index.idx");
+        IndexSnapshotCodec.write(original, Instant.EPOCH, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        InvertedIndex target = new InvertedIndex();
+        target.put(1L, "既存", "既存の記事");
+
+        assertThatThrownBy(() -> IndexSnapshotCodec.read(file, target))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Corrupted");
+        assertThat(target.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    /**
+     * 【正常系】すべての語を含む記事のみが返り、出現頻度・タイトル一致の多い記事が上位になることを確認する。
+     */
+    @Test
+    void search_ShouldRankByBm25_WithAndSemantics() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "機械学習入門", "機械学習の基礎を解説します。");
+        index.put(2L, "Java の話", "機械学習は少しだけ触れます。");
+        index.put(3L, "学習計画", "毎日の学習について。");
+
+        InvertedIndex.Result result = index.search("機械学習", 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getHits()).extracting(InvertedIndex.ScoredDoc::getId).containsExactly(1L, 2L);
+    }
+
+    /**
+     * 【正常系】記事の置換・削除がポスティングに反映されることを確認する。
+     */
+    @Test
+    void putAndRemove_ShouldUpdateIncrementally() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Kotlin", "coroutine");
+        index.put(1L, "Java", "virtual threads");
+
+        assertThat(index.search("kotlin", 0, 10).getTotal()).isZero();
+        assertThat(index.search("java threads", 0, 10).getTotal()).isEqualTo(1);
+
+        index.remove(1L);
+
+        assertThat(index.search("java", 0, 10).getTotal()).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    /**
+     * 【正常系】CJK 1 文字のクエリは、その文字を含む bigram に一致することを確認する。
+     */
+    @Test
+    void search_ShouldExpandSingleCjkCharacter() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "日本語", "");
+        index.put(2L, "英語", "");
+
+        assertThat(index.search("本", 0, 10).getHits()).extracting(InvertedIndex.ScoredDoc::getId).containsExactly(1L);
+    }
+
+    /**
+     * 【正常系】searchAny はいずれかの語を含む文書を返し、一致する語が多い文書ほど上位になることを確認する。
+     */
+    @Test
+    void searchAny_ShouldMatchAnyTerm_RankingMoreMatchesHigher() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Kotlin", "coroutine");
+        index.put(2L, "Java", "virtual threads");
+        index.put(3L, "Java coroutine", "structured concurrency");
+
+        assertThat(index.search("java coroutine", 0, 10).getTotal()).isEqualTo(1);
+        assertThat(index.searchAny("java coroutine", 10)).extracting(InvertedIndex.ScoredDoc::getId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L)
+                .first().isEqualTo(3L);
+        assertThat(index.searchAny("java coroutine", 1)).hasSize(1);
+    }
+
+    /**
+     * 【正常系】offset / limit で結果を切り出せること、retainAll で指定外の記事が除かれることを確認する。
+     */
+    @Test
+    void searchPaging_AndRetainAll() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "spring", "");
+        }
+
+        assertThat(index.search("spring", 3, 10).getHits()).hasSize(2);
+        assertThat(index.retainAll(List.of(1L, 2L))).isEqualTo(3);
+        assertThat(index.search("spring", 0, 10).getTotal()).isEqualTo(2);
+    }
+}
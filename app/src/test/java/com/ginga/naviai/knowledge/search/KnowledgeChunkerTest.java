@@ -0,0 +1,51 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KnowledgeChunkerTest {
+
+    /**
+     * 【正常系】長い本文は文の区切りで終わる重なりのあるチャンクに分割され、本文全体を覆うことを確認する。
+     */
+    @Test
+    void split_ShouldProduceOverlappingChunksEndingAtSentenceBoundaries() {
+        String body = "機械学習は大量のデータから規則を学ぶ手法です。".repeat(20);
+        KnowledgeChunker chunker = new KnowledgeChunker(100, 20, 64);
+
+        List<KnowledgeChunker.Chunk> chunks = chunker.split(body);
+
+        assertThat(chunks.size()).isGreaterThan(1);
+        assertThat(chunks.get(0).getStart()).isZero();
+        assertThat(chunks.get(chunks.size() - 1).getEnd()).isEqualTo(body.length());
+        for (int i = 0; i < chunks.size(); i++) {
+            KnowledgeChunker.Chunk chunk = chunks.get(i);
+            assertThat(chunk.getOrdinal()).isEqualTo(i);
+            assertThat(chunk.getEnd() - chunk.getStart()).isLessThanOrEqualTo(100);
+            if (i + 1 < chunks.size()) {
+                assertThat(body.charAt(chunk.getEnd() - 1)).isEqualTo('。');
+                // 次のチャンクはこのチャンクの末尾と重なる
+                assertThat(chunks.get(i + 1).getStart()).isLessThan(chunk.getEnd());
+            }
+        }
+    }
+
+    /**
+     * 【正常系】短い本文・空の本文は 1 チャンクとなり、キーから記事IDとチャンク番号を復元できることを確認する。
+     */
+    @Test
+    void split_ShouldReturnSingleChunk_ForShortBody_AndKeysRoundTrip() {
+        KnowledgeChunker chunker = new KnowledgeChunker(100, 20, 64);
+
+        assertThat(chunker.split("短い本文")).containsExactly(new KnowledgeChunker.Chunk(0, 0, 4));
+        assertThat(chunker.split(null)).containsExactly(new KnowledgeChunker.Chunk(0, 0, 0));
+        assertThat(KnowledgeChunker.text("タイトル", null, new KnowledgeChunker.Chunk(0, 0, 0))).isEqualTo("タイトル\n");
+
+        long key = KnowledgeChunker.key(123_456_789L, 42);
+        assertThat(KnowledgeChunker.knowledgeIdOf(key)).isEqualTo(123_456_789L);
+        assertThat(KnowledgeChunker.ordinalOf(key)).isEqualTo(42);
+    }
+}
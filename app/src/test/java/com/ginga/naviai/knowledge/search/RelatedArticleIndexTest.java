@@ -0,0 +1,113 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RelatedArticleIndexTest {
+
+    /**
+     * 【正常系】タグの Jaccard 係数と共起いいねの Ochiai 係数の重み付き和で、関連度の高い順に返すことを確認する。
+     */
+    @Test
+    void related_ShouldCombineTagJaccardAndCoLikes() {
+        RelatedArticleIndex index = new RelatedArticleIndex(10, 0.5, 0.5, 1000);
+        index.putArticle(1L, Set.of("Java", "Spring"));
+        index.putArticle(2L, Set.of("Java", "Spring"));
+        index.putArticle(3L, Set.of("Java", "AI"));
+        index.putArticle(4L, Set.of("Go"));
+        index.putArticle(5L, Set.of("Rust"));
+        index.setLikers(1L, List.of(100L, 101L));
+        index.setLikers(4L, List.of(100L, 101L));
+        index.computeAll();
+
+        List<RelatedArticleIndex.Neighbor> related = index.related(1L, 10);
+
+        // 2: タグ一致 (0.5 * 1.0)、4: いいね一致 (0.5 * 1.0)、3: タグ 1/3 一致 (0.5 * 1/3)。5 は関連なし
+        assertThat(related).extracting(RelatedArticleIndex.Neighbor::getId).containsExactly(2L, 4L, 3L);
+        assertThat(related.get(2).getScore()).isCloseTo(0.5 / 3, within(1e-9));
+        assertThat(index.related(5L, 10)).isEmpty();
+        assertThat(index.related(1L, 1)).extracting(RelatedArticleIndex.Neighbor::getId).containsExactly(2L);
+    }
+
+    /**
+     * 【正常系】記事単位の差分更新を繰り返した結果が、同じデータから全件計算した結果と一致することを確認する。
+     */
+    @Test
+    void refresh_ShouldMatchFullRecompute() {
+        Random random = new Random(42);
+        List<String> tagPool = List.of("a", "b", "c", "d", "e", "f");
+        Map<Long, Set<String>> tags = new HashMap<>();
+        Map<Long, Set<Long>> likers = new HashMap<>();
+        for (long id = 1; id <= 40; id++) {
+            tags.put(id, randomTags(random, tagPool));
+            likers.put(id, randomLikers(random));
+        }
+        RelatedArticleIndex incremental = build(tags, likers);
+
+        for (int step = 0; step < 200; step++) {
+            long id = 1 + random.nextInt(45);
+            int op = random.nextInt(3);
+            if (op == 0 && tags.containsKey(id)) {
+                tags.remove(id);
+                likers.remove(id);
+                incremental.removeArticle(id);
+            } else if (op == 1) {
+                tags.put(id, randomTags(random, tagPool));
+                likers.putIfAbsent(id, new HashSet<>());
+                incremental.putArticle(id, tags.get(id));
+                incremental.setLikers(id, likers.get(id));
+            } else if (tags.containsKey(id)) {
+                likers.put(id, randomLikers(random));
+                incremental.setLikers(id, likers.get(id));
+            }
+            incremental.refresh(id);
+        }
+
+        RelatedArticleIndex full = build(tags, likers);
+        for (long id = 1; id <= 45; id++) {
+            assertThat(ids(incremental.related(id, 5))).as("article %d", id).isEqualTo(ids(full.related(id, 5)));
+        }
+    }
+
+    private static RelatedArticleIndex build(Map<Long, Set<String>> tags, Map<Long, Set<Long>> likers) {
+        RelatedArticleIndex index = new RelatedArticleIndex(5, 0.6, 0.4, 1000);
+        tags.forEach(index::putArticle);
+        likers.forEach((id, users) -> users.forEach(user -> index.addLike(id, user)));
+        index.computeAll();
+        return index;
+    }
+
+    private static Set<String> randomTags(Random random, List<String> pool) {
+        Set<String> tags = new HashSet<>();
+        int n = random.nextInt(3);
+        for (int i = 0; i < n; i++) {
+            tags.add(pool.get(random.nextInt(pool.size())));
+        }
+        return tags;
+    }
+
+    private static Set<Long> randomLikers(Random random) {
+        Set<Long> users = new HashSet<>();
+        int n = random.nextInt(4);
+        for (int i = 0; i < n; i++) {
+            users.add(100L + random.nextInt(10));
+        }
+        return users;
+    }
+
+    private static List<Long> ids(List<RelatedArticleIndex.Neighbor> neighbors) {
+        List<Long> ids = new ArrayList<>(neighbors.size());
+        neighbors.forEach(n -> ids.add(n.getId()));
+        return ids;
+    }
+}
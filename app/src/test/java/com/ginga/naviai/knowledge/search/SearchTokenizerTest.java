@@ -0,0 +1,48 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    /**
+     * 【正常系】日本語は bigram、英数字は単語単位に分割され、オフセットが原文と一致することを確認する。
+     */
+    @Test
+    void tokenize_ShouldSplitCjkIntoBigrams_AndLatinIntoWords() {
+        String text = "Spring Bootで機械学習";
+
+        List<SearchTokenizer.Token> tokens = SearchTokenizer.tokenize(text);
+
+        assertThat(tokens).extracting(SearchTokenizer.Token::getTerm)
+                .containsExactly("spring", "boot", "で機", "機械", "械学", "学習");
+        SearchTokenizer.Token last = tokens.get(tokens.size() - 1);
+        assertThat(text.substring(last.getStart(), last.getEnd())).isEqualTo("学習");
+    }
+
+    /**
+     * 【正常系】全角英数字は半角・小文字に正規化され、長さ（オフセット）は変わらないことを確認する。
+     */
+    @Test
+    void tokenize_ShouldNormalizeFullWidthAlphanumerics() {
+        List<SearchTokenizer.Token> tokens = SearchTokenizer.tokenize("ＪＡＶＡ１７");
+
+        assertThat(tokens).hasSize(1);
+        assertThat(tokens.get(0).getTerm()).isEqualTo("java17");
+        assertThat(tokens.get(0).getEnd()).isEqualTo(6);
+    }
+
+    /**
+     * 【正常系】孤立した CJK 1 文字は unigram、カタカナの長音符は語の一部として扱われることを確認する。
+     */
+    @Test
+    void tokenize_ShouldHandleSingleCharAndProlongedSoundMark() {
+        assertThat(SearchTokenizer.tokenize("A 本 B")).extracting(SearchTokenizer.Token::getTerm)
+                .containsExactly("a", "本", "b");
+        assertThat(SearchTokenizer.tokenize("サーバー")).extracting(SearchTokenizer.Token::getTerm)
+                .containsExactly("サー", "ーバ", "バー");
+    }
+}
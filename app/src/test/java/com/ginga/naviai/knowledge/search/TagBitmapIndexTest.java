@@ -0,0 +1,105 @@
+package com.ginga.naviai.knowledge.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TagBitmapIndexTest {
+
+    private TagBitmapIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new TagBitmapIndex();
+        index.put(1L, "published", false, Set.of("Java", "Spring"));
+        index.put(2L, "published", false, Set.of("Java"));
+        index.put(3L, "published", false, Set.of("Spring", "AI"));
+        index.put(4L, "draft", false, Set.of("Java", "Spring"));
+        index.put(5L, "published", true, Set.of("Java", "Spring"));
+    }
+
+    /**
+     * 【正常系】AND はすべてのタグを含む公開中・未削除の記事のみを返すことを確認する。
+     */
+    @Test
+    void filter_And_ShouldIntersectWithStatusAndDeleted() {
+        TagBitmapIndex.Result result = index.filter(List.of("Java", "Spring"), true, List.of(), "published", 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getIds()).containsExactly(1L);
+    }
+
+    /**
+     * 【正常系】OR はいずれかのタグを含む記事を新しい順（ID 降順）に返すことを確認する。
+     */
+    @Test
+    void filter_Or_ShouldReturnUnionInDescendingOrder() {
+        TagBitmapIndex.Result result = index.filter(List.of("AI", "Java", "unknown"), false, List.of(), "published", 0, 10);
+
+        assertThat(result.getIds()).containsExactly(3L, 2L, 1L);
+    }
+
+    /**
+     * 【正常系】除外タグを含む記事が NOT で取り除かれ、タグ条件なしでも使えることを確認する。
+     */
+    @Test
+    void filter_Exclude_ShouldSubtract() {
+        assertThat(index.filter(List.of("Java"), true, List.of("Spring"), "published", 0, 10).getIds())
+                .containsExactly(2L);
+        assertThat(index.filter(List.of(), true, List.of("AI"), "published", 0, 10).getIds())
+                .containsExactly(2L, 1L);
+    }
+
+    /**
+     * 【正常系】offset / limit で降順の範囲を切り出し、総件数は全件となることを確認する。
+     */
+    @Test
+    void filter_ShouldPage() {
+        TagBitmapIndex.Result result = index.filter(List.of(), true, List.of(), "published", 1, 1);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getIds()).containsExactly(2L);
+        assertThat(index.filter(List.of(), true, List.of(), "published", 3, 10).getIds()).isEmpty();
+    }
+
+    /**
+     * 【異常系】AND で未知のタグを含む場合は該当なしとなることを確認する。
+     */
+    @Test
+    void filter_And_WithUnknownTag_ShouldBeEmpty() {
+        assertThat(index.filter(List.of("Java", "unknown"), true, List.of(), "published", 0, 10).getTotal()).isZero();
+    }
+
+    /**
+     * 【正常系】put は以前のタグ・状態を置き換え、remove で完全に取り除かれることを確認する。
+     */
+    @Test
+    void putAndRemove_ShouldReplacePreviousState() {
+        index.put(1L, "published", false, Set.of("AI"));
+        assertThat(index.filter(List.of("Java"), true, List.of(), "published", 0, 10).getIds()).containsExactly(2L);
+        assertThat(index.filter(List.of("AI"), true, List.of(), "published", 0, 10).getIds()).containsExactly(3L, 1L);
+
+        index.remove(3L);
+        assertThat(index.filter(List.of("AI"), true, List.of(), "published", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    /**
+     * 【正常系】符号付き int の範囲を超える ID も正しい順序で扱えることを確認する。
+     */
+    @Test
+    void put_WithIdAboveIntRange_ShouldKeepOrder() {
+        long large = 3_000_000_000L;
+        index.put(large, "published", false, Set.of("Java"));
+
+        assertThat(index.filter(List.of("Java"), true, List.of(), "published", 0, 2).getIds())
+                .containsExactly(large, 2L);
+        assertThatThrownBy(() -> index.put(1L << 32, "published", false, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
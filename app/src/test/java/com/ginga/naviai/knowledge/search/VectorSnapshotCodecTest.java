@@ -0,0 +1,71 @@
+package com.ginga.naviai.knowledge.search;
+
+import com.ginga.naviai.knowledge.embedding.Embedder;
+import com.ginga.naviai.knowledge.embedding.HashedTfIdfEmbedder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VectorSnapshotCodecTest {
+
+    private static final List<String> TEXTS = List.of(
+            "機械学習入門\n機械学習の基礎を解説します",
+            "Spring Boot\nREST API の作り方",
+            "PostgreSQL\nインデックスとクエリの最適化",
+            "深層学習\nニューラルネットワークの学習");
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 【正常系】書き出したスナップショットを読み込むと、同じ埋め込み・検索結果・watermark が得られることを確認する。
+     */
+    @Test
+    void writeAndRead_ShouldRoundTrip() throws IOException {
+        Embedder embedder = new HashedTfIdfEmbedder(64).fit(TEXTS);
+        HnswIndex original = new HnswIndex(64, 4, 20, 1L);
+        for (int i = 0; i < TEXTS.size(); i++) {
+            original.add(i, embedder.embed(TEXTS.get(i)));
+        }
+        original.remove(3L);
+        Instant watermark = Instant.parse("2026-02-10T12:00:00.123456Z");
+        Path file = dir.resolve("vector.idx");
+
+        VectorSnapshotCodec.write(original, embedder, watermark, file);
+        VectorSnapshotCodec.Snapshot snapshot = VectorSnapshotCodec.read(file, new HashedTfIdfEmbedder(64));
+
+        assertThat(snapshot.getWatermark()).isEqualTo(watermark);
+        assertThat(snapshot.getEmbedder().embed("機械学習")).isEqualTo(embedder.embed("機械学習"));
+        HnswIndex restored = snapshot.getIndex();
+        assertThat(restored.size()).isEqualTo(3);
+        assertThat(restored.deletedCount()).isEqualTo(1);
+        float[] query = embedder.embed("機械学習");
+        assertThat(restored.search(query, 3, 10)).isEqualTo(original.search(query, 3, 10));
+
+        // 読み込んだ索引にも追加できること
+        restored.add(9L, embedder.embed("機械学習の応用"));
+        assertThat(restored.contains(9L)).isTrue();
+    }
+
+    /**
+     * 【異常系】別の埋め込みモデル（次元数違い）で作ったスナップショットは IOException となることを確認する。
+     */
+    @Test
+    void read_ShouldRejectSnapshotOfAnotherModel() throws IOException {
+        Embedder embedder = new HashedTfIdfEmbedder(64);
+        HnswIndex index = new HnswIndex(64, 4, 20, 1L);
+        index.add(1L, embedder.embed(TEXTS.get(0)));
+        Path file = dir.resolve("vector.idx");
+        VectorSnapshotCodec.write(index, embedder, Instant.EPOCH, file);
+
+        assertThatThrownBy(() -> VectorSnapshotCodec.read(file, new HashedTfIdfEmbedder(128)))
+                .isInstanceOf(IOException.class);
+    }
+}
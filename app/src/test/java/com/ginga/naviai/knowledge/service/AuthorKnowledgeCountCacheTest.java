@@ -0,0 +1,78 @@
+package com.ginga.naviai.knowledge.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthorKnowledgeCountCacheTest {
+
+    private AuthorKnowledgeCountCache cache;
+    private Clock clock;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        cache = new AuthorKnowledgeCountCache();
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        ReflectionTestUtils.setField(cache, "clock", clock);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    }
+
+    /**
+     * 【正常系】保持期限内はキャッシュを返し、期限を過ぎると読み直すことを確認する。
+     */
+    @Test
+    void getCount_ShouldReload_AfterTtl() {
+        assertThat(cache.getCount(1L, () -> load(5))).isEqualTo(5);
+        assertThat(cache.getCount(1L, () -> load(6))).isEqualTo(5);
+
+        when(clock.millis()).thenReturn(60_000L);
+
+        assertThat(cache.getCount(1L, () -> load(7))).isEqualTo(7);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    /**
+     * 【正常系】読み込み中に無効化された件数は保持しないことを確認する。
+     */
+    @Test
+    void getCount_ShouldDiscardLoad_WhenInvalidatedDuringLoad() {
+        assertThat(cache.getCount(1L, () -> {
+            cache.invalidate(1L);
+            return load(5);
+        })).isEqualTo(5);
+
+        assertThat(cache.cachedCount()).isZero();
+        assertThat(cache.getCount(1L, () -> load(6))).isEqualTo(6);
+    }
+
+    /**
+     * 【正常系】上限に達した場合は期限切れの件数を取り除き、空きがなければキャッシュしないことを確認する。
+     */
+    @Test
+    void getCount_ShouldBoundEntries() {
+        cache.getCount(1L, () -> load(1));
+        cache.getCount(2L, () -> load(2));
+        cache.getCount(3L, () -> load(3));
+        assertThat(cache.cachedCount()).isEqualTo(2);
+
+        when(clock.millis()).thenReturn(60_000L);
+        cache.getCount(3L, () -> load(3));
+
+        assertThat(cache.cachedCount()).isEqualTo(1);
+    }
+
+    private long load(long value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.entity.User;
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.CommentRequest;
+import com.ginga.naviai.knowledge.dto.CommentResponse;
+import com.ginga.naviai.knowledge.dto.CursorPage;
+import com.ginga.naviai.knowledge.event.KnowledgeCommentChangedEvent;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CommentServiceImplTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private CommentServiceImpl service;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO users (id, username, display_name) VALUES (1, 'alice', 'Alice'), (2, 'bob', 'Bob')");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO knowledge (id, author_id, status) VALUES (10, 1, 'published'), (20, 1, 'draft')");
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(userRepository.findIdByUsername("bob")).thenReturn(Optional.of(2L));
+        when(userRepository.findById(anyLong())).thenAnswer(inv -> {
+            User user = new User();
+            user.setDisplayName(inv.getArgument(0).equals(1L) ? "Alice" : "Bob");
+            return Optional.of(user);
+        });
+        service = new CommentServiceImpl(jdbcTemplate, userRepository, events::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】返信を含むスレッドが 1 クエリで読み込まれ、投稿順のツリーとして組み立てられることを確認する。
+     */
+    @Test
+    void getThread_ShouldAssembleNestedReplies() {
+        CommentResponse first = service.addComment(10L, "bob", request("first", null));
+        CommentResponse second = service.addComment(10L, "alice", request("second", null));
+        CommentResponse reply = service.addComment(10L, "alice", request("reply", first.getId()));
+        service.addComment(10L, "bob", request("nested", reply.getId()));
+        service.addComment(10L, "bob", request("reply 2", first.getId()));
+
+        CursorPage<CommentResponse> page = service.getThread(10L, "bob", null, 20);
+
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getContent()).extracting(CommentResponse::getBody).containsExactly("first", "second");
+        CommentResponse top = page.getContent().get(0);
+        assertThat(top.getAuthorName()).isEqualTo("Bob");
+        assertThat(top.getReplies()).extracting(CommentResponse::getBody).containsExactly("reply", "reply 2");
+        assertThat(top.getReplies().get(0).getReplies()).extracting(CommentResponse::getBody).containsExactly("nested");
+        assertThat(page.getContent().get(1).getId()).isEqualTo(second.getId());
+        assertThat(page.getContent().get(1).getReplies()).isEmpty();
+    }
+
+    /**
+     * 【正常系】トップレベルのコメント単位でカーソルページングされ、各ページに配下の返信が含まれることを確認する。
+     */
+    @Test
+    void getThread_ShouldPaginateTopLevelComments() {
+        for (int i = 1; i <= 3; i++) {
+            CommentResponse top = service.addComment(10L, "bob", request("top" + i, null));
+            service.addComment(10L, "alice", request("reply" + i, top.getId()));
+        }
+
+        CursorPage<CommentResponse> page1 = service.getThread(10L, "bob", null, 2);
+        assertThat(page1.getContent()).extracting(CommentResponse::getBody).containsExactly("top1", "top2");
+        assertThat(page1.getContent().get(1).getReplies()).extracting(CommentResponse::getBody).containsExactly("reply2");
+        assertThat(page1.getNextCursor()).isNotNull();
+
+        CursorPage<CommentResponse> page2 = service.getThread(10L, "bob", page1.getNextCursor(), 2);
+        assertThat(page2.getContent()).extracting(CommentResponse::getBody).containsExactly("top3");
+        assertThat(page2.getContent().get(0).getReplies()).extracting(CommentResponse::getBody).containsExactly("reply3");
+        assertThat(page2.getNextCursor()).isNull();
+    }
+
+    /**
+     * 【正常系】コメント数は投稿・削除で増減し、削除済みのコメントは返信を残したまま本文を伏せて返すことを確認する。
+     */
+    @Test
+    void addAndDelete_ShouldMaintainCommentCount_AndPublishEvents() {
+        CommentResponse top = service.addComment(10L, "bob", request("top", null));
+        service.addComment(10L, "alice", request("reply", top.getId()));
+        assertThat(commentCount(10L)).isEqualTo(2);
+
+        service.deleteComment(10L, top.getId(), "bob");
+        // 削除済みのコメントを再度削除しても件数は変わらない
+        service.deleteComment(10L, top.getId(), "bob");
+        assertThat(commentCount(10L)).isEqualTo(1);
+
+        CommentResponse deleted = service.getThread(10L, "bob", null, 20).getContent().get(0);
+        assertThat(deleted.isDeleted()).isTrue();
+        assertThat(deleted.getBody()).isNull();
+        assertThat(deleted.getReplies()).extracting(CommentResponse::getBody).containsExactly("reply");
+
+        assertThat(events).containsExactly(
+                new KnowledgeCommentChangedEvent(10L, 1L, top.getId(), 1),
+                new KnowledgeCommentChangedEvent(10L, 1L, top.getId() + 1, 1),
+                new KnowledgeCommentChangedEvent(10L, 1L, top.getId(), -1));
+    }
+
+    /**
+     * 【異常系】他人のコメントは削除できないことを確認する。
+     */
+    @Test
+    void deleteComment_ShouldRejectOtherUsers() {
+        CommentResponse top = service.addComment(10L, "bob", request("top", null));
+
+        assertThatThrownBy(() -> service.deleteComment(10L, top.getId(), "alice")).isInstanceOf(AccessDeniedException.class);
+        assertThat(commentCount(10L)).isEqualTo(1);
+    }
+
+    /**
+     * 【異常系】別の記事のコメントへの返信は不正なリクエストとすることを確認する。
+     */
+    @Test
+    void addComment_ShouldRejectParentFromOtherArticle() {
+        CommentResponse other = service.addComment(20L, "alice", request("draft comment", null));
+
+        assertThatThrownBy(() -> service.addComment(10L, "bob", request("reply", other.getId())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 【異常系】公開中でない記事のコメントは著者以外には 404 とすることを確認する。
+     */
+    @Test
+    void getThread_ShouldHideUnpublishedArticle_FromOthers() {
+        assertThatThrownBy(() -> service.getThread(20L, "bob", null, 20)).isInstanceOf(KnowledgeNotFoundException.class);
+        assertThat(service.getThread(20L, "alice", null, 20).getContent()).isEmpty();
+    }
+
+    private static CommentRequest request(String body, Long parentId) {
+        CommentRequest request = new CommentRequest();
+        request.setBody(body);
+        request.setParentId(parentId);
+        return request;
+    }
+
+    private long commentCount(long id) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT comment_count FROM knowledge WHERE id = ?", Long.class, id);
+    }
+}
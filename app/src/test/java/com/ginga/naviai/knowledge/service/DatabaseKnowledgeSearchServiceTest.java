@@ -0,0 +1,140 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseKnowledgeSearchServiceTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private DatabaseKnowledgeSearchService service;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        service = new DatabaseKnowledgeSearchService(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】空白区切りの検索語をすべて含む公開記事のみがヒットし、タイトル一致の記事が上位になることを確認する。
+     */
+    @Test
+    void search_ShouldMatchAllTerms_AndRankTitleMatchesFirst() {
+        insert(1L, "Spring入門", "本文に機械学習の話", "published", false);
+        insert(2L, "機械学習とSpring", "概要", "published", false);
+        insert(3L, "機械学習のみ", "Springは出てこない…と書いてある", "draft", false);
+        insert(4L, "Spring 機械学習", "削除済み", "published", true);
+        insert(5L, "機械学習", "関係なし", "published", false);
+
+        Page<SearchHitResponse> result = service.search("SPRING  機械学習", PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(SearchHitResponse::getId).containsExactly("2", "1");
+        assertThat(result.getContent().get(0).getScore()).isGreaterThan(result.getContent().get(1).getScore());
+        assertThat(result.getContent().get(0).getHighlights()).isNotEmpty();
+    }
+
+    /**
+     * 【正常系】ページングで件数上限とオフセットが適用され、総件数は全ヒット数となることを確認する。
+     */
+    @Test
+    void search_ShouldApplyPaging() {
+        for (long i = 1; i <= 5; i++) {
+            insert(i, "ナレッジ" + i, "共通キーワード", "published", false);
+        }
+
+        Page<SearchHitResponse> second = service.search("キーワード", PageRequest.of(1, 2));
+
+        assertThat(second.getTotalElements()).isEqualTo(5);
+        assertThat(second.getContent()).extracting(SearchHitResponse::getId).containsExactly("3", "2");
+    }
+
+    /**
+     * 【異常系】LIKE のワイルドカード文字はエスケープされ、文字どおりに一致判定されることを確認する。
+     */
+    @Test
+    void search_ShouldEscapeLikeWildcards() {
+        insert(1L, "達成率100%", "本文", "published", false);
+        insert(2L, "達成率1000", "本文", "published", false);
+
+        Page<SearchHitResponse> result = service.search("100%", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(SearchHitResponse::getId).containsExactly("1");
+    }
+
+    /**
+     * 【異常系】空白のみの検索語では DB を検索せず空の結果を返すことを確認する。
+     */
+    @Test
+    void search_WithBlankQuery_ShouldReturnEmpty() {
+        insert(1L, "タイトル", "本文", "published", false);
+
+        assertThat(service.search("  ", PageRequest.of(0, 10)).getTotalElements()).isZero();
+    }
+
+    /**
+     * 【正常系】PostgreSQL 用SQLは生成列 search_text の LIKE（pg_trgm インデックス対象）を検索語ごとに連結することを確認する。
+     */
+    @Test
+    void buildSearchSql_ForPostgres_ShouldUseIndexedColumn() {
+        String sql = DatabaseKnowledgeSearchService.buildSearchSql(DatabaseKnowledgeSearchService.Dialect.POSTGRESQL,
+                new boolean[]{true, true});
+
+        assertThat(sql).contains("k.search_text LIKE :p0").contains("k.search_text LIKE :p1")
+                .contains("ts_rank(k.search_vector").doesNotContain("LOWER(");
+        assertThat(DatabaseKnowledgeSearchService.buildCountSql(DatabaseKnowledgeSearchService.Dialect.POSTGRESQL,
+                new boolean[]{true}))
+                .startsWith("SELECT COUNT(*)").contains("k.search_text LIKE :p0");
+    }
+
+    /**
+     * 【正常系】トライグラムを持たない検索語は、インデックス全体の走査を避けるため strpos で照合することを確認する。
+     */
+    @Test
+    void buildSearchSql_ForPostgres_ShouldScanTermsWithoutTrigrams() {
+        String sql = DatabaseKnowledgeSearchService.buildSearchSql(DatabaseKnowledgeSearchService.Dialect.POSTGRESQL,
+                new boolean[]{true, false});
+
+        assertThat(sql).contains("k.search_text LIKE :p0").contains("strpos(k.search_text, :p1) > 0")
+                .doesNotContain("LIKE :p1");
+    }
+
+    /**
+     * 【正常系】3 文字以上連続する英数字を持つ語のみがトライグラムを持つと判定され、
+     * 日本語は LC_CTYPE が日本語に対応している場合のみ対象となることを確認する。
+     */
+    @Test
+    void hasTrigrams_ShouldDependOnWordLengthAndLocale() {
+        assertThat(DatabaseKnowledgeSearchService.hasTrigrams("spring", false)).isTrue();
+        assertThat(DatabaseKnowledgeSearchService.hasTrigrams("キーワード777", false)).isTrue();
+        assertThat(DatabaseKnowledgeSearchService.hasTrigrams("キーワード", false)).isFalse();
+        assertThat(DatabaseKnowledgeSearchService.hasTrigrams("キーワード", true)).isTrue();
+        // 2 文字以下の語は locale によらずトライグラムを持たない
+        assertThat(DatabaseKnowledgeSearchService.hasTrigrams("設計", true)).isFalse();
+        assertThat(DatabaseKnowledgeSearchService.hasTrigrams("a-b", true)).isFalse();
+    }
+
+    private void insert(long id, String title, String body, String status, boolean deleted) {
+        jdbcTemplate.update("INSERT INTO knowledge (id, title, excerpt, body, status, is_deleted) VALUES (:id, :title, NULL, :body, :status, :deleted)",
+                new MapSqlParameterSource().addValue("id", id).addValue("title", title).addValue("body", body)
+                        .addValue("status", status).addValue("deleted", deleted));
+    }
+}
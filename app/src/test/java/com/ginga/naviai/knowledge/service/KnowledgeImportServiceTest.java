@@ -0,0 +1,143 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginga.naviai.knowledge.dto.ImportReport;
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KnowledgeImportServiceTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private KnowledgeImportService service;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO users (username) VALUES ('alice'), ('bob')");
+
+        service = new KnowledgeImportService(jdbcTemplate, new DataSourceTransactionManager(db),
+                new KnowledgeTagWriter(jdbcTemplate), events::add,
+                new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】有効な行はバッチ単位で取り込まれ、記事・タグの関連が作成されてバッチごとにイベントが 1 回発行されることを確認する。
+     */
+    @Test
+    void importNdjson_ShouldWriteInBatches_WithTagLinks() throws IOException {
+        String ndjson = String.join("\n",
+                "{\"author\":\"alice\",\"title\":\"A1\",\"tags\":[\"Java\",\" Spring \"],\"created_at\":\"2026-01-05T10:00:00Z\"}",
+                "{\"author\":\"alice\",\"title\":\"A2\",\"status\":\"draft\",\"tags\":[\"Java\"]}",
+                "",
+                "{\"author\":\"bob\",\"title\":\"B1\",\"status\":\"pending\"}");
+
+        ImportReport report = service.importNdjson(stream(ndjson), 2);
+
+        assertThat(report.getProcessed()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getBatches()).isEqualTo(2);
+        assertThat(report.getErrors()).isEmpty();
+
+        Map<String, Object> a1 = jdbcTemplate.getJdbcTemplate().queryForMap(
+                "SELECT id, status, published_at, created_at FROM knowledge WHERE title = 'A1'");
+        assertThat(a1.get("STATUS")).isEqualTo("published");
+        // 公開日時が省略された公開記事は作成日時を公開日時とする
+        assertThat(a1.get("PUBLISHED_AT")).isEqualTo(a1.get("CREATED_AT"));
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT t.name FROM knowledge_tag kt JOIN tag t ON t.id = kt.tag_id WHERE kt.knowledge_id = ? ORDER BY t.name",
+                String.class, a1.get("ID"))).containsExactly("Java", "Spring");
+        assertThat(count("SELECT COUNT(*) FROM tag")).isEqualTo(2);
+        assertThat(count("SELECT COUNT(*) FROM knowledge_tag")).isEqualTo(3);
+
+        assertThat(events).hasSize(2);
+        KnowledgeBulkImportedEvent first = (KnowledgeBulkImportedEvent) events.get(0);
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(first.getItems().get(0).getKnowledgeId()).isEqualTo(((Number) a1.get("ID")).longValue());
+        assertThat(first.getItems().get(0).getState().getTags()).containsExactlyInAnyOrder("Java", "Spring");
+        assertThat(first.getItems().get(1).getState().getStatus()).isEqualTo("draft");
+    }
+
+    /**
+     * 【異常系】不正な JSON・検証エラー・存在しない著者の行は取り込まずに行番号付きで報告し、他の行は取り込むことを確認する。
+     */
+    @Test
+    void importNdjson_ShouldReportInvalidLines_AndContinue() throws IOException {
+        String ndjson = String.join("\n",
+                "{\"author\":\"alice\",\"title\":\"ok1\"}",
+                "{not json",
+                "{\"author\":\"alice\",\"title\":\"\"}",
+                "{\"author\":\"carol\",\"title\":\"unknown author\"}",
+                "{\"author\":\"bob\",\"title\":\"ok2\",\"status\":\"archived\"}",
+                "{\"author\":\"bob\",\"title\":\"ok3\"}");
+
+        ImportReport report = service.importNdjson(stream(ndjson), 2);
+
+        assertThat(report.getProcessed()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(ImportReport.LineError::getLine).containsExactlyInAnyOrder(2L, 3L, 4L, 5L);
+        assertThat(report.getErrors()).filteredOn(e -> e.getLine() == 4L)
+                .extracting(ImportReport.LineError::getMessage).containsExactly("Unknown author: carol");
+        assertThat(report.isErrorsTruncated()).isFalse();
+        assertThat(count("SELECT COUNT(*) FROM knowledge")).isEqualTo(2);
+    }
+
+    /**
+     * 【異常系】書き込みに失敗したバッチはロールバックしてその行を失敗として報告し、後続のバッチは取り込むことを確認する。
+     */
+    @Test
+    void importNdjson_ShouldRollBackFailedBatch_AndContinue() throws IOException {
+        // excerpt は検証を通るが、DB の列長を超えるよう列を縮めて書き込み時に失敗させる
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE knowledge ALTER COLUMN excerpt VARCHAR(5)");
+        String ndjson = String.join("\n",
+                "{\"author\":\"alice\",\"title\":\"t1\",\"tags\":[\"Java\"]}",
+                "{\"author\":\"alice\",\"title\":\"t2\",\"excerpt\":\"too long excerpt\"}",
+                "{\"author\":\"bob\",\"title\":\"t3\"}");
+
+        ImportReport report = service.importNdjson(stream(ndjson), 2);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getBatches()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportReport.LineError::getLine).containsExactly(1L, 2L);
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForList("SELECT title FROM knowledge", String.class)).containsExactly("t3");
+        assertThat(count("SELECT COUNT(*) FROM knowledge_tag")).isZero();
+        assertThat(events).hasSize(1);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(sql, Long.class);
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,118 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.entity.User;
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.KnowledgeResponse;
+import com.ginga.naviai.knowledge.entity.Knowledge;
+import com.ginga.naviai.knowledge.entity.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 記事一覧のタグ読み込みで発行される SQL 本数がページサイズに依存しないことを確認する。
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({KnowledgeServiceImpl.class, AuthorKnowledgeCountCache.class, TagFilterService.class, KnowledgeTagLoader.class, KnowledgeTagWriter.class, ViewCountBuffer.class, RelatedKnowledgeService.class})
+class KnowledgeListTagLoadingTest {
+
+    private static final int ARTICLES = 30;
+
+    @Autowired
+    private KnowledgeService knowledgeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long authorId;
+
+    @BeforeEach
+    void setup() {
+        User author = new User();
+        author.setUsername("tagger");
+        author.setEmail("tagger@example.com");
+        author.setPasswordHash("x");
+        userRepository.save(author);
+        authorId = author.getId();
+
+        Tag java = Tag.builder().name("Java").createdAt(Instant.now()).build();
+        Tag spring = Tag.builder().name("Spring").createdAt(Instant.now()).build();
+        entityManager.persist(java);
+        entityManager.persist(spring);
+
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < ARTICLES; i++) {
+            Knowledge k = Knowledge.builder()
+                    .author(author)
+                    .title("記事 " + i)
+                    .status("published")
+                    .createdAt(base.plusSeconds(i))
+                    .updatedAt(base)
+                    .tags(i % 2 == 0 ? Set.of(java, spring) : Set.of(spring))
+                    .build();
+            entityManager.persist(k);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * 【正常系】ページサイズを変えても、一覧 1 本 + タグ 1 本の SQL のみでタグ付きの一覧が返ることを確認する。
+     */
+    @Test
+    void listSlice_ShouldUseConstantStatements_RegardlessOfPageSize() {
+        long small = countStatements(() -> knowledgeService.getKnowledgeSliceByAuthorId(authorId,
+                PageRequest.of(0, 5, Sort.by("createdAt").descending())));
+        long large = countStatements(() -> {
+            Slice<KnowledgeResponse> slice = knowledgeService.getKnowledgeSliceByAuthorId(authorId,
+                    PageRequest.of(0, ARTICLES, Sort.by("createdAt").descending()));
+            assertThat(slice.getContent()).hasSize(ARTICLES);
+            assertThat(slice.getContent().get(0).getTags()).containsExactly("Spring");
+            assertThat(slice.getContent().get(1).getTags()).containsExactly("Java", "Spring");
+            return slice;
+        });
+
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    /**
+     * 【正常系】キーセットページングでもページサイズに関わらず SQL 本数が一定であることを確認する。
+     */
+    @Test
+    void cursorPage_ShouldUseConstantStatements_RegardlessOfPageSize() {
+        long small = countStatements(() -> knowledgeService.getKnowledgeByAuthorId(authorId, null, 3));
+        long large = countStatements(() -> knowledgeService.getKnowledgeByAuthorId(authorId, null, 20));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long countStatements(Supplier<?> action) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,139 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.SearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KnowledgeSearchServiceImplTest {
+
+    private static final Instant UPDATED = Instant.parse("2026-02-10T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private KnowledgeRepository knowledgeRepository;
+    private SearchDocument doc1;
+    private SearchDocument doc2;
+
+    @BeforeEach
+    void setup() {
+        knowledgeRepository = mock(KnowledgeRepository.class);
+        doc1 = new SearchDocument(1L, "機械学習入門", "この記事では機械学習の基礎を解説します。", "published", false, UPDATED);
+        doc2 = new SearchDocument(2L, "Spring Boot", "REST API の作り方", "published", false, UPDATED);
+        when(knowledgeRepository.findVisibleSearchDocumentsAfter(anyLong(), any())).thenReturn(List.of(doc1, doc2));
+        when(knowledgeRepository.findSearchDocumentsByIdIn(anyCollection())).thenAnswer(inv -> {
+            java.util.Collection<Long> ids = inv.getArgument(0);
+            return List.of(doc1, doc2).stream().filter(d -> ids.contains(d.getId())).toList();
+        });
+    }
+
+    /**
+     * 【正常系】スナップショットがない場合は全件から索引を作り、抜粋とハイライト位置付きで検索できることを確認する。
+     */
+    @Test
+    void search_ShouldReturnSnippetAndHighlights_AfterRebuild() {
+        KnowledgeSearchServiceImpl service = newService();
+        service.initialize();
+
+        Page<SearchHitResponse> page = service.search("機械学習", PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        SearchHitResponse hit = page.getContent().get(0);
+        assertThat(hit.getId()).isEqualTo("1");
+        assertThat(hit.getSnippet()).contains("機械学習の基礎");
+        assertThat(hit.getHighlights()).contains(new SearchHitResponse.Highlight("title", 0, 4));
+        SearchHitResponse.Highlight inSnippet = hit.getHighlights().stream()
+                .filter(h -> h.getField().equals("snippet")).findFirst().orElseThrow();
+        assertThat(hit.getSnippet().substring(inSnippet.getStart(), inSnippet.getEnd())).isEqualTo("機械学習");
+    }
+
+    /**
+     * 【正常系】スナップショットがある場合は全件再索引を行わず、watermark 以降の更新分のみ反映することを確認する。
+     */
+    @Test
+    void initialize_ShouldLoadSnapshot_InsteadOfRebuilding() throws Exception {
+        KnowledgeSearchServiceImpl first = newService();
+        first.initialize();
+        first.shutdown();
+        assertThat(Files.exists(dir.resolve("index.idx"))).isTrue();
+
+        KnowledgeRepository restartedRepo = mock(KnowledgeRepository.class);
+        SearchDocument unpublished = new SearchDocument(2L, "Spring Boot", "REST API の作り方", "draft", false, UPDATED.plusSeconds(60));
+        when(restartedRepo.findSearchDocumentsUpdatedSince(any())).thenReturn(List.of(unpublished));
+        when(restartedRepo.findVisibleIds()).thenReturn(List.of(1L));
+        KnowledgeSearchServiceImpl restarted = new KnowledgeSearchServiceImpl(restartedRepo);
+        ReflectionTestUtils.setField(restarted, "snapshotPath", dir.resolve("index.idx").toString());
+
+        restarted.initialize();
+
+        verify(restartedRepo, never()).findVisibleSearchDocumentsAfter(anyLong(), any());
+        assertThat(restarted.indexedCount()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】記事が非公開になった場合は索引から除かれることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldRemoveUnpublishedArticle() {
+        KnowledgeSearchServiceImpl service = newService();
+        service.initialize();
+
+        service.onKnowledgeChanged(new KnowledgeChangedEvent(2L, 9L,
+                new KnowledgeState("published", false, Set.of()),
+                new KnowledgeState("draft", false, Set.of())));
+
+        assertThat(service.search("spring", PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(service.indexedCount()).isEqualTo(1);
+    }
+
+    /**
+     * 【正常系】全件再索引の読み込み中に公開された記事が、差し替え後の索引にも含まれることを確認する。
+     */
+    @Test
+    void rebuild_ShouldReplayArticlesChangedDuringRebuild() {
+        KnowledgeSearchServiceImpl service = newService();
+        SearchDocument doc3 = new SearchDocument(3L, "Kotlin 入門", "コルーチンの基礎", "published", false, UPDATED.plusSeconds(60));
+        when(knowledgeRepository.findSearchDocumentsByIdIn(anyCollection())).thenReturn(List.of(doc3));
+        when(knowledgeRepository.findVisibleSearchDocumentsAfter(anyLong(), any())).thenAnswer(inv -> {
+            // 読み込み済みの内容には含まれない記事 3 の公開が届く
+            service.onKnowledgeChanged(new KnowledgeChangedEvent(3L, 9L,
+                    new KnowledgeState("draft", false, Set.of()),
+                    new KnowledgeState("published", false, Set.of())));
+            return List.of(doc1, doc2);
+        });
+
+        service.rebuild();
+
+        assertThat(service.indexedCount()).isEqualTo(3);
+        assertThat(service.search("kotlin", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    private KnowledgeSearchServiceImpl newService() {
+        KnowledgeSearchServiceImpl service = new KnowledgeSearchServiceImpl(knowledgeRepository);
+        ReflectionTestUtils.setField(service, "snapshotPath", dir.resolve("index.idx").toString());
+        return service;
+    }
+}
@@ -0,0 +1,361 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.entity.User;
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.KnowledgeDetailResponse;
+import com.ginga.naviai.knowledge.dto.KnowledgeListView;
+import com.ginga.naviai.knowledge.dto.KnowledgeResponse;
+import com.ginga.naviai.knowledge.entity.Knowledge;
+import com.ginga.naviai.knowledge.entity.Tag;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.exception.ReviewClaimConflictException;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.RelatedArticleIndex;
+import com.ginga.naviai.knowledge.search.TagBitmapIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.ginga.naviai.knowledge.dto.KnowledgeRequest;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KnowledgeServiceImplTest {
+
+    @Mock
+    private KnowledgeRepository knowledgeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private AuthorKnowledgeCountCache countCache = new AuthorKnowledgeCountCache();
+
+    @Mock
+    private TagFilterService tagFilterService;
+
+    @Mock
+    private RelatedKnowledgeService relatedKnowledgeService;
+
+    @Mock
+    private KnowledgeTagLoader tagLoader;
+
+    @Mock
+    private KnowledgeTagWriter tagWriter;
+
+    @Mock
+    private ViewCountBuffer viewCounts;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private KnowledgeServiceImpl knowledgeService;
+
+    /**
+     * 【正常系】一覧は本文を含まない射影から KnowledgeResponse に変換されることを確認する。
+     */
+    @Test
+    void getKnowledgeByAuthorId_ShouldMapListProjection() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        KnowledgeListView view = new KnowledgeListView(1L, "タイトル", "概要", "pending",
+                Instant.parse("2026-02-10T15:30:00Z"), "thumb.png", 0L, 0L);
+        when(knowledgeRepository.findListSliceByAuthorId(7L, pageable)).thenReturn(new SliceImpl<>(List.of(view), pageable, false));
+        when(knowledgeRepository.countByAuthorId(7L)).thenReturn(1L);
+
+        Page<KnowledgeResponse> page = knowledgeService.getKnowledgeByAuthorId(7L, pageable);
+
+        KnowledgeResponse r = page.getContent().get(0);
+        assertThat(r.getId()).isEqualTo("1");
+        assertThat(r.getStatus()).isEqualTo("レビュー中");
+        // Asia/Tokyo で日付が繰り上がる
+        assertThat(r.getDate()).isEqualTo("2026-02-11");
+        assertThat(r.getThumbnail()).isEqualTo("thumb.png");
+    }
+
+    /**
+     * 【正常系】総件数はキャッシュされ、2 回目以降は COUNT クエリを発行しないことを確認する。
+     * 記事の変更イベントで無効化されると再度 COUNT を行う。
+     */
+    @Test
+    void getKnowledgeByAuthorId_ShouldCacheTotal_UntilInvalidated() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(knowledgeRepository.findListSliceByAuthorId(7L, pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(knowledgeRepository.countByAuthorId(7L)).thenReturn(3L, 4L);
+
+        assertThat(knowledgeService.getKnowledgeByAuthorId(7L, pageable).getTotalElements()).isEqualTo(3);
+        assertThat(knowledgeService.getKnowledgeByAuthorId(7L, pageable).getTotalElements()).isEqualTo(3);
+        verify(knowledgeRepository, times(1)).countByAuthorId(7L);
+
+        countCache.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 7L, null, null));
+
+        assertThat(knowledgeService.getKnowledgeByAuthorId(7L, pageable).getTotalElements()).isEqualTo(4);
+        verify(knowledgeRepository, times(2)).countByAuthorId(7L);
+    }
+
+    /**
+     * 【正常系】include_total=false 相当の Slice 取得では COUNT クエリを発行しないことを確認する。
+     */
+    @Test
+    void getMyKnowledgeSliceByUsername_ShouldNotCount() {
+        PageRequest pageable = PageRequest.of(0, 1);
+        KnowledgeListView view = new KnowledgeListView(1L, "t", null, "draft", Instant.parse("2026-02-10T00:00:00Z"), null, 0L, 0L);
+        when(userRepository.findIdByUsername("author")).thenReturn(Optional.of(7L));
+        when(knowledgeRepository.findListSliceByAuthorId(7L, pageable)).thenReturn(new SliceImpl<>(List.of(view), pageable, true));
+
+        Slice<KnowledgeResponse> slice = knowledgeService.getMyKnowledgeSliceByUsername("author", pageable);
+
+        assertThat(slice.getContent()).hasSize(1);
+        assertThat(slice.hasNext()).isTrue();
+        verify(knowledgeRepository, never()).countByAuthorId(7L);
+    }
+
+    /**
+     * 【正常系】公開中の記事は著者以外でも本文・タグを含む詳細を取得できることを確認する。
+     */
+    @Test
+    void getKnowledgeDetail_ShouldReturnBody_WhenPublished() {
+        Knowledge k = knowledge("published", false);
+        when(knowledgeRepository.findDetailById(1L)).thenReturn(Optional.of(k));
+
+        KnowledgeDetailResponse detail = knowledgeService.getKnowledgeDetail(1L, "someone-else");
+
+        assertThat(detail.getBody()).isEqualTo("本文");
+        assertThat(detail.getAuthorDisplayName()).isEqualTo("著者");
+        assertThat(detail.getTags()).containsExactly("AI", "Java");
+    }
+
+    /**
+     * 【正常系】著者以外の閲覧のみを記録し、閲覧数は DB の値に未反映の閲覧数を加えて返すことを確認する。
+     */
+    @Test
+    void getKnowledgeDetail_ShouldRecordView_ExceptForOwner() {
+        Knowledge k = knowledge("published", false);
+        k.setViewCount(10);
+        when(knowledgeRepository.findDetailById(1L)).thenReturn(Optional.of(k));
+        when(viewCounts.pending(1L)).thenReturn(2L);
+
+        KnowledgeDetailResponse detail = knowledgeService.getKnowledgeDetail(1L, "someone-else");
+        knowledgeService.getKnowledgeDetail(1L, "author");
+
+        assertThat(detail.getViewCount()).isEqualTo(12);
+        verify(viewCounts, times(1)).record(1L);
+    }
+
+    /**
+     * 【正常系】下書きは著者本人であれば取得できることを確認する。
+     */
+    @Test
+    void getKnowledgeDetail_ShouldAllowOwner_WhenDraft() {
+        when(knowledgeRepository.findDetailById(1L)).thenReturn(Optional.of(knowledge("draft", false)));
+
+        assertThat(knowledgeService.getKnowledgeDetail(1L, "author").getStatus()).isEqualTo("下書き");
+    }
+
+    /**
+     * 【異常系】下書き・削除済み記事は著者以外には存在しないものとして扱うことを確認する。
+     */
+    @Test
+    void getKnowledgeDetail_ShouldHideNonVisible_FromOthers() {
+        when(knowledgeRepository.findDetailById(1L)).thenReturn(Optional.of(knowledge("draft", false)));
+        when(knowledgeRepository.findDetailById(2L)).thenReturn(Optional.of(knowledge("published", true)));
+        when(knowledgeRepository.findDetailById(3L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> knowledgeService.getKnowledgeDetail(1L, "someone-else"))
+                .isInstanceOf(KnowledgeNotFoundException.class);
+        assertThatThrownBy(() -> knowledgeService.getKnowledgeDetail(2L, "author"))
+                .isInstanceOf(KnowledgeNotFoundException.class);
+        assertThatThrownBy(() -> knowledgeService.getKnowledgeDetail(3L, "author"))
+                .isInstanceOf(KnowledgeNotFoundException.class);
+    }
+
+    /**
+     * 【正常系】作成時はタグ名を正規化して一括で付与し、変更前なしの変更イベントを発行することを確認する。
+     */
+    @Test
+    void createKnowledge_ShouldAttachNormalizedTags_AndPublishEvent() {
+        User author = new User();
+        author.setId(7L);
+        author.setUsername("author");
+        when(userRepository.findByUsername("author")).thenReturn(Optional.of(author));
+        when(knowledgeRepository.save(org.mockito.ArgumentMatchers.any(Knowledge.class))).thenAnswer(inv -> {
+            Knowledge k = inv.getArgument(0);
+            k.setId(10L);
+            return k;
+        });
+        KnowledgeRequest request = KnowledgeRequest.builder()
+                .title("新しい記事").body("本文").tags(List.of(" Spring", "AI", "Spring", " ")).build();
+
+        KnowledgeDetailResponse created = knowledgeService.createKnowledge("author", request);
+
+        assertThat(created.getId()).isEqualTo("10");
+        assertThat(created.getStatus()).isEqualTo("下書き");
+        assertThat(created.getTags()).containsExactly("AI", "Spring");
+        verify(tagWriter).replaceTags(10L, List.of("AI", "Spring"));
+        ArgumentCaptor<KnowledgeChangedEvent> event = ArgumentCaptor.forClass(KnowledgeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getBefore()).isNull();
+        assertThat(event.getValue().getAuthorId()).isEqualTo(7L);
+        assertThat(event.getValue().getAfter().getTags()).containsExactlyInAnyOrder("AI", "Spring");
+    }
+
+    /**
+     * 【正常系】tags を省略した更新ではタグを書き換えず、変更前後の状態をイベントで通知することを確認する。
+     */
+    @Test
+    void updateKnowledge_WithoutTags_ShouldKeepTags() {
+        when(knowledgeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(knowledge("draft", false)));
+        when(tagLoader.loadTagNames(List.of(1L))).thenReturn(java.util.Map.of(1L, List.of("AI", "Java")));
+
+        KnowledgeDetailResponse updated = knowledgeService.updateKnowledge(1L, "author",
+                KnowledgeRequest.builder().title("改題").status("pending").build());
+
+        assertThat(updated.getTitle()).isEqualTo("改題");
+        assertThat(updated.getTags()).containsExactly("AI", "Java");
+        verify(tagWriter, never()).replaceTags(org.mockito.ArgumentMatchers.anyLong(), org.mockito.ArgumentMatchers.any());
+        ArgumentCaptor<KnowledgeChangedEvent> event = ArgumentCaptor.forClass(KnowledgeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getBefore().getStatus()).isEqualTo("draft");
+        assertThat(event.getValue().getAfter().getStatus()).isEqualTo("pending");
+    }
+
+    /**
+     * 【異常系】著者以外の更新は拒否され、削除済み記事の更新は存在しないものとして扱うことを確認する。
+     */
+    @Test
+    void updateKnowledge_ShouldRejectOthers_AndDeleted() {
+        when(knowledgeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(knowledge("published", false)));
+        when(knowledgeRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(knowledge("published", true)));
+        KnowledgeRequest request = KnowledgeRequest.builder().title("t").build();
+
+        assertThatThrownBy(() -> knowledgeService.updateKnowledge(1L, "someone", request))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> knowledgeService.updateKnowledge(2L, "author", request))
+                .isInstanceOf(KnowledgeNotFoundException.class);
+        verify(eventPublisher, never()).publishEvent(org.mockito.ArgumentMatchers.any(Object.class));
+    }
+
+    /**
+     * 【異常系】レビュアーが担当中（期限内）の申請中記事は、著者でも更新できないことを確認する。
+     */
+    @Test
+    void updateKnowledge_ShouldReject_WhenUnderReview() {
+        Knowledge k = knowledge("pending", false);
+        k.setReviewClaimedBy(2L);
+        k.setReviewClaimExpiresAt(Instant.now().plusSeconds(60));
+        when(knowledgeRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(k));
+
+        assertThatThrownBy(() -> knowledgeService.updateKnowledge(1L, "author",
+                KnowledgeRequest.builder().title("改題").status("pending").build()))
+                .isInstanceOf(ReviewClaimConflictException.class);
+        assertThat(k.getTitle()).isNotEqualTo("改題");
+        verify(eventPublisher, never()).publishEvent(org.mockito.ArgumentMatchers.any(Object.class));
+    }
+
+    private static Knowledge knowledge(String status, boolean deleted) {
+        User author = new User();
+        author.setUsername("author");
+        author.setDisplayName("著者");
+        Tag java = new Tag();
+        java.setName("Java");
+        Tag ai = new Tag();
+        ai.setName("AI");
+        return Knowledge.builder()
+                .id(1L)
+                .author(author)
+                .title("タイトル")
+                .body("本文")
+                .status(status)
+                .deleted(deleted)
+                .createdAt(Instant.parse("2026-02-10T00:00:00Z"))
+                .tags(Set.of(java, ai))
+                .build();
+    }
+
+    /**
+     * 【正常系】タグ絞り込みはインデックスの並び順（新しい順）を保ち、反映前に非公開となった記事を読み飛ばすことを確認する。
+     */
+    @Test
+    void getKnowledgeByTags_ShouldKeepIndexOrder_AndSkipStaleIds() {
+        PageRequest pageable = PageRequest.of(0, 3);
+        when(tagFilterService.filter(Set.of("AI"), true, Set.of(), 0L, 3))
+                .thenReturn(new TagBitmapIndex.Result(5, List.of(9L, 7L, 4L)));
+        Instant at = Instant.parse("2026-02-01T00:00:00Z");
+        when(knowledgeRepository.findVisibleListViewsByIdIn(List.of(9L, 7L, 4L))).thenReturn(List.of(
+                new KnowledgeListView(4L, "古い記事", null, "published", at, null, 0L, 0L),
+                new KnowledgeListView(9L, "新しい記事", null, "published", at, null, 0L, 0L)));
+
+        Page<KnowledgeResponse> page = knowledgeService.getKnowledgeByTags(Set.of("AI"), true, Set.of(), pageable);
+
+        assertThat(page.getContent()).extracting(KnowledgeResponse::getId).containsExactly("9", "4");
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    /**
+     * 【正常系】該当なしの場合は DB へ問い合わせないことを確認する。
+     */
+    @Test
+    void getKnowledgeByTags_WithNoMatch_ShouldNotQuery() {
+        when(tagFilterService.filter(Set.of("none"), false, Set.of(), 0L, 20))
+                .thenReturn(new TagBitmapIndex.Result(0, List.of()));
+
+        Page<KnowledgeResponse> page = knowledgeService.getKnowledgeByTags(Set.of("none"), false, Set.of(), PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isZero();
+        verify(knowledgeRepository, never()).findVisibleListViewsByIdIn(org.mockito.ArgumentMatchers.any());
+    }
+
+    /**
+     * 【正常系】関連記事はインデックスの関連度順を保ち、反映前に非公開となった記事を読み飛ばすことを確認する。
+     */
+    @Test
+    void getRelatedKnowledge_ShouldKeepScoreOrder() {
+        when(knowledgeRepository.existsByIdAndStatusAndDeletedFalse(1L, "published")).thenReturn(true);
+        when(relatedKnowledgeService.related(1L, 3)).thenReturn(List.of(
+                new RelatedArticleIndex.Neighbor(7L, 0.9), new RelatedArticleIndex.Neighbor(3L, 0.5),
+                new RelatedArticleIndex.Neighbor(5L, 0.2)));
+        Instant at = Instant.parse("2026-02-01T00:00:00Z");
+        when(knowledgeRepository.findVisibleListViewsByIdIn(List.of(7L, 3L, 5L))).thenReturn(List.of(
+                new KnowledgeListView(3L, "B", null, "published", at, null, 0L, 0L),
+                new KnowledgeListView(7L, "A", null, "published", at, null, 0L, 0L)));
+
+        List<KnowledgeResponse> related = knowledgeService.getRelatedKnowledge(1L, 3);
+
+        assertThat(related).extracting(KnowledgeResponse::getId).containsExactly("7", "3");
+    }
+
+    /**
+     * 【異常系】公開中でない記事の関連記事は 404 とすることを確認する。
+     */
+    @Test
+    void getRelatedKnowledge_ShouldThrow_WhenNotVisible() {
+        when(knowledgeRepository.existsByIdAndStatusAndDeletedFalse(1L, "published")).thenReturn(false);
+
+        assertThatThrownBy(() -> knowledgeService.getRelatedKnowledge(1L, 3))
+                .isInstanceOf(KnowledgeNotFoundException.class);
+        verify(relatedKnowledgeService, never()).related(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,123 @@
+package com.ginga.naviai.knowledge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ginga.naviai.knowledge.repository.TagQueryConstants.DELETE_LINKS;
+import static com.ginga.naviai.knowledge.repository.TagQueryConstants.INSERT_LINK;
+import static com.ginga.naviai.knowledge.repository.TagQueryConstants.SELECT_TAG_IDS_BY_NAMES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class KnowledgeTagWriterTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private KnowledgeTagWriter writer;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = Mockito.spy(new NamedParameterJdbcTemplate(db));
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO tag (name, created_at) VALUES ('Java', CURRENT_TIMESTAMP)");
+        writer = new KnowledgeTagWriter(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】既存タグは取得し、未登録タグは作成して ID を返すことを確認する。2 回目以降はキャッシュから解決する。
+     */
+    @Test
+    void resolveTagIds_ShouldCreateMissing_AndCache() {
+        Map<String, Long> ids = writer.resolveTagIds(List.of("Java", "Spring", "AI"));
+
+        assertThat(ids.keySet()).containsExactly("Java", "Spring", "AI");
+        assertThat(ids.values()).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(count("SELECT COUNT(*) FROM tag")).isEqualTo(3);
+
+        clearInvocations(jdbcTemplate);
+        assertThat(writer.resolveTagIds(List.of("Spring", "Java"))).containsEntry("Java", ids.get("Java"));
+        verify(jdbcTemplate, never()).query(eq(SELECT_TAG_IDS_BY_NAMES), any(SqlParameterSource.class),
+                any(org.springframework.jdbc.core.RowCallbackHandler.class));
+    }
+
+    /**
+     * 【正常系】タグの置き換えは差分のみ追加・削除し、変更のない関連には触れないことを確認する。
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void replaceTags_ShouldApplyDiffOnly() {
+        writer.replaceTags(1L, List.of("Java", "Spring"));
+        Map<String, Long> ids = writer.resolveTagIds(List.of("Java", "Spring", "AI"));
+        clearInvocations(jdbcTemplate);
+
+        Set<String> before = writer.replaceTags(1L, List.of("Java", "AI"));
+
+        assertThat(before).containsExactlyInAnyOrder("Java", "Spring");
+        ArgumentCaptor<MapSqlParameterSource> deleted = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).update(eq(DELETE_LINKS), deleted.capture());
+        assertThat((List<Long>) deleted.getValue().getValue("tagIds")).containsExactly(ids.get("Spring"));
+        ArgumentCaptor<SqlParameterSource[]> inserted = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_LINK), inserted.capture());
+        assertThat(inserted.getValue()).hasSize(1);
+        assertThat(inserted.getValue()[0].getValue("tagId")).isEqualTo(ids.get("AI"));
+
+        assertThat(count("SELECT COUNT(*) FROM knowledge_tag WHERE knowledge_id = 1")).isEqualTo(2);
+    }
+
+    /**
+     * 【正常系】空のタグ一覧で置き換えると、すべての関連が削除されることを確認する。
+     */
+    @Test
+    void replaceTags_WithEmpty_ShouldRemoveAll() {
+        writer.replaceTags(2L, List.of("Java"));
+
+        writer.replaceTags(2L, List.of());
+
+        assertThat(count("SELECT COUNT(*) FROM knowledge_tag WHERE knowledge_id = 2")).isZero();
+    }
+
+    /**
+     * 【異常系】トランザクション内で解決した ID は、コミットされるまでキャッシュに登録されないことを確認する。
+     */
+    @Test
+    void resolveTagIds_InTransaction_ShouldCacheOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.resolveTagIds(List.of("Java", "Rollback"));
+            assertThat(writer.cachedCount()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+            assertThat(writer.cachedCount()).isEqualTo(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,139 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.SearchHitResponse;
+import com.ginga.naviai.knowledge.embedding.HashedTfIdfEmbedder;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.search.RetrievedChunk;
+import com.ginga.naviai.knowledge.search.SearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KnowledgeVectorSearchServiceTest {
+
+    private static final Instant UPDATED = Instant.parse("2026-02-10T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private KnowledgeRepository knowledgeRepository;
+    private List<SearchDocument> docs;
+
+    @BeforeEach
+    void setup() {
+        knowledgeRepository = mock(KnowledgeRepository.class);
+        docs = List.of(
+                new SearchDocument(1L, "機械学習入門", "この記事では機械学習の基礎を解説します。", "published", false, UPDATED),
+                new SearchDocument(2L, "Spring Boot", "REST API の作り方", "published", false, UPDATED),
+                new SearchDocument(3L, "PostgreSQL", "インデックスの設計", "published", false, UPDATED));
+        when(knowledgeRepository.findVisibleSearchDocumentsAfter(anyLong(), any())).thenAnswer(inv -> docs);
+        when(knowledgeRepository.findSearchDocumentsByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return docs.stream().filter(d -> ids.contains(d.getId())).toList();
+        });
+    }
+
+    /**
+     * 【正常系】全件から索引を作り、クエリに意味の近い記事が最も近いチャンクの抜粋付きで先頭に返ることを確認する。
+     */
+    @Test
+    void search_ShouldReturnNearestArticleFirst_AfterRebuild() {
+        KnowledgeVectorSearchService service = newService(knowledgeRepository);
+        service.initialize();
+
+        List<SearchHitResponse> hits = service.search("機械学習の基礎", 2);
+
+        assertThat(service.indexedChunkCount()).isEqualTo(3);
+        assertThat(hits).isNotEmpty();
+        assertThat(hits.get(0).getId()).isEqualTo("1");
+        assertThat(hits.get(0).getSnippet()).contains("機械学習の基礎");
+        assertThat(hits.size()).isLessThanOrEqualTo(2);
+    }
+
+    /**
+     * 【正常系】非公開になった記事は差分更新で索引から除かれ、スナップショットからの起動では全件再構築を行わないことを確認する。
+     */
+    @Test
+    void refresh_ShouldRemoveUnpublishedArticle_AndSnapshotAvoidsRebuild() {
+        KnowledgeVectorSearchService service = newService(knowledgeRepository);
+        service.initialize();
+
+        docs = List.of(docs.get(0),
+                new SearchDocument(2L, "Spring Boot", "REST API の作り方", "draft", false, UPDATED.plusSeconds(60)),
+                docs.get(2));
+        service.onKnowledgeChanged(new KnowledgeChangedEvent(2L, 9L,
+                new KnowledgeState("published", false, Set.of()),
+                new KnowledgeState("draft", false, Set.of())));
+        assertThat(service.refresh()).isEqualTo(1);
+
+        assertThat(service.indexedChunkCount()).isEqualTo(2);
+        assertThat(service.search("Spring Boot REST API", 10)).extracting(SearchHitResponse::getId).doesNotContain("2");
+
+        service.shutdown();
+        assertThat(Files.exists(dir.resolve("vector.idx"))).isTrue();
+        assertThat(Files.exists(dir.resolve("chunk-text.idx"))).isTrue();
+
+        KnowledgeRepository restartedRepo = mock(KnowledgeRepository.class);
+        when(restartedRepo.findSearchDocumentsUpdatedSince(any())).thenReturn(List.of());
+        when(restartedRepo.findVisibleIds()).thenReturn(List.of(1L, 3L));
+        KnowledgeVectorSearchService restarted = newService(restartedRepo);
+        restarted.initialize();
+
+        verify(restartedRepo, never()).findVisibleSearchDocumentsAfter(anyLong(), any());
+        assertThat(restarted.indexedChunkCount()).isEqualTo(2);
+    }
+
+    /**
+     * 【正常系】ハイブリッド検索で質問の語を含むチャンクが本文付きで先頭に返り、差分更新で索引の版数が進むことを確認する。
+     */
+    @Test
+    void retrieve_ShouldFuseLexicalAndVectorHits_AndBumpVersionOnRefresh() {
+        KnowledgeVectorSearchService service = newService(knowledgeRepository);
+        service.initialize();
+        long version = service.indexVersion();
+
+        List<RetrievedChunk> chunks = service.retrieve("PostgreSQL のインデックス設計は？", 2);
+
+        assertThat(chunks).isNotEmpty();
+        assertThat(chunks.size()).isLessThanOrEqualTo(2);
+        assertThat(chunks.get(0).getKnowledgeId()).isEqualTo(3L);
+        assertThat(chunks.get(0).getTitle()).isEqualTo("PostgreSQL");
+        assertThat(chunks.get(0).getText()).contains("インデックスの設計");
+
+        docs = List.of(docs.get(0), docs.get(1),
+                new SearchDocument(3L, "PostgreSQL", "パーティションの設計", "published", false, UPDATED.plusSeconds(60)));
+        service.onKnowledgeChanged(new KnowledgeChangedEvent(3L, 9L,
+                new KnowledgeState("published", false, Set.of()),
+                new KnowledgeState("published", false, Set.of())));
+        service.refresh();
+
+        assertThat(service.indexVersion()).isGreaterThan(version);
+        assertThat(service.retrieve("パーティション", 1)).extracting(RetrievedChunk::getKnowledgeId).containsExactly(3L);
+    }
+
+    private KnowledgeVectorSearchService newService(KnowledgeRepository repository) {
+        KnowledgeVectorSearchService service = new KnowledgeVectorSearchService(repository, new HashedTfIdfEmbedder(128));
+        ReflectionTestUtils.setField(service, "snapshotPath", dir.resolve("vector.idx").toString());
+        ReflectionTestUtils.setField(service, "textSnapshotPath", dir.resolve("chunk-text.idx").toString());
+        return service;
+    }
+}
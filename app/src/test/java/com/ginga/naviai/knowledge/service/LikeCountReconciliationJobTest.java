@@ -0,0 +1,66 @@
+package com.ginga.naviai.knowledge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikeCountReconciliationJobTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private LikeCountReconciliationJob job;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        job = new LikeCountReconciliationJob(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】実件数とずれている like_count のみが補正されることを確認する。
+     */
+    @Test
+    void reconcile_ShouldFixDriftedRowsOnly() {
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO knowledge (id, like_count) VALUES (1, 5)");  // 実件数 2
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO knowledge (id, like_count) VALUES (2, 1)");  // 実件数 1（ずれなし）
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO knowledge (id, like_count) VALUES (3, 0)");  // 実件数 1
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO \"like\" (id, knowledge_id, user_id) VALUES (1, 1, 10)");
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO \"like\" (id, knowledge_id, user_id) VALUES (2, 1, 11)");
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO \"like\" (id, knowledge_id, user_id) VALUES (3, 2, 10)");
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO \"like\" (id, knowledge_id, user_id) VALUES (4, 3, 10)");
+
+        int fixed = job.reconcile();
+
+        assertThat(fixed).isEqualTo(2);
+        assertThat(likeCountOf(1)).isEqualTo(2L);
+        assertThat(likeCountOf(2)).isEqualTo(1L);
+        assertThat(likeCountOf(3)).isEqualTo(1L);
+    }
+
+    /**
+     * 【正常系】ずれがない場合は更新が発生しないことを確認する。
+     */
+    @Test
+    void reconcile_ShouldReturnZero_WhenNoDrift() {
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO knowledge (id, like_count) VALUES (1, 0)");
+
+        assertThat(job.reconcile()).isZero();
+    }
+
+    private long likeCountOf(long id) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT like_count FROM knowledge WHERE id = ?", Long.class, id);
+    }
+}
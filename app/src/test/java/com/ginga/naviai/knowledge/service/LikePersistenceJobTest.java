@@ -0,0 +1,139 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeLikesChangedEvent;
+import com.ginga.naviai.knowledge.service.LikeRedisStore.LikePair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikePersistenceJobTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private LikeRedisStore store;
+    private LikePersistenceJob job;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO users (id) VALUES (1), (2), (3)");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO knowledge (id, author_id, like_count) VALUES (10, 7, 1), (20, 8, 0)");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO \"like\" (knowledge_id, user_id) VALUES (10, 1)");
+
+        store = mock(LikeRedisStore.class);
+        job = new LikePersistenceJob(store, jdbcTemplate, new DataSourceTransactionManager(db), events::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】取り出した組を Redis の現在の状態で INSERT / DELETE し、実際に増減した記事のみ
+     * like_count を更新してイベントを 1 回発行することを確認する。
+     */
+    @Test
+    void persist_ShouldWriteCurrentState_AndPublishNetDeltas() {
+        // (10,1) は取り消し、(10,2)・(20,3) はいいね、(20,9) は存在しないユーザー
+        givenDirty(List.of(pair(10, 2), pair(10, 1), pair(20, 3), pair(20, 9)), Set.of("10:2", "20:3", "20:9"));
+
+        assertThat(job.persist()).isEqualTo(4);
+
+        assertThat(likes()).containsExactly("10:2", "20:3");
+        // 記事 10 は +1 / -1 で相殺されるため更新しない
+        assertThat(likeCount(10)).isEqualTo(1);
+        assertThat(likeCount(20)).isEqualTo(1);
+        assertThat(events).hasSize(1);
+        KnowledgeLikesChangedEvent event = (KnowledgeLikesChangedEvent) events.get(0);
+        assertThat(event.getItems()).containsExactly(new KnowledgeLikesChangedEvent.Item(20L, 8L, 1));
+        // コミット後に処理中セットから削除する
+        verify(store).ackDirty(List.of(pair(10, 2), pair(10, 1), pair(20, 3), pair(20, 9)));
+    }
+
+    /**
+     * 【正常系】既に反映済みの組を再度書き込んでも行・件数は変わらず、イベントも発行しないことを確認する。
+     */
+    @Test
+    void persist_ShouldBeIdempotent() {
+        givenDirty(List.of(pair(10, 1), pair(20, 2)), Set.of("10:1"));
+
+        assertThat(job.persist()).isEqualTo(2);
+
+        assertThat(likes()).containsExactly("10:1");
+        assertThat(likeCount(10)).isEqualTo(1);
+        assertThat(likeCount(20)).isZero();
+        assertThat(events).isEmpty();
+    }
+
+    /**
+     * 【異常系】書き込みに失敗した場合はロールバックし、取り出した組を未反映セットへ戻すことを確認する。
+     */
+    @Test
+    void persist_ShouldRequeuePairs_WhenWriteFails() {
+        List<LikePair> pairs = List.of(pair(20, 1));
+        givenDirty(pairs, Set.of("20:1"));
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE knowledge");
+
+        assertThat(job.persist()).isZero();
+
+        verify(store).requeueDirty(pairs);
+        verify(store, never()).ackDirty(anyList());
+        assertThat(events).isEmpty();
+    }
+
+    /**
+     * 【正常系】未反映の組がなければ何も書き込まないことを確認する。
+     */
+    @Test
+    void persist_ShouldDoNothing_WhenNoDirtyPairs() {
+        when(store.claimDirty(anyInt())).thenReturn(List.of());
+
+        assertThat(job.persist()).isZero();
+
+        verify(store, never()).memberships(anyList());
+        assertThat(events).isEmpty();
+    }
+
+    private void givenDirty(List<LikePair> pairs, Set<String> liked) {
+        when(store.claimDirty(anyInt())).thenReturn(pairs, List.of());
+        when(store.memberships(anyList())).thenAnswer(inv -> {
+            List<LikePair> asked = inv.getArgument(0);
+            return asked.stream().map(p -> liked.contains(p.toMember())).collect(Collectors.toList());
+        });
+    }
+
+    private static LikePair pair(long knowledgeId, long userId) {
+        return new LikePair(knowledgeId, userId);
+    }
+
+    private List<String> likes() {
+        return jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT knowledge_id || ':' || user_id FROM \"like\" ORDER BY knowledge_id, user_id", String.class);
+    }
+
+    private long likeCount(long id) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT like_count FROM knowledge WHERE id = ?", Long.class, id);
+    }
+}
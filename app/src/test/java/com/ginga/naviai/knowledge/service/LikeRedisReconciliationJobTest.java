@@ -0,0 +1,63 @@
+package com.ginga.naviai.knowledge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeRedisReconciliationJobTest {
+
+    private EmbeddedDatabase db;
+    private LikeRedisStore store;
+    private LikeRedisReconciliationJob job;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO knowledge (id) VALUES (10), (20)");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO \"like\" (knowledge_id, user_id) VALUES (10, 1), (20, 2)");
+
+        store = mock(LikeRedisStore.class);
+        when(store.versions(anyList())).thenReturn(Arrays.asList("3", null));
+        when(store.rebuild(anyLong(), any(), any())).thenReturn(1L);
+        job = new LikeRedisReconciliationJob(store, mock(LikePersistenceJob.class), jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】DB へ未反映の変更（他ノードが書き込み中のものを含む）を持つ記事は DB の内容で置き換えず、
+     * それ以外の記事のみ修復することを確認する。
+     */
+    @Test
+    void reconcile_ShouldSkipArticlesWithUnpersistedLikes() {
+        when(store.pendingKnowledgeIds()).thenReturn(Set.of(10L));
+
+        assertThat(job.reconcile()).isEqualTo(1);
+
+        verify(store, never()).rebuild(eq(10L), any(), any());
+        verify(store).rebuild(20L, null, List.of(2L));
+    }
+}
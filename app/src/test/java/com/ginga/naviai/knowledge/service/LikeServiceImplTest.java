@@ -0,0 +1,113 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.LikeStatusResponse;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import com.ginga.naviai.knowledge.service.LikeRedisStore.LikeState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LikeServiceImplTest {
+
+    @Mock
+    private KnowledgeRepository knowledgeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LikeRedisStore store;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LikeServiceImpl likeService;
+
+    /**
+     * 【正常系】読み込み済みの記事へのいいねは Redis のみを更新し、DB にはアクセスしないことを確認する。
+     */
+    @Test
+    void like_ShouldApplyToRedis_WithoutDatabaseWrite() {
+        givenUserAndVisibleArticle();
+        when(store.apply(10L, 5L, true)).thenReturn(new LikeState(true, 3));
+
+        LikeStatusResponse response = likeService.like(10L, "alice");
+
+        assertThat(response.getKnowledgeId()).isEqualTo(10L);
+        assertThat(response.isLiked()).isTrue();
+        assertThat(response.getLikeCount()).isEqualTo(3);
+        verifyNoInteractions(jdbcTemplate);
+        verify(store, never()).load(anyLong(), any());
+    }
+
+    /**
+     * 【正常系】Redis に未読み込みの記事は DB からいいねを読み込んでから操作をやり直すことを確認する。
+     */
+    @Test
+    void unlike_ShouldLoadFromDatabase_WhenNotLoaded() {
+        givenUserAndVisibleArticle();
+        when(store.apply(10L, 5L, false)).thenReturn(null, new LikeState(false, 1));
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(5L, 6L));
+
+        LikeStatusResponse response = likeService.unlike(10L, "alice");
+
+        verify(store).load(10L, List.of(5L, 6L));
+        assertThat(response.isLiked()).isFalse();
+        assertThat(response.getLikeCount()).isEqualTo(1);
+    }
+
+    /**
+     * 【異常系】公開中でない記事へのいいねは 404 とし、Redis を更新しないことを確認する。
+     */
+    @Test
+    void like_ShouldThrowNotFound_WhenArticleNotVisible() {
+        when(userRepository.findIdByUsername("alice")).thenReturn(Optional.of(5L));
+        when(knowledgeRepository.existsByIdAndStatusAndDeletedFalse(10L, "published")).thenReturn(false);
+
+        assertThatThrownBy(() -> likeService.like(10L, "alice")).isInstanceOf(KnowledgeNotFoundException.class);
+        verify(store, never()).apply(anyLong(), anyLong(), anyBoolean());
+    }
+
+    /**
+     * 【正常系】いいね状態の取得は Redis の SET と件数を返すことを確認する。
+     */
+    @Test
+    void getStatus_ShouldReadFromRedis() {
+        givenUserAndVisibleArticle();
+        when(store.read(10L, 5L)).thenReturn(new LikeState(true, 42));
+
+        LikeStatusResponse response = likeService.getStatus(10L, "alice");
+
+        assertThat(response.isLiked()).isTrue();
+        assertThat(response.getLikeCount()).isEqualTo(42);
+    }
+
+    private void givenUserAndVisibleArticle() {
+        when(userRepository.findIdByUsername("alice")).thenReturn(Optional.of(5L));
+        when(knowledgeRepository.existsByIdAndStatusAndDeletedFalse(10L, "published")).thenReturn(true);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeBulkImportedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PendingReviewCounterTest {
+
+    @Mock
+    private KnowledgeRepository knowledgeRepository;
+
+    @InjectMocks
+    private PendingReviewCounter counter;
+
+    @BeforeEach
+    void setup() {
+        when(knowledgeRepository.findIdsByStatusAndDeletedFalse("pending")).thenReturn(List.of(10L, 11L, 12L));
+        counter.rebuild();
+    }
+
+    /**
+     * 【正常系】pending への出入り（申請・承認・削除）のみでカウンタが増減することを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldTrackPendingTransitions() {
+        counter.onKnowledgeChanged(changed(state("draft", false), state("pending", false)));
+        assertThat(counter.get()).isEqualTo(4L);
+
+        counter.onKnowledgeChanged(changed(state("pending", false), state("published", false)));
+        counter.onKnowledgeChanged(changed(state("pending", false), state("pending", true)));
+        assertThat(counter.get()).isEqualTo(2L);
+
+        // pending のままの更新・pending 以外同士の遷移は変化なし
+        counter.onKnowledgeChanged(changed(state("pending", false), state("pending", false)));
+        counter.onKnowledgeChanged(changed(state("published", false), state("declined", false)));
+        assertThat(counter.get()).isEqualTo(2L);
+    }
+
+    /**
+     * 【正常系】一括取り込みの pending 記事が加算され、再同期で DB の件数に戻ることを確認する。
+     */
+    @Test
+    void onBulkImported_ShouldAddPendingItems_AndRebuildResets() {
+        counter.onBulkImported(new KnowledgeBulkImportedEvent(List.of(
+                new KnowledgeBulkImportedEvent.Item(1L, 1L, state("pending", false), Instant.now()),
+                new KnowledgeBulkImportedEvent.Item(2L, 1L, state("published", false), Instant.now()))));
+        assertThat(counter.get()).isEqualTo(4L);
+
+        when(knowledgeRepository.findIdsByStatusAndDeletedFalse("pending")).thenReturn(List.of(10L));
+        counter.rebuild();
+        assertThat(counter.get()).isEqualTo(1L);
+    }
+
+    /**
+     * 【正常系】再同期の読み込み中に反映された変更が、読み込み結果に含まれていなくても失われないことを確認する。
+     */
+    @Test
+    void rebuild_ShouldKeepChangesMadeDuringLoad_WhenLoadDidNotSeeThem() {
+        when(knowledgeRepository.findIdsByStatusAndDeletedFalse("pending")).thenAnswer(inv -> {
+            // 読み込み後にコミットされた申請（読み込み結果には含まれない）
+            counter.onKnowledgeChanged(new KnowledgeChangedEvent(20L, 1L, state("draft", false), state("pending", false)));
+            return List.of(10L, 11L, 12L);
+        });
+
+        counter.rebuild();
+
+        assertThat(counter.get()).isEqualTo(4L);
+    }
+
+    /**
+     * 【正常系】再同期の読み込み結果に既に含まれている変更を二重に数えないことを確認する。
+     */
+    @Test
+    void rebuild_ShouldNotDoubleCount_WhenLoadAlreadySawChange() {
+        when(knowledgeRepository.findIdsByStatusAndDeletedFalse("pending")).thenAnswer(inv -> {
+            counter.onKnowledgeChanged(new KnowledgeChangedEvent(20L, 1L, state("draft", false), state("pending", false)));
+            counter.onKnowledgeChanged(new KnowledgeChangedEvent(10L, 1L, state("pending", false), state("published", false)));
+            // 読み込みは両方の変更のコミット後に行われた
+            return List.of(11L, 12L, 20L);
+        });
+
+        counter.rebuild();
+
+        assertThat(counter.get()).isEqualTo(3L);
+    }
+
+    private static KnowledgeState state(String status, boolean deleted) {
+        return new KnowledgeState(status, deleted, Set.of());
+    }
+
+    private static KnowledgeChangedEvent changed(KnowledgeState before, KnowledgeState after) {
+        return new KnowledgeChangedEvent(1L, 1L, before, after);
+    }
+}
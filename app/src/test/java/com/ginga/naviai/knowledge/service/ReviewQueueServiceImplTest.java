@@ -0,0 +1,165 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.auth.repository.UserRepository;
+import com.ginga.naviai.knowledge.dto.ReviewQueueItem;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.exception.KnowledgeNotFoundException;
+import com.ginga.naviai.knowledge.exception.ReviewClaimConflictException;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewQueueServiceImplTest {
+
+    /** 記事 10 の更新日時（担当時にレビュアーへ提示される submittedAt） */
+    private static final Instant P1_UPDATED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ReviewQueueServiceImpl service;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO users (id, username, display_name) VALUES "
+                + "(1, 'author', 'Author'), (2, 'rev1', 'Reviewer 1'), (3, 'rev2', 'Reviewer 2')");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO knowledge (id, author_id, title, status, is_deleted, updated_at) VALUES "
+                + "(10, 1, 'p1', 'pending', FALSE, TIMESTAMP WITH TIME ZONE '2026-01-01 00:00:00+00'), "
+                + "(11, 1, 'p2', 'pending', FALSE, TIMESTAMP WITH TIME ZONE '2026-01-02 00:00:00+00'), "
+                + "(12, 1, 'p3', 'pending', FALSE, TIMESTAMP WITH TIME ZONE '2026-01-03 00:00:00+00'), "
+                + "(13, 1, 'deleted', 'pending', TRUE, TIMESTAMP WITH TIME ZONE '2025-12-01 00:00:00+00'), "
+                + "(14, 1, 'draft', 'draft', FALSE, TIMESTAMP WITH TIME ZONE '2025-12-01 00:00:00+00')");
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findIdByUsername("rev1")).thenReturn(Optional.of(2L));
+        when(userRepository.findIdByUsername("rev2")).thenReturn(Optional.of(3L));
+        KnowledgeRepository knowledgeRepository = mock(KnowledgeRepository.class);
+        when(knowledgeRepository.findTagNamesByKnowledgeIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "Java"}));
+        service = new ReviewQueueServiceImpl(jdbcTemplate, userRepository, new KnowledgeTagLoader(knowledgeRepository), events::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】未担当の pending 記事が申請順に取得され、別のレビュアーには同じ記事が渡らないことを確認する。
+     */
+    @Test
+    void claimNext_ShouldHandOutDisjointItems_InSubmissionOrder() {
+        List<ReviewQueueItem> first = service.claimNext("rev1", 2);
+        List<ReviewQueueItem> second = service.claimNext("rev2", 5);
+
+        assertThat(first).extracting(ReviewQueueItem::getId).containsExactly(10L, 11L);
+        assertThat(first.get(0).getAuthorName()).isEqualTo("Author");
+        assertThat(first.get(0).getClaimExpiresAt()).isNotNull();
+        // 削除済み・下書きの記事は対象外
+        assertThat(second).extracting(ReviewQueueItem::getId).containsExactly(12L);
+        assertThat(service.claimNext("rev2", 5)).isEmpty();
+        assertThat(service.getClaims("rev1")).extracting(ReviewQueueItem::getId).containsExactly(10L, 11L);
+    }
+
+    /**
+     * 【正常系】担当期限が切れた記事は他のレビュアーが取得でき、元の担当者は承認できないことを確認する。
+     */
+    @Test
+    void claimNext_ShouldReclaimExpiredLease() {
+        service.claimNext("rev1", 1);
+        jdbcTemplate.getJdbcTemplate().execute("UPDATE knowledge SET review_claim_expires_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP) WHERE id = 10");
+
+        assertThat(service.claimNext("rev2", 1)).extracting(ReviewQueueItem::getId).containsExactly(10L);
+        assertThatThrownBy(() -> service.approve(10L, "rev1", P1_UPDATED_AT)).isInstanceOf(ReviewClaimConflictException.class);
+        assertThatThrownBy(() -> service.renew(10L, "rev1")).isInstanceOf(ReviewClaimConflictException.class);
+        assertThat(service.renew(10L, "rev2").getId()).isEqualTo(10L);
+    }
+
+    /**
+     * 【正常系】承認で published に遷移して担当が解放され、pending からの遷移イベントが発行されることを確認する。
+     */
+    @Test
+    void approve_ShouldPublish_AndEmitEvent() {
+        service.claimNext("rev1", 1);
+
+        service.approve(10L, "rev1", P1_UPDATED_AT);
+
+        Map<String, Object> row = jdbcTemplate.getJdbcTemplate().queryForMap(
+                "SELECT status, published_at, review_claimed_by FROM knowledge WHERE id = 10");
+        assertThat(row.get("STATUS")).isEqualTo("published");
+        assertThat(row.get("PUBLISHED_AT")).isNotNull();
+        assertThat(row.get("REVIEW_CLAIMED_BY")).isNull();
+        assertThat(events).hasSize(1);
+        KnowledgeChangedEvent event = (KnowledgeChangedEvent) events.get(0);
+        assertThat(event.getAuthorId()).isEqualTo(1L);
+        assertThat(event.getBefore().getStatus()).isEqualTo("pending");
+        assertThat(event.getAfter().isVisible()).isTrue();
+        assertThat(event.getAfter().getTags()).containsExactly("Java");
+        // 2 回目の承認は担当を保持していないため競合
+        assertThatThrownBy(() -> service.approve(10L, "rev1", P1_UPDATED_AT)).isInstanceOf(ReviewClaimConflictException.class);
+    }
+
+    /**
+     * 【正常系】差し戻しで declined に遷移し、解放後は他のレビュアーが担当できることを確認する。
+     */
+    @Test
+    void decline_AndRelease_ShouldUpdateState() {
+        service.claimNext("rev1", 2);
+
+        service.decline(10L, "rev1", P1_UPDATED_AT);
+        service.release(11L, "rev1");
+
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForObject("SELECT status FROM knowledge WHERE id = 10", String.class))
+                .isEqualTo("declined");
+        assertThat(((KnowledgeChangedEvent) events.get(0)).getAfter().getStatus()).isEqualTo("declined");
+        assertThat(service.claimNext("rev2", 1)).extracting(ReviewQueueItem::getId).containsExactly(11L);
+    }
+
+    /**
+     * 【異常系】担当していない記事の操作は競合、存在しない記事は 404 となることを確認する。
+     */
+    @Test
+    void approve_ShouldFail_WhenNotClaimed() {
+        service.claimNext("rev1", 1);
+
+        assertThatThrownBy(() -> service.decline(10L, "rev2", P1_UPDATED_AT)).isInstanceOf(ReviewClaimConflictException.class);
+        assertThatThrownBy(() -> service.approve(99L, "rev1", P1_UPDATED_AT)).isInstanceOf(KnowledgeNotFoundException.class);
+        assertThat(events).isEmpty();
+    }
+
+    /**
+     * 【異常系】担当後に記事が更新されている場合、提示時点の更新日時では承認できないことを確認する。
+     */
+    @Test
+    void approve_ShouldFail_WhenArticleChangedSinceClaim() {
+        Instant shown = service.claimNext("rev1", 1).get(0).getSubmittedAt();
+        assertThat(shown).isEqualTo(P1_UPDATED_AT);
+        jdbcTemplate.getJdbcTemplate().execute(
+                "UPDATE knowledge SET updated_at = TIMESTAMP WITH TIME ZONE '2026-01-05 00:00:00+00' WHERE id = 10");
+
+        assertThatThrownBy(() -> service.approve(10L, "rev1", shown)).isInstanceOf(ReviewClaimConflictException.class);
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForObject("SELECT status FROM knowledge WHERE id = 10", String.class))
+                .isEqualTo("pending");
+        assertThat(events).isEmpty();
+    }
+}
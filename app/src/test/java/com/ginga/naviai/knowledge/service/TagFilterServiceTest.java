@@ -0,0 +1,89 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TagFilterServiceTest {
+
+    @Mock
+    private KnowledgeRepository knowledgeRepository;
+
+    @InjectMocks
+    private TagFilterService tagFilterService;
+
+    @BeforeEach
+    void setup() {
+        List<Object[]> states = new ArrayList<>();
+        states.add(new Object[]{1L, "published", false});
+        states.add(new Object[]{2L, "published", false});
+        states.add(new Object[]{3L, "draft", false});
+        List<Object[]> tags = new ArrayList<>();
+        tags.add(new Object[]{1L, "Java"});
+        tags.add(new Object[]{2L, "Java"});
+        tags.add(new Object[]{2L, "AI"});
+        tags.add(new Object[]{3L, "Java"});
+        when(knowledgeRepository.findAllIndexStates()).thenReturn(states);
+        when(knowledgeRepository.findAllTagAssignments()).thenReturn(tags);
+        tagFilterService.rebuild();
+    }
+
+    /**
+     * 【正常系】DB から構築したインデックスで公開中の記事のみが絞り込まれることを確認する。
+     */
+    @Test
+    void rebuild_ShouldLoadStatesAndTags() {
+        assertThat(tagFilterService.filter(Set.of("Java"), true, Set.of(), 0, 10).getIds()).containsExactly(2L, 1L);
+        assertThat(tagFilterService.filter(Set.of("Java", "AI"), true, Set.of(), 0, 10).getIds()).containsExactly(2L);
+    }
+
+    /**
+     * 【正常系】公開・タグ変更・論理削除のイベントが絞り込み結果に反映されることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldApplyAfterState() {
+        tagFilterService.onKnowledgeChanged(new KnowledgeChangedEvent(3L, 9L,
+                new KnowledgeState("draft", false, Set.of("Java")), new KnowledgeState("published", false, Set.of("Java", "AI"))));
+        assertThat(tagFilterService.filter(Set.of("AI"), true, Set.of(), 0, 10).getIds()).containsExactly(3L, 2L);
+
+        tagFilterService.onKnowledgeChanged(new KnowledgeChangedEvent(2L, 9L,
+                new KnowledgeState("published", false, Set.of("Java", "AI")), new KnowledgeState("published", true, Set.of("Java", "AI"))));
+        tagFilterService.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 9L,
+                new KnowledgeState("published", false, Set.of("Java")), null));
+
+        assertThat(tagFilterService.filter(Set.of("Java"), false, Set.of(), 0, 10).getIds()).containsExactly(3L);
+    }
+
+    /**
+     * 【正常系】再構築の読み込み中に受け取った変更が、差し替え後のインデックスにも残ることを確認する。
+     */
+    @Test
+    void rebuild_ShouldKeepChangesAppliedDuringRebuild() {
+        List<Object[]> tags = new ArrayList<>();
+        tags.add(new Object[]{1L, "Java"});
+        when(knowledgeRepository.findAllTagAssignments()).thenAnswer(inv -> {
+            // 読み込み済みの状態より新しい変更（記事 3 の公開）が届く
+            tagFilterService.onKnowledgeChanged(new KnowledgeChangedEvent(3L, 9L,
+                    new KnowledgeState("draft", false, Set.of("Java")), new KnowledgeState("published", false, Set.of("Java"))));
+            return tags;
+        });
+
+        tagFilterService.rebuild();
+
+        assertThat(tagFilterService.filter(Set.of("Java"), true, Set.of(), 0, 10).getIds()).containsExactly(3L, 1L);
+    }
+}
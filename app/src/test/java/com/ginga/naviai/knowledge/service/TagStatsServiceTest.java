@@ -0,0 +1,161 @@
+package com.ginga.naviai.knowledge.service;
+
+import com.ginga.naviai.knowledge.dto.TagCloudItem;
+import com.ginga.naviai.knowledge.dto.TagUsage;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent;
+import com.ginga.naviai.knowledge.event.KnowledgeChangedEvent.KnowledgeState;
+import com.ginga.naviai.knowledge.repository.KnowledgeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TagStatsServiceTest {
+
+    @Mock
+    private KnowledgeRepository knowledgeRepository;
+
+    @InjectMocks
+    private TagStatsService tagStatsService;
+
+    @BeforeEach
+    void setup() {
+        // Java: 5件, AI: 3件, Spring: 3件, SQL: 1件
+        when(knowledgeRepository.findVisibleTagAssignments()).thenReturn(assignments());
+        tagStatsService.rebuild();
+    }
+
+    private static List<Object[]> assignments() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            rows.add(new Object[]{id, "Java"});
+        }
+        rows.add(new Object[]{1L, "SQL"});
+        for (long id = 2; id <= 4; id++) {
+            rows.add(new Object[]{id, "AI"});
+        }
+        rows.add(new Object[]{2L, "Spring"});
+        rows.add(new Object[]{3L, "Spring"});
+        rows.add(new Object[]{5L, "Spring"});
+        return rows;
+    }
+
+    /**
+     * 【正常系】上位N件が件数降順・同数はタグ名昇順で返ることを確認する。
+     */
+    @Test
+    void getTopTags_ShouldReturnTopNOrderedByCount() {
+        List<TagUsage> top = tagStatsService.getTopTags(3);
+
+        assertThat(top).extracting(TagUsage::getTag).containsExactly("Java", "AI", "Spring");
+        assertThat(top).extracting(TagUsage::getCount).containsExactly(5L, 3L, 3L);
+    }
+
+    /**
+     * 【正常系】公開記事へのタグ追加・削除がカウンタに反映されることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldApplyTagDiff() {
+        KnowledgeState before = new KnowledgeState("published", false, Set.of("Java", "SQL"));
+        KnowledgeState after = new KnowledgeState("published", false, Set.of("Java", "Docker"));
+
+        tagStatsService.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 1L, before, after));
+
+        assertThat(countOf("Java")).isEqualTo(5L);
+        assertThat(countOf("Docker")).isEqualTo(1L);
+        // 件数 0 になったタグは集計対象から外れる
+        assertThat(countOf("SQL")).isNull();
+    }
+
+    /**
+     * 【正常系】論理削除・非公開化された記事のタグは減算され、公開時に加算されることを確認する。
+     */
+    @Test
+    void onKnowledgeChanged_ShouldRespectVisibility() {
+        KnowledgeState published = new KnowledgeState("published", false, Set.of("AI"));
+        KnowledgeState deleted = new KnowledgeState("published", true, Set.of("AI"));
+        KnowledgeState draft = new KnowledgeState("draft", false, Set.of("AI"));
+
+        tagStatsService.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 1L, published, deleted));
+        assertThat(countOf("AI")).isEqualTo(2L);
+
+        // 下書きのまま新規作成されても加算しない
+        tagStatsService.onKnowledgeChanged(new KnowledgeChangedEvent(2L, 1L, null, draft));
+        assertThat(countOf("AI")).isEqualTo(2L);
+
+        tagStatsService.onKnowledgeChanged(new KnowledgeChangedEvent(2L, 1L, draft, published));
+        assertThat(countOf("AI")).isEqualTo(3L);
+    }
+
+    /**
+     * 【正常系】再同期の読み込み中に反映された変更が、読み込み結果に含まれていなくても失われないことを確認する。
+     */
+    @Test
+    void rebuild_ShouldKeepChangesMadeDuringLoad_WhenLoadDidNotSeeThem() {
+        KnowledgeState published = new KnowledgeState("published", false, Set.of("Docker"));
+        when(knowledgeRepository.findVisibleTagAssignments()).thenAnswer(inv -> {
+            // 読み込み後にコミットされた新規公開記事（読み込み結果には含まれない）
+            tagStatsService.onKnowledgeChanged(new KnowledgeChangedEvent(6L, 1L, null, published));
+            return assignments();
+        });
+
+        tagStatsService.rebuild();
+
+        assertThat(countOf("Docker")).isEqualTo(1L);
+        assertThat(countOf("Java")).isEqualTo(5L);
+    }
+
+    /**
+     * 【正常系】再同期の読み込み結果に既に含まれている変更を二重に計上しないことを確認する。
+     */
+    @Test
+    void rebuild_ShouldNotDoubleCount_WhenLoadAlreadySawChange() {
+        KnowledgeState before = new KnowledgeState("published", false, Set.of("Java", "SQL"));
+        KnowledgeState after = new KnowledgeState("published", false, Set.of("Java", "Docker"));
+        when(knowledgeRepository.findVisibleTagAssignments()).thenAnswer(inv -> {
+            tagStatsService.onKnowledgeChanged(new KnowledgeChangedEvent(1L, 1L, before, after));
+            // 読み込みは変更のコミット後に行われ、記事1は既に Java, Docker
+            List<Object[]> rows = assignments();
+            rows.removeIf(r -> r[0].equals(1L) && r[1].equals("SQL"));
+            rows.add(new Object[]{1L, "Docker"});
+            return rows;
+        });
+
+        tagStatsService.rebuild();
+
+        assertThat(countOf("Docker")).isEqualTo(1L);
+        assertThat(countOf("SQL")).isNull();
+        assertThat(countOf("Java")).isEqualTo(5L);
+    }
+
+    /**
+     * 【正常系】タグクラウドの重みが最多タグを 1.0 とした相対値になることを確認する。
+     */
+    @Test
+    void getTagCloud_ShouldReturnAllTagsWithRelativeWeight() {
+        List<TagCloudItem> cloud = tagStatsService.getTagCloud();
+
+        assertThat(cloud).hasSize(4);
+        assertThat(cloud.get(0).getTag()).isEqualTo("Java");
+        assertThat(cloud.get(0).getWeight()).isEqualTo(1.0);
+        assertThat(cloud.get(3).getWeight()).isEqualTo(0.2);
+    }
+
+    private Long countOf(String tag) {
+        return tagStatsService.getTopTags(100).stream()
+                .filter(t -> t.getTag().equals(tag))
+                .map(TagUsage::getCount)
+                .findFirst()
+                .orElse(null);
+    }
+}
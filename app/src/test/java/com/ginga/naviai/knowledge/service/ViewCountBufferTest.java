@@ -0,0 +1,106 @@
+package com.ginga.naviai.knowledge.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ViewCountBufferTest {
+
+    private EmbeddedDatabase db;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ViewCountBuffer buffer;
+
+    @BeforeEach
+    void setup() {
+        db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+                .addScript("schema/h2-schema.sql").build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(db);
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO knowledge (id, view_count) VALUES (1, 100), (2, 0)");
+        buffer = new ViewCountBuffer(jdbcTemplate, new DataSourceTransactionManager(db));
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    /**
+     * 【正常系】閲覧は DB に書き込まずに集約され、書き込み時に記事ごとの増分がまとめて加算されることを確認する。
+     */
+    @Test
+    void flush_ShouldAddAccumulatedDeltas() {
+        buffer.record(1L);
+        buffer.record(1L);
+        buffer.record(2L);
+
+        assertThat(viewCount(1L)).isEqualTo(100);
+        assertThat(buffer.pending(1L)).isEqualTo(2);
+
+        assertThat(buffer.flush()).isEqualTo(2);
+        assertThat(viewCount(1L)).isEqualTo(102);
+        assertThat(viewCount(2L)).isEqualTo(1);
+        assertThat(buffer.pending(1L)).isZero();
+        // 増分がなければ何も書き込まない
+        assertThat(buffer.flush()).isZero();
+    }
+
+    /**
+     * 【正常系】閲覧の記録と書き込みが並行しても、閲覧数が失われないことを確認する。
+     */
+    @Test
+    void record_ShouldNotLoseIncrements_WhileFlushing() throws Exception {
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    buffer.record(1L);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        while (!pool.awaitTermination(10, TimeUnit.MILLISECONDS)) {
+            buffer.flush();
+        }
+        buffer.shutdown();
+
+        assertThat(viewCount(1L)).isEqualTo(100 + (long) threads * perThread);
+    }
+
+    /**
+     * 【異常系】書き込みに失敗した増分はカウンタに戻され、次回の書き込みで反映されることを確認する。
+     */
+    @Test
+    void flush_ShouldKeepDeltas_WhenUpdateFails() {
+        buffer.record(1L);
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE knowledge RENAME TO knowledge_tmp");
+
+        assertThat(buffer.flush()).isZero();
+        assertThat(buffer.pending(1L)).isEqualTo(1);
+
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE knowledge_tmp RENAME TO knowledge");
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(viewCount(1L)).isEqualTo(101);
+    }
+
+    private long viewCount(long id) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT view_count FROM knowledge WHERE id = ?", Long.class, id);
+    }
+}
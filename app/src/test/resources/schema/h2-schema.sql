@@ -0,0 +1,84 @@
+-- H2 schema shared by JDBC-level tests (EmbeddedDatabaseBuilder#addScript("schema/h2-schema.sql")).
+-- Mirrors db/migration V1..V10 for the tables the tests touch. Differences from PostgreSQL:
+--   * no foreign keys, so tests can insert only the rows they need
+--   * NOT NULL is dropped on users columns the tests do not populate (email, password_hash)
+--   * PostgreSQL-only objects (generated search columns, partial/GIN indexes) are omitted
+-- Keep in sync when a migration changes one of these tables.
+
+CREATE TABLE users (
+   id BIGINT AUTO_INCREMENT PRIMARY KEY,
+   username VARCHAR(30) UNIQUE,
+   email VARCHAR(254),
+   password_hash VARCHAR(255),
+   display_name VARCHAR(100),
+   enabled BOOLEAN NOT NULL DEFAULT TRUE,
+   created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+   updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE knowledge (
+   id BIGINT AUTO_INCREMENT PRIMARY KEY,
+   author_id BIGINT,
+   title VARCHAR(500) NOT NULL DEFAULT '',
+   body TEXT,
+   excerpt VARCHAR(255),
+   thumbnail VARCHAR(255),
+   status VARCHAR(20) NOT NULL DEFAULT 'draft',
+   is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   published_at TIMESTAMP WITH TIME ZONE,
+   like_count BIGINT NOT NULL DEFAULT 0,
+   view_count BIGINT NOT NULL DEFAULT 0,
+   comment_count BIGINT NOT NULL DEFAULT 0,
+   review_claimed_by BIGINT,
+   review_claim_expires_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE tag (
+   id BIGINT AUTO_INCREMENT PRIMARY KEY,
+   name VARCHAR(100) NOT NULL UNIQUE,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE knowledge_tag (
+   knowledge_id BIGINT NOT NULL,
+   tag_id BIGINT NOT NULL,
+   PRIMARY KEY (knowledge_id, tag_id)
+);
+
+CREATE TABLE comment (
+   id BIGINT AUTO_INCREMENT PRIMARY KEY,
+   knowledge_id BIGINT NOT NULL,
+   author_id BIGINT,
+   body TEXT NOT NULL,
+   parent_comment_id BIGINT,
+   is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE "like" (
+   id BIGINT AUTO_INCREMENT PRIMARY KEY,
+   knowledge_id BIGINT NOT NULL,
+   user_id BIGINT NOT NULL,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   UNIQUE (knowledge_id, user_id)
+);
+
+CREATE TABLE author_stats (
+   author_id BIGINT PRIMARY KEY,
+   post_count BIGINT NOT NULL DEFAULT 0,
+   likes_received BIGINT NOT NULL DEFAULT 0,
+   comments_received BIGINT NOT NULL DEFAULT 0,
+   pending_reviews BIGINT NOT NULL DEFAULT 0,
+   updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE author_activity_daily (
+   author_id BIGINT NOT NULL,
+   activity_date DATE NOT NULL,
+   posts INT NOT NULL DEFAULT 0,
+   likes INT NOT NULL DEFAULT 0,
+   comments INT NOT NULL DEFAULT 0,
+   PRIMARY KEY (author_id, activity_date)
+);